@@ -618,29 +618,36 @@ $function$;
 CREATE OR REPLACE FUNCTION set_project_last_modified()
     RETURNS TRIGGER AS
 $body$
-DECLARE
-    expedition_id int;
 BEGIN
     IF TG_WHEN <> 'AFTER'
     THEN
         RAISE EXCEPTION 'set_project_last_modified() may only run as an AFTER trigger';
     END IF;
 
-    IF TG_LEVEL = 'STATEMENT'
+    IF TG_LEVEL = 'ROW'
     THEN
-        RAISE EXCEPTION 'set_project_last_modified() does not support being a STATEMENT trigger';
+        RAISE EXCEPTION 'set_project_last_modified() does not support being a ROW trigger';
     END IF;
 
-    IF TG_OP = 'DELETE'
+    -- transition tables are named new_rows & old_rows when the triggers are created
+    IF TG_OP = 'INSERT'
     THEN
-        expedition_id = OLD.expedition_id;
-    ELSE
-        expedition_id = NEW.expedition_id;
-    end if;
-
-    EXECUTE
-                'UPDATE projects set latest_data_modification = CURRENT_TIMESTAMP where id = (select project_id from expeditions where id = '
-                || quote_literal(expedition_id) || ')';
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id FROM expeditions WHERE id IN (SELECT DISTINCT expedition_id FROM new_rows));
+    ELSIF TG_OP = 'UPDATE'
+    THEN
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id
+                     FROM expeditions
+                     WHERE id IN (SELECT expedition_id FROM new_rows UNION SELECT expedition_id FROM old_rows));
+    ELSIF TG_OP = 'DELETE'
+    THEN
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id FROM expeditions WHERE id IN (SELECT DISTINCT expedition_id FROM old_rows));
+    END IF;
 
     RETURN NULL;
 END;
@@ -649,7 +656,10 @@ $body$
     SECURITY DEFINER;
 
 COMMENT ON FUNCTION set_project_last_modified() IS $body$
-Update the project's latest_data_modification timestamp when a record is inserted, updated, or deleted.
+Update the project's latest_data_modification timestamp when records are inserted, updated, or deleted.
+
+This is a STATEMENT trigger and requires the transition tables new_rows (INSERT & UPDATE) and old_rows (UPDATE & DELETE).
+Each project is updated once per statement, regardless of the number of records modified.
 $body$;
 
 CREATE OR REPLACE FUNCTION entity_history()
@@ -658,20 +668,20 @@ $body$
 DECLARE
     audit_table_name   TEXT;
     audit_session_user TEXT;
-    row_data           JSONB;
-    changed_fields     JSONB;
+    table_name         TEXT;
 BEGIN
     IF TG_WHEN <> 'AFTER'
     THEN
         RAISE EXCEPTION 'entity_history() may only run as an AFTER trigger';
     END IF;
 
-    IF TG_LEVEL = 'STATEMENT'
+    IF TG_LEVEL = 'ROW'
     THEN
-        RAISE EXCEPTION 'entity_history() does not support being a STATEMENT trigger';
+        RAISE EXCEPTION 'entity_history() does not support being a ROW trigger';
     END IF;
 
-    audit_table_name = TG_TABLE_SCHEMA :: TEXT || '.audit_table';
+    audit_table_name = quote_ident(TG_TABLE_SCHEMA :: TEXT) || '.audit_table';
+    table_name = TG_TABLE_SCHEMA :: TEXT || '.' || TG_TABLE_NAME :: TEXT;
 
     audit_session_user = get_fims_user();
     IF NULLIF(audit_session_user, '') IS NULL
@@ -679,33 +689,34 @@ BEGIN
         audit_session_user = 'postgres_role: ' || session_user :: TEXT;
     END IF;
 
+    -- transition tables are named new_rows & old_rows when the triggers are created
     IF TG_OP = 'UPDATE'
     THEN
-        row_data = to_jsonb(OLD.*) - 'tsv' - 'changed' - 'modified';
-        changed_fields = jsonb_diff_val(to_jsonb(NEW.*) - 'tsv' - 'changed' - 'modified', row_data);
-        IF changed_fields = '{}' :: JSONB
-        THEN
-            -- All changed fields are ignored. Skip this update.
-            RETURN NULL;
-        END IF;
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data, changed_fields) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''U'', c.row_data, c.changed_fields FROM (' ||
+                '  SELECT o.row_data, jsonb_diff_val(to_jsonb(n.*) - ''tsv'' - ''changed'' - ''modified'', o.row_data) AS changed_fields ' ||
+                '  FROM (SELECT id, to_jsonb(old_rows.*) - ''tsv'' - ''changed'' - ''modified'' AS row_data FROM old_rows) AS o ' ||
+                '  INNER JOIN new_rows AS n ON n.id = o.id' ||
+                ') AS c ' ||
+                -- All changed fields are ignored. Skip this update.
+                'WHERE c.changed_fields <> ''{}'' :: JSONB'
+            USING table_name, audit_session_user;
     ELSIF TG_OP = 'DELETE'
     THEN
-        row_data = to_jsonb(OLD.*) - 'tsv' - 'changed' - 'modified';
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''D'', to_jsonb(old_rows.*) - ''tsv'' - ''changed'' - ''modified'' ' ||
+                'FROM old_rows'
+            USING table_name, audit_session_user;
     ELSIF TG_OP = 'INSERT'
     THEN
-        row_data = to_jsonb(NEW.*) - 'tsv' - 'changed' - 'modified';
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''I'', to_jsonb(new_rows.*) - ''tsv'' - ''changed'' - ''modified'' ' ||
+                'FROM new_rows'
+            USING table_name, audit_session_user;
     ELSE
         RAISE EXCEPTION '[entity_history] - Trigger func added as trigger for unhandled case: %, %', TG_OP, TG_LEVEL;
-        RETURN NULL;
     END IF;
 
-    EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data, changed_fields) ' ||
-            'VALUES (' || quote_literal(TG_TABLE_SCHEMA :: TEXT || '.' || TG_TABLE_NAME :: TEXT) || ', ' ||
-            quote_literal(audit_session_user)
-                || ', CURRENT_TIMESTAMP, ' || quote_literal(substring(TG_OP, 1, 1)) || ', ' ||
-            quote_literal(row_data) || ', '
-                || quote_nullable(changed_fields) || ')';
-
     RETURN NULL;
 END;
 $body$
@@ -717,6 +728,9 @@ Track changes to a table at the row level.
 
 This will create an entry in the SCHEMA.audit_table for each row that is updated, inserted, or deleted.
 This is useful for creating a history of all changes to entities.
+
+This is a STATEMENT trigger and requires the transition tables new_rows (INSERT & UPDATE) and old_rows (UPDATE & DELETE).
+All rows modified by a statement are written to the audit_table w/ a single insert.
 $body$;
 
 /**
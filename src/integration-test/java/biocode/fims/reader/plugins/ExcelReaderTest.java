@@ -11,10 +11,15 @@ import biocode.fims.records.RecordMetadata;
 import biocode.fims.records.RecordSet;
 import biocode.fims.reader.DataReader;
 import biocode.fims.reader.TabularDataReaderType;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -221,6 +226,40 @@ public class ExcelReaderTest {
         assertTrue(tissuesRecord.has("urn:container"));
     }
 
+    @Test
+    public void should_evaluate_formulas_without_cached_results() throws Exception {
+        // POI does not save a cached result for formulas which have not been evaluated
+        File excelFile = File.createTempFile("uncachedFormulaDataset", ".xlsx");
+        excelFile.deleteOnExit();
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream os = new FileOutputStream(excelFile)) {
+            XSSFSheet sheet = workbook.createSheet("samples");
+            XSSFRow header = sheet.createRow(0);
+            header.createCell(0).setCellValue("sampleID");
+            header.createCell(1).setCellValue("species");
+
+            for (int i = 1; i <= 2; i++) {
+                XSSFRow row = sheet.createRow(i);
+                row.createCell(0).setCellValue(String.valueOf(i));
+                row.createCell(1).setCellFormula("\"species\"&A" + (i + 1));
+            }
+
+            workbook.write(os);
+        }
+
+        DataReader reader = new ExcelReader(excelFile, getSingleEntityConfig(), new RecordMetadata(TabularDataReaderType.READER_TYPE, false));
+
+        List<RecordSet> recordSets = reader.getRecordSets();
+
+        assertEquals(1, recordSets.size());
+        List<Record> records = recordSets.get(0).records();
+        assertEquals(2, records.size());
+        assertEquals("1", records.get(0).get("urn:sampleID"));
+        assertEquals("species1", records.get(0).get("urn:species"));
+        assertEquals("2", records.get(1).get("urn:sampleID"));
+        assertEquals("species2", records.get(1).get("urn:species"));
+    }
+
     private ProjectConfig getSingleEntityConfig() {
         ProjectConfig config = new ProjectConfig();
 
@@ -0,0 +1,150 @@
+package biocode.fims.repositories;
+
+import biocode.fims.models.EntityIdentifier;
+import biocode.fims.models.Expedition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link EntityIdentifierRepositoryImpl} against a postgres database, see {@link PostgresTestDatabase}
+ *
+ * @author rjewing
+ */
+public class EntityIdentifierRepositoryImplTest {
+    private static final List<String> CONCEPT_ALIASES = Arrays.asList("event", "sample");
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager em;
+    private EntityIdentifierRepositoryImpl repository;
+
+    @Before
+    public void setUp() {
+        PostgresTestDatabase.assumeAvailable();
+
+        dataSource = PostgresTestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        entityManagerFactory = PostgresTestDatabase.createJpaSchema(dataSource);
+        em = entityManagerFactory.createEntityManager();
+
+        repository = new EntityIdentifierRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "em", em);
+
+        for (int userId = 1; userId <= 2; userId++) {
+            jdbcTemplate.update(
+                    "INSERT INTO users (id, username, password, email, first_name, last_name, institution) " +
+                            "VALUES (?, ?, 'password', ?, 'first', 'last', 'institution')",
+                    userId, "user" + userId, "user" + userId + "@example.com"
+            );
+        }
+        jdbcTemplate.update("INSERT INTO networks (id, user_id, title) VALUES (1, 1, 'network')");
+        jdbcTemplate.update(
+                "INSERT INTO projects (id, project_title, public, discoverable, enforce_expedition_access, network_id, user_id) " +
+                        "VALUES (1, 'project', true, true, true, 1, 1)"
+        );
+    }
+
+    @After
+    public void tearDown() {
+        if (dataSource == null) return;
+
+        em.close();
+        entityManagerFactory.close();
+        PostgresTestDatabase.dropSchemas(jdbcTemplate);
+        dataSource.destroy();
+    }
+
+    @Test
+    public void should_insert_identifiers_for_expeditions_of_multiple_users() {
+        List<Expedition> expeditions = createExpeditions(3);
+
+        insert(expeditions);
+
+        assertStoredIdentifiers(expeditions);
+    }
+
+    @Test
+    public void should_insert_more_identifiers_than_batch_size() {
+        // 251 expeditions * 2 entities = 1 full batch + a partial batch
+        List<Expedition> expeditions = createExpeditions(251);
+
+        insert(expeditions);
+
+        assertStoredIdentifiers(expeditions);
+    }
+
+    @Test
+    public void should_not_insert_empty_list() {
+        em.getTransaction().begin();
+        repository.insert(Collections.emptyList());
+        em.getTransaction().commit();
+
+        assertEquals(0, (int) jdbcTemplate.queryForObject("SELECT count(*) FROM entity_identifiers", Integer.class));
+    }
+
+    /**
+     * create expeditions alternating between user 1 & 2
+     */
+    private List<Expedition> createExpeditions(int count) {
+        jdbcTemplate.update(
+                "INSERT INTO expeditions (id, expedition_code, public, visibility, project_id, user_id) " +
+                        "SELECT i, 'exp' || i, true, 'EXPEDITION', 1, 1 + i % 2 FROM generate_series(1, ?) AS i",
+                count
+        );
+
+        List<Expedition> expeditions = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            expeditions.add(em.find(Expedition.class, i));
+        }
+        return expeditions;
+    }
+
+    private void insert(List<Expedition> expeditions) {
+        List<EntityIdentifier> identifiers = new ArrayList<>();
+        for (Expedition e : expeditions) {
+            for (String conceptAlias : CONCEPT_ALIASES) {
+                identifiers.add(new EntityIdentifier(e, conceptAlias, identifier(e, conceptAlias)));
+            }
+        }
+
+        em.getTransaction().begin();
+        repository.insert(identifiers);
+        em.getTransaction().commit();
+    }
+
+    private void assertStoredIdentifiers(List<Expedition> expeditions) {
+        Map<String, String> expected = new HashMap<>();
+        for (Expedition e : expeditions) {
+            for (String conceptAlias : CONCEPT_ALIASES) {
+                expected.put(e.getExpeditionId() + ":" + conceptAlias, identifier(e, conceptAlias).toString());
+            }
+        }
+
+        Map<String, String> actual = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT expedition_id, concept_alias, identifier FROM entity_identifiers",
+                rs -> {
+                    String previous = actual.put(rs.getInt("expedition_id") + ":" + rs.getString("concept_alias"), rs.getString("identifier"));
+                    assertEquals(null, previous);
+                }
+        );
+
+        assertEquals(expected, actual);
+    }
+
+    private URI identifier(Expedition expedition, String conceptAlias) {
+        return URI.create("ark:/99999/u" + expedition.getUser().getUserId() + "/" + expedition.getExpeditionCode() + "/" + conceptAlias);
+    }
+}
@@ -0,0 +1,447 @@
+package biocode.fims.repositories;
+
+import biocode.fims.application.config.FimsProperties;
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.network.NetworkConfig;
+import biocode.fims.models.Network;
+import biocode.fims.query.PostgresUtils;
+import biocode.fims.query.dsl.Query;
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.GenericRecordRowMapper;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSources;
+import biocode.fims.records.RecordSet;
+import biocode.fims.rest.responses.PaginatedResponse;
+import biocode.fims.run.Dataset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+import static biocode.fims.repositories.PostgresTestDatabase.NETWORK_ID;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link PostgresRecordRepository} against a postgres database, see {@link PostgresTestDatabase}
+ *
+ * @author rjewing
+ */
+public class PostgresRecordRepositoryTest {
+    private static final int PROJECT_ID = 1;
+    private static final String EXPEDITION_CODE = "exp1";
+    private static final String OTHER_EXPEDITION_CODE = "exp2";
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private MockEnvironment environment;
+    private RecordRepository repository;
+    private DefaultEntity event;
+    private DefaultEntity sample;
+
+    @Before
+    public void setUp() {
+        PostgresTestDatabase.assumeAvailable();
+
+        dataSource = PostgresTestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        environment = new MockEnvironment();
+
+        event = new DefaultEntity("event", "urn:event");
+        event.addAttribute(new Attribute("eventId", "urn:eventId"));
+        event.addAttribute(new Attribute("location", "urn:location"));
+        event.setUniqueKey("eventId");
+
+        sample = new DefaultEntity("sample", "urn:sample");
+        sample.addAttribute(new Attribute("sampleId", "urn:sampleId"));
+        sample.addAttribute(new Attribute("eventId", "urn:eventId"));
+        sample.addAttribute(new Attribute("notes", "urn:notes"));
+        sample.setUniqueKey("sampleId");
+        sample.setParentEntity(event.getConceptAlias());
+
+        PostgresTestDatabase.createSchemas(jdbcTemplate);
+        PostgresTestDatabase.createEntityTable(jdbcTemplate, event);
+        PostgresTestDatabase.createEntityTable(jdbcTemplate, sample);
+        PostgresTestDatabase.createExpedition(jdbcTemplate, PROJECT_ID, EXPEDITION_CODE, true);
+        PostgresTestDatabase.createExpedition(jdbcTemplate, PROJECT_ID, OTHER_EXPEDITION_CODE, true);
+
+        repository = transactional(recordRepository());
+    }
+
+    @After
+    public void tearDown() {
+        if (dataSource == null) return;
+
+        PostgresTestDatabase.dropSchemas(jdbcTemplate);
+        dataSource.destroy();
+    }
+
+    @Test
+    public void should_bulk_load_same_records_as_batch_insert() {
+        String[] values = {
+                "has \"quotes\"", "has, commas", "has\nnewlines\r\n", "has \\ backslashes \\N", "\"", ",", "",
+                "tab\tseparated", "unicode é 漢 😀", "{\"json\": [1, 2]}", "\\.", "trailing \\"
+        };
+
+        Dataset dataset = new Dataset();
+        RecordSet events = recordSet(event, EXPEDITION_CODE, false);
+        RecordSet samples = recordSet(sample, EXPEDITION_CODE, false);
+        samples.setParent(events);
+        dataset.add(events);
+        dataset.add(samples);
+
+        for (int i = 0; i < values.length; i++) {
+            events.add(eventRecord("event" + i, values[i]));
+            samples.add(sampleRecord("sample" + i, "event" + i, values[values.length - i - 1]));
+        }
+
+        List<Map<String, Object>> batchInserted = saveAndSnapshot(dataset, false);
+        List<Map<String, Object>> bulkLoaded = saveAndSnapshot(dataset, true);
+
+        assertEquals(values.length * 2, bulkLoaded.size());
+        assertEquals(batchInserted, bulkLoaded);
+
+        for (int i = 0; i < values.length; i++) {
+            // empty properties are not persisted
+            String expected = values[i].trim().isEmpty() ? null : values[i];
+            assertEquals(expected, location("event" + i));
+        }
+    }
+
+    @Test
+    public void should_bulk_load_and_keep_last_duplicate_local_identifier() {
+        Dataset dataset = new Dataset();
+        RecordSet events = recordSet(event, EXPEDITION_CODE, false);
+        RecordSet samples = recordSet(sample, EXPEDITION_CODE, false);
+        samples.setParent(events);
+        dataset.add(events);
+        dataset.add(samples);
+
+        events.add(eventRecord("event1", "first"));
+        events.add(eventRecord("event2", "other"));
+        events.add(eventRecord("event1", "last"));
+        samples.add(sampleRecord("sample1", "event1", "first"));
+        samples.add(sampleRecord("sample1", "event2", "last"));
+
+        List<Map<String, Object>> batchInserted = saveAndSnapshot(dataset, false);
+        List<Map<String, Object>> bulkLoaded = saveAndSnapshot(dataset, true);
+
+        assertEquals(3, bulkLoaded.size());
+        assertEquals(batchInserted, bulkLoaded);
+        assertEquals("last", location("event1"));
+        assertEquals(
+                "event2",
+                jdbcTemplate.queryForObject("SELECT parent_identifier FROM " + table(sample) + " WHERE local_identifier = 'sample1'", String.class)
+        );
+    }
+
+    @Test
+    public void should_bulk_reload_same_records_as_batch_insert() {
+        List<Map<String, Object>> batchInserted = reloadAndSnapshot(false);
+        List<Map<String, Object>> bulkLoaded = reloadAndSnapshot(true);
+
+        assertEquals(batchInserted, bulkLoaded);
+
+        List<String> remaining = new ArrayList<>();
+        for (Map<String, Object> row : bulkLoaded) {
+            remaining.add(row.get("expedition_code") + ":" + row.get("local_identifier") + ":" + row.get("parent_identifier"));
+        }
+
+        assertEquals(
+                Arrays.asList(
+                        "exp1:event1:null", "exp1:event2:null", "exp2:event3:null",
+                        "exp1:sample1:event1", "exp2:sample1:event3", "exp1:sample3:event1"
+                ),
+                remaining
+        );
+    }
+
+    @Test
+    public void should_stream_same_records_as_query_using_a_cursor() {
+        saveQueryRecords();
+        environment.setProperty("queryFetchSize", "2");
+
+        Query query = Query.build(network(), "sample", "*", null, null);
+        query.restrictToProjects(Collections.singletonList(PROJECT_ID));
+
+        List<Record> streamed = new ArrayList<>();
+        boolean[] inTransaction = {true};
+        List<Integer> openCursors = new ArrayList<>();
+
+        repository.query(query, record -> {
+            inTransaction[0] &= TransactionSynchronizationManager.isActualTransactionActive();
+            openCursors.add(jdbcTemplate.queryForObject("SELECT count(*) FROM pg_cursors WHERE name <> ''", Integer.class));
+            streamed.add(record);
+        });
+
+        List<Record> expected = repository.query(query).getResult("sample").records();
+
+        assertEquals(5, streamed.size());
+        assertEquals(expected, streamed);
+        assertTrue(inTransaction[0]);
+        // the portal is closed once the last batch is fetched, so only the first records are read from an open cursor
+        assertEquals(1, (int) openCursors.get(0));
+    }
+
+    @Test
+    public void should_stream_each_record_once_when_selecting_related_entities() {
+        saveQueryRecords();
+        environment.setProperty("queryFetchSize", "2");
+
+        Query query = Query.build(network(), "event", "_select_:sample", null, null);
+        query.restrictToProjects(Collections.singletonList(PROJECT_ID));
+
+        List<String> streamed = new ArrayList<>();
+        repository.query(query, record -> streamed.add(record.expeditionCode() + ":" + record.get("urn:eventId")));
+
+        assertEquals(Arrays.asList("exp1:event1", "exp2:event1", "exp1:event2", "exp1:event3"), streamed);
+    }
+
+    @Test
+    public void should_not_split_records_with_multiple_children_across_keyset_pages() {
+        saveQueryRecords();
+
+        List<String> events = new ArrayList<>();
+        List<String> samples = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String token = null;
+
+        do {
+            Query query = Query.buildKeyset(network(), "event", "_select_:sample", token, 2);
+            query.restrictToProjects(Collections.singletonList(PROJECT_ID));
+
+            PaginatedResponse<Map<String, List<Map<String, Object>>>> response =
+                    repository.query(query, new RecordSources(Collections.emptyMap()), false, false);
+
+            List<Map<String, Object>> pageEvents = response.content.getOrDefault("event", Collections.emptyList());
+            pageSizes.add(pageEvents.size());
+            pageEvents.forEach(r -> events.add(r.get("expeditionCode") + ":" + r.get("eventId")));
+            response.content.getOrDefault("sample", Collections.emptyList())
+                    .forEach(r -> samples.add(r.get("expeditionCode") + ":" + r.get("sampleId")));
+
+            token = response.continuationToken;
+        } while (token != null);
+
+        // exp1:event1 has 3 samples, so the first page would end part way through the record if we limited the rows
+        assertEquals(Arrays.asList("exp1:event1", "exp2:event1", "exp1:event2", "exp1:event3"), events);
+        assertEquals(
+                Arrays.asList("exp1:sample1", "exp1:sample2", "exp1:sample3", "exp2:sample1", "exp1:sample4"),
+                samples
+        );
+        assertEquals(Arrays.asList(2, 2, 0), pageSizes);
+    }
+
+    /**
+     * save the existing records, then reload the exp1 expedition.
+     * <p>
+     * event3 & sample2 are removed & sample3 is moved to a different parent. exp2 should not be modified.
+     */
+    private List<Map<String, Object>> reloadAndSnapshot(boolean bulkLoad) {
+        Dataset existing = new Dataset();
+        RecordSet events = recordSet(event, EXPEDITION_CODE, false);
+        RecordSet samples = recordSet(sample, EXPEDITION_CODE, false);
+        samples.setParent(events);
+        existing.add(events);
+        existing.add(samples);
+
+        events.add(eventRecord("event1", "a"));
+        events.add(eventRecord("event2", "b"));
+        events.add(eventRecord("event3", "c"));
+        samples.add(sampleRecord("sample1", "event1", "a"));
+        samples.add(sampleRecord("sample2", "event1", "b"));
+        samples.add(sampleRecord("sample3", "event2", "c"));
+
+        Dataset otherExpedition = new Dataset();
+        RecordSet otherEvents = recordSet(event, OTHER_EXPEDITION_CODE, false);
+        RecordSet otherSamples = recordSet(sample, OTHER_EXPEDITION_CODE, false);
+        otherSamples.setParent(otherEvents);
+        otherExpedition.add(otherEvents);
+        otherExpedition.add(otherSamples);
+
+        otherEvents.add(eventRecord("event3", "c", OTHER_EXPEDITION_CODE));
+        otherSamples.add(sampleRecord("sample1", "event3", "a", OTHER_EXPEDITION_CODE));
+
+        Dataset reload = new Dataset();
+        RecordSet reloadEvents = recordSet(event, EXPEDITION_CODE, true);
+        RecordSet reloadSamples = recordSet(sample, EXPEDITION_CODE, true);
+        reloadSamples.setParent(reloadEvents);
+        reload.add(reloadEvents);
+        reload.add(reloadSamples);
+
+        reloadEvents.add(eventRecord("event1", "a"));
+        reloadEvents.add(eventRecord("event2", "b updated"));
+        reloadSamples.add(sampleRecord("sample1", "event1", "a"));
+        reloadSamples.add(sampleRecord("sample3", "event1", "c"));
+
+        clearTables();
+        environment.setProperty("bulkLoadThreshold", "0");
+        existing.setBulkLoad(false);
+        repository.saveDataset(existing, NETWORK_ID);
+        otherExpedition.setBulkLoad(false);
+        repository.saveDataset(otherExpedition, NETWORK_ID);
+
+        reload.setBulkLoad(bulkLoad);
+        repository.saveDataset(reload, NETWORK_ID);
+
+        return snapshot();
+    }
+
+    private List<Map<String, Object>> saveAndSnapshot(Dataset dataset, boolean bulkLoad) {
+        clearTables();
+        environment.setProperty("bulkLoadThreshold", "0");
+        dataset.setBulkLoad(bulkLoad);
+
+        repository.saveDataset(dataset, NETWORK_ID);
+
+        List<Map<String, Object>> snapshot = snapshot();
+        assertTrue(snapshot.size() > 0);
+        return snapshot;
+    }
+
+    /**
+     * exp1:event1 has 3 samples, exp2:event1 has 1 sample, exp1:event2 has 1 sample & exp1:event3 has no samples
+     */
+    private void saveQueryRecords() {
+        Dataset dataset = new Dataset();
+        RecordSet events = recordSet(event, EXPEDITION_CODE, false);
+        RecordSet samples = recordSet(sample, EXPEDITION_CODE, false);
+        samples.setParent(events);
+        dataset.add(events);
+        dataset.add(samples);
+
+        events.add(eventRecord("event1", "a"));
+        events.add(eventRecord("event2", "b"));
+        events.add(eventRecord("event3", "c"));
+        samples.add(sampleRecord("sample1", "event1", "a"));
+        samples.add(sampleRecord("sample2", "event1", "b"));
+        samples.add(sampleRecord("sample3", "event1", "c"));
+        samples.add(sampleRecord("sample4", "event2", "d"));
+
+        Dataset otherExpedition = new Dataset();
+        RecordSet otherEvents = recordSet(event, OTHER_EXPEDITION_CODE, false);
+        RecordSet otherSamples = recordSet(sample, OTHER_EXPEDITION_CODE, false);
+        otherSamples.setParent(otherEvents);
+        otherExpedition.add(otherEvents);
+        otherExpedition.add(otherSamples);
+
+        otherEvents.add(eventRecord("event1", "d", OTHER_EXPEDITION_CODE));
+        otherSamples.add(sampleRecord("sample1", "event1", "e", OTHER_EXPEDITION_CODE));
+
+        repository.saveDataset(dataset, NETWORK_ID);
+        repository.saveDataset(otherExpedition, NETWORK_ID);
+
+        for (DefaultEntity e : Arrays.asList(event, sample)) {
+            jdbcTemplate.update(
+                    "INSERT INTO entity_identifiers (expedition_id, concept_alias, identifier) " +
+                            "SELECT id, ?, 'ark:/99999/' || expedition_code || ? FROM expeditions",
+                    e.getConceptAlias(), e.getConceptAlias()
+            );
+        }
+    }
+
+    private Network network() {
+        NetworkConfig config = new NetworkConfig();
+        config.addEntity(event);
+        config.addEntity(sample);
+
+        Network network = new Network("test", config);
+        network.setId(NETWORK_ID);
+        return network;
+    }
+
+    private List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+
+        for (DefaultEntity e : Arrays.asList(event, sample)) {
+            String parentColumn = e.isChildEntity() ? "t.parent_identifier" : "NULL";
+            rows.addAll(jdbcTemplate.queryForList(
+                    "SELECT e.expedition_code, t.local_identifier, " + parentColumn + " AS parent_identifier, t.data::text AS data " +
+                            "FROM " + table(e) + " AS t JOIN expeditions AS e ON e.id = t.expedition_id " +
+                            "ORDER BY t.local_identifier, e.expedition_code"
+            ));
+        }
+
+        return rows;
+    }
+
+    private String location(String eventId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT data->>'urn:location' FROM " + table(event) + " WHERE local_identifier = ?", String.class, eventId
+        );
+    }
+
+    private void clearTables() {
+        jdbcTemplate.execute("TRUNCATE " + table(event) + " CASCADE");
+    }
+
+    private String table(DefaultEntity e) {
+        return PostgresUtils.entityTable(NETWORK_ID, e.getConceptAlias());
+    }
+
+    private RecordSet recordSet(DefaultEntity entity, String expeditionCode, boolean reload) {
+        RecordSet recordSet = new RecordSet(entity, reload);
+        recordSet.setProjectId(PROJECT_ID);
+        recordSet.setExpeditionCode(expeditionCode);
+        return recordSet;
+    }
+
+    private Record eventRecord(String eventId, String location) {
+        return eventRecord(eventId, location, EXPEDITION_CODE);
+    }
+
+    private Record eventRecord(String eventId, String location, String expeditionCode) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("urn:eventId", eventId);
+        properties.put("urn:location", location);
+        return new GenericRecord(properties, null, PROJECT_ID, expeditionCode, true);
+    }
+
+    private Record sampleRecord(String sampleId, String eventId, String notes) {
+        return sampleRecord(sampleId, eventId, notes, EXPEDITION_CODE);
+    }
+
+    private Record sampleRecord(String sampleId, String eventId, String notes, String expeditionCode) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("urn:sampleId", sampleId);
+        properties.put("urn:eventId", eventId);
+        properties.put("urn:notes", notes);
+        return new GenericRecord(properties, null, PROJECT_ID, expeditionCode, true);
+    }
+
+    private PostgresRecordRepository recordRepository() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("record-repository-sql.yml"));
+
+        return new PostgresRecordRepository(
+                new NamedParameterJdbcTemplate(dataSource),
+                yaml.getObject(),
+                Collections.singletonMap(GenericRecord.class, new GenericRecordRowMapper()),
+                new FimsProperties(environment)
+        );
+    }
+
+    /**
+     * apply the @Transactional annotations of the repository, as is done by the application context
+     */
+    private RecordRepository transactional(PostgresRecordRepository repository) {
+        ProxyFactory proxyFactory = new ProxyFactory(repository);
+        proxyFactory.addAdvice(new TransactionInterceptor(
+                new DataSourceTransactionManager(dataSource),
+                new AnnotationTransactionAttributeSource()
+        ));
+        return (RecordRepository) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,145 @@
+package biocode.fims.repositories;
+
+import biocode.fims.config.models.Entity;
+import biocode.fims.query.PostgresUtils;
+import org.junit.Assume;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Connection to the postgres database used by postgres backed integration tests. Tests which require postgres
+ * are skipped if the database is not available.
+ * <p>
+ * Any local or throwaway postgres (>= 10) instance can be used, ex:
+ * <p>
+ * docker run -d -p 5432:5432 -e POSTGRES_HOST_AUTH_METHOD=trust postgres:10
+ * <p>
+ * The connection can be configured w/ the system properties fims.test.db.url, fims.test.db.user &
+ * fims.test.db.password. Tests create & drop the {@link #SCHEMA} & network_{@link #NETWORK_ID} schemas, so the
+ * database should not be shared.
+ *
+ * @author rjewing
+ */
+public final class PostgresTestDatabase {
+    public static final String URL = System.getProperty("fims.test.db.url", "jdbc:postgresql://localhost:5432/postgres");
+    public static final String USER = System.getProperty("fims.test.db.user", "postgres");
+    public static final String PASSWORD = System.getProperty("fims.test.db.password", "");
+
+    public static final String SCHEMA = "fims_test";
+    public static final int NETWORK_ID = 1;
+
+    private PostgresTestDatabase() {
+    }
+
+    /**
+     * Skips the current test if we are unable to connect to the database
+     */
+    public static void assumeAvailable() {
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            Assume.assumeTrue(connection.isValid(5));
+        } catch (SQLException e) {
+            Assume.assumeNoException(e);
+        }
+    }
+
+    /**
+     * @return a DataSource w/ a single connection, which uses {@link #SCHEMA} as the default schema
+     */
+    public static SingleConnectionDataSource dataSource() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(URL, USER, PASSWORD, true);
+
+        Properties properties = new Properties();
+        properties.setProperty("currentSchema", SCHEMA);
+        dataSource.setConnectionProperties(properties);
+        return dataSource;
+    }
+
+    /**
+     * (Re)create the {@link #SCHEMA} & network schemas w/ the minimal expeditions & entity_identifiers tables
+     * required by the {@link PostgresRecordRepository}.
+     */
+    public static void createSchemas(JdbcTemplate jdbcTemplate) {
+        dropSchemas(jdbcTemplate);
+        jdbcTemplate.execute(
+                "CREATE SCHEMA " + SCHEMA + ";" +
+                        "CREATE SCHEMA " + PostgresUtils.schema(NETWORK_ID) + ";" +
+                        "CREATE TABLE " + SCHEMA + ".expeditions (id SERIAL PRIMARY KEY, project_id INT NOT NULL, " +
+                        "  expedition_code TEXT NOT NULL, public BOOLEAN NOT NULL DEFAULT TRUE);" +
+                        "CREATE TABLE " + SCHEMA + ".entity_identifiers (expedition_id INT NOT NULL REFERENCES " + SCHEMA + ".expeditions (id), " +
+                        "  concept_alias TEXT NOT NULL, identifier TEXT NOT NULL, PRIMARY KEY (expedition_id, concept_alias));"
+        );
+    }
+
+    /**
+     * (Re)create the {@link #SCHEMA} schema w/ the tables for the JPA entities in biocode.fims.models. The tables are
+     * generated by hibernate, and omit the triggers & defaults created by the fims migrations.
+     *
+     * @return an EntityManagerFactory for the tables, using the provided dataSource
+     */
+    public static EntityManagerFactory createJpaSchema(DataSource dataSource) {
+        dropSchemas(new JdbcTemplate(dataSource));
+        new JdbcTemplate(dataSource).execute("CREATE SCHEMA " + SCHEMA);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setPackagesToScan("biocode.fims.models");
+        factoryBean.setMappingResources("sql-results-mappings.xml", "named-queries.xml");
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQL94Dialect");
+        properties.setProperty("hibernate.hbm2ddl.auto", "create");
+        factoryBean.setJpaProperties(properties);
+
+        factoryBean.afterPropertiesSet();
+        return factoryBean.getObject();
+    }
+
+    public static void dropSchemas(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute(
+                "DROP SCHEMA IF EXISTS " + PostgresUtils.schema(NETWORK_ID) + " CASCADE;" +
+                        "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE;"
+        );
+    }
+
+    /**
+     * Create the table for the entity. The table omits the triggers & indexes added by the
+     * {@link NetworkConfigRepository}, which require the full fims schema.
+     */
+    public static void createEntityTable(JdbcTemplate jdbcTemplate, Entity entity) {
+        String table = PostgresUtils.entityTable(NETWORK_ID, entity.getConceptAlias());
+
+        String sql = "CREATE TABLE " + table + " (id SERIAL PRIMARY KEY, local_identifier TEXT NOT NULL, " +
+                "expedition_id INT NOT NULL REFERENCES " + SCHEMA + ".expeditions (id) ON DELETE CASCADE, " +
+                "data JSONB NOT NULL, tsv TSVECTOR, UNIQUE (local_identifier, expedition_id));";
+
+        if (entity.isChildEntity()) {
+            String parentTable = PostgresUtils.entityTable(NETWORK_ID, entity.getParentEntity());
+            sql += "ALTER TABLE " + table + " ADD COLUMN parent_identifier TEXT NOT NULL;" +
+                    "ALTER TABLE " + table + " ADD FOREIGN KEY (parent_identifier, expedition_id) " +
+                    "REFERENCES " + parentTable + " (local_identifier, expedition_id) ON DELETE CASCADE;";
+        }
+
+        jdbcTemplate.execute(sql);
+    }
+
+    /**
+     * @return the id of the created expedition
+     */
+    public static int createExpedition(JdbcTemplate jdbcTemplate, int projectId, String expeditionCode, boolean isPublic) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO " + SCHEMA + ".expeditions (project_id, expedition_code, public) VALUES (?, ?, ?) RETURNING id",
+                Integer.class,
+                projectId, expeditionCode, isPublic
+        );
+    }
+}
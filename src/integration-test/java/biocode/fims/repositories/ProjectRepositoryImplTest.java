@@ -0,0 +1,153 @@
+package biocode.fims.repositories;
+
+import biocode.fims.models.Project;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link ProjectRepositoryImpl#getProjects(int, boolean, String, org.springframework.data.domain.Pageable)}
+ * against a postgres database, see {@link PostgresTestDatabase}
+ *
+ * @author rjewing
+ */
+public class ProjectRepositoryImplTest {
+    private static final int ANONYMOUS = 0;
+    private static final int MEMBER = 1;
+    private static final int OTHER_USER = 2;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager em;
+    private ProjectRepositoryImpl repository;
+
+    @Before
+    public void setUp() {
+        PostgresTestDatabase.assumeAvailable();
+
+        dataSource = PostgresTestDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        entityManagerFactory = PostgresTestDatabase.createJpaSchema(dataSource);
+        em = entityManagerFactory.createEntityManager();
+
+        repository = new ProjectRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "em", em);
+
+        createUser(MEMBER);
+        createUser(OTHER_USER);
+        jdbcTemplate.update("INSERT INTO networks (id, user_id, title) VALUES (1, ?, 'network')", OTHER_USER);
+
+        // projects 1 & 2 have the same created date, so they are ordered by id
+        createProject(1, "B public", true, "2018-01-01");
+        createProject(2, "D private member", false, "2018-01-01");
+        createProject(3, "A private", false, "2018-01-02");
+        createProject(4, "C public member", true, "2017-12-31");
+        createProject(5, "E public", true, "2018-01-03");
+
+        addMember(2);
+        addMember(4);
+    }
+
+    @After
+    public void tearDown() {
+        if (dataSource == null) return;
+
+        em.close();
+        entityManagerFactory.close();
+        PostgresTestDatabase.dropSchemas(jdbcTemplate);
+        dataSource.destroy();
+    }
+
+    @Test
+    public void should_only_return_public_projects_for_anonymous_user() {
+        assertEquals(Arrays.asList(1, 4, 5), ids(repository.getProjects(ANONYMOUS, true, null, null)));
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(ANONYMOUS, false, null, null)));
+    }
+
+    @Test
+    public void should_only_return_member_projects_if_not_including_public() {
+        assertEquals(Arrays.asList(2, 4), ids(repository.getProjects(MEMBER, false, null, null)));
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(OTHER_USER, false, null, null)));
+    }
+
+    @Test
+    public void should_return_public_and_member_projects_once() {
+        assertEquals(Arrays.asList(1, 2, 4, 5), ids(repository.getProjects(MEMBER, true, null, null)));
+        assertEquals(Arrays.asList(1, 4, 5), ids(repository.getProjects(OTHER_USER, true, null, null)));
+    }
+
+    @Test
+    public void should_filter_by_project_title() {
+        assertEquals(Collections.singletonList(2), ids(repository.getProjects(MEMBER, true, "D private member", null)));
+        assertEquals(Collections.singletonList(4), ids(repository.getProjects(ANONYMOUS, true, "C public member", null)));
+
+        // not accessible
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(MEMBER, true, "A private", null)));
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(ANONYMOUS, true, "D private member", null)));
+        // not a member
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(MEMBER, false, "B public", null)));
+    }
+
+    @Test
+    public void should_return_sorted_pages() {
+        Sort sort = new Sort(Sort.Direction.DESC, "projectTitle");
+
+        assertEquals(Arrays.asList(5, 2), ids(repository.getProjects(MEMBER, true, null, new PageRequest(0, 2, sort))));
+        assertEquals(Arrays.asList(4, 1), ids(repository.getProjects(MEMBER, true, null, new PageRequest(1, 2, sort))));
+        assertEquals(Collections.emptyList(), ids(repository.getProjects(MEMBER, true, null, new PageRequest(2, 2, sort))));
+    }
+
+    @Test
+    public void should_order_by_project_id_when_sorted_values_are_equal() {
+        Sort sort = new Sort(Sort.Direction.ASC, "created");
+
+        assertEquals(Arrays.asList(4, 1, 2, 5), ids(repository.getProjects(MEMBER, true, null, new PageRequest(0, Integer.MAX_VALUE, sort))));
+        assertEquals(Arrays.asList(2, 5), ids(repository.getProjects(MEMBER, true, null, new PageRequest(1, 2, sort))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_exception_for_unsortable_property() {
+        repository.getProjects(MEMBER, true, null, new PageRequest(0, 10, new Sort("description")));
+    }
+
+    private List<Integer> ids(List<Project> projects) {
+        return projects.stream()
+                .map(Project::getProjectId)
+                .collect(Collectors.toList());
+    }
+
+    private void createUser(int id) {
+        jdbcTemplate.update(
+                "INSERT INTO users (id, username, password, email, first_name, last_name, institution) " +
+                        "VALUES (?, ?, 'password', ?, 'first', 'last', 'institution')",
+                id, "user" + id, "user" + id + "@example.com"
+        );
+    }
+
+    private void createProject(int id, String title, boolean isPublic, String created) {
+        jdbcTemplate.update(
+                "INSERT INTO projects (id, project_title, project_code, public, discoverable, enforce_expedition_access, " +
+                        "created, network_id, user_id) VALUES (?, ?, ?, ?, true, true, ?::timestamp, 1, ?)",
+                id, title, "PROJ" + id, isPublic, created, OTHER_USER
+        );
+    }
+
+    private void addMember(int projectId) {
+        jdbcTemplate.update("INSERT INTO user_projects (user_id, project_id) VALUES (?, ?)", MEMBER, projectId);
+    }
+}
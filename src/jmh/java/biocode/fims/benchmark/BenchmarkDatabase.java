@@ -0,0 +1,33 @@
+package biocode.fims.benchmark;
+
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Connection to the postgres database used by db backed benchmarks.
+ * <p>
+ * Any local or throwaway postgres (>= 10) instance can be used as a stand-in for the production database, ex:
+ * <p>
+ * docker run -d -p 5432:5432 -e POSTGRES_HOST_AUTH_METHOD=trust postgres:10
+ * <p>
+ * The connection can be configured w/ the system properties fims.benchmark.db.url, fims.benchmark.db.user &
+ * fims.benchmark.db.password. Benchmarks create & drop their own schemas, so the database should not be shared.
+ *
+ * @author rjewing
+ */
+public final class BenchmarkDatabase {
+    public static final String URL = System.getProperty("fims.benchmark.db.url", "jdbc:postgresql://localhost:5432/postgres");
+    public static final String USER = System.getProperty("fims.benchmark.db.user", "postgres");
+    public static final String PASSWORD = System.getProperty("fims.benchmark.db.password", "");
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * @return a DataSource w/ a single connection. autoCommit is disabled so each invocation can be rolled back
+     */
+    public static SingleConnectionDataSource dataSource() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(URL, USER, PASSWORD, true);
+        dataSource.setAutoCommit(false);
+        return dataSource;
+    }
+}
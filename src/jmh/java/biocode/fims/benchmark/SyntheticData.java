@@ -0,0 +1,172 @@
+package biocode.fims.benchmark;
+
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.DataType;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.models.Entity;
+import biocode.fims.config.project.ProjectConfig;
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates synthetic configs, records, workbooks & delimited text files of a configurable width & height for
+ * benchmarks.
+ * <p>
+ * An entity w/ n columns has a uniqueKey column "{conceptAlias}Id" followed by n - 1 columns
+ * "{conceptAlias}_col{i}". Even columns contain string values, odd columns contain integer values. The same values
+ * are generated for a given row & column, so the records, workbooks & delimited files generated for an entity all
+ * contain the same data.
+ *
+ * @author rjewing
+ */
+public final class SyntheticData {
+    public static final String ROOT_IDENTIFIER = "ark:/99999/A2";
+    public static final int PROJECT_ID = 1;
+    public static final String EXPEDITION_CODE = "benchmark";
+
+    private SyntheticData() {
+    }
+
+    /**
+     * @param conceptAlias
+     * @param columns      total # of columns, including the uniqueKey
+     * @param typed        if true, odd columns are {@link DataType#INTEGER}, otherwise all columns are
+     *                     {@link DataType#STRING}
+     */
+    public static DefaultEntity entity(String conceptAlias, int columns, boolean typed) {
+        DefaultEntity entity = new DefaultEntity(conceptAlias, "urn:" + conceptAlias);
+        entity.setWorksheet(conceptAlias);
+
+        String uniqueKey = conceptAlias + "Id";
+        entity.addAttribute(new Attribute(uniqueKey, "urn:" + uniqueKey));
+        entity.setUniqueKey(uniqueKey);
+
+        for (int c = 1; c < columns; c++) {
+            String column = conceptAlias + "_col" + c;
+            Attribute a = new Attribute(column, "urn:" + column);
+            if (typed && c % 2 == 1) a.setDataType(DataType.INTEGER);
+            entity.addAttribute(a);
+        }
+
+        return entity;
+    }
+
+    /**
+     * Creates an entity which is a child of the parent. The parent's uniqueKey is added as the last column.
+     * <p>
+     * The child is placed on the same worksheet as the parent.
+     */
+    public static DefaultEntity childEntity(String conceptAlias, int columns, boolean typed, Entity parent) {
+        DefaultEntity entity = entity(conceptAlias, columns, typed);
+        entity.addAttribute(new Attribute(parent.getUniqueKey(), parent.getUniqueKeyURI()));
+        entity.setParentEntity(parent.getConceptAlias());
+        entity.setWorksheet(parent.getWorksheet());
+        return entity;
+    }
+
+    public static ProjectConfig projectConfig(Entity... entities) {
+        ProjectConfig config = new ProjectConfig();
+        for (Entity e : entities) {
+            config.addEntity(e);
+        }
+        return config;
+    }
+
+    /**
+     * @return the value for the given row & column index
+     */
+    public static String value(Entity entity, int row, int col) {
+        if (col == 0) return entity.getConceptAlias() + "_" + row;
+        return col % 2 == 0 ? "value_" + row + "_" + col : String.valueOf(row * col);
+    }
+
+    /**
+     * Generate a Record for the entity. If the entity is a child, rows are distributed evenly over parentRows
+     */
+    public static Record record(Entity entity, Entity parent, int row, int parentRows) {
+        List<Attribute> attributes = entity.getAttributes();
+        Map<String, Object> properties = new HashMap<>();
+
+        for (int c = 0; c < attributes.size(); c++) {
+            Attribute a = attributes.get(c);
+            if (parent != null && a.getUri().equals(parent.getUniqueKeyURI())) {
+                properties.put(a.getUri(), value(parent, row % parentRows, 0));
+            } else {
+                properties.put(a.getUri(), value(entity, row, c));
+            }
+        }
+
+        return new GenericRecord(properties, ROOT_IDENTIFIER, PROJECT_ID, EXPEDITION_CODE, true);
+    }
+
+    public static RecordSet recordSet(Entity entity, int rows) {
+        RecordSet recordSet = new RecordSet(entity, false);
+        for (int r = 0; r < rows; r++) {
+            recordSet.add(record(entity, null, r, 0));
+        }
+        return recordSet;
+    }
+
+    /**
+     * write an xlsx workbook w/ a single sheet containing rows for the entity
+     */
+    public static void writeWorkbook(File file, Entity entity, int rows) throws IOException {
+        List<Attribute> attributes = entity.getAttributes();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        Sheet sheet = workbook.createSheet(entity.getWorksheet());
+
+        Row header = sheet.createRow(0);
+        for (int c = 0; c < attributes.size(); c++) {
+            header.createCell(c).setCellValue(attributes.get(c).getColumn());
+        }
+
+        for (int r = 1; r <= rows; r++) {
+            Row row = sheet.createRow(r);
+            for (int c = 0; c < attributes.size(); c++) {
+                if (c % 2 == 1) {
+                    row.createCell(c).setCellValue(r * c);
+                } else {
+                    row.createCell(c).setCellValue(value(entity, r, c));
+                }
+            }
+        }
+
+        try (OutputStream os = new FileOutputStream(file)) {
+            workbook.write(os);
+        }
+        workbook.dispose();
+    }
+
+    /**
+     * write a delimited text file containing rows for the entity
+     */
+    public static void writeDelimited(File file, String delimiter, Entity entity, int rows) throws IOException {
+        List<Attribute> attributes = entity.getAttributes();
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            for (int c = 0; c < attributes.size(); c++) {
+                if (c > 0) writer.write(delimiter);
+                writer.write(attributes.get(c).getColumn());
+            }
+            writer.write("\n");
+
+            for (int r = 1; r <= rows; r++) {
+                for (int c = 0; c < attributes.size(); c++) {
+                    if (c > 0) writer.write(delimiter);
+                    writer.write(value(entity, r, c));
+                }
+                writer.write("\n");
+            }
+        }
+    }
+}
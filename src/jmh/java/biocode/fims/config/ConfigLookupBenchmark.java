@@ -0,0 +1,143 @@
+package biocode.fims.config;
+
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.models.Entity;
+import biocode.fims.config.project.ProjectConfig;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the indexed {@link Config} & {@link DefaultEntity} lookups against the linear scans previously used.
+ * <p>
+ * readerRow: the lookups made by AbstractTabularDataReader for each row of a sheet containing a hashed parent
+ * and a child entity.
+ * <p>
+ * validatorRules: the lookups made by the RecordValidator rules for each RecordSet, 1 per column rule.
+ * <p>
+ * The config contains a 3 level entity hierarchy (event -> sample -> tissue) w/ 200 attributes per entity.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigLookupBenchmark {
+    private static final int ATTRIBUTES = 200;
+    private static final String SHEET_NAME = "Samples";
+
+    @Param({"linear", "indexed"})
+    public String lookup;
+
+    private Config config;
+    private List<String> columns;
+    private Entity sample;
+    private Entity tissue;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new ProjectConfig();
+        config.addEntity(entity("event", null, true));
+        sample = entity("sample", "event", false);
+        config.addEntity(sample);
+        tissue = entity("tissue", "sample", false);
+        config.addEntity(tissue);
+
+        columns = sample.getAttributes().stream().map(Attribute::getColumn).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void readerRow(Blackhole bh) {
+        if (lookup.equals("indexed")) {
+            Entity event = config.entity(sample.getParentEntity());
+            bh.consume(event.getUniqueKeyURI());
+            bh.consume(config.entity(tissue.getParentEntity()).getUniqueKeyURI());
+            bh.consume(config.parentEntities(tissue.getConceptAlias()));
+        } else {
+            Entity event = linearEntity(config, sample.getParentEntity());
+            bh.consume(linearUniqueKeyUri(event));
+            bh.consume(linearUniqueKeyUri(linearEntity(config, tissue.getParentEntity())));
+            bh.consume(linearParentEntities(config, tissue.getConceptAlias()));
+        }
+    }
+
+    @Benchmark
+    public void validatorRules(Blackhole bh) {
+        if (lookup.equals("indexed")) {
+            for (String column : columns) {
+                bh.consume(sample.getAttributeUri(column));
+            }
+            bh.consume(config.entitiesForSheet(SHEET_NAME));
+        } else {
+            for (String column : columns) {
+                bh.consume(linearAttributeUri(sample, column));
+            }
+            bh.consume(linearEntitiesForSheet(config, SHEET_NAME));
+        }
+    }
+
+    private static Entity entity(String conceptAlias, String parent, boolean hashed) {
+        DefaultEntity e = new DefaultEntity(conceptAlias, "urn:" + conceptAlias);
+        e.setWorksheet(SHEET_NAME);
+        e.setParentEntity(parent);
+        e.setHashed(hashed);
+        for (int i = 0; i < ATTRIBUTES; i++) {
+            e.addAttribute(new Attribute(conceptAlias + "_col" + i, "urn:" + conceptAlias + "_col" + i));
+        }
+        e.setUniqueKey(conceptAlias + "_col" + (ATTRIBUTES - 1));
+        return e;
+    }
+
+    // the previous Config & DefaultEntity implementations
+
+    private static Entity linearEntity(Config config, String conceptAlias) {
+        for (Entity entity : config.entities()) {
+            if (entity.getConceptAlias().equals(conceptAlias)) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private static List<Entity> linearEntitiesForSheet(Config config, String sheetName) {
+        return config.entities().stream()
+                .filter(e -> sheetName.equals(e.getWorksheet()))
+                .collect(Collectors.toList());
+    }
+
+    private static ArrayList<Entity> linearParentEntities(Config config, String conceptAlias) {
+        ArrayList<Entity> parentEntities = new ArrayList<>();
+        Entity entity = linearEntity(config, conceptAlias);
+
+        while (entity.isChildEntity()) {
+            entity = linearEntity(config, entity.getParentEntity());
+            parentEntities.add(entity);
+        }
+
+        return parentEntities;
+    }
+
+    private static String linearUniqueKeyUri(Entity entity) {
+        return entity.getAttributes().stream()
+                .filter(a -> entity.getUniqueKey().equals(a.getColumn()))
+                .findFirst()
+                .orElse(new Attribute(null, null))
+                .getUri();
+    }
+
+    private static String linearAttributeUri(Entity entity, String column) {
+        return entity.getAttributes().stream()
+                .filter(a -> a.getColumn().equals(column))
+                .findFirst()
+                .map(Attribute::getUri)
+                .orElse(null);
+    }
+}
@@ -0,0 +1,71 @@
+package biocode.fims.query.dsl;
+
+import biocode.fims.benchmark.SyntheticData;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.network.NetworkConfig;
+import biocode.fims.models.Network;
+import biocode.fims.query.ParametrizedQuery;
+import biocode.fims.query.QueryBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to parse a query string & generate the sql w/ the {@link QueryBuilder}.
+ * <p>
+ * uncached clears the {@link QueryCache} before each query, so the query is parsed & the sql is generated every
+ * invocation. cached measures repeated requests for the same query.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class QueryBenchmark {
+    private static final Map<String, String> QUERIES = new HashMap<>();
+
+    static {
+        QUERIES.put("simple", "event.event_col1 >= 10");
+        QUERIES.put("complex", "_select_:[event,sample] event.event_col1 >= 10 and sample.sample_col2::\"%value_1%\" " +
+                "and not _exists_:sample.sample_col3 and _expeditions_:[benchmark, other] or event.event_col4 = \"value_1_4\"");
+    }
+
+    @Param({"simple", "complex"})
+    public String query;
+
+    @Param({"50"})
+    public int columns;
+
+    private Network network;
+    private String queryString;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DefaultEntity event = SyntheticData.entity("event", columns, true);
+        DefaultEntity sample = SyntheticData.childEntity("sample", columns, true, event);
+
+        NetworkConfig config = new NetworkConfig();
+        config.addEntity(event);
+        config.addEntity(sample);
+
+        network = new Network("benchmark", config);
+        network.setId(1);
+        queryString = QUERIES.get(query);
+    }
+
+    @Benchmark
+    public ParametrizedQuery uncached() {
+        QueryCache.clear();
+        return Query.build(network, "sample", queryString, 0, 100).parameterizedQuery();
+    }
+
+    @Benchmark
+    public ParametrizedQuery cached() {
+        return Query.build(network, "sample", queryString, 0, 100).parameterizedQuery();
+    }
+}
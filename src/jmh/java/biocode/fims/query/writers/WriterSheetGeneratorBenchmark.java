@@ -0,0 +1,70 @@
+package biocode.fims.query.writers;
+
+import biocode.fims.benchmark.SyntheticData;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.project.ProjectConfig;
+import biocode.fims.query.QueryResult;
+import biocode.fims.query.QueryResults;
+import biocode.fims.records.Record;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to join parent & child {@link QueryResults} into {@link WriterWorksheet}s before they are written
+ * to a workbook or delimited text file.
+ * <p>
+ * The parent & child are on the same worksheet, and the children are distributed evenly over the parents.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WriterSheetGeneratorBenchmark {
+    @Param({"20"})
+    public int columns;
+
+    @Param({"1000"})
+    public int parents;
+
+    @Param({"10000"})
+    public int children;
+
+    private ProjectConfig config;
+    private QueryResult parentResult;
+    private QueryResult childResult;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DefaultEntity event = SyntheticData.entity("event", columns, false);
+        DefaultEntity sample = SyntheticData.childEntity("sample", columns, false, event);
+        config = SyntheticData.projectConfig(event, sample);
+
+        LinkedList<Record> parentRecords = new LinkedList<>();
+        for (int i = 0; i < parents; i++) {
+            parentRecords.add(SyntheticData.record(event, null, i, 0));
+        }
+
+        LinkedList<Record> childRecords = new LinkedList<>();
+        for (int i = 0; i < children; i++) {
+            childRecords.add(SyntheticData.record(sample, event, i, parents));
+        }
+
+        parentResult = new QueryResult(parentRecords, event, "https://n2t.net/");
+        childResult = new QueryResult(childRecords, sample, event, "https://n2t.net/");
+    }
+
+    @Benchmark
+    public List<WriterWorksheet> recordsToWriterSheets() {
+        // WriterSheetGenerator sorts the results, so we need a new list for each invocation
+        QueryResults queryResults = new QueryResults(Arrays.asList(parentResult, childResult));
+        return new WriterSheetGenerator(queryResults, config).recordsToWriterSheets();
+    }
+}
@@ -0,0 +1,89 @@
+package biocode.fims.reader.plugins;
+
+import biocode.fims.benchmark.SyntheticData;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.project.ProjectConfig;
+import biocode.fims.reader.TabularDataReaderType;
+import biocode.fims.records.RecordMetadata;
+import biocode.fims.records.RecordSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to read a synthetic worksheet into {@link RecordSet}s w/ each of the tabular data readers.
+ * <p>
+ * shape is {columns}x{rows}. The defaults are wide (300 columns x 2,000 rows) & tall (20 columns x 50,000 rows).
+ * Other shapes can be benchmarked w/ the jmh -p option, ex. -p shape=50x10000
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TabularDataReaderBenchmark {
+    @Param({"300x2000", "20x50000"})
+    public String shape;
+
+    private ProjectConfig config;
+    private String sheetName;
+    private File xlsx;
+    private File csv;
+    private File tsv;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        String[] dimensions = shape.split("x");
+        int columns = Integer.parseInt(dimensions[0]);
+        int rows = Integer.parseInt(dimensions[1]);
+
+        DefaultEntity entity = SyntheticData.entity("sample", columns, false);
+        config = SyntheticData.projectConfig(entity);
+        sheetName = entity.getWorksheet();
+
+        xlsx = File.createTempFile("benchmark", ".xlsx");
+        csv = File.createTempFile("benchmark", ".csv");
+        tsv = File.createTempFile("benchmark", ".txt");
+
+        SyntheticData.writeWorkbook(xlsx, entity, rows);
+        SyntheticData.writeDelimited(csv, ",", entity, rows);
+        SyntheticData.writeDelimited(tsv, "\t", entity, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        xlsx.delete();
+        csv.delete();
+        tsv.delete();
+    }
+
+    @Benchmark
+    public List<RecordSet> excelReader() {
+        return new ExcelReader(xlsx, config, new RecordMetadata(TabularDataReaderType.READER_TYPE, false)).getRecordSets();
+    }
+
+    @Benchmark
+    public List<RecordSet> csvReader() {
+        return new CSVReader(csv, config, delimitedTextMetadata()).getRecordSets();
+    }
+
+    @Benchmark
+    public List<RecordSet> tabReader() {
+        return new TabReader(tsv, config, delimitedTextMetadata()).getRecordSets();
+    }
+
+    private RecordMetadata delimitedTextMetadata() {
+        // the reader removes the sheetName, so we need new metadata for each invocation
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(DelimitedTextReader.SHEET_NAME_KEY, sheetName);
+        return new RecordMetadata(TabularDataReaderType.READER_TYPE, false, metadata);
+    }
+}
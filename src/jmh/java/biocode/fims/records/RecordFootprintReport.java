@@ -0,0 +1,97 @@
+package biocode.fims.records;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reports the retained heap size of a large upload held as {@link GenericRecord}s vs {@link ColumnarRecord}s.
+ * <p>
+ * The synthetic data contains a unique identifier column, a few high cardinality columns, and many low cardinality
+ * columns, similar to a typical sample sheet. Values are new String instances for each row, as they are when
+ * returned by the data readers.
+ * <p>
+ * Usage: RecordFootprintReport [rows] [columns]. Run w/ a large enough heap, ex. -Xmx4g
+ *
+ * @author rjewing
+ */
+public class RecordFootprintReport {
+    private static final String URI_PREFIX = "urn:benchmark:attribute_";
+    private static final int HIGH_CARDINALITY_COLUMNS = 5;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        String[] uris = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            uris[i] = URI_PREFIX + i;
+        }
+
+        ColumnarRecordStore store = new ColumnarRecordStore();
+
+        long generic = retainedSize(() -> load(rows, uris, GenericRecord::new));
+        long columnar = retainedSize(() -> load(rows, uris, store::newRecord));
+
+        System.out.println(String.format("%d records x %d columns", rows, columns));
+        System.out.println(String.format("%-15s %12s %12s", "record type", "total (MB)", "bytes/record"));
+        print("GenericRecord", generic, rows);
+        print("ColumnarRecord", columnar, rows);
+        System.out.println(String.format("dictionary encoded columns: %d/%d", store.dictionaryEncodedColumns(), store.slots()));
+        System.out.println(String.format("reduction: %.1f%%", 100 * (1 - (double) columnar / generic)));
+    }
+
+    private static List<Record> load(int rows, String[] uris, Supplier<Record> recordSupplier) {
+        List<Record> records = new ArrayList<>(rows);
+
+        for (int i = 0; i < rows; i++) {
+            Record r = recordSupplier.get();
+            r.setExpeditionCode(new String("expedition_" + (i % 10)));
+
+            for (int j = 0; j < uris.length; j++) {
+                String val;
+                if (j == 0) {
+                    val = "sample_" + i;
+                } else if (j <= HIGH_CARDINALITY_COLUMNS) {
+                    val = String.valueOf((i * 31 + j) % 100000);
+                } else {
+                    val = "value_" + ((i + j) % (j * 2));
+                }
+
+                if (j % 7 != 3 || i % 4 == 0) {
+                    r.set(uris[j], val);
+                }
+            }
+
+            records.add(r);
+        }
+
+        return records;
+    }
+
+    private static long retainedSize(Supplier<List<Record>> loader) {
+        long before = usedMemory();
+        List<Record> records = loader.get();
+        long after = usedMemory();
+
+        if (records.isEmpty()) throw new IllegalStateException();
+        return after - before;
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void print(String name, long bytes, int rows) {
+        System.out.println(String.format("%-15s %12.1f %12d", name, bytes / (1024.0 * 1024.0), bytes / rows));
+    }
+}
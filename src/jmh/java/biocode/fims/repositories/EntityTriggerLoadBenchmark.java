@@ -0,0 +1,214 @@
+package biocode.fims.repositories;
+
+import biocode.fims.benchmark.BenchmarkDatabase;
+import biocode.fims.query.PostgresUtils;
+import org.apache.commons.text.StringSubstitutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the cost of the audit & project last modified triggers when loading records into an entity table.
+ * <p>
+ * The "statement" triggers are created exactly as they are by {@link PostgresNetworkConfigRepository}, using the
+ * trigger functions defined in fimsCreateTables.sql. The "row" triggers are the FOR EACH ROW triggers previously
+ * added to every entity table.
+ * <p>
+ * Each invocation loads all rows w/ a single statement, the same as the staged RecordSet upsert. insert adds new
+ * records to an empty expedition. reload updates every record in an existing expedition. All changes are rolled
+ * back after each invocation.
+ * <p>
+ * Requires a local postgres (>= 10) database, see {@link BenchmarkDatabase}. fimsCreateTables.sql is read from
+ * the working directory, or the fims.benchmark.createTables system property.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityTriggerLoadBenchmark {
+    private static final int NETWORK_ID = 0;
+    private static final String SCHEMA = "fims_benchmark";
+    private static final String CONCEPT_ALIAS = "sample";
+    private static final int PROJECT_ID = 1;
+    private static final int LOADED_EXPEDITION_ID = 1;
+    private static final int EMPTY_EXPEDITION_ID = 2;
+
+    private static final String[] TRIGGER_FUNCTIONS = {
+            "update_modified_column", "set_created_column", "get_fims_user", "jsonb_diff_val", "entity_tsv_trigger",
+            "entity_history", "set_project_last_modified"
+    };
+
+    // the row level trigger functions previously used for each entity table
+    private static final String ROW_TRIGGER_FUNCTIONS = "CREATE FUNCTION row_set_project_last_modified() RETURNS TRIGGER AS $body$ " +
+            "DECLARE expedition_id int; " +
+            "BEGIN " +
+            "  IF TG_OP = 'DELETE' THEN expedition_id = OLD.expedition_id; ELSE expedition_id = NEW.expedition_id; END IF; " +
+            "  EXECUTE 'UPDATE projects set latest_data_modification = CURRENT_TIMESTAMP where id = (select project_id from expeditions where id = ' " +
+            "    || quote_literal(expedition_id) || ')'; " +
+            "  RETURN NULL; " +
+            "END; $body$ LANGUAGE plpgsql SECURITY DEFINER;" +
+            "CREATE FUNCTION row_entity_history() RETURNS TRIGGER AS $body$ " +
+            "DECLARE audit_table_name TEXT; audit_session_user TEXT; row_data JSONB; changed_fields JSONB; " +
+            "BEGIN " +
+            "  audit_table_name = TG_TABLE_SCHEMA :: TEXT || '.audit_table'; " +
+            "  audit_session_user = get_fims_user(); " +
+            "  IF NULLIF(audit_session_user, '') IS NULL THEN audit_session_user = 'postgres_role: ' || session_user :: TEXT; END IF; " +
+            "  IF TG_OP = 'UPDATE' THEN " +
+            "    row_data = to_jsonb(OLD.*) - 'tsv' - 'changed' - 'modified'; " +
+            "    changed_fields = jsonb_diff_val(to_jsonb(NEW.*) - 'tsv' - 'changed' - 'modified', row_data); " +
+            "    IF changed_fields = '{}' :: JSONB THEN RETURN NULL; END IF; " +
+            "  ELSIF TG_OP = 'DELETE' THEN row_data = to_jsonb(OLD.*) - 'tsv' - 'changed' - 'modified'; " +
+            "  ELSE row_data = to_jsonb(NEW.*) - 'tsv' - 'changed' - 'modified'; " +
+            "  END IF; " +
+            "  EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data, changed_fields) ' || " +
+            "    'VALUES (' || quote_literal(TG_TABLE_SCHEMA :: TEXT || '.' || TG_TABLE_NAME :: TEXT) || ', ' || quote_literal(audit_session_user) " +
+            "    || ', CURRENT_TIMESTAMP, ' || quote_literal(substring(TG_OP, 1, 1)) || ', ' || quote_literal(row_data) || ', ' " +
+            "    || quote_nullable(changed_fields) || ')'; " +
+            "  RETURN NULL; " +
+            "END; $body$ LANGUAGE plpgsql SECURITY DEFINER;";
+
+    private static final String LOAD_RECORDS = "INSERT INTO ${table} (local_identifier, expedition_id, data) " +
+            "SELECT 'sample_' || i, ${expeditionId}, " +
+            "  jsonb_build_object('urn:sampleId', 'sample_' || i, 'urn:value', i * ${multiplier}, 'urn:locality', 'locality ' || (i % 100)) " +
+            "FROM generate_series(1, ${rows}) AS i " +
+            "ON CONFLICT (local_identifier, expedition_id) DO UPDATE SET data = EXCLUDED.data";
+
+    @Param({"row", "statement"})
+    public String triggers;
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private String table;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException, IOException {
+        dataSource = BenchmarkDatabase.dataSource();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        table = PostgresUtils.entityTable(NETWORK_ID, CONCEPT_ALIAS);
+
+        createTables();
+        jdbcTemplate.execute(loadRecordsSql(LOADED_EXPEDITION_ID, 1));
+        dataSource.getConnection().commit();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        dataSource.getConnection().rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        jdbcTemplate.execute("DROP SCHEMA " + PostgresUtils.schema(NETWORK_ID) + " CASCADE; DROP SCHEMA " + SCHEMA + " CASCADE;");
+        dataSource.getConnection().commit();
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public int insert() {
+        return jdbcTemplate.update(loadRecordsSql(EMPTY_EXPEDITION_ID, 1));
+    }
+
+    @Benchmark
+    public int reload() {
+        return jdbcTemplate.update(loadRecordsSql(LOADED_EXPEDITION_ID, 2));
+    }
+
+    private String loadRecordsSql(int expeditionId, int multiplier) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("table", table);
+        params.put("expeditionId", expeditionId);
+        params.put("multiplier", multiplier);
+        params.put("rows", rows);
+        return StringSubstitutor.replace(LOAD_RECORDS, params);
+    }
+
+    /**
+     * Creates minimal projects & expeditions tables and the trigger functions in the benchmark schema, then creates
+     * the network schema & entity table using network-config-repository-sql.yml
+     */
+    private void createTables() throws IOException, SQLException {
+        jdbcTemplate.execute(
+                "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE;" +
+                        "DROP SCHEMA IF EXISTS " + PostgresUtils.schema(NETWORK_ID) + " CASCADE;" +
+                        "CREATE SCHEMA " + SCHEMA + ";" +
+                        "SET search_path TO " + SCHEMA + ";" +
+                        "CREATE TABLE projects (id SERIAL PRIMARY KEY, latest_data_modification TIMESTAMP);" +
+                        "CREATE TABLE expeditions (id SERIAL PRIMARY KEY, project_id INT NOT NULL REFERENCES projects (id));" +
+                        "INSERT INTO projects (id) VALUES (" + PROJECT_ID + ");" +
+                        "INSERT INTO expeditions (id, project_id) VALUES (" + LOADED_EXPEDITION_ID + ", " + PROJECT_ID + "), (" +
+                        EMPTY_EXPEDITION_ID + ", " + PROJECT_ID + ");"
+        );
+
+        String createTables = new String(
+                Files.readAllBytes(Paths.get(System.getProperty("fims.benchmark.createTables", "fimsCreateTables.sql"))),
+                StandardCharsets.UTF_8
+        );
+        for (String function : TRIGGER_FUNCTIONS) {
+            jdbcTemplate.execute(functionSql(createTables, function));
+        }
+
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("network-config-repository-sql.yml"));
+        Properties sql = yaml.getObject();
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("networkId", NETWORK_ID);
+        params.put("conceptAlias", CONCEPT_ALIAS);
+        params.put("table", table);
+
+        jdbcTemplate.execute(StringSubstitutor.replace(sql.getProperty("createNetworkSchema"), params));
+        jdbcTemplate.execute(StringSubstitutor.replace(sql.getProperty("createEntityTable"), params));
+
+        if (triggers.equals("row")) {
+            jdbcTemplate.execute(ROW_TRIGGER_FUNCTIONS);
+            for (String op : new String[]{"insert", "update", "delete"}) {
+                jdbcTemplate.execute("DROP TRIGGER entity_audit_" + op + " ON " + table + ";" +
+                        "DROP TRIGGER set_project_last_modified_" + op + " ON " + table + ";");
+            }
+            jdbcTemplate.execute(
+                    "CREATE TRIGGER entity_audit AFTER INSERT OR DELETE OR UPDATE ON " + table +
+                            " FOR EACH ROW EXECUTE PROCEDURE row_entity_history();" +
+                            "CREATE TRIGGER set_project_last_modified AFTER INSERT OR DELETE OR UPDATE ON " + table +
+                            " FOR EACH ROW EXECUTE PROCEDURE row_set_project_last_modified();"
+            );
+        }
+
+        dataSource.getConnection().commit();
+    }
+
+    /**
+     * @return the CREATE FUNCTION statement for the function in fimsCreateTables.sql
+     */
+    private String functionSql(String createTables, String function) {
+        Matcher m = Pattern.compile(
+                "CREATE OR REPLACE FUNCTION " + function + "\\(.*?(\\$\\w*\\$).*?\\1[^;]*;",
+                Pattern.DOTALL
+        ).matcher(createTables);
+
+        if (!m.find()) {
+            throw new IllegalStateException("Failed to find function " + function + " in fimsCreateTables.sql");
+        }
+        return m.group();
+    }
+}
@@ -0,0 +1,217 @@
+package biocode.fims.repositories;
+
+import biocode.fims.application.config.FimsProperties;
+import biocode.fims.benchmark.BenchmarkDatabase;
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.query.PostgresUtils;
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.GenericRecordRowMapper;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import biocode.fims.run.Dataset;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.text.StringSubstitutor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-record RETURNING insert previously used for children of hashed parents against the
+ * staging table path used by {@link PostgresRecordRepository#saveDataset(Dataset, int)}.
+ * <p>
+ * Each invocation moves every child to a new parent, so every insert returns a replaced parent_identifier
+ * and the orphaned parents are deleted. All changes are rolled back after each invocation.
+ * <p>
+ * Requires a local postgres database, see {@link BenchmarkDatabase}
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HashedChildSaveBenchmark {
+    private static final int NETWORK_ID = 0;
+    private static final String SCHEMA = "fims_benchmark";
+    private static final String EXPEDITION_CODE = "benchmark";
+    private static final int PROJECT_ID = 1;
+
+    // the per-record statement previously executed for each child of a hashed parent
+    private static final String INSERT_CHILD_RECORD_RETURNING = "WITH t AS (" +
+            "  INSERT INTO ${table} (expedition_id, local_identifier, parent_identifier, data)" +
+            "  VALUES (" +
+            "    (SELECT id from expeditions where expedition_code = :expeditionCode and project_id = :projectId)," +
+            "    :identifier, :parent_identifier, to_jsonb(:data::jsonb)" +
+            "  )" +
+            "  ON CONFLICT (local_identifier, expedition_id)" +
+            "    DO UPDATE SET data = to_jsonb(:data::jsonb), parent_identifier = :parent_identifier" +
+            "    RETURNING local_identifier, parent_identifier, expedition_id" +
+            ") " +
+            "SELECT CASE WHEN o.parent_identifier != t.parent_identifier THEN o.parent_identifier ELSE NULL END AS parent_identifier " +
+            "FROM ${table} AS o INNER JOIN t on o.local_identifier = t.local_identifier " +
+            "WHERE o.expedition_id = t.expedition_id";
+
+    @Param({"1000", "10000", "100000"})
+    public int children;
+
+    private SingleConnectionDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private Properties sql;
+    private PostgresRecordRepository repository;
+    private DefaultEntity parentEntity;
+    private DefaultEntity childEntity;
+    private Dataset dataset;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = BenchmarkDatabase.dataSource();
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("record-repository-sql.yml"));
+        sql = yaml.getObject();
+
+        repository = new PostgresRecordRepository(
+                jdbcTemplate,
+                sql,
+                Collections.singletonMap(GenericRecord.class, new GenericRecordRowMapper()),
+                new FimsProperties(new StandardEnvironment())
+        );
+
+        parentEntity = new DefaultEntity("parent", "urn:parent");
+        parentEntity.addAttribute(new Attribute("parentId", "urn:parentId"));
+        parentEntity.setUniqueKey("parentId");
+        parentEntity.setHashed(true);
+
+        childEntity = new DefaultEntity("child", "urn:child");
+        childEntity.addAttribute(new Attribute("childId", "urn:childId"));
+        childEntity.addAttribute(new Attribute("parentId", "urn:parentId"));
+        childEntity.addAttribute(new Attribute("value", "urn:value"));
+        childEntity.setUniqueKey("childId");
+        childEntity.setParentEntity(parentEntity.getConceptAlias());
+
+        createTables();
+        dataset = movedChildrenDataset();
+    }
+
+    @TearDown(Level.Invocation)
+    public void rollback() throws SQLException {
+        dataSource.getConnection().rollback();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        jdbcTemplate.getJdbcOperations().execute(
+                "DROP SCHEMA " + PostgresUtils.schema(NETWORK_ID) + " CASCADE; DROP SCHEMA " + SCHEMA + " CASCADE;"
+        );
+        dataSource.getConnection().commit();
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public List<String> perRecordReturning() throws Exception {
+        RecordSet recordSet = dataset.get(1);
+        Map<String, Object> tableMap = PostgresUtils.getTableMap(NETWORK_ID, childEntity.getConceptAlias());
+        String insertSql = StringSubstitutor.replace(INSERT_CHILD_RECORD_RETURNING, tableMap);
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<String> updatedHashedParents = new ArrayList<>();
+        for (Record record : recordSet.recordsToPersist()) {
+            Map<String, Object> params = expeditionParams();
+            params.put("identifier", record.get("urn:childId"));
+            params.put("parent_identifier", record.get("urn:parentId"));
+            params.put("data", mapper.writeValueAsString(record.properties()));
+
+            List<String> oldParent = jdbcTemplate.query(insertSql, params, (rs, rowNum) -> rs.getString("parent_identifier"));
+            if (oldParent.size() == 1 && oldParent.get(0) != null) {
+                updatedHashedParents.add(oldParent.get(0));
+            }
+        }
+
+        Map<String, Object> deleteParams = expeditionParams();
+        deleteParams.put("identifiers", updatedHashedParents);
+
+        tableMap.put("childTable", tableMap.get("table"));
+        tableMap.put("table", PostgresUtils.entityTable(NETWORK_ID, parentEntity.getConceptAlias()));
+        jdbcTemplate.update(StringSubstitutor.replace(sql.getProperty("deleteOrphanedParentRecords"), tableMap), deleteParams);
+
+        return updatedHashedParents;
+    }
+
+    @Benchmark
+    public Dataset stagedReturning() {
+        repository.saveDataset(dataset, NETWORK_ID);
+        return dataset;
+    }
+
+    /**
+     * Creates minimal expeditions & entity tables. The entity tables omit the triggers & indexes added
+     * by the network config repository so only the cost of the insert statements is measured.
+     */
+    private void createTables() throws SQLException {
+        String parentTable = PostgresUtils.entityTable(NETWORK_ID, parentEntity.getConceptAlias());
+        String childTable = PostgresUtils.entityTable(NETWORK_ID, childEntity.getConceptAlias());
+
+        jdbcTemplate.getJdbcOperations().execute(
+                "DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE;" +
+                        "DROP SCHEMA IF EXISTS " + PostgresUtils.schema(NETWORK_ID) + " CASCADE;" +
+                        "CREATE SCHEMA " + SCHEMA + ";" +
+                        "CREATE SCHEMA " + PostgresUtils.schema(NETWORK_ID) + ";" +
+                        "SET search_path TO " + SCHEMA + ";" +
+                        "CREATE TABLE expeditions (id SERIAL PRIMARY KEY, project_id INT NOT NULL, expedition_code TEXT NOT NULL);" +
+                        "INSERT INTO expeditions (project_id, expedition_code) VALUES (" + PROJECT_ID + ", '" + EXPEDITION_CODE + "');" +
+                        "CREATE TABLE " + parentTable + " (id SERIAL PRIMARY KEY, local_identifier TEXT NOT NULL, " +
+                        "  expedition_id INT NOT NULL REFERENCES expeditions (id), data JSONB NOT NULL, UNIQUE (local_identifier, expedition_id));" +
+                        "CREATE TABLE " + childTable + " (id SERIAL PRIMARY KEY, local_identifier TEXT NOT NULL, parent_identifier TEXT NOT NULL, " +
+                        "  expedition_id INT NOT NULL REFERENCES expeditions (id), data JSONB NOT NULL, UNIQUE (local_identifier, expedition_id), " +
+                        "  FOREIGN KEY (parent_identifier, expedition_id) REFERENCES " + parentTable + " (local_identifier, expedition_id) ON DELETE CASCADE);" +
+                        "CREATE INDEX ON " + childTable + " (parent_identifier, expedition_id);" +
+                        "INSERT INTO " + parentTable + " (local_identifier, expedition_id, data) " +
+                        "  SELECT p || i, 1, '{}' FROM generate_series(0, " + (children - 1) + ") AS i, unnest(ARRAY['old_', 'new_']) AS p;" +
+                        "INSERT INTO " + childTable + " (local_identifier, parent_identifier, expedition_id, data) " +
+                        "  SELECT 'child_' || i, 'old_' || i, 1, '{}' FROM generate_series(0, " + (children - 1) + ") AS i;"
+        );
+        dataSource.getConnection().commit();
+    }
+
+    private Dataset movedChildrenDataset() {
+        RecordSet parentRecordSet = new RecordSet(parentEntity, false);
+        parentRecordSet.setProjectId(PROJECT_ID);
+        parentRecordSet.setExpeditionCode(EXPEDITION_CODE);
+
+        RecordSet childRecordSet = new RecordSet(childEntity, false);
+        childRecordSet.setParent(parentRecordSet);
+        childRecordSet.setProjectId(PROJECT_ID);
+        childRecordSet.setExpeditionCode(EXPEDITION_CODE);
+
+        for (int i = 0; i < children; i++) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("urn:childId", "child_" + i);
+            properties.put("urn:parentId", "new_" + i);
+            properties.put("urn:value", String.valueOf(i));
+            childRecordSet.add(new GenericRecord(properties, null, PROJECT_ID, EXPEDITION_CODE, true));
+        }
+
+        Dataset dataset = new Dataset();
+        dataset.add(parentRecordSet);
+        dataset.add(childRecordSet);
+        return dataset;
+    }
+
+    private Map<String, Object> expeditionParams() {
+        Map<String, Object> params = new HashMap<>();
+        params.put("expeditionCode", EXPEDITION_CODE);
+        params.put("projectId", PROJECT_ID);
+        return params;
+    }
+}
@@ -0,0 +1,85 @@
+package biocode.fims.utils;
+
+import org.joda.time.format.DateTimeFormat;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to validate a column of date values against the accepted formats of an
+ * {@link biocode.fims.config.models.Attribute}, the same as is done by
+ * {@link biocode.fims.validation.rules.ValidDataTypeFormatRule} for each date value in a dataset.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DateUtilsBenchmark {
+    private static final String[] FORMATS = {
+            "MM/dd/yyyy", "dd-MMM-yy", "yyyy", "yyyy-MM", "yyyy-MM-dd", DateUtils.ISO_8061_DATE
+    };
+
+    @Param({"100000"})
+    public int values;
+
+    /**
+     * percent of values which don't match any format
+     */
+    @Param({"0", "10"})
+    public int invalidPercent;
+
+    private String[] dates;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        dates = new String[values];
+
+        for (int i = 0; i < values; i++) {
+            int year = 1900 + random.nextInt(120);
+            int month = 1 + random.nextInt(12);
+            int day = 1 + random.nextInt(28);
+
+            if (random.nextInt(100) < invalidPercent) {
+                dates[i] = String.format("%d/%02d/%02d", year, month, day);
+            } else {
+                // most values match the last accepted format, as is common w/ the appended iso format
+                dates[i] = String.format("%d-%02d-%02d", year, month, day);
+            }
+        }
+    }
+
+    @Benchmark
+    public void isValidDateFormat(Blackhole bh) {
+        for (String date : dates) {
+            bh.consume(DateUtils.isValidDateFormat(date, FORMATS));
+        }
+    }
+
+    /**
+     * baseline: the previous implementation, which compiled each format & caught the parse exception for each
+     * non-matching format
+     */
+    @Benchmark
+    public void isValidDateFormatCatchingExceptions(Blackhole bh) {
+        for (String date : dates) {
+            boolean valid = false;
+            for (String format : FORMATS) {
+                try {
+                    DateTimeFormat.forPattern(format).parseDateTime(date);
+                    valid = true;
+                    break;
+                } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                    // try next format
+                }
+            }
+            bh.consume(valid);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package biocode.fims.utils;
+
+import biocode.fims.benchmark.SyntheticData;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to hash every {@link Record} in a synthetic {@link RecordSet}, the same as is done for each
+ * record of a hashed entity when a dataset is saved.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordHasherBenchmark {
+    @Param({"10", "100"})
+    public int columns;
+
+    @Param({"10000"})
+    public int records;
+
+    private List<Record> recordList;
+    private String[] sortedKeys;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        DefaultEntity entity = SyntheticData.entity("sample", columns, false);
+        recordList = SyntheticData.recordSet(entity, records).records();
+        sortedKeys = entity.getAttributes().stream()
+                .map(a -> a.getUri())
+                .sorted()
+                .toArray(String[]::new);
+    }
+
+    @Benchmark
+    public void hash(Blackhole bh) {
+        for (Record r : recordList) {
+            bh.consume(RecordHasher.hash(r));
+        }
+    }
+
+    /**
+     * hash using the precomputed attribute order, as done by the AbstractTabularDataReader
+     */
+    @Benchmark
+    public void hashSortedKeys(Blackhole bh) {
+        for (Record r : recordList) {
+            bh.consume(RecordHasher.hash(r, sortedKeys));
+        }
+    }
+
+    /**
+     * baseline. The TreeMap + String concatenation implementation RecordHasher previously used
+     */
+    @Benchmark
+    public void hashConcatenated(Blackhole bh) {
+        for (Record r : recordList) {
+            TreeMap<String, Object> sortedMap = new TreeMap<>(r.properties());
+
+            StringBuilder sb = new StringBuilder();
+            sortedMap.forEach((k, v) -> {
+                String val = String.valueOf(v).trim();
+                if (!val.equals("")) {
+                    sb.append(k.trim()).append(val);
+                }
+            });
+
+            bh.consume(Hasher.hash(sb.toString()));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package biocode.fims.validation;
+
+import biocode.fims.config.models.*;
+import biocode.fims.config.project.ProjectConfig;
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.rules.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to validate a synthetic {@link RecordSet} w/ an {@link Entity} containing 40 column level rules.
+ * <p>
+ * All rules are {@link RuleLevel#WARNING}, so no Record errors are set and each invocation validates the same records.
+ *
+ * @author rjewing
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RecordValidatorBenchmark {
+    private static final int COLUMNS = 20;
+
+    @Param({"50000"})
+    public int records;
+
+    private ProjectConfig config;
+    private RecordSet recordSet;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new ProjectConfig();
+
+        biocode.fims.config.models.List list = new biocode.fims.config.models.List("values");
+        for (int i = 0; i < 50; i++) {
+            Field f = new Field();
+            f.setValue("value" + i);
+            list.addField(f);
+        }
+        config.addList(list);
+
+        DefaultEntity entity = new DefaultEntity("sample", "urn:sample");
+        entity.setUniqueKey("col0");
+        for (int c = 0; c < COLUMNS; c++) {
+            Attribute a = new Attribute("col" + c, "urn:col" + c);
+            if (c % 4 == 1) a.setDataType(DataType.INTEGER);
+            if (c % 4 == 3) a.setDataType(DataType.FLOAT);
+            entity.addAttribute(a);
+        }
+
+        // 40 rules, 2 per column
+        entity.addRule(new ValidDataTypeFormatRule());
+        for (int c = 0; c < COLUMNS; c++) {
+            String column = "col" + c;
+            switch (c % 4) {
+                case 0:
+                    entity.addRule(new RegExpRule(column, "value[0-9]+"));
+                    entity.addRule(new ControlledVocabularyRule(column, "values", config));
+                    break;
+                case 1:
+                    entity.addRule(new NumericRangeRule(column, ">=0|<1000"));
+                    entity.addRule(new RegExpRule(column, "[0-9]+", true, RuleLevel.WARNING));
+                    break;
+                case 2:
+                    entity.addRule(new ValidForURIRule(column));
+                    entity.addRule(new ValidURLRule(column, RuleLevel.WARNING));
+                    break;
+                default:
+                    entity.addRule(new NumericRangeRule(column, ">0"));
+                    if (c != COLUMNS - 1) entity.addRule(new RegExpRule(column, "[0-9.]+"));
+                    break;
+            }
+        }
+        config.addEntity(entity);
+
+        recordSet = new RecordSet(entity, false);
+        for (int r = 0; r < records; r++) {
+            Record record = new GenericRecord();
+            for (int c = 0; c < COLUMNS; c++) {
+                switch (c % 4) {
+                    case 0:
+                        record.set("urn:col" + c, "value" + (r % 60));
+                        break;
+                    case 1:
+                        record.set("urn:col" + c, String.valueOf(r % 1100));
+                        break;
+                    case 2:
+                        record.set("urn:col" + c, "http://example.com/" + r);
+                        break;
+                    default:
+                        record.set("urn:col" + c, String.valueOf(r / 7.0));
+                        break;
+                }
+            }
+            recordSet.add(record);
+        }
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return new RecordValidator(config).validate(recordSet);
+    }
+}
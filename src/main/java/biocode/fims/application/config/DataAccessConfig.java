@@ -52,6 +52,11 @@ public class DataAccessConfig {
         jpaProperties.setProperty("hibernate.format_sql", env.getProperty("hibernate.format_sql"));
         jpaProperties.setProperty("hibernate.id.new_generator_mappings", "true");
         jpaProperties.setProperty("hibernate.max_fetch_depth", "3");
+        // group inserts & updates into jdbc batches. Note: entities w/ IDENTITY ids can not be batch inserted
+        jpaProperties.setProperty("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size", "100"));
+        jpaProperties.setProperty("hibernate.order_inserts", "true");
+        jpaProperties.setProperty("hibernate.order_updates", "true");
+        jpaProperties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
 
         f.setDataSource(dataSource());
         f.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
@@ -2,6 +2,10 @@ package biocode.fims.application.config;
 
 import biocode.fims.authorizers.ProjectAuthorizer;
 import biocode.fims.authorizers.QueryAuthorizer;
+import biocode.fims.metrics.Metrics;
+import biocode.fims.metrics.MetricsRegistry;
+import biocode.fims.metrics.NoopMetricsRegistry;
+import biocode.fims.metrics.SimpleMetricsRegistry;
 import biocode.fims.records.FimsRowMapper;
 import biocode.fims.records.GenericRecord;
 import biocode.fims.records.GenericRecordRowMapper;
@@ -109,6 +113,17 @@ public class FimsAppConfig {
         return new PostgresRepositoryAuditAdvice();
     }
 
+    /**
+     * The registry is also set as the {@link Metrics#registry()}, so classes which are not spring beans can record
+     * metrics. Override this bean to use a different registry, ex. one backed by micrometer.
+     */
+    @Bean
+    public MetricsRegistry metricsRegistry(FimsProperties props) {
+        MetricsRegistry registry = props.metricsEnabled() ? new SimpleMetricsRegistry() : new NoopMetricsRegistry();
+        Metrics.setRegistry(registry);
+        return registry;
+    }
+
     @Bean
     public FimsDatasetAuthorizer fimsDatasetAuthorizer(FimsProperties props, ExpeditionService expeditionService, ProjectService projectService) {
         return new FimsDatasetAuthorizer(props, expeditionService, projectService);
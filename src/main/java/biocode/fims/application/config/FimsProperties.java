@@ -83,6 +83,20 @@ public class FimsProperties {
         return env.getRequiredProperty("bcid.clientSecret");
     }
 
+    /**
+     * The max number of bcids to mint per request to the bcid system
+     */
+    public int bcidMintBatchSize() {
+        return env.getProperty("bcid.mintBatchSize", int.class, 500);
+    }
+
+    /**
+     * The max number of concurrent mint requests. Used if the bcid system does not support minting bcids in batches
+     */
+    public int bcidMintConcurrency() {
+        return env.getProperty("bcid.mintConcurrency", int.class, 4);
+    }
+
     public String bcidResolverPrefix() {
         String prefix = env.getProperty("bcid.resolverPrefix", "https://n2t.net/");
         if (!prefix.endsWith("/")) {
@@ -91,6 +105,37 @@ public class FimsProperties {
         return prefix;
     }
 
+    /**
+     * The minimum number of records in a RecordSet before the bulk loader is used. Smaller
+     * RecordSets are always persisted w/ batched inserts.
+     */
+    public int bulkLoadThreshold() {
+        return env.getProperty("bulkLoadThreshold", int.class, 1000);
+    }
+
+    /**
+     * The number of rows to fetch from the server-side cursor at a time when streaming query results.
+     */
+    public int queryFetchSize() {
+        return env.getProperty("queryFetchSize", int.class, 1000);
+    }
+
+    /**
+     * (optional) directory where files cached for download are stored. If not set, files are left where they
+     * were generated.
+     */
+    public String fileCacheDir() {
+        return env.getProperty("fileCacheDir");
+    }
+
+    /**
+     * If true, timers & counters are recorded in memory & available via the metrics endpoint. Otherwise
+     * metrics are discarded.
+     */
+    public boolean metricsEnabled() {
+        return env.getProperty("metrics.enabled", boolean.class, true);
+    }
+
     public URI entityResolverTarget() {
         return env.getRequiredProperty("bcid.resolverTargets.entity", URI.class);
     }
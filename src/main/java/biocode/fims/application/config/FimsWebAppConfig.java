@@ -12,6 +12,7 @@ import org.springframework.context.annotation.*;
 import org.springframework.core.io.Resource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.io.File;
 import java.io.IOException;
 
 /**
@@ -47,8 +48,9 @@ public class FimsWebAppConfig {
     }
 
     @Bean
-    public FileCache fileCache() {
-        return new FileCache();
+    public FileCache fileCache(FimsProperties props) {
+        String dir = props.fileCacheDir();
+        return dir == null ? new FileCache() : new FileCache(new File(dir));
     }
 
     @Bean
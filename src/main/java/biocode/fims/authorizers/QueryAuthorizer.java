@@ -3,6 +3,7 @@ package biocode.fims.authorizers;
 import biocode.fims.fimsExceptions.errorCodes.ExpeditionCode;
 import biocode.fims.models.Expedition;
 import biocode.fims.models.Project;
+import biocode.fims.models.ProjectPermissions;
 import biocode.fims.models.User;
 import biocode.fims.application.config.FimsProperties;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
@@ -55,7 +56,7 @@ public class QueryAuthorizer {
                 Collections.singletonList(expedition.getProject().getProjectId()),
                 Collections.singletonList(expedition.getExpeditionCode()),
                 Collections.singletonList(expedition.getProject()),
-                user
+                projectService.getProjectPermissions(user)
         );
     }
 
@@ -76,11 +77,12 @@ public class QueryAuthorizer {
         }
 
         List<Project> projects = projectService.getProjectsWithExpeditions(projectIds);
+        ProjectPermissions permissions = projectService.getProjectPermissions(user);
 
         if (expeditionCodes.size() > 0) {
-            return authorizedExpeditionAccess(projectIds, expeditionCodes, projects, user);
+            return authorizedExpeditionAccess(projectIds, expeditionCodes, projects, permissions);
         } else {
-            return authorizedProjectAccess(projectIds, projects, user);
+            return authorizedProjectAccess(projectIds, projects, permissions);
         }
     }
 
@@ -90,10 +92,10 @@ public class QueryAuthorizer {
      *
      * @param projectIds
      * @param projects
-     * @param user       the user we are check access for. Can be null
+     * @param permissions the permissions of the user we are checking access for
      * @return
      */
-    private boolean authorizedProjectAccess(List<Integer> projectIds, List<Project> projects, User user) {
+    private boolean authorizedProjectAccess(List<Integer> projectIds, List<Project> projects, ProjectPermissions permissions) {
 
         for (int projectId : projectIds) {
             boolean foundProject = false;
@@ -102,7 +104,7 @@ public class QueryAuthorizer {
                 if (project.getProjectId() == projectId) {
                     foundProject = true;
 
-                    if (!authorizedUserForProject(project, user))
+                    if (!authorizedUserForProject(project, permissions))
                         return false;
                 }
             }
@@ -115,8 +117,8 @@ public class QueryAuthorizer {
         return true;
     }
 
-    private boolean authorizedUserForProject(Project project, User user) {
-        return project.isPublic() || projectService.isUserMemberOfProject(user, project.getProjectId());
+    private boolean authorizedUserForProject(Project project, ProjectPermissions permissions) {
+        return project.isPublic() || permissions.isMember(project.getProjectId());
     }
 
     /**
@@ -126,10 +128,10 @@ public class QueryAuthorizer {
      * @param projectIds      must not be empty
      * @param expeditionCodes
      * @param projects
-     * @param user            the user we are authorizing. can be null
+     * @param permissions     the permissions of the user we are authorizing
      * @return
      */
-    private boolean authorizedExpeditionAccess(List<Integer> projectIds, List<String> expeditionCodes, List<Project> projects, User user) {
+    private boolean authorizedExpeditionAccess(List<Integer> projectIds, List<String> expeditionCodes, List<Project> projects, ProjectPermissions permissions) {
         Assert.notEmpty(projectIds);
 
         List<String> foundExpeditionCodes = new ArrayList<>();
@@ -139,7 +141,7 @@ public class QueryAuthorizer {
             // if the project is in the projectIds list, then we need to check if there is an expedition in the expeditionCodes list
             if (projectIds.contains(project.getProjectId())) {
 
-                boolean userMemberOfProject = authorizedUserForProject(project, user);
+                boolean userMemberOfProject = authorizedUserForProject(project, permissions);
                 boolean foundExpeditionForProject = false;
 
                 for (Expedition expedition : project.getExpeditions()) {
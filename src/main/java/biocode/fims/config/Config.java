@@ -15,6 +15,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -31,6 +32,7 @@ public abstract class Config {
     protected List<ExpeditionMetadataProperty> expeditionMetadataProperties;
     protected List<String> errors;
     protected boolean validated = false;
+    private volatile EntityIndex entityIndex;
 
     public Config() {
         this.entities = new LinkedList<>();
@@ -61,24 +63,16 @@ public abstract class Config {
     }
 
     public Entity entity(String conceptAlias) {
-        for (Entity entity : entities) {
-            if (entity.getConceptAlias().equals(conceptAlias)) {
-                return entity;
-            }
-        }
-
-        return null;
+        if (conceptAlias == null) return null;
+        return entityIndex().byAlias.get(conceptAlias);
     }
 
     public List<Entity> entitiesForSheet(String sheetName) {
-        return entities.stream()
-                .filter(e -> sheetName.equals(e.getWorksheet()))
-                .collect(Collectors.toList());
+        return new ArrayList<>(entityIndex().forSheet(sheetName));
     }
 
     public List<Attribute> attributesForSheet(String sheetName) {
-        return entities.stream()
-                .filter(e -> sheetName.equals(e.getWorksheet()))
+        return entityIndex().forSheet(sheetName).stream()
                 .flatMap(e -> e.getAttributes().stream())
                 .collect(Collectors.toList());
     }
@@ -95,11 +89,11 @@ public abstract class Config {
         if (entity1.equals(entity2)) return false;
 
         // if entities have a common ancestor, then they can be considered related
-        ArrayList<Entity> entity1Parents = parentEntities(entity1.getConceptAlias());
+        List<Entity> entity1Parents = entityIndex().parents(entity1.getConceptAlias());
 
         if (entity1Parents.contains(entity2)) return true;
 
-        for (Entity entity : parentEntities(entity2.getConceptAlias())) {
+        for (Entity entity : entityIndex().parents(entity2.getConceptAlias())) {
 
             if (entity1Parents.contains(entity) || entity1.equals(entity)) {
                 return true;
@@ -194,15 +188,29 @@ public abstract class Config {
      *
      * @param primaryEntity
      * @param entity2
-     * @return Sorted list of {@link EntityRelation}s in the correct order needed to walk from the primaryEntity to entity2 via a relationship graph
+     * @return Sorted, unmodifiable list of {@link EntityRelation}s in the correct order needed to walk from the primaryEntity to entity2 via a relationship graph
      */
     public List<EntityRelation> getEntityRelations(Entity primaryEntity, Entity entity2) {
-        List<EntityRelation> relations = new ArrayList<>();
+        EntityIndex index = entityIndex();
 
-        if (!entities.contains(primaryEntity) || !entities.contains(entity2)) {
+        if (!index.contains(primaryEntity) || !index.contains(entity2)) {
             throw new FimsRuntimeException("Server Error", "Entity doesn't exist", 500);
         }
 
+        // only cache relations for the config's own entity instances
+        if (!index.identities.contains(primaryEntity) || !index.identities.contains(entity2)) {
+            return Collections.unmodifiableList(buildEntityRelations(primaryEntity, entity2));
+        }
+
+        return index.relations.computeIfAbsent(
+                new EntityPair(primaryEntity, entity2),
+                k -> Collections.unmodifiableList(buildEntityRelations(primaryEntity, entity2))
+        );
+    }
+
+    private List<EntityRelation> buildEntityRelations(Entity primaryEntity, Entity entity2) {
+        List<EntityRelation> relations = new ArrayList<>();
+
         ArrayList<Entity> entity2Parents = parentEntities(entity2.getConceptAlias());
         Collections.reverse(entity2Parents);
 
@@ -216,7 +224,7 @@ public abstract class Config {
         }
 
         Entity prevEntity = primaryEntity;
-        for (Entity entity : parentEntities(primaryEntity.getConceptAlias())) {
+        for (Entity entity : entityIndex().parents(primaryEntity.getConceptAlias())) {
             relations.add(new EntityRelation(entity, prevEntity));
 
             int i = entity2Parents.indexOf(entity);
@@ -259,15 +267,7 @@ public abstract class Config {
      * @return Ordered List of entities from parent -> GrandParent -> GreatGrandParent -> ...
      */
     public ArrayList<Entity> parentEntities(String conceptAlias) {
-        ArrayList<Entity> parentEntities = new ArrayList<>();
-        Entity entity = entity(conceptAlias);
-
-        while (entity.isChildEntity()) {
-            entity = entity(entity.getParentEntity());
-            parentEntities.add(entity);
-        }
-
-        return parentEntities;
+        return new ArrayList<>(entityIndex().parents(conceptAlias));
     }
 
     public void generateUris() {
@@ -322,6 +322,134 @@ public abstract class Config {
         expeditionMetadataProperties.add(prop);
     }
 
+    /**
+     * @return the {@link EntityIndex} for the current entities, rebuilding it if the entities have been modified
+     */
+    private EntityIndex entityIndex() {
+        EntityIndex index = entityIndex;
+
+        if (index == null || !index.isCurrent(entities)) {
+            index = new EntityIndex(entities);
+            entityIndex = index;
+        }
+
+        return index;
+    }
+
+    /**
+     * Immutable lookup tables for the config entities. Parent chains and {@link EntityRelation}s are computed
+     * on first use.
+     * <p>
+     * The index keeps a snapshot of each entity's conceptAlias, worksheet, and parentEntity. If the entities
+     * or any of these properties change, the index is no longer current and must be rebuilt.
+     */
+    private static class EntityIndex {
+        private final Entity[] entities;
+        private final String[] snapshot;
+        private final Map<String, Entity> byAlias;
+        private final Map<String, List<Entity>> bySheet;
+        private final Set<Entity> identities;
+        private final Map<String, List<Entity>> parents;
+        private final Map<EntityPair, List<EntityRelation>> relations;
+
+        private EntityIndex(List<Entity> entities) {
+            this.entities = entities.toArray(new Entity[0]);
+            this.snapshot = new String[this.entities.length * 3];
+            this.byAlias = new HashMap<>();
+            this.bySheet = new HashMap<>();
+            this.identities = Collections.newSetFromMap(new IdentityHashMap<>());
+            this.parents = new ConcurrentHashMap<>();
+            this.relations = new ConcurrentHashMap<>();
+
+            for (int i = 0; i < this.entities.length; i++) {
+                Entity e = this.entities[i];
+                snapshot[i * 3] = e.getConceptAlias();
+                snapshot[i * 3 + 1] = e.getWorksheet();
+                snapshot[i * 3 + 2] = e.getParentEntity();
+
+                byAlias.putIfAbsent(e.getConceptAlias(), e);
+                if (e.getWorksheet() != null) {
+                    bySheet.computeIfAbsent(e.getWorksheet(), k -> new ArrayList<>()).add(e);
+                }
+                identities.add(e);
+            }
+
+            bySheet.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        }
+
+        private boolean isCurrent(List<Entity> entities) {
+            if (entities.size() != this.entities.length) return false;
+
+            int i = 0;
+            for (Entity e : entities) {
+                if (e != this.entities[i]
+                        || e.getConceptAlias() != snapshot[i * 3]
+                        || e.getWorksheet() != snapshot[i * 3 + 1]
+                        || e.getParentEntity() != snapshot[i * 3 + 2]) {
+                    return false;
+                }
+                i++;
+            }
+
+            return true;
+        }
+
+        private boolean contains(Entity entity) {
+            return identities.contains(entity) || Arrays.asList(entities).contains(entity);
+        }
+
+        private List<Entity> forSheet(String sheetName) {
+            return bySheet.getOrDefault(sheetName, Collections.emptyList());
+        }
+
+        /**
+         * @return unmodifiable List of entities from parent -> GrandParent -> GreatGrandParent -> ...
+         */
+        private List<Entity> parents(String conceptAlias) {
+            List<Entity> p = parents.get(conceptAlias);
+            if (p != null) return p;
+
+            List<Entity> parentEntities = new ArrayList<>();
+            Entity entity = byAlias.get(conceptAlias);
+
+            while (entity.isChildEntity()) {
+                entity = byAlias.get(entity.getParentEntity());
+                parentEntities.add(entity);
+            }
+
+            p = Collections.unmodifiableList(parentEntities);
+            parents.put(conceptAlias, p);
+            return p;
+        }
+    }
+
+    /**
+     * Pair of entities, compared by identity
+     */
+    private static class EntityPair {
+        private final Entity entity1;
+        private final Entity entity2;
+
+        private EntityPair(Entity entity1, Entity entity2) {
+            this.entity1 = entity1;
+            this.entity2 = entity2;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EntityPair)) return false;
+
+            EntityPair that = (EntityPair) o;
+            return entity1 == that.entity1 && entity2 == that.entity2;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(entity1) + System.identityHashCode(entity2);
+        }
+    }
+
     private static class ChildrenFirstComparator implements Comparator<Entity> {
 
         private final Config config;
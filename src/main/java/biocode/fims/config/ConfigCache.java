@@ -0,0 +1,72 @@
+package biocode.fims.config;
+
+import biocode.fims.config.network.NetworkConfig;
+import biocode.fims.config.project.ProjectConfig;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Versioned in-process cache of parsed {@link Config}s.
+ * <p>
+ * Configs are cached by id along w/ the version they were parsed from (ex. the modified timestamp of the db row).
+ * A cached Config is only returned if the requested version matches the cached version, so a config modified by
+ * another process is re-parsed the next time it is loaded. {@link #invalidate(int)} should be called whenever a config
+ * is saved.
+ * <p>
+ * Cached instances are shared by all readers and must not be modified. If you need to modify a config, parse a new
+ * instance.
+ *
+ * @author rjewing
+ */
+public class ConfigCache<C extends Config> {
+    public static final ConfigCache<NetworkConfig> NETWORK_CONFIGS = new ConfigCache<>();
+    public static final ConfigCache<ProjectConfig> PROJECT_CONFIGS = new ConfigCache<>();
+
+    private final Map<Integer, CachedConfig<C>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param id      the config id
+     * @param version the version of the config to return. If null, the config will not be cached
+     * @param loader  parses the config if the requested version is not cached
+     * @return the cached config if the version matches, otherwise the config returned by the loader
+     */
+    public C get(int id, Object version, Supplier<C> loader) {
+        if (version == null) return loader.get();
+
+        CachedConfig<C> cached = cache.get(id);
+        if (cached != null && cached.version.equals(version)) return cached.config;
+
+        C config = loader.get();
+        if (config != null) cache.put(id, new CachedConfig<>(version, config));
+        return config;
+    }
+
+    /**
+     * Remove the cached config w/ the given id.
+     *
+     * @param id
+     */
+    public void invalidate(int id) {
+        cache.remove(id);
+    }
+
+    /**
+     * Remove all cached configs.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private static class CachedConfig<C> {
+        private final Object version;
+        private final C config;
+
+        private CachedConfig(Object version, C config) {
+            this.version = Objects.requireNonNull(version);
+            this.config = config;
+        }
+    }
+}
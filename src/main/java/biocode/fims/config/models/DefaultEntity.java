@@ -31,7 +31,8 @@ public class DefaultEntity implements Entity {
     private static final String TYPE = "DefaultEntity";
 
     // All available network attributes for entity
-    private LinkedList<Attribute> attributes;
+    private AttributeList attributes;
+    private volatile AttributeIndex attributeIndex;
     // minimal set of rules for the network
     // projects can extend
     private Rules rules;
@@ -54,7 +55,7 @@ public class DefaultEntity implements Entity {
     // needed for jackson deserialization && EntityTypeIdResolver
     protected DefaultEntity() {
         rules = new Rules();
-        attributes = new LinkedList<>();
+        attributes = new AttributeList();
     }
 
     public DefaultEntity(String conceptAlias, String conceptURI) {
@@ -63,7 +64,7 @@ public class DefaultEntity implements Entity {
         this.conceptAlias = conceptAlias;
         this.conceptURI = conceptURI;
         rules = new Rules();
-        attributes = new LinkedList<>();
+        attributes = new AttributeList();
     }
 
     @Override
@@ -125,11 +126,8 @@ public class DefaultEntity implements Entity {
             return uniqueKey;
         }
 
-        return attributes.stream()
-                .filter(a -> uniqueKey.equals(a.getColumn()))
-                .findFirst()
-                .orElse(new Attribute(null, null))
-                .getUri();
+        Attribute a = findAttribute(uniqueKey);
+        return a == null ? null : a.getUri();
     }
 
     /**
@@ -191,22 +189,14 @@ public class DefaultEntity implements Entity {
 
     @Override
     public String getAttributeUri(String column) {
-        return attributes.stream()
-                .filter(a -> a.getColumn().equals(column))
-                .findFirst()
-                .map(Attribute::getUri)
-                .orElse(null);
+        Attribute a = findAttribute(column);
+        return a == null ? null : a.getUri();
     }
 
     @Override
     public String getAttributeColumn(String uri) {
-        for (Attribute a : attributes) {
-            if (a.getUri().equals(uri)) {
-                return a.getColumn();
-            }
-        }
-
-        return null;
+        Attribute a = findAttributeByUri(uri);
+        return a == null ? null : a.getColumn();
     }
 
     public String buildChildIdentifier(String parentIdentifier, String localIdentifier) {
@@ -250,24 +240,70 @@ public class DefaultEntity implements Entity {
 
     @Override
     public Attribute getAttribute(String column) {
-        for (Attribute a : attributes) {
-            if (a.getColumn().equals(column)) {
-                return a;
-            }
-        }
+        Attribute a = findAttribute(column);
+        if (a != null) return a;
 
         throw new FimsRuntimeException(ConfigCode.MISSING_ATTRIBUTE, 500, column);
     }
 
     @Override
     public Attribute getAttributeByUri(String uri) {
-        for (Attribute a : attributes) {
-            if (a.getUri().equals(uri)) {
-                return a;
+        Attribute a = findAttributeByUri(uri);
+        if (a != null) return a;
+
+        throw new FimsRuntimeException(ConfigCode.MISSING_ATTRIBUTE, 500, uri);
+    }
+
+    /**
+     * Lookup the first {@link Attribute} with the given column using the {@link AttributeIndex}.
+     * <p>
+     * {@link Attribute}s are mutable, so we verify the indexed Attribute still has the column. If the
+     * index is stale or doesn't contain the column, we fall back to searching the attributes.
+     */
+    private Attribute findAttribute(String column) {
+        if (column == null) return null;
+
+        Attribute a = attributeIndex().byColumn.get(column);
+        if (a != null && column.equals(a.getColumn())) return a;
+
+        for (Attribute attribute : attributes) {
+            if (column.equals(attribute.getColumn())) {
+                attributeIndex = null;
+                return attribute;
             }
         }
 
-        throw new FimsRuntimeException(ConfigCode.MISSING_ATTRIBUTE, 500, uri);
+        return null;
+    }
+
+    /**
+     * Lookup the first {@link Attribute} with the given uri. See {@link #findAttribute(String)}
+     */
+    private Attribute findAttributeByUri(String uri) {
+        if (uri == null) return null;
+
+        Attribute a = attributeIndex().byUri.get(uri);
+        if (a != null && uri.equals(a.getUri())) return a;
+
+        for (Attribute attribute : attributes) {
+            if (uri.equals(attribute.getUri())) {
+                attributeIndex = null;
+                return attribute;
+            }
+        }
+
+        return null;
+    }
+
+    private AttributeIndex attributeIndex() {
+        AttributeIndex index = attributeIndex;
+
+        if (index == null || index.modifications != attributes.modifications()) {
+            index = new AttributeIndex(attributes);
+            attributeIndex = index;
+        }
+
+        return index;
     }
 
     /**
@@ -487,4 +523,42 @@ public class DefaultEntity implements Entity {
                 "conceptAlias='" + conceptAlias + '\'' +
                 '}';
     }
+
+    /**
+     * LinkedList which exposes the number of structural modifications, so we know when the {@link AttributeIndex}
+     * needs to be rebuilt
+     */
+    private static class AttributeList extends LinkedList<Attribute> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Attribute set(int index, Attribute element) {
+            modCount++;
+            return super.set(index, element);
+        }
+
+        private int modifications() {
+            return modCount;
+        }
+    }
+
+    /**
+     * Immutable column -> Attribute & uri -> Attribute lookup tables
+     */
+    private static class AttributeIndex {
+        private final int modifications;
+        private final Map<String, Attribute> byColumn;
+        private final Map<String, Attribute> byUri;
+
+        private AttributeIndex(AttributeList attributes) {
+            this.modifications = attributes.modifications();
+            this.byColumn = new HashMap<>();
+            this.byUri = new HashMap<>();
+
+            for (Attribute a : attributes) {
+                if (a.getColumn() != null) byColumn.putIfAbsent(a.getColumn(), a);
+                if (a.getUri() != null) byUri.putIfAbsent(a.getUri(), a);
+            }
+        }
+    }
 }
@@ -56,7 +56,8 @@ public class PersistedProjectConfig {
     public ProjectConfig toProjectConfig(biocode.fims.config.network.NetworkConfig networkConfig) {
         ProjectConfig config = new ProjectConfig();
 
-        config.setExpeditionMetadataProperties(networkConfig.expeditionMetadataProperties());
+        // copy the network props, the networkConfig may be shared & should not be modified
+        config.setExpeditionMetadataProperties(new ArrayList<>(networkConfig.expeditionMetadataProperties()));
         config.expeditionMetadataProperties().forEach(p -> p.setNetworkProp(true));
         config.expeditionMetadataProperties().addAll(expeditionMetadataProperties);
 
@@ -0,0 +1,74 @@
+package biocode.fims.metrics;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * The value of a timer or counter at a point in time.
+ * <p>
+ * For counters, count is the current value & the time properties are null.
+ *
+ * @author rjewing
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MetricSnapshot {
+    public enum Type {TIMER, COUNTER}
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final Type type;
+    private final long count;
+    private final Double totalMs;
+    private final Double maxMs;
+
+    public MetricSnapshot(String name, Map<String, String> tags, Type type, long count, Double totalMs, Double maxMs) {
+        this.name = name;
+        this.tags = tags;
+        this.type = type;
+        this.count = count;
+        this.totalMs = totalMs;
+        this.maxMs = maxMs;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getTotalMs() {
+        return totalMs;
+    }
+
+    public Double getMaxMs() {
+        return maxMs;
+    }
+
+    public Double getMeanMs() {
+        if (totalMs == null || count == 0) return null;
+        return totalMs / count;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricSnapshot{" +
+                "name='" + name + '\'' +
+                ", tags=" + tags +
+                ", type=" + type +
+                ", count=" + count +
+                ", totalMs=" + totalMs +
+                ", maxMs=" + maxMs +
+                '}';
+    }
+}
@@ -0,0 +1,114 @@
+package biocode.fims.metrics;
+
+import org.springframework.util.Assert;
+
+import java.util.function.Supplier;
+
+/**
+ * Static access to the application {@link MetricsRegistry}, used to instrument classes which are not spring beans.
+ * <p>
+ * Defaults to a {@link NoopMetricsRegistry}. The registry is set when the MetricsRegistry bean is created.
+ * <p>
+ * ex.
+ * <pre>
+ *     Metrics.time("dataset.save", () -> persistDataset(dataset));
+ * </pre>
+ *
+ * @author rjewing
+ */
+public final class Metrics {
+    private static final Stopwatch NOOP_STOPWATCH = new Stopwatch(null, null, 0);
+    private static volatile MetricsRegistry registry = new NoopMetricsRegistry();
+
+    private Metrics() {
+    }
+
+    public static MetricsRegistry registry() {
+        return registry;
+    }
+
+    public static void setRegistry(MetricsRegistry registry) {
+        Assert.notNull(registry);
+        Metrics.registry = registry;
+    }
+
+    /**
+     * Start a timer. The elapsed time is recorded when the returned {@link Stopwatch} is stopped. Prefer
+     * {@link #time(String, Supplier, String...)} or {@link #time(String, Runnable, String...)}
+     *
+     * @param name
+     * @param tags alternating key, value pairs
+     */
+    public static Stopwatch start(String name, String... tags) {
+        MetricsRegistry r = registry;
+        if (r instanceof NoopMetricsRegistry) return NOOP_STOPWATCH;
+        return new Stopwatch(r, name, System.nanoTime(), tags);
+    }
+
+    /**
+     * Time the supplier
+     *
+     * @param name
+     * @param supplier
+     * @param tags     alternating key, value pairs
+     * @return the value returned by the supplier
+     */
+    public static <T> T time(String name, Supplier<T> supplier, String... tags) {
+        Stopwatch stopwatch = start(name, tags);
+        try {
+            return supplier.get();
+        } finally {
+            stopwatch.stop();
+        }
+    }
+
+    /**
+     * Time the runnable
+     *
+     * @param name
+     * @param runnable
+     * @param tags     alternating key, value pairs
+     */
+    public static void time(String name, Runnable runnable, String... tags) {
+        Stopwatch stopwatch = start(name, tags);
+        try {
+            runnable.run();
+        } finally {
+            stopwatch.stop();
+        }
+    }
+
+    /**
+     * increment a counter by 1
+     *
+     * @param name
+     * @param tags alternating key, value pairs
+     */
+    public static void increment(String name, String... tags) {
+        registry.increment(name, 1, tags);
+    }
+
+    /**
+     * Records the elapsed time when stopped. Stopping a Stopwatch more then once has no effect.
+     */
+    public static class Stopwatch {
+        private final MetricsRegistry registry;
+        private final String name;
+        private final String[] tags;
+        private final long start;
+        private boolean stopped = false;
+
+        private Stopwatch(MetricsRegistry registry, String name, long start, String... tags) {
+            this.registry = registry;
+            this.name = name;
+            this.start = start;
+            this.tags = tags;
+        }
+
+        public void stop() {
+            if (registry == null || stopped) return;
+            stopped = true;
+            registry.record(name, System.nanoTime() - start, tags);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package biocode.fims.metrics;
+
+import java.util.List;
+
+/**
+ * Records timers & counters. Implementations must be thread-safe.
+ * <p>
+ * Metrics are identified by a name & optional tags. Tags are provided as alternating key, value pairs, ex.
+ * record("validation.rule", nanos, "rule", "RequiredValue"). This mirrors the Micrometer api, so a registry can be
+ * implemented by delegating to a Micrometer MeterRegistry.
+ *
+ * @author rjewing
+ */
+public interface MetricsRegistry {
+
+    /**
+     * record a single timing
+     *
+     * @param name
+     * @param nanos elapsed time in nanoseconds
+     * @param tags  alternating key, value pairs
+     */
+    void record(String name, long nanos, String... tags);
+
+    /**
+     * increment a counter
+     *
+     * @param name
+     * @param amount
+     * @param tags   alternating key, value pairs
+     */
+    void increment(String name, long amount, String... tags);
+
+    /**
+     * @return the current value of all metrics. An empty list if the registry doesn't retain any metrics
+     */
+    List<MetricSnapshot> snapshot();
+
+    /**
+     * reset all metrics
+     */
+    void clear();
+}
@@ -0,0 +1,29 @@
+package biocode.fims.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link MetricsRegistry} which discards all metrics. This is the default registry.
+ *
+ * @author rjewing
+ */
+public class NoopMetricsRegistry implements MetricsRegistry {
+
+    @Override
+    public void record(String name, long nanos, String... tags) {
+    }
+
+    @Override
+    public void increment(String name, long amount, String... tags) {
+    }
+
+    @Override
+    public List<MetricSnapshot> snapshot() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void clear() {
+    }
+}
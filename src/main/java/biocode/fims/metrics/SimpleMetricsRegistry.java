@@ -0,0 +1,99 @@
+package biocode.fims.metrics;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link MetricsRegistry} which keeps the count, total & max of each timer and the value of each counter in memory.
+ * <p>
+ * Values are accumulated since the registry was created or last cleared.
+ *
+ * @author rjewing
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+    private final Map<Key, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String name, long nanos, String... tags) {
+        timers.computeIfAbsent(new Key(name, tags), k -> new Timer()).record(nanos);
+    }
+
+    @Override
+    public void increment(String name, long amount, String... tags) {
+        counters.computeIfAbsent(new Key(name, tags), k -> new LongAdder()).add(amount);
+    }
+
+    @Override
+    public List<MetricSnapshot> snapshot() {
+        List<MetricSnapshot> snapshot = new ArrayList<>();
+
+        timers.forEach((k, t) -> snapshot.add(new MetricSnapshot(
+                k.name, k.tags, MetricSnapshot.Type.TIMER, t.count.sum(), toMillis(t.total.sum()), toMillis(t.max.get())
+        )));
+        counters.forEach((k, c) -> snapshot.add(new MetricSnapshot(
+                k.name, k.tags, MetricSnapshot.Type.COUNTER, c.sum(), null, null
+        )));
+
+        snapshot.sort(Comparator.comparing(MetricSnapshot::getName).thenComparing(s -> s.getTags().toString()));
+        return snapshot;
+    }
+
+    @Override
+    public void clear() {
+        timers.clear();
+        counters.clear();
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+    }
+
+    private static class Key {
+        private final String name;
+        private final Map<String, String> tags;
+
+        private Key(String name, String... tags) {
+            if (tags.length % 2 != 0) {
+                throw new IllegalArgumentException("tags must be key, value pairs");
+            }
+
+            this.name = name;
+
+            Map<String, String> tagMap = new TreeMap<>();
+            for (int i = 0; i < tags.length; i += 2) {
+                tagMap.put(tags[i], tags[i + 1]);
+            }
+            this.tags = Collections.unmodifiableMap(tagMap);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return name.equals(key.name) && tags.equals(key.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + tags.hashCode();
+        }
+    }
+}
@@ -1,15 +1,15 @@
 package biocode.fims.models;
 
+import biocode.fims.config.ConfigCache;
 import biocode.fims.config.network.NetworkConfig;
-import biocode.fims.models.dataTypes.JsonBinaryType;
+import biocode.fims.models.dataTypes.JacksonUtil;
 import biocode.fims.serializers.JsonViewOverride;
 import biocode.fims.serializers.Views;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonView;
-import org.hibernate.annotations.Type;
-import org.hibernate.annotations.TypeDef;
+import org.hibernate.annotations.ColumnTransformer;
 
 import javax.persistence.*;
 import java.util.Date;
@@ -19,7 +19,6 @@ import java.util.List;
  * @author rjewing
  */
 @JsonIgnoreProperties({ "config" })
-@TypeDef(name = "jsonb", typeClass = JsonBinaryType.class)
 @Entity
 @Table(name = "networks")
 public class Network {
@@ -28,6 +27,7 @@ public class Network {
     private String title;
     private String description;
     private NetworkConfig networkConfig;
+    private String configJson;
     private Date created;
     private Date modified;
     private User user;
@@ -69,16 +69,47 @@ public class Network {
         this.description = description;
     }
 
+    /**
+     * The config is parsed from the persisted json the first time it is accessed. Parsed configs are shared w/ other
+     * Network instances via {@link ConfigCache#NETWORK_CONFIGS} until the network is modified, so the returned config
+     * must not be modified.
+     */
     @JsonProperty("config")
     @JsonView(Views.DetailedConfig.class)
-    @Type(type = "jsonb")
-    @Column(columnDefinition = "jsonb", name = "config", updatable = false)
+    @Transient
     public NetworkConfig getNetworkConfig() {
+        if (networkConfig == null && configJson != null) {
+            networkConfig = ConfigCache.NETWORK_CONFIGS.get(
+                    id,
+                    id == 0 ? null : modified,
+                    () -> JacksonUtil.fromString(configJson, NetworkConfig.class)
+            );
+        }
         return networkConfig;
     }
 
     public void setNetworkConfig(NetworkConfig networkConfig) {
         this.networkConfig = networkConfig;
+        this.configJson = null;
+    }
+
+    /**
+     * the raw config json. We map this instead of the NetworkConfig so hibernate doesn't parse, copy & compare the
+     * config every time a Network is loaded.
+     */
+    @JsonIgnore
+    @ColumnTransformer(read = "config::text", write = "?::jsonb")
+    @Column(columnDefinition = "jsonb", name = "config", updatable = false)
+    private String getConfigJson() {
+        if (configJson == null && networkConfig != null) {
+            configJson = JacksonUtil.toString(networkConfig);
+        }
+        return configJson;
+    }
+
+    private void setConfigJson(String configJson) {
+        this.configJson = configJson;
+        this.networkConfig = null;
     }
 
     @Column(updatable = false)
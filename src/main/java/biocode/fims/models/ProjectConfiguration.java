@@ -1,5 +1,6 @@
 package biocode.fims.models;
 
+import biocode.fims.config.ConfigCache;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.config.project.models.PersistedProjectConfig;
 import biocode.fims.models.dataTypes.JsonBinaryType;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.Type;
 import org.hibernate.annotations.TypeDef;
 
 import javax.persistence.*;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Objects;
 
@@ -109,12 +111,25 @@ public class ProjectConfiguration {
         this.persistedProjectConfig = persistedProjectConfig;
     }
 
+    /**
+     * The config is built from the {@link PersistedProjectConfig} & the {@link Network} config the first time it is
+     * accessed. Built configs are shared w/ other ProjectConfiguration instances via {@link ConfigCache#PROJECT_CONFIGS}
+     * until either the project configuration or the network is modified, so the returned config must not be modified.
+     */
     @JsonProperty("config")
     @JsonView(Views.Detailed.class)
     @Transient
     public ProjectConfig getProjectConfig() {
         if (projectConfig == null) {
-            projectConfig = persistedProjectConfig.toProjectConfig(network.getNetworkConfig());
+            Object version = id == 0 || modified == null || network.getModified() == null
+                    ? null
+                    : Arrays.asList(modified, network.getId(), network.getModified());
+
+            projectConfig = ConfigCache.PROJECT_CONFIGS.get(
+                    id,
+                    version,
+                    () -> persistedProjectConfig.toProjectConfig(network.getNetworkConfig())
+            );
         }
         return projectConfig;
     }
@@ -0,0 +1,47 @@
+package biocode.fims.models;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * The {@link Project}s a {@link User} is able to read.
+ *
+ * @author rjewing
+ */
+public class ProjectPermissions {
+    private final Set<Integer> publicProjects;
+    private final Set<Integer> memberProjects;
+
+    /**
+     * @param publicProjects ids of all public projects
+     * @param memberProjects ids of all projects the user is a member of
+     */
+    public ProjectPermissions(Set<Integer> publicProjects, Set<Integer> memberProjects) {
+        this.publicProjects = Collections.unmodifiableSet(publicProjects);
+        this.memberProjects = Collections.unmodifiableSet(memberProjects);
+    }
+
+    public Set<Integer> publicProjects() {
+        return publicProjects;
+    }
+
+    public Set<Integer> memberProjects() {
+        return memberProjects;
+    }
+
+    public boolean isPublic(int projectId) {
+        return publicProjects.contains(projectId);
+    }
+
+    public boolean isMember(int projectId) {
+        return memberProjects.contains(projectId);
+    }
+
+    /**
+     * @param projectId
+     * @return true if the project is public or the user is a member of the project
+     */
+    public boolean canRead(int projectId) {
+        return isPublic(projectId) || isMember(projectId);
+    }
+}
@@ -0,0 +1,99 @@
+package biocode.fims.query;
+
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opaque token used for keyset pagination of a {@link biocode.fims.query.dsl.Query}.
+ * <p>
+ * Query results are ordered by (local_identifier, expedition_id) of the queryEntity. The token contains the
+ * key of the last record on the previous page, so the next page can be fetched w/ an indexed
+ * comparison instead of scanning and discarding all previous rows w/ an OFFSET.
+ *
+ * @author rjewing
+ */
+public class ContinuationToken {
+    private static final String SEPARATOR = ":";
+    // the token is bound to these named sql params, so the generated sql is the same for every page
+    public static final String LOCAL_IDENTIFIER_PARAM = "keysetLocalIdentifier";
+    public static final String EXPEDITION_ID_PARAM = "keysetExpeditionId";
+
+    private final String localIdentifier;
+    private final int expeditionId;
+
+    public ContinuationToken(String localIdentifier, int expeditionId) {
+        Assert.notNull(localIdentifier);
+        this.localIdentifier = localIdentifier;
+        this.expeditionId = expeditionId;
+    }
+
+    public String localIdentifier() {
+        return localIdentifier;
+    }
+
+    public int expeditionId() {
+        return expeditionId;
+    }
+
+    /**
+     * @return the sql param values for {@link #LOCAL_IDENTIFIER_PARAM} & {@link #EXPEDITION_ID_PARAM}
+     */
+    public Map<String, Object> params() {
+        Map<String, Object> params = new HashMap<>();
+        params.put(LOCAL_IDENTIFIER_PARAM, localIdentifier);
+        params.put(EXPEDITION_ID_PARAM, expeditionId);
+        return params;
+    }
+
+    public String encode() {
+        String key = expeditionId + SEPARATOR + localIdentifier;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token a token previously returned from {@link #encode()}
+     * @return the decoded token, or null if token is null or empty
+     */
+    public static ContinuationToken decode(String token) {
+        if (token == null || token.trim().isEmpty()) return null;
+
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            int i = key.indexOf(SEPARATOR);
+
+            // the localIdentifier may contain the separator, but the expeditionId will not
+            return new ContinuationToken(key.substring(i + 1), Integer.parseInt(key.substring(0, i)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new FimsRuntimeException(QueryCode.INVALID_QUERY, 400, "invalid continuation token");
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ContinuationToken)) return false;
+
+        ContinuationToken that = (ContinuationToken) o;
+
+        if (expeditionId != that.expeditionId) return false;
+        return localIdentifier.equals(that.localIdentifier);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = localIdentifier.hashCode();
+        result = 31 * result + expeditionId;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -33,6 +33,7 @@ public class JoinBuilder {
     private Entity queryEntity;
     private Config config;
     private boolean expeditions = false;
+    private boolean childJoins = false;
 
     JoinBuilder(Entity queryEntity, Config config, int networkId) {
         this.queryEntity = queryEntity;
@@ -62,6 +63,14 @@ public class JoinBuilder {
         expeditions = val;
     }
 
+    /**
+     * @return true if a child {@link Entity} was joined by {@link #build()}. Child joins can return multiple rows
+     * for each queryEntity record
+     */
+    boolean joinsChildEntities() {
+        return childJoins;
+    }
+
     public String build() {
         if (expeditions) {
             appendExpeditionsJoin();
@@ -152,6 +161,7 @@ public class JoinBuilder {
 
     private void appendChildJoin(Entity parentEntity, Entity childEntity) {
         String table = PostgresUtils.entityTableAs(networkId, childEntity.getConceptAlias());
+        childJoins = true;
 
         joinString
                 .append(" LEFT JOIN ")
@@ -28,6 +28,8 @@ public class QueryBuilder implements QueryBuildingExpressionVisitor {
     private Map<String, Object> params;
     private Integer page;
     private Integer limit;
+    private boolean keyset = false;
+    private ContinuationToken continuationToken;
 
     public QueryBuilder(Config config, int networkId, String entityConceptAlias) {
         this.config = config;
@@ -56,6 +58,24 @@ public class QueryBuilder implements QueryBuildingExpressionVisitor {
         this.limit = limit;
     }
 
+    /**
+     * Use keyset pagination instead of OFFSET pagination. Each page is fetched by seeking past the
+     * (local_identifier, expedition_id) of the last record on the previous page, so every page
+     * costs the same as the first.
+     *
+     * @param config
+     * @param networkId
+     * @param entityConceptAlias
+     * @param continuationToken  token returned w/ the previous page. null to fetch the first page
+     * @param limit              # of records to return
+     */
+    public QueryBuilder(Config config, int networkId, String entityConceptAlias, ContinuationToken continuationToken, int limit) {
+        this(config, networkId, entityConceptAlias);
+        this.keyset = true;
+        this.continuationToken = continuationToken;
+        this.limit = limit;
+    }
+
     @Override
     public Integer page() {
         return page;
@@ -66,6 +86,16 @@ public class QueryBuilder implements QueryBuildingExpressionVisitor {
         return limit;
     }
 
+    @Override
+    public boolean keysetPagination() {
+        return keyset;
+    }
+
+    @Override
+    public ContinuationToken continuationToken() {
+        return continuationToken;
+    }
+
     @Override
     public Entity entity() {
         return queryEntity;
@@ -376,42 +406,79 @@ public class QueryBuilder implements QueryBuildingExpressionVisitor {
             throw new FimsRuntimeException(QueryCode.INVALID_QUERY, 400, "");
         }
 
-        String sql = buildSelect() + "FROM " +
-                buildTable(queryEntity.getConceptAlias());
+        String alias = queryEntity.getConceptAlias();
+        String table = buildTable(alias);
 
         StringBuilder orderBy = new StringBuilder()
                 .append(" ORDER BY ")
-                .append(queryEntity.getConceptAlias())
+                .append(alias)
                 .append(".local_identifier, ")
-                .append(queryEntity.getConceptAlias())
+                .append(alias)
                 .append(".expedition_id");
 
+        StringBuilder limitBuilder = new StringBuilder();
         if (limit != null) {
-            if (page != null) {
-                orderBy.append(" OFFSET ").append(page * limit);
+            if (page != null && !keyset) {
+                limitBuilder.append(" OFFSET ").append(page * limit);
             }
-            orderBy.append(" LIMIT ").append(limit);
-        }
-
-        if (allQuery && !onlyPublicExpeditions) {
-            return new ParametrizedQuery(sql + joinBuilder.build() + orderBy.toString(), params);
+            limitBuilder.append(" LIMIT ").append(limit);
         }
 
         if (onlyPublicExpeditions) {
             addPublicExpeditions();
         }
 
-        sql += joinBuilder.build();
+        if (continuationToken != null) {
+            addContinuationToken();
+        }
+
+        String joins = joinBuilder.build();
+        String where = (whereBuilder.toString().trim().length() > 0) ? " WHERE " + whereBuilder.toString() : "";
 
-        if (whereBuilder.toString().trim().length() > 0) {
-            sql += " WHERE " + whereBuilder.append(orderBy).toString();
+        String sql;
+        if (keyset && joinBuilder.joinsChildEntities()) {
+            // joining child entities returns a row for each child record, so a LIMIT on the rows could end the
+            // page part way through a record. Instead we page over the distinct keys & join the related records
+            String pageKeys = "SELECT DISTINCT " + alias + ".local_identifier, " + alias + ".expedition_id FROM " +
+                    table + joins + where + orderBy + limitBuilder;
+
+            sql = buildSelect() + "FROM " + table +
+                    " JOIN (" + pageKeys + ") AS keyset_page ON " +
+                    alias + ".local_identifier = keyset_page.local_identifier and " +
+                    alias + ".expedition_id = keyset_page.expedition_id" +
+                    joins + where + orderBy;
         } else {
-            sql += orderBy.toString();
+            sql = buildSelect() + "FROM " + table + joins + where + orderBy + limitBuilder;
+        }
+
+        if (continuationToken != null) {
+            params.putAll(continuationToken.params());
         }
 
         return new ParametrizedQuery(sql, params);
     }
 
+    /**
+     * seek past the last record of the previous page. The row comparison matches the ORDER BY
+     * and is able to use the (local_identifier, expedition_id) unique index.
+     * <p>
+     * The token is bound to the {@link ContinuationToken} named params, so the sql can be cached & reused
+     * for every page.
+     */
+    private void addContinuationToken() {
+        String alias = queryEntity.getConceptAlias();
+        String clause = "(" + alias + ".local_identifier, " + alias + ".expedition_id) > (:" +
+                ContinuationToken.LOCAL_IDENTIFIER_PARAM + ", :" +
+                ContinuationToken.EXPEDITION_ID_PARAM + ")";
+
+        if (whereBuilder.toString().trim().length() == 0) {
+            whereBuilder.append(clause);
+        } else {
+            whereBuilder.insert(0, "(");
+            whereBuilder.append(") AND ").append(clause);
+        }
+    }
+
     private void addPublicExpeditions() {
         joinBuilder.joinExpeditions(true);
         if (whereBuilder.toString().trim().length() == 0) {
@@ -443,6 +510,15 @@ public class QueryBuilder implements QueryBuildingExpressionVisitor {
                 .append("expeditions.project_id AS \"projectId\"")
         ;
 
+        if (keyset) {
+            s
+                    .append(", ")
+                    .append(queryEntity.getConceptAlias())
+                    .append(".local_identifier AS \"localIdentifier\", ")
+                    .append(queryEntity.getConceptAlias())
+                    .append(".expedition_id AS \"expeditionId\"");
+        }
+
         for (Entity e : joinBuilder.selectEntities()) {
             s
                     .append(", ")
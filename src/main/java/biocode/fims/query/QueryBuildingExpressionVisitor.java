@@ -17,5 +17,15 @@ public interface QueryBuildingExpressionVisitor extends ExpressionVisitor {
 
     Integer limit();
 
+    /**
+     * @return true if the query is paginated w/ a {@link ContinuationToken} instead of a page
+     */
+    boolean keysetPagination();
+
+    /**
+     * @return the token of the page to fetch. null if this is the first page or not a keyset paginated query
+     */
+    ContinuationToken continuationToken();
+
     void setProjectConfig(ProjectConfig config);
 }
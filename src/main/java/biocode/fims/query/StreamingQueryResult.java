@@ -0,0 +1,69 @@
+package biocode.fims.query;
+
+import biocode.fims.bcid.BcidBuilder;
+import biocode.fims.config.models.Entity;
+import biocode.fims.query.dsl.Query;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordMapper;
+import biocode.fims.repositories.RecordRepository;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * {@link Query#queryEntity()} results which are streamed from the database as they are consumed.
+ * <p>
+ * Unlike {@link QueryResult}, the records are never held in memory. The query is executed each time
+ * {@link #forEach(boolean, boolean, Consumer)} is called. Any related entities selected in the query
+ * are ignored, use {@link #queryResults()} if the related records are needed.
+ *
+ * @author rjewing
+ */
+public class StreamingQueryResult {
+
+    private final Query query;
+    private final RecordRepository recordRepository;
+    private final Entity entity;
+    private final Entity parentEntity;
+    private final String bcidResolverPrefix;
+
+    public StreamingQueryResult(Query query, RecordRepository recordRepository, String bcidResolverPrefix) {
+        this.query = query;
+        this.recordRepository = recordRepository;
+        this.entity = query.queryEntity();
+        this.parentEntity = entity.isChildEntity()
+                ? query.configEntities().stream()
+                .filter(e -> e.getConceptAlias().equals(entity.getParentEntity()))
+                .findFirst()
+                .orElse(null)
+                : null;
+        this.bcidResolverPrefix = bcidResolverPrefix;
+    }
+
+    public Entity entity() {
+        return entity;
+    }
+
+    /**
+     * Execute the query, passing the {@link Record#properties()} of each record to the consumer as a {@link Map}
+     * of column->value pairs
+     *
+     * @param includeEmpty if true, the result will include entries for all {@link biocode.fims.config.models.Attribute}s
+     *                     in the {@link Entity}
+     * @param consumer
+     */
+    public void forEach(boolean includeEmpty, boolean includeBcidPrefix, Consumer<Map<String, Object>> consumer) {
+        BcidBuilder bcidBuilder = new BcidBuilder(entity, parentEntity, includeBcidPrefix ? bcidResolverPrefix : "");
+        RecordMapper recordMapper = new RecordMapper(bcidBuilder, entity.getAttributes(), includeEmpty);
+
+        recordRepository.query(query, record -> consumer.accept(recordMapper.map(record)));
+    }
+
+    /**
+     * Execute the query, materializing the results of the {@link #entity()} and any related entities selected
+     * in the query.
+     */
+    public QueryResults queryResults() {
+        return recordRepository.query(query);
+    }
+}
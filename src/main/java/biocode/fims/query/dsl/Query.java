@@ -7,13 +7,11 @@ import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.ErrorCode;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.models.Network;
 import biocode.fims.models.Project;
 import biocode.fims.query.*;
-import org.parboiled.Parboiled;
 import org.parboiled.errors.ParserRuntimeException;
-import org.parboiled.parserunners.ReportingParseRunner;
-import org.parboiled.support.ParsingResult;
 import org.springframework.util.Assert;
 
 import java.util.*;
@@ -32,6 +30,8 @@ public class Query {
     private List<Integer> projects;
     private List<Integer> restrictToProjects;
     private boolean onlyPublicExpeditions = false;
+    // identifies the sql generated for this query. null if the sql should not be cached
+    private List<Object> cacheKey;
 
     public Query(QueryBuildingExpressionVisitor queryBuilder, Config config, Expression expression) {
         this.config = config;
@@ -49,17 +49,54 @@ public class Query {
         return queryBuilder.limit();
     }
 
+    public boolean keysetPagination() {
+        return queryBuilder.keysetPagination();
+    }
+
     public ParametrizedQuery parameterizedQuery() {
+        if (cacheKey == null) {
+            return buildParameterizedQuery();
+        }
+
+        List<Object> key = new ArrayList<>(cacheKey);
+        key.add(restrictToProjects == null ? null : new ArrayList<>(restrictToProjects));
+        key.add(onlyPublicExpeditions);
+        return bindContinuationToken(QueryCache.parameterizedQuery(key, config, this::buildParameterizedQuery));
+    }
+
+    /**
+     * the cached sql is shared by every page of a keyset paginated query, so we need to bind the
+     * {@link ContinuationToken} for this page
+     */
+    private ParametrizedQuery bindContinuationToken(ParametrizedQuery query) {
+        ContinuationToken token = queryBuilder.continuationToken();
+        if (token == null) return query;
+
+        Map<String, Object> params = new HashMap<>(query.params());
+        params.putAll(token.params());
+        return new ParametrizedQuery(query.sql(), params);
+    }
+
+    private ParametrizedQuery buildParameterizedQuery() {
+        return Metrics.time("query.build", this::generateParameterizedQuery);
+    }
+
+    private ParametrizedQuery generateParameterizedQuery() {
+        // the expression may be shared w/ other queries, so we don't modify it
+        Expression expression = this.expression;
+
         if (restrictToProjects != null) {
             Expression projectExpression = new ProjectExpression(restrictToProjects);
             if (expression instanceof AllExpression) {
                 expression = projectExpression;
             } else if (expression instanceof SelectExpression) {
                 SelectExpression selectExpression = (SelectExpression) expression;
+                String selectString = String.join(",", selectExpression.entities());
                 if (selectExpression.expression() instanceof AllExpression) {
-                    selectExpression.setExpression(projectExpression);
+                    expression = new SelectExpression(selectString, projectExpression);
                 } else {
-                    selectExpression.setExpression(
+                    expression = new SelectExpression(
+                            selectString,
                             new LogicalExpression(
                                     LogicalOperator.AND,
                                     selectExpression.expression(),
@@ -167,16 +204,34 @@ public class Query {
 
     public static Query build(Network network, String conceptAlias, String queryString, Integer page, Integer limit) {
         QueryBuilder queryBuilder = new QueryBuilder(network.getNetworkConfig(), network.getId(), conceptAlias, page, limit);
+        return parse(network, queryBuilder, queryString, Arrays.asList(queryString, network.getId(), conceptAlias, page, limit, false, null));
+    }
 
-        QueryParser parser = Parboiled.createParser(QueryParser.class, queryBuilder, network.getNetworkConfig());
-        try {
-            ParsingResult<Query> result = new ReportingParseRunner<Query>(parser.Parse()).run(queryString);
-
-            if (result.hasErrors() || result.resultValue == null) {
-                throw new FimsRuntimeException(QueryCode.INVALID_QUERY, 400, result.parseErrors.toString());
-            }
+    /**
+     * Build a Query which is paginated using a {@link ContinuationToken} instead of a page.
+     *
+     * @param network
+     * @param conceptAlias
+     * @param queryString
+     * @param continuationToken the token returned w/ the previous page of results. null or empty to fetch the first page
+     * @param limit
+     * @return
+     */
+    public static Query buildKeyset(Network network, String conceptAlias, String queryString, String continuationToken, int limit) {
+        ContinuationToken token = ContinuationToken.decode(continuationToken);
+        QueryBuilder queryBuilder = new QueryBuilder(network.getNetworkConfig(), network.getId(), conceptAlias, token, limit);
+        return parse(network, queryBuilder, queryString, Arrays.asList(queryString, network.getId(), conceptAlias, null, limit, true, token != null));
+    }
 
-            return result.resultValue;
+    /**
+     * Parsed expressions and the generated sql are cached by {@link QueryCache}, so repeated queries skip parsing and
+     * sql generation.
+     */
+    private static Query parse(Network network, QueryBuilder queryBuilder, String queryString, List<Object> cacheKey) {
+        try {
+            Query query = new Query(queryBuilder, network.getNetworkConfig(), QueryCache.expression(queryString));
+            query.cacheKey = cacheKey;
+            return query;
         } catch (ParserRuntimeException e) {
             String parsedMsg = e.getMessage().replaceFirst(" action '(.*)'", "");
             throw new FimsRuntimeException(QueryCode.INVALID_QUERY, 400, parsedMsg.substring(0, (parsedMsg.indexOf("^"))));
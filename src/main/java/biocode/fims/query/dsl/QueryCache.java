@@ -0,0 +1,125 @@
+package biocode.fims.query.dsl;
+
+import biocode.fims.config.Config;
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
+import biocode.fims.query.ParametrizedQuery;
+import org.parboiled.Parboiled;
+import org.parboiled.Rule;
+import org.parboiled.parserunners.ReportingParseRunner;
+import org.parboiled.support.ParsingResult;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Shared LRU cache of parsed query {@link Expression}s and the {@link ParametrizedQuery} generated for them.
+ * <p>
+ * Parsed Expressions are cached by query string. The generated sql is cached by query string, config, networkId,
+ * entity, pagination & restrictions. Configs are compared by identity. Parsed configs are shared until they are
+ * modified (see {@link biocode.fims.config.ConfigCache}), so a modified config will not use any previously cached
+ * sql.
+ * <p>
+ * Cached Expressions & ParametrizedQuerys are shared and must not be modified.
+ *
+ * @author rjewing
+ */
+final class QueryCache {
+    static final int MAX_EXPRESSIONS = 1000;
+    static final int MAX_QUERIES = 1000;
+
+    private static final Map<String, Expression> expressions = lruMap(MAX_EXPRESSIONS);
+    private static final Map<SqlKey, ParametrizedQuery> queries = lruMap(MAX_QUERIES);
+
+    private QueryCache() {
+    }
+
+    /**
+     * @param queryString
+     * @return the parsed Expression
+     * @throws org.parboiled.errors.ParserRuntimeException
+     */
+    static Expression expression(String queryString) {
+        Expression expression = expressions.get(queryString);
+        if (expression != null) return expression;
+
+        ParsingResult<Object> result = Metrics.time("query.parse", () -> {
+            // parser instances hold action state (Var, StringVar), so we create a new parser for each parse.
+            // parboiled caches the generated parser class, so this is cheap
+            Rule rule = Parboiled.createParser(QueryParser.class, null, null).Parse();
+            return new ReportingParseRunner<Object>(rule).run(queryString);
+        });
+
+        if (result.hasErrors() || result.resultValue == null) {
+            throw new FimsRuntimeException(QueryCode.INVALID_QUERY, 400, result.parseErrors.toString());
+        }
+
+        expression = (Expression) result.resultValue;
+        expressions.put(queryString, expression);
+        return expression;
+    }
+
+    /**
+     * @param key
+     * @param config   the config used to generate the query. Compared by identity
+     * @param supplier generates the ParametrizedQuery if it is not cached
+     * @return the ParametrizedQuery
+     */
+    static ParametrizedQuery parameterizedQuery(List<Object> key, Config config, Supplier<ParametrizedQuery> supplier) {
+        SqlKey sqlKey = new SqlKey(key, config);
+
+        ParametrizedQuery query = queries.get(sqlKey);
+        if (query != null) return query;
+
+        ParametrizedQuery q = supplier.get();
+        query = new ParametrizedQuery(q.sql(), Collections.unmodifiableMap(new HashMap<>(q.params())));
+        queries.put(sqlKey, query);
+        return query;
+    }
+
+    /**
+     * Remove all cached Expressions & ParametrizedQuerys
+     */
+    static void clear() {
+        expressions.clear();
+        queries.clear();
+    }
+
+    static int size() {
+        return queries.size();
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    private static class SqlKey {
+        private final List<Object> key;
+        private final Config config;
+
+        private SqlKey(List<Object> key, Config config) {
+            this.key = key;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SqlKey)) return false;
+
+            SqlKey that = (SqlKey) o;
+            return config == that.config && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + System.identityHashCode(config);
+        }
+    }
+}
@@ -17,6 +17,12 @@ import static biocode.fims.query.dsl.LogicalOperator.AND;
 import static biocode.fims.query.dsl.LogicalOperator.OR;
 
 /**
+ * Parses a query string into a {@link Query}.
+ * <p>
+ * If the parser is created w/o a queryBuilder, the parsed {@link Expression} is returned instead. The parsed
+ * Expression does not depend on the queryBuilder or config, so a single parser instance can be reused to parse
+ * many queries. Parser instances are not thread-safe.
+ *
  * @author rjewing
  */
 @SuppressWarnings({"InfiniteRecursion", "WeakerAccess"})
@@ -40,7 +46,7 @@ public class QueryParser extends BaseParser<Object> {
                         ValueStack stack = context.getValueStack();
 
                         if (stack.isEmpty()) {
-                            push(new Query(queryBuilder, config, new EmptyExpression()));
+                            push(result(new EmptyExpression()));
                         } else if (stack.size() == 1) {
                             Expression expression = popExp();
 
@@ -48,7 +54,7 @@ public class QueryParser extends BaseParser<Object> {
                                 ((SelectExpression) expression).setExpression(new AllExpression());
                             }
 
-                            push(new Query(queryBuilder, config, expression));
+                            push(result(expression));
                         } else {
                             List<String> selectEntities = new ArrayList<>();
                             Expression expression = null;
@@ -78,7 +84,7 @@ public class QueryParser extends BaseParser<Object> {
                                     // If we have no other objects, then we have an AllExpression
                                     e = new SelectExpression(String.join(",", selectEntities), new AllExpression());
                                 }
-                                push(new Query(queryBuilder, config, e));
+                                push(result(e));
                             }
                         }
 
@@ -613,6 +619,10 @@ public class QueryParser extends BaseParser<Object> {
         };
     }
 
+    Object result(Expression expression) {
+        return queryBuilder == null ? expression : new Query(queryBuilder, config, expression);
+    }
+
     Expression popExp() {
         return (Expression) pop();
     }
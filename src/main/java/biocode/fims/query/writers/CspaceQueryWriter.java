@@ -5,6 +5,7 @@ import biocode.fims.config.models.Field;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.FileCode;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.query.QueryResult;
 import biocode.fims.utils.FileUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -34,6 +35,10 @@ public class CspaceQueryWriter implements QueryWriter {
 
     @Override
     public List<File> write() {
+        return Metrics.time("query.write", this::writeFiles, "writer", "cspace");
+    }
+
+    private List<File> writeFiles() {
         File file = FileUtils.createUniqueFile("output.cspace.xml", System.getProperty("java.io.tmpdir"));
 
         try (Writer writer = new BufferedWriter(new OutputStreamWriter(
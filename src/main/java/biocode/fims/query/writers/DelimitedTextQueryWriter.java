@@ -4,7 +4,9 @@ import biocode.fims.config.Config;
 import biocode.fims.fimsExceptions.errorCodes.FileCode;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.query.QueryResults;
+import biocode.fims.query.StreamingQueryResult;
 import biocode.fims.utils.FileUtils;
 import org.apache.commons.text.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -20,6 +22,7 @@ public class DelimitedTextQueryWriter implements QueryWriter {
     private final String delimiter;
     private final boolean isCsv;
     private final WriterSheetGenerator writerSheetGenerator;
+    private final WriterWorksheet streamingWorksheet;
 
     private WriterWorksheet worksheet;
 
@@ -27,11 +30,42 @@ public class DelimitedTextQueryWriter implements QueryWriter {
         this.delimiter = delimiter;
         isCsv = StringUtils.equals(delimiter.trim(), ",");
         this.writerSheetGenerator = new WriterSheetGenerator(queryResults, config);
+        this.streamingWorksheet = null;
+    }
+
+    /**
+     * Constructor for writing the results of a query as they are read from the database.
+     * A single file will be written containing the {@link StreamingQueryResult#entity()} records.
+     * <p>
+     * If the entity's worksheet contains other entities, the {@link StreamingQueryResult#queryResults()} are
+     * materialized instead, so the related entities can be joined to the records.
+     *
+     * @param queryResult
+     * @param delimiter
+     * @param config
+     */
+    public DelimitedTextQueryWriter(StreamingQueryResult queryResult, String delimiter, Config config) {
+        this.delimiter = delimiter;
+        isCsv = StringUtils.equals(delimiter.trim(), ",");
+
+        if (WriterSheetGenerator.canStream(queryResult, config)) {
+            this.writerSheetGenerator = null;
+            this.streamingWorksheet = WriterSheetGenerator.streamingWriterSheet(queryResult, config);
+        } else {
+            this.writerSheetGenerator = new WriterSheetGenerator(queryResult.queryResults(), config);
+            this.streamingWorksheet = null;
+        }
     }
 
     @Override
     public List<File> write() {
-        List<WriterWorksheet> sheets = writerSheetGenerator.recordsToWriterSheets();
+        return Metrics.time("query.write", this::writeFiles, "writer", "delimited");
+    }
+
+    private List<File> writeFiles() {
+        List<WriterWorksheet> sheets = (streamingWorksheet == null)
+                ? writerSheetGenerator.recordsToWriterSheets()
+                : Collections.singletonList(streamingWorksheet);
 
         List<File> files = sheets.stream()
                 .map(this::writeWorksheet)
@@ -49,38 +83,47 @@ public class DelimitedTextQueryWriter implements QueryWriter {
         String ext = (isCsv) ? "csv" : "txt";
         File file = FileUtils.createUniqueFile(worksheet.sheetName + "_output." + ext, System.getProperty("java.io.tmpdir"));
 
+        int rows;
         try (Writer writer = new BufferedWriter(new OutputStreamWriter(
                 new FileOutputStream(file)))) {
 
-            if (worksheet.data.size() == 0) {
-                return null;
-            }
-
             writeHeader(writer);
-            writeData(writer);
+            rows = writeData(writer);
 
         } catch (IOException e) {
             throw new FimsRuntimeException(FileCode.WRITE_ERROR, 500);
         }
 
+        if (rows == 0) {
+            file.delete();
+            return null;
+        }
+
         return file;
     }
 
-    private void writeData(Writer writer) throws IOException {
-        for (Map<String, Object> record : worksheet.data) {
-
-            for (String column : worksheet.columns) {
-                String val = String.valueOf(record.getOrDefault(column, ""));
-                if (isCsv) {
-                    writer.write(StringEscapeUtils.escapeCsv(val));
-                } else {
-                    writer.write(val);
-                }
-                writer.write(delimiter);
+    private int writeData(Writer writer) {
+        return worksheet.forEachRow(record -> {
+            try {
+                writeRow(writer, record);
+            } catch (IOException e) {
+                throw new FimsRuntimeException(FileCode.WRITE_ERROR, 500);
             }
+        });
+    }
 
-            writer.write("\n");
+    private void writeRow(Writer writer, Map<String, Object> record) throws IOException {
+        for (String column : worksheet.columns) {
+            String val = String.valueOf(record.getOrDefault(column, ""));
+            if (isCsv) {
+                writer.write(StringEscapeUtils.escapeCsv(val));
+            } else {
+                writer.write(val);
+            }
+            writer.write(delimiter);
         }
+
+        writer.write("\n");
     }
 
     private void writeHeader(Writer writer) throws IOException {
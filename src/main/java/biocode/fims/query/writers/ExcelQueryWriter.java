@@ -3,8 +3,10 @@ package biocode.fims.query.writers;
 import biocode.fims.config.Config;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.models.Project;
 import biocode.fims.query.QueryResults;
+import biocode.fims.query.StreamingQueryResult;
 import biocode.fims.run.ExcelWorkbookWriter;
 
 import java.io.File;
@@ -15,6 +17,7 @@ import java.util.*;
  */
 public class ExcelQueryWriter extends ExcelWorkbookWriter implements QueryWriter {
     private final WriterSheetGenerator writerSheetGenerator;
+    private final WriterWorksheet streamingWorksheet;
     private QueryResults queryResults;
 
     /**
@@ -30,6 +33,7 @@ public class ExcelQueryWriter extends ExcelWorkbookWriter implements QueryWriter
         super(config, naan);
         this.queryResults = queryResults;
         this.writerSheetGenerator = new WriterSheetGenerator(queryResults, config);
+        this.streamingWorksheet = null;
     }
 
     /**
@@ -43,10 +47,68 @@ public class ExcelQueryWriter extends ExcelWorkbookWriter implements QueryWriter
         super(project, naan, null);
         this.queryResults = queryResults;
         this.writerSheetGenerator = new WriterSheetGenerator(queryResults, project.getProjectConfig());
+        this.streamingWorksheet = null;
+    }
+
+    /**
+     * Constructor for writing a network based workbook containing the {@link StreamingQueryResult#entity()}
+     * records. Each record is written to the data sheet as it is read from the database.
+     * <p>
+     * If the entity's worksheet contains other entities, the {@link StreamingQueryResult#queryResults()} are
+     * materialized instead, so the related entities can be joined to the records.
+     * <p>
+     * Note: when streamed, the results are not known until the workbook is written, so no
+     * {@link QueryCode#NO_RESOURCES} exception is thrown for empty results.
+     *
+     * @param config
+     * @param queryResult
+     * @param naan
+     */
+    public ExcelQueryWriter(Config config, StreamingQueryResult queryResult, int naan) {
+        super(config, naan);
+
+        if (WriterSheetGenerator.canStream(queryResult, config)) {
+            this.writerSheetGenerator = null;
+            this.streamingWorksheet = WriterSheetGenerator.streamingWriterSheet(queryResult, config);
+        } else {
+            this.queryResults = queryResult.queryResults();
+            this.writerSheetGenerator = new WriterSheetGenerator(queryResults, config);
+            this.streamingWorksheet = null;
+        }
+    }
+
+    /**
+     * Constructor for writing a project specific workbook containing the {@link StreamingQueryResult#entity()}
+     * records. See {@link #ExcelQueryWriter(Config, StreamingQueryResult, int)}
+     *
+     * @param project
+     * @param queryResult
+     * @param naan
+     */
+    public ExcelQueryWriter(Project project, StreamingQueryResult queryResult, int naan) {
+        super(project, naan, null);
+        Config config = project.getProjectConfig();
+
+        if (WriterSheetGenerator.canStream(queryResult, config)) {
+            this.writerSheetGenerator = null;
+            this.streamingWorksheet = WriterSheetGenerator.streamingWriterSheet(queryResult, config);
+        } else {
+            this.queryResults = queryResult.queryResults();
+            this.writerSheetGenerator = new WriterSheetGenerator(queryResults, config);
+            this.streamingWorksheet = null;
+        }
     }
 
     @Override
     public List<File> write() {
+        return Metrics.time("query.write", this::writeFiles, "writer", "excel");
+    }
+
+    private List<File> writeFiles() {
+        if (streamingWorksheet != null) {
+            return Collections.singletonList(super.write(Collections.singletonList(streamingWorksheet)));
+        }
+
         if (queryResults.isEmpty()) {
             throw new FimsRuntimeException(QueryCode.NO_RESOURCES, 400);
         }
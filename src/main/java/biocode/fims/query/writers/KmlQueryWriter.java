@@ -3,7 +3,9 @@ package biocode.fims.query.writers;
 import biocode.fims.fimsExceptions.errorCodes.FileCode;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.query.QueryResult;
+import biocode.fims.query.StreamingQueryResult;
 import biocode.fims.utils.FileUtils;
 import org.apache.commons.text.StringEscapeUtils;
 
@@ -11,18 +13,21 @@ import java.io.*;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author RJ Ewing
  */
 public class KmlQueryWriter implements QueryWriter {
     private final QueryResult queryResult;
+    private final StreamingQueryResult streamingQueryResult;
     private final String latColumn;
     private final String lngColumn;
     private final String nameColumn;
 
     private KmlQueryWriter(Builder builder) {
         this.queryResult = builder.queryResult;
+        this.streamingQueryResult = builder.streamingQueryResult;
         this.latColumn = builder.latColumn;
         this.lngColumn = builder.lngColumn;
         this.nameColumn = builder.nameColumn;
@@ -30,22 +35,26 @@ public class KmlQueryWriter implements QueryWriter {
 
     @Override
     public List<File> write() {
+        return Metrics.time("query.write", this::writeFiles, "writer", "kml");
+    }
+
+    private List<File> writeFiles() {
         File file = FileUtils.createUniqueFile("output.kml", System.getProperty("java.io.tmpdir"));
 
+        int[] count = {0};
         try (Writer writer = new BufferedWriter(new OutputStreamWriter(
                 new FileOutputStream(file)))) {
 
-            List<Map<String, Object>> records = queryResult.get(false, true);
-
-            if (records.size() == 0) {
-                throw new FimsRuntimeException(QueryCode.NO_RESOURCES, 400);
-            }
-
             startDocument(writer);
 
-            for (Map<String, Object> record: records) {
-                writePlacemark(writer, record);
-            }
+            forEachRecord(record -> {
+                try {
+                    writePlacemark(writer, record);
+                } catch (IOException e) {
+                    throw new FimsRuntimeException(FileCode.WRITE_ERROR, 500);
+                }
+                count[0]++;
+            });
 
             closeDocument(writer);
 
@@ -53,9 +62,22 @@ public class KmlQueryWriter implements QueryWriter {
             throw new FimsRuntimeException(FileCode.WRITE_ERROR, 500);
         }
 
+        if (count[0] == 0) {
+            file.delete();
+            throw new FimsRuntimeException(QueryCode.NO_RESOURCES, 400);
+        }
+
         return Collections.singletonList(file);
     }
 
+    private void forEachRecord(Consumer<Map<String, Object>> consumer) {
+        if (streamingQueryResult != null) {
+            streamingQueryResult.forEach(false, true, consumer);
+        } else {
+            queryResult.get(false, true).forEach(consumer);
+        }
+    }
+
     private void writePlacemark(Writer writer, Map<String, Object> record) throws IOException {
         String lat = String.valueOf(record.getOrDefault(latColumn, ""));
         String lng = String.valueOf(record.getOrDefault(lngColumn, ""));
@@ -109,6 +131,7 @@ public class KmlQueryWriter implements QueryWriter {
 
     public static class Builder {
         private final QueryResult queryResult;
+        private final StreamingQueryResult streamingQueryResult;
 
         private String latColumn;
         private String lngColumn;
@@ -117,6 +140,15 @@ public class KmlQueryWriter implements QueryWriter {
 
         public Builder(QueryResult queryResult) {
             this.queryResult = queryResult;
+            this.streamingQueryResult = null;
+        }
+
+        /**
+         * @param queryResult the query results to write. Each record is written as it is read from the database
+         */
+        public Builder(StreamingQueryResult queryResult) {
+            this.queryResult = null;
+            this.streamingQueryResult = queryResult;
         }
 
         /**
@@ -8,6 +8,8 @@ import biocode.fims.config.models.Attribute;
 import biocode.fims.config.models.Entity;
 import biocode.fims.query.QueryResult;
 import biocode.fims.query.QueryResults;
+import biocode.fims.query.StreamingQueryResult;
+import biocode.fims.records.Record;
 import org.apache.commons.collections.keyvalue.MultiKey;
 
 import java.util.*;
@@ -33,15 +35,10 @@ class WriterSheetGenerator {
 
         for (Map.Entry<String, LinkedList<QueryResult>> entry : queryResultsBySheet().entrySet()) {
             currentSheet = entry.getKey();
-            System.out.println(config.getClass());
-            System.out.println(config);
-            System.out.println(currentSheet);
 
             for (QueryResult queryResult : entry.getValue()) {
                 currentResult = queryResult;
                 entitiesBySheet.computeIfAbsent(currentSheet, k -> new ArrayList<>()).add(currentResult.entity());
-                System.out.println(currentResult.entity().getConceptAlias());
-                System.out.println(config.entitiesForSheet(currentSheet).stream().map(Entity::getConceptAlias).collect(Collectors.joining(",")));
 
                 if (recordsBySheet.containsKey(currentSheet)) {
                     mergeSheetRecords();
@@ -115,6 +112,58 @@ class WriterSheetGenerator {
         }
     }
 
+    /**
+     * A {@link StreamingQueryResult} only contains the {@link StreamingQueryResult#entity()} records, so it can only
+     * be streamed if no other entity shares the entity's worksheet. Otherwise the other entities' columns would be
+     * written w/o values, and the {@link StreamingQueryResult#queryResults()} need to be joined w/
+     * {@link #recordsToWriterSheets()}.
+     *
+     * @param queryResult
+     * @param config
+     * @return true if the queryResult can be written w/ {@link #streamingWriterSheet(StreamingQueryResult, Config)}
+     */
+    static boolean canStream(StreamingQueryResult queryResult, Config config) {
+        Entity e = queryResult.entity();
+        return !e.hasWorksheet() || config.entitiesForSheet(e.getWorksheet()).size() <= 1;
+    }
+
+    /**
+     * Generate a {@link WriterWorksheet} for a {@link StreamingQueryResult}. See {@link #canStream(StreamingQueryResult, Config)}
+     * <p>
+     * The records are not read until the sheet is written, so the columns are taken from the
+     * {@link Attribute}s of the sheet (or the {@link Entity} if it doesn't have a worksheet) instead of
+     * the records. This matches the columns of {@link #recordsToWriterSheets()}, except any record properties
+     * which are not an {@link Attribute} will not be written.
+     *
+     * @param queryResult
+     * @param config
+     * @return
+     */
+    static WriterWorksheet streamingWriterSheet(StreamingQueryResult queryResult, Config config) {
+        Entity e = queryResult.entity();
+        String sheetName = e.hasWorksheet() ? e.getWorksheet() : e.getConceptAlias();
+        List<Attribute> attributes = e.hasWorksheet() ? config.attributesForSheet(sheetName) : e.getAttributes();
+
+        LinkedList<String> columns = attributes.stream()
+                .map(Attribute::getColumn)
+                .distinct()
+                .collect(Collectors.toCollection(LinkedList::new));
+        columns.add(Record.EXPEDITION_CODE);
+        columns.add(Record.PROJECT_ID);
+        columns.add("bcid");
+
+        if (config.entitiesForSheet(sheetName).size() > 0) {
+            columns.sort(new ColumnComparator(config, sheetName));
+        }
+
+        // remove any auto-generated keys
+        if (e.isHashed()) {
+            columns.remove(e.getUniqueKey());
+        }
+
+        return new WriterWorksheet(sheetName, columns, queryResult);
+    }
+
     private List<WriterWorksheet> generateWriterWorksheets() {
         List<WriterWorksheet> sheets = new ArrayList<>();
         for (String sheetName : recordsBySheet.keySet()) {
@@ -1,8 +1,11 @@
 package biocode.fims.query.writers;
 
+import biocode.fims.query.StreamingQueryResult;
+
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author rjewing
@@ -11,6 +14,7 @@ public class WriterWorksheet {
     public final String sheetName;
     public final List<String> columns;
     public final List<Map<String, Object>> data;
+    private final StreamingQueryResult streamingData;
 
     public WriterWorksheet(String sheetName, List<String> columns) {
         this(sheetName, columns, Collections.emptyList());
@@ -20,5 +24,38 @@ public class WriterWorksheet {
         this.sheetName = sheetName;
         this.columns = columns;
         this.data = data;
+        this.streamingData = null;
+    }
+
+    /**
+     * Create a worksheet whose rows are streamed from the database as they are written.
+     * {@link #data} will always be empty, use {@link #forEachRow(Consumer)} to access the rows
+     */
+    public WriterWorksheet(String sheetName, List<String> columns, StreamingQueryResult streamingData) {
+        this.sheetName = sheetName;
+        this.columns = columns;
+        this.data = Collections.emptyList();
+        this.streamingData = streamingData;
+    }
+
+    /**
+     * Passes each row of data to the consumer. If this is a streaming worksheet, the query
+     * will be executed and each row is passed to the consumer as it is read from the database.
+     *
+     * @param consumer
+     * @return the number of rows
+     */
+    public int forEachRow(Consumer<Map<String, Object>> consumer) {
+        if (streamingData == null) {
+            data.forEach(consumer);
+            return data.size();
+        }
+
+        int[] count = {0};
+        streamingData.forEach(false, true, r -> {
+            consumer.accept(r);
+            count[0]++;
+        });
+        return count[0];
     }
 }
@@ -4,6 +4,9 @@ import biocode.fims.config.models.Attribute;
 import biocode.fims.config.models.Entity;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.fimsExceptions.errorCodes.DataReaderCode;
+import biocode.fims.records.ColumnarRecord;
+import biocode.fims.records.ColumnarRecordStore;
 import biocode.fims.records.Record;
 import biocode.fims.records.RecordMetadata;
 import biocode.fims.records.RecordSet;
@@ -25,13 +28,19 @@ abstract class AbstractTabularDataReader implements DataReader {
     protected ProjectConfig config;
     private RecordMetadata recordMetadata;
     protected Map<Entity, List<Record>> entityRecords;
+    private Map<Entity, ColumnarRecordStore> recordStores;
     protected List<Entity> sheetEntities;
     protected List<String> colNames;
 
     private List<RecordSet> recordSets;
-    private boolean sortedSheetEntites = false;
     private boolean foundExpeditionCode = false;
 
+    // column index lookup tables for the current sheet. The outer arrays are indexed the same as sheetEntities
+    private int expeditionCodeIndex = -1;
+    private String[][] attributeUris;
+    private int[][] attributeIndexes;
+    private String[] parentUniqueKeyUris;
+
     AbstractTabularDataReader() {
     }
 
@@ -43,6 +52,7 @@ abstract class AbstractTabularDataReader implements DataReader {
         this.config = config;
         this.recordMetadata = recordMetadata;
         this.entityRecords = new HashMap<>();
+        this.recordStores = new HashMap<>();
     }
 
     @Override
@@ -78,53 +88,110 @@ abstract class AbstractTabularDataReader implements DataReader {
         return recordSets;
     }
 
-    void instantiateRecordsFromRow(LinkedList<String> row) {
+    /**
+     * Set the column names for the current sheet. This must be called after the sheetEntities have been set
+     * and before any rows are instantiated.
+     *
+     * @param colNames  the header row of the current sheet
+     * @param sheetName used in the error message if there are duplicate columns
+     */
+    void setColumnNames(String[] colNames, String sheetName) {
+        Set<String> colSet = new HashSet<>();
+
+        for (String col : colNames) {
+            if (!colSet.add(col)) {
+                throw new FimsRuntimeException(DataReaderCode.DUPLICATE_COLUMNS, 400, sheetName, col);
+            }
+        }
+
+        this.colNames = Arrays.asList(colNames);
+        indexColumns();
+    }
+
+    /**
+     * Builds the column index lookup tables for the current sheet, so each row can be
+     * instantiated w/o searching the column names
+     */
+    private void indexColumns() {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < colNames.size(); i++) {
+            columnIndexes.put(colNames.get(i), i);
+        }
+
+        expeditionCodeIndex = columnIndexes.getOrDefault(Record.EXPEDITION_CODE, -1);
+
+        // this ensures that parent entities come before children
+        // so we can update the child parent identifier for hashed
+        // entities
+        sortSheetEntities();
+
+        attributeUris = new String[sheetEntities.size()][];
+        attributeIndexes = new int[sheetEntities.size()][];
+        parentUniqueKeyUris = new String[sheetEntities.size()];
+
+        for (int i = 0; i < sheetEntities.size(); i++) {
+            Entity e = sheetEntities.get(i);
+            // sorted by uri so hashed entities don't need to sort the properties of each Record
+            List<Attribute> attributes = e.getAttributes().stream()
+                    .filter(a -> columnIndexes.containsKey(a.getColumn()))
+                    .sorted(Comparator.comparing(Attribute::getUri))
+                    .collect(Collectors.toList());
+
+            attributeUris[i] = new String[attributes.size()];
+            attributeIndexes[i] = new int[attributes.size()];
+
+            for (int j = 0; j < attributes.size(); j++) {
+                Attribute a = attributes.get(j);
+                attributeUris[i][j] = a.getUri();
+                attributeIndexes[i][j] = columnIndexes.get(a.getColumn());
+            }
+
+            if (e.isChildEntity()) {
+                parentUniqueKeyUris[i] = config.entity(e.getParentEntity()).getUniqueKeyURI();
+            }
+        }
+    }
+
+    void instantiateRecordsFromRow(String[] row) {
         if (addRow(row)) {
             // get the expeditionCode if the data has it
-            String expeditionCode = (colNames.contains(Record.EXPEDITION_CODE))
-                    ? row.get(colNames.indexOf(Record.EXPEDITION_CODE))
-                    : null;
+            String expeditionCode = value(row, expeditionCodeIndex);
             if (Objects.equals(expeditionCode, "")) expeditionCode = null;
 
             if (!foundExpeditionCode && expeditionCode != null) {
                 foundExpeditionCode = true;
             }
 
-            // this ensures that parent entities come before children
-            // so we can update the child parent identifier for hashed
-            // entices
-            if (!sortedSheetEntites) sortSheetEntities();
-
             // hashed Records for the row
-            Map<String, Record> hashedRecords = new HashMap<>();
+            Map<String, Record> hashedRecords = null;
 
-            for (Entity e : sheetEntities) {
+            for (int i = 0; i < sheetEntities.size(); i++) {
+                Entity e = sheetEntities.get(i);
                 try {
-                    Record r = e.getRecordType().newInstance();
+                    Record r = newRecord(e);
                     r.setMetadata(recordMetadata);
                     r.setExpeditionCode(expeditionCode);
 
-                    for (Attribute a : e.getAttributes()) {
-                        if (colNames.contains(a.getColumn())) {
-                            String val = row.get(
-                                    colNames.indexOf(a.getColumn())
-                            );
+                    String[] uris = attributeUris[i];
+                    int[] indexes = attributeIndexes[i];
+                    for (int j = 0; j < indexes.length; j++) {
+                        String val = value(row, indexes[j]);
 
-                            if (!val.equals("")) {
-                                r.set(a.getUri(), val);
-                            }
+                        if (!val.equals("")) {
+                            r.set(uris[j], val);
                         }
                     }
 
                     if (e.isHashed()) {
-                        String uniqueKey = RecordHasher.hash(r);
+                        String uniqueKey = RecordHasher.hash(r, uris);
                         r.set(e.getUniqueKeyURI(), uniqueKey);
+                        if (hashedRecords == null) hashedRecords = new HashMap<>();
                         hashedRecords.put(e.getConceptAlias(), r);
                     }
 
                     // if this is a child and the parent entity is hashed, set the parent identifier
-                    if (e.isChildEntity() && hashedRecords.containsKey(e.getParentEntity())) {
-                        String parentUniqueKeyUri = config.entity(e.getParentEntity()).getUniqueKeyURI();
+                    if (hashedRecords != null && e.isChildEntity() && hashedRecords.containsKey(e.getParentEntity())) {
+                        String parentUniqueKeyUri = parentUniqueKeyUris[i];
                         Record parentRecord = hashedRecords.get(e.getParentEntity());
                         r.set(parentUniqueKeyUri, parentRecord.get(parentUniqueKeyUri));
                     }
@@ -138,6 +205,34 @@ abstract class AbstractTabularDataReader implements DataReader {
         }
     }
 
+    /**
+     * discard any instantiated records, so the file can be read again
+     */
+    void clearRecords() {
+        entityRecords.clear();
+        recordStores.clear();
+    }
+
+    /**
+     * Entities w/ a {@link ColumnarRecord} recordType share a single {@link ColumnarRecordStore} for all of the
+     * Records in the file
+     */
+    private Record newRecord(Entity e) throws IllegalAccessException, InstantiationException {
+        if (e.getRecordType().equals(ColumnarRecord.class)) {
+            return recordStores.computeIfAbsent(e, ColumnarRecordStore::new).newRecord();
+        }
+        return e.getRecordType().newInstance();
+    }
+
+    /**
+     * @return the value at the given index, or "" if the row doesn't contain the index.
+     * returns null if index is -1
+     */
+    private String value(String[] row, int index) {
+        if (index < 0) return null;
+        return index < row.length ? row[index] : "";
+    }
+
     /**
      * sorts sheetEntities so parent entities come before children
      */
@@ -155,10 +250,11 @@ abstract class AbstractTabularDataReader implements DataReader {
         });
     }
 
-    private boolean addRow(List<String> row) {
-        return row.size() > 0 &&
-                row.stream()
-                        .anyMatch(s -> !StringUtils.isBlank(s));
+    private boolean addRow(String[] row) {
+        for (String s : row) {
+            if (!StringUtils.isBlank(s)) return true;
+        }
+        return false;
     }
 
     abstract void init();
@@ -75,32 +75,25 @@ public abstract class DelimitedTextReader extends AbstractTabularDataReader {
         }
 
         it = reader.iterator();
+        sheetEntities = config.entitiesForSheet(sheetName);
         setColumnNames();
 
         if (!it.hasNext()) {
             throw new FimsRuntimeException(DataReaderCode.NO_DATA, 400, sheetName);
         }
-
-        sheetEntities = config.entitiesForSheet(sheetName);
     }
 
     private void setColumnNames() {
         // Get the first row to populate Column Names
+        String[] colNames;
         try {
             colNames = nextRow();
         } catch (NoSuchElementException e) {
             throw new FimsRuntimeException(DataReaderCode.NO_DATA, 400, sheetName);
         }
 
-        Set<String> colSet = new HashSet<>();
-
-        colNames.set(0, removeBOM(colNames.get(0)));
-        for (String col : colNames) {
-            if (!colSet.add(col)) {
-                throw new FimsRuntimeException(DataReaderCode.DUPLICATE_COLUMNS, 400, sheetName, col);
-            }
-        }
-
+        colNames[0] = removeBOM(colNames[0]);
+        setColumnNames(colNames, sheetName);
     }
 
     /**
@@ -126,10 +119,10 @@ public abstract class DelimitedTextReader extends AbstractTabularDataReader {
         }
     }
 
-    private LinkedList<String> nextRow() {
+    private String[] nextRow() {
         if (!it.hasNext())
             throw new NoSuchElementException();
 
-        return new LinkedList<>(Arrays.asList(it.next()));
+        return it.next();
     }
 }
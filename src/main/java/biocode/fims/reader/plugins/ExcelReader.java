@@ -7,15 +7,31 @@ import biocode.fims.fimsExceptions.errorCodes.DataReaderCode;
 import biocode.fims.records.Record;
 import biocode.fims.records.RecordMetadata;
 import biocode.fims.reader.DataReader;
+import org.apache.poi.ooxml.util.SAXHelper;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.xmlbeans.XmlException;
 import org.joda.time.LocalDate;
 import org.joda.time.LocalDateTime;
 import org.joda.time.LocalTime;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.WorkbookDocument;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.text.DecimalFormat;
 import java.text.ParseException;
 import java.util.*;
@@ -31,20 +47,30 @@ import java.util.*;
  * contain the column headers for the data and determines how many columns are
  * examined for all subsequent rows.
  *
+ * Excel XML (*.xlsx) files are streamed one row at a time w/ a SAX parser, so the
+ * entire workbook is never loaded into memory. Formula cells in *.xlsx files use the
+ * cached result stored in the workbook. Excel 97-2003 (*.xls) files are read w/ the
+ * POI usermodel.
+ *
  * The Reader does not use any RecordMetadata
  *
  */
 public class ExcelReader extends AbstractTabularDataReader {
     public static final List<String> EXTS = Arrays.asList("xlsx", "xls");
+    private static final LocalDate TIME_ONLY_DATE = new LocalDate("1899-12-31");
+    private static final LocalTime MIDNIGHT = new LocalTime("00:00:00.000");
 
     protected DataFormatter dataFormatter;
     protected FormulaEvaluator formulaEvaluator;
 
     protected Workbook excelWb;
+    private OPCPackage xlsxPackage;
 
     private Sheet currSheet;
+    private String currSheetName;
     protected Iterator<Row> rowIterator = null;
     protected int numCols;
+    private final DecimalFormat numberPattern = new DecimalFormat("#,#,#,#,#,#,#,#,#,#");
 
     public ExcelReader() {
     }
@@ -69,37 +95,127 @@ public class ExcelReader extends AbstractTabularDataReader {
     @Override
     void init() {
         try {
-            excelWb = WorkbookFactory.create(file);
-            formulaEvaluator = excelWb.getCreationHelper().createFormulaEvaluator();
-        } catch (IOException e) {
+            if (FileMagic.valueOf(file) == FileMagic.OOXML) {
+                xlsxPackage = OPCPackage.open(file, PackageAccess.READ);
+            } else {
+                openWorkbook();
+            }
+        } catch (IOException | OpenXML4JException e) {
             throw new FimsRuntimeException(DataReaderCode.READ_ERROR, 500);
         }
     }
 
+    private void openWorkbook() throws IOException {
+        excelWb = WorkbookFactory.create(file);
+        formulaEvaluator = excelWb.getCreationHelper().createFormulaEvaluator();
+    }
+
     @Override
     void instantiateRecords() {
 
+        if (xlsxPackage == null) {
+            instantiateWorkbookRecords();
+        } else if (!instantiateXlsxRecords()) {
+            // the workbook contains formulas w/o a cached result, which can only be evaluated w/ the entire workbook
+            clearRecords();
+            try {
+                openWorkbook();
+            } catch (IOException e) {
+                throw new FimsRuntimeException(DataReaderCode.READ_ERROR, 500);
+            }
+            instantiateWorkbookRecords();
+        }
+
+        boolean hasRecords = false;
+        for (Map.Entry<Entity, List<Record>> entry: entityRecords.entrySet()) {
+            if (entry.getValue().size() > 0) {
+                hasRecords = true;
+                break;
+            }
+        }
+
+        if (!hasRecords) {
+            throw new FimsRuntimeException(DataReaderCode.NO_DATA, 400, currSheetName);
+        }
+    }
+
+    private void instantiateWorkbookRecords() {
         for (Sheet sheet : excelWb) {
             currSheet = sheet;
+            currSheetName = sheet.getSheetName();
             colNames = null;
             numCols = -1;
-            sheetEntities = config.entitiesForSheet(currSheet.getSheetName());
+            sheetEntities = config.entitiesForSheet(currSheetName);
 
             if (sheetEntities.size() > 0) {
                 instantiateRecordsForCurrentSheet();
             }
         }
+    }
 
-        boolean hasRecords = false;
-        for (Map.Entry<Entity, List<Record>> entry: entityRecords.entrySet()) {
-            if (entry.getValue().size() > 0) {
-                hasRecords = true;
-                break;
+    /**
+     * stream the rows of each sheet w/o loading the workbook into memory
+     *
+     * @return false if a formula w/o a cached result was found & the workbook needs to be read w/ the POI usermodel
+     */
+    private boolean instantiateXlsxRecords() {
+        try {
+            XSSFReader reader = new XSSFReader(xlsxPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(xlsxPackage, false);
+            StylesTable styles = reader.getStylesTable();
+            boolean date1904 = isDate1904(reader);
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream is = sheets.next()) {
+                    currSheetName = sheets.getSheetName();
+                    colNames = null;
+                    numCols = -1;
+                    sheetEntities = config.entitiesForSheet(currSheetName);
+
+                    if (sheetEntities.size() > 0) {
+                        XMLReader parser = SAXHelper.newXMLReader();
+                        parser.setContentHandler(new XlsxSheetHandler(sharedStrings, styles, date1904, this::instantiateRecordsFromXlsxRow));
+                        parser.parse(new InputSource(is));
+                    }
+                }
             }
+            return true;
+        } catch (XlsxSheetHandler.UncachedFormulaException e) {
+            return false;
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException | XmlException e) {
+            throw new FimsRuntimeException(DataReaderCode.READ_ERROR, 500);
+        } finally {
+            // we opened the package read-only, so nothing needs to be saved
+            xlsxPackage.revert();
         }
+    }
 
-        if (!hasRecords) {
-            throw new FimsRuntimeException(DataReaderCode.NO_DATA, 400, currSheet.getSheetName());
+    private boolean isDate1904(XSSFReader reader) throws IOException, InvalidFormatException, XmlException {
+        try (InputStream is = reader.getWorkbookData()) {
+            CTWorkbook workbook = WorkbookDocument.Factory.parse(is).getWorkbook();
+            return workbook.isSetWorkbookPr() && workbook.getWorkbookPr().getDate1904();
+        }
+    }
+
+    private void instantiateRecordsFromXlsxRow(String[] row) {
+        boolean isHeader = numCols < 0;
+
+        // If this is the first row in the sheet, use it to determine how many
+        // columns this sheet has.
+        if (isHeader)
+            numCols = getNumCols(row);
+
+        String[] retRow = new String[numCols];
+        for (int colNum = 0; colNum < numCols; colNum++) {
+            String value = colNum < row.length ? row[colNum] : null;
+            retRow[colNum] = (value == null) ? "" : value;
+        }
+
+        if (isHeader) {
+            setColumnNames(retRow, currSheetName + " worksheet");
+        } else {
+            instantiateRecordsFromRow(retRow);
         }
     }
 
@@ -119,22 +235,12 @@ public class ExcelReader extends AbstractTabularDataReader {
 
     private void setColumnNames() {
         // Get the first row to populate Column Names
-        colNames = nextRow();
-
-        Set<String> colSet = new HashSet<>();
-
-        for (String col : colNames) {
-            if (!colSet.add(col)) {
-                throw new FimsRuntimeException(DataReaderCode.DUPLICATE_COLUMNS, 400, currSheet.getSheetName() + " worksheet", col);
-            }
-        }
+        setColumnNames(nextRow(), currSheet.getSheetName() + " worksheet");
     }
 
-    private LinkedList<String> nextRow() {
-        LinkedList<String> retRow = new LinkedList<>();
-
+    private String[] nextRow() {
         if (!rowIterator.hasNext()) {
-            return retRow;
+            return new String[0];
         }
 
         Cell cell;
@@ -145,6 +251,8 @@ public class ExcelReader extends AbstractTabularDataReader {
         if (numCols < 0)
             numCols = getNumCols(row);
 
+        String[] retRow = new String[numCols];
+
 
         // Unfortunately, we can't use a cell iterator here because, as
         // currently implemented in POI, iterating over cells in a row will
@@ -154,48 +262,32 @@ public class ExcelReader extends AbstractTabularDataReader {
 
             switch (cell.getCellTypeEnum()) {
                 case STRING:
-                    retRow.add(cell.getStringCellValue().trim());
+                    retRow[colNum] = cell.getStringCellValue().trim();
                     break;
                 case NUMERIC:
                     // There is no date data type in Excel, so we have to check
                     // if this cell contains a date-formatted value.
                     if (DateUtil.isCellDateFormatted(cell)) {
-                        // Convert the value to ISO 8601 format using Joda-Time.
-                        // Since excel stores date, time, and datetime as a numeric cell, we need to do our best
-                        // to determine what the value should be.
-                        String value;
-                        LocalDateTime date = new LocalDateTime(cell.getDateCellValue());
-                        if (date.toLocalDate().equals(new LocalDate("1899-12-31")) && !date.toLocalTime().equals(new LocalTime("00:00:00.000"))) {
-                            // for a time cell, getDateCellValue will return the datetime object with the date
-                            // "1899-12-31" and the correct time. Therefore if we encounter this we assume this is a time cell
-                            value = date.toLocalTime().toString();
-                        } else if (date.toLocalTime().equals(new LocalTime("00:00:00.000"))) {
-                            value = date.toLocalDate().toString();
-                        } else {
-                            value = date.toString();
-                        }
-
-                        retRow.add(value);
+                        retRow[colNum] = dateCellValue(cell.getDateCellValue());
                     } else {
                         cell.setCellType(CellType.STRING);
-                        DecimalFormat pattern = new DecimalFormat("#,#,#,#,#,#,#,#,#,#");
                         try {
-                            Number n = pattern.parse(cell.getStringCellValue());
-                            retRow.add(String.valueOf(n));
+                            Number n = numberPattern.parse(cell.getStringCellValue());
+                            retRow[colNum] = String.valueOf(n);
                         } catch (ParseException e) {
-                            retRow.add(cell.getStringCellValue());
+                            retRow[colNum] = cell.getStringCellValue();
                         }
                     }
                     break;
                 case BOOLEAN:
                     if (cell.getBooleanCellValue())
-                        retRow.add("true");
+                        retRow[colNum] = "true";
                     else
-                        retRow.add("false");
+                        retRow[colNum] = "false";
                     break;
                 case FORMULA:
                     try {
-                        retRow.add(dataFormatter.formatCellValue(cell, formulaEvaluator));
+                        retRow[colNum] = dataFormatter.formatCellValue(cell, formulaEvaluator);
                     } catch (Exception e) {
                         int rowNum = cell.getRowIndex() + 1;
                         throw new FimsRuntimeException("There was an issue processing a formula on this sheet.\n" +
@@ -207,13 +299,30 @@ public class ExcelReader extends AbstractTabularDataReader {
                     }
                     break;
                 default:
-                    retRow.add("");
+                    retRow[colNum] = "";
             }
         }
 
         return retRow;
     }
 
+    /**
+     * Convert the value of a date-formatted cell to ISO 8601 format using Joda-Time.
+     */
+    static String dateCellValue(Date cellValue) {
+        // Since excel stores date, time, and datetime as a numeric cell, we need to do our best
+        // to determine what the value should be.
+        LocalDateTime date = new LocalDateTime(cellValue);
+        if (date.toLocalDate().equals(TIME_ONLY_DATE) && !date.toLocalTime().equals(MIDNIGHT)) {
+            // for a time cell, the date value will be the datetime object with the date
+            // "1899-12-31" and the correct time. Therefore if we encounter this we assume this is a time cell
+            return date.toLocalTime().toString();
+        } else if (date.toLocalTime().equals(MIDNIGHT)) {
+            return date.toLocalDate().toString();
+        }
+        return date.toString();
+    }
+
     /**
      * This method returns the number of cells in the given {@link Row}. After 10 blank columns, this function assumes
      * that there are no more columns in the {@link Row}. If there is a possibility that there are more then 10 blank
@@ -243,4 +352,29 @@ public class ExcelReader extends AbstractTabularDataReader {
         }
         return cellCount;
     }
+
+    /**
+     * @see #getNumCols(Row)
+     * @param headerRow sparse row, where null values are blank cells
+     * @return The number of columns in the row
+     */
+    private int getNumCols(String[] headerRow) {
+        int consecutiveBlankCells = 0;
+        int cellCount = 0;
+        for (String cell : headerRow) {
+            if (cell == null) {
+                consecutiveBlankCells++;
+            } else {
+                consecutiveBlankCells = 0;
+            }
+
+            cellCount++;
+
+            if (consecutiveBlankCells == 10) {
+                cellCount = cellCount - 10;
+                break;
+            }
+        }
+        return cellCount;
+    }
 }
@@ -0,0 +1,222 @@
+package biocode.fims.reader.plugins;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.ExcelNumberFormat;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * SAX handler used to stream the rows of a single xlsx worksheet w/o loading the workbook into memory.
+ * <p>
+ * Each cell is converted to a String the same way {@link ExcelReader} converts cells from the POI usermodel.
+ * Formula cells use the cached result saved in the workbook, as formulas can not be evaluated w/o the
+ * entire workbook. Workbooks written by some libraries do not contain the cached results, in which case an
+ * {@link UncachedFormulaException} is thrown & the workbook needs to be read w/ the POI usermodel.
+ * <p>
+ * Each row is passed to the rowConsumer as an array the length of the last cell in the row. Missing or
+ * blank cells are null.
+ *
+ * @author rjewing
+ */
+class XlsxSheetHandler extends DefaultHandler {
+    private final SharedStrings sharedStrings;
+    private final StylesTable stylesTable;
+    private final boolean date1904;
+    private final Consumer<String[]> rowConsumer;
+    private final DataFormatter dataFormatter;
+    private final DecimalFormat numberPattern = new DecimalFormat("#,#,#,#,#,#,#,#,#,#");
+    private final Map<Integer, ExcelNumberFormat> numberFormats = new HashMap<>();
+
+    private List<String> row;
+    private int col;
+    private String type;
+    private int style;
+    private String ref;
+    private boolean hasFormula;
+    private boolean hasValue;
+    private boolean inValue;
+    private boolean inInlineString;
+    private boolean inPhonetic;
+    private StringBuilder value = new StringBuilder();
+
+    XlsxSheetHandler(SharedStrings sharedStrings, StylesTable stylesTable, boolean date1904, Consumer<String[]> rowConsumer) {
+        this.sharedStrings = sharedStrings;
+        this.stylesTable = stylesTable;
+        this.date1904 = date1904;
+        this.rowConsumer = rowConsumer;
+        this.dataFormatter = new DataFormatter();
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        switch (localName) {
+            case "row":
+                row = new ArrayList<>();
+                col = -1;
+                break;
+            case "c":
+                ref = attributes.getValue("r");
+                col = (ref == null) ? col + 1 : new CellReference(ref).getCol();
+                type = attributes.getValue("t");
+                String s = attributes.getValue("s");
+                style = (s == null) ? 0 : Integer.parseInt(s);
+                hasFormula = false;
+                hasValue = false;
+                value.setLength(0);
+                break;
+            case "f":
+                hasFormula = true;
+                break;
+            case "v":
+                inValue = true;
+                hasValue = true;
+                break;
+            case "is":
+                inInlineString = true;
+                break;
+            case "rPh":
+                inPhonetic = true;
+                break;
+            case "t":
+                // inline string text
+                inValue = inInlineString && !inPhonetic;
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        switch (localName) {
+            case "row":
+                rowConsumer.accept(row.toArray(new String[0]));
+                row = null;
+                break;
+            case "c":
+                while (row.size() <= col) {
+                    row.add(null);
+                }
+                row.set(col, cellValue());
+                break;
+            case "v":
+            case "t":
+                inValue = false;
+                break;
+            case "is":
+                inInlineString = false;
+                break;
+            case "rPh":
+                inPhonetic = false;
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inValue) {
+            value.append(ch, start, length);
+        }
+    }
+
+    private String cellValue() throws UncachedFormulaException {
+        String v = value.toString();
+
+        if (hasFormula) {
+            if (!hasValue) throw new UncachedFormulaException(ref);
+            return formulaValue(v);
+        }
+
+        if (type == null || type.equals("n")) {
+            // cell w/o a value is a blank cell
+            return v.isEmpty() ? null : numericValue(v);
+        }
+
+        switch (type) {
+            case "s":
+                if (v.isEmpty()) return null;
+                return sharedStrings.getItemAt(Integer.parseInt(v)).getString().trim();
+            case "inlineStr":
+            case "str":
+                return new XSSFRichTextString(v).getString().trim();
+            case "b":
+                return v.equals("1") ? "true" : "false";
+            default:
+                return "";
+        }
+    }
+
+    private String numericValue(String v) {
+        double d = Double.parseDouble(v);
+        ExcelNumberFormat format = numberFormat();
+
+        // There is no date data type in Excel, so we have to check
+        // if this cell contains a date-formatted value.
+        if (format != null && DateUtil.isValidExcelDate(d) && DateUtil.isADateFormat(format)) {
+            return ExcelReader.dateCellValue(DateUtil.getJavaDate(d, date1904));
+        }
+
+        return rawNumericValue(v);
+    }
+
+    /**
+     * the usermodel returns the raw cell value when converting a numeric cell to a string
+     */
+    private String rawNumericValue(String v) {
+        try {
+            Number n = numberPattern.parse(v);
+            return String.valueOf(n);
+        } catch (ParseException e) {
+            return v;
+        }
+    }
+
+    private String formulaValue(String v) {
+        if (type == null || type.equals("n")) {
+            if (v.isEmpty()) return "";
+            ExcelNumberFormat format = numberFormat();
+            return (format == null)
+                    ? rawNumericValue(v)
+                    : dataFormatter.formatRawCellContents(Double.parseDouble(v), format.getIdx(), format.getFormat(), date1904);
+        }
+
+        switch (type) {
+            case "b":
+                return v.equals("1") ? "TRUE" : "FALSE";
+            case "str":
+            case "e":
+            default:
+                return v;
+        }
+    }
+
+    private ExcelNumberFormat numberFormat() {
+        if (stylesTable == null || stylesTable.getNumCellStyles() == 0) return null;
+
+        return numberFormats.computeIfAbsent(style, i -> {
+            XSSFCellStyle cellStyle = stylesTable.getStyleAt(i);
+            return (cellStyle == null) ? null : ExcelNumberFormat.from(cellStyle);
+        });
+    }
+
+    /**
+     * Thrown when a formula cell does not contain a cached result
+     */
+    static class UncachedFormulaException extends SAXException {
+        private static final long serialVersionUID = 1L;
+
+        UncachedFormulaException(String cellReference) {
+            super("formula cell " + cellReference + " does not have a cached result");
+        }
+    }
+}
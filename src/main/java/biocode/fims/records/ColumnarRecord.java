@@ -0,0 +1,147 @@
+package biocode.fims.records;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link Record} implementation whose properties are stored in a {@link ColumnarRecordStore}.
+ * <p>
+ * This can be used as an {@link biocode.fims.config.models.Entity} recordType to reduce the memory needed to hold
+ * large RecordSets. Records created by the data readers share a single store per Entity. Records created w/ the
+ * no-arg constructor have their own store.
+ *
+ * @author rjewing
+ */
+public class ColumnarRecord implements Record {
+    private final ColumnarRecordStore store;
+    private final int row;
+    private String rootIdentifier;
+    private int projectId;
+    private String expeditionCode;
+    private boolean persist = true;
+    private boolean hasError = false;
+
+    public ColumnarRecord() {
+        this(new ColumnarRecordStore(), 0);
+    }
+
+    ColumnarRecord(ColumnarRecordStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    @Override
+    public int projectId() {
+        return projectId;
+    }
+
+    @Override
+    public void setProjectId(int projectId) {
+        if (this.projectId == 0) this.projectId = projectId;
+        else throw new IllegalStateException("projectId has already been set");
+    }
+
+    @Override
+    public String expeditionCode() {
+        return expeditionCode;
+    }
+
+    @Override
+    public void setExpeditionCode(String expeditionCode) {
+        this.expeditionCode = store.internString(expeditionCode);
+    }
+
+    @Override
+    public String rootIdentifier() {
+        return rootIdentifier;
+    }
+
+    @Override
+    public void setRootIdentifier(String rootIdentifier) {
+        if (this.rootIdentifier == null) this.rootIdentifier = rootIdentifier;
+        else throw new IllegalStateException("rootIdentifier has already been set");
+    }
+
+    @Override
+    public String get(String property) {
+        return String.valueOf(getAsObject(property)).trim();
+    }
+
+    @Override
+    public Object getAsObject(String property) {
+        return store.has(row, property) ? store.get(row, property) : "";
+    }
+
+    @Override
+    public boolean has(String property) {
+        return store.has(row, property);
+    }
+
+    @Override
+    public Map<String, Object> properties() {
+        return Collections.unmodifiableMap(store.properties(row));
+    }
+
+    @Override
+    public void set(String property, Object value) {
+        store.set(row, property, value);
+        persist = true;
+    }
+
+    @Override
+    public void setError() {
+        hasError = true;
+    }
+
+    @Override
+    public void setMetadata(RecordMetadata recordMetadata) {
+    }
+
+    @Override
+    public boolean persist() {
+        return !hasError && persist;
+    }
+
+    /**
+     * @return a copy of this Record, backed by the same {@link ColumnarRecordStore}
+     */
+    @Override
+    public Record clone() {
+        ColumnarRecord newRecord = store.newRecord();
+        for (Map.Entry<String, Object> e : store.properties(row).entrySet()) {
+            store.set(newRecord.row, e.getKey(), e.getValue());
+        }
+        newRecord.rootIdentifier = rootIdentifier;
+        newRecord.projectId = projectId;
+        newRecord.expeditionCode = expeditionCode;
+        newRecord.persist = persist;
+        newRecord.hasError = hasError;
+        return newRecord;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ColumnarRecord)) return false;
+
+        ColumnarRecord that = (ColumnarRecord) o;
+
+        if (projectId != that.projectId) return false;
+        if (!Objects.equals(rootIdentifier, that.rootIdentifier)) return false;
+        if (!Objects.equals(expeditionCode, that.expeditionCode)) return false;
+
+        return store == that.store
+                ? store.propertiesEqual(row, that.row)
+                : store.properties(row).equals(that.store.properties(that.row));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = store.propertiesHashCode(row);
+        result = 31 * result + (rootIdentifier != null ? rootIdentifier.hashCode() : 0);
+        result = 31 * result + projectId;
+        result = 31 * result + (expeditionCode != null ? expeditionCode.hashCode() : 0);
+        return result;
+    }
+}
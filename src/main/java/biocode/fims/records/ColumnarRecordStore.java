@@ -0,0 +1,270 @@
+package biocode.fims.records;
+
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.Entity;
+
+import java.util.*;
+
+/**
+ * Columnar backing store for the {@link ColumnarRecord}s of a single {@link Entity}.
+ * <p>
+ * Attribute uris are interned to integer slots, and the values for each slot are stored in a single column
+ * instead of a Map per Record. Columns start out dictionary encoded, storing a 2 byte code per row. Once a column
+ * contains more than {@link #MAX_DICTIONARY_SIZE} distinct values, it is converted to a plain array of values.
+ * <p>
+ * Writes are synchronized. Reads are not, so Records must not be modified while they are being read by other
+ * threads (ex. during concurrent validation).
+ *
+ * @author rjewing
+ */
+public class ColumnarRecordStore {
+    static final int MAX_DICTIONARY_SIZE = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<String, Integer> slots;
+    private final List<String> uris;
+    private final Map<String, String> strings;
+    private volatile Column[] columns;
+    private int size;
+
+    public ColumnarRecordStore() {
+        this.slots = new HashMap<>();
+        this.uris = new ArrayList<>();
+        this.strings = new HashMap<>();
+        this.columns = new Column[0];
+    }
+
+    /**
+     * @param entity the entity whose attribute uris will be interned
+     */
+    public ColumnarRecordStore(Entity entity) {
+        this();
+        for (Attribute a : entity.getAttributes()) {
+            intern(a.getUri());
+        }
+    }
+
+    /**
+     * @return a new, empty Record backed by this store
+     */
+    public synchronized ColumnarRecord newRecord() {
+        return new ColumnarRecord(this, size++);
+    }
+
+    /**
+     * @return the number of Records in this store
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of interned attribute uris
+     */
+    public synchronized int slots() {
+        return uris.size();
+    }
+
+    /**
+     * @return the number of columns that are currently dictionary encoded
+     */
+    public int dictionaryEncodedColumns() {
+        int count = 0;
+        for (Column c : columns) {
+            if (c instanceof DictionaryColumn) count++;
+        }
+        return count;
+    }
+
+    Object get(int row, String uri) {
+        Column c = column(uri);
+        return c == null ? null : c.get(row);
+    }
+
+    boolean has(int row, String uri) {
+        Column c = column(uri);
+        return c != null && c.has(row);
+    }
+
+    synchronized void set(int row, String uri, Object value) {
+        int slot = intern(uri);
+        Column c = columns[slot];
+        if (c == null) c = new DictionaryColumn();
+        columns[slot] = c.set(row, value);
+    }
+
+    /**
+     * @return the (uri, value) pairs for the row. Absent values are not included
+     */
+    Map<String, Object> properties(int row) {
+        Column[] columns = this.columns;
+        Map<String, Object> properties = new HashMap<>();
+
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            if (c != null && c.has(row)) {
+                properties.put(uris.get(i), c.get(row));
+            }
+        }
+
+        return properties;
+    }
+
+    /**
+     * Computes the same hashCode as {@link #properties(int)} w/o creating the Map
+     */
+    int propertiesHashCode(int row) {
+        Column[] columns = this.columns;
+        int h = 0;
+
+        for (int i = 0; i < columns.length; i++) {
+            Column c = columns[i];
+            if (c != null && c.has(row)) {
+                h += uris.get(i).hashCode() ^ Objects.hashCode(c.get(row));
+            }
+        }
+
+        return h;
+    }
+
+    boolean propertiesEqual(int row, int otherRow) {
+        for (Column c : columns) {
+            if (c == null) continue;
+
+            if (c.has(row) != c.has(otherRow) || !Objects.equals(c.get(row), c.get(otherRow))) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Deduplicate metadata Strings (ex. expeditionCode) shared by many Records
+     */
+    synchronized String internString(String s) {
+        if (s == null) return null;
+        return strings.computeIfAbsent(s, k -> k);
+    }
+
+    private Column column(String uri) {
+        Integer slot = slots.get(uri);
+        if (slot == null) return null;
+
+        Column[] columns = this.columns;
+        return slot < columns.length ? columns[slot] : null;
+    }
+
+    private int intern(String uri) {
+        Integer slot = slots.get(uri);
+        if (slot != null) return slot;
+
+        slot = uris.size();
+        uris.add(uri);
+        slots.put(uri, slot);
+        columns = Arrays.copyOf(columns, uris.size());
+        return slot;
+    }
+
+    private static int grow(int capacity, int row) {
+        int newCapacity = Math.max(capacity, INITIAL_CAPACITY);
+        while (newCapacity <= row) {
+            newCapacity += newCapacity >> 1;
+        }
+        return newCapacity;
+    }
+
+    private interface Column {
+        Object get(int row);
+
+        boolean has(int row);
+
+        /**
+         * @return the column containing the value. This may be a new Column if the encoding was changed
+         */
+        Column set(int row, Object value);
+    }
+
+    /**
+     * Column storing a code per row. Code 0 indicates the value is absent.
+     */
+    private static class DictionaryColumn implements Column {
+        private final List<Object> dictionary = new ArrayList<>();
+        private final Map<Object, Character> codes = new HashMap<>();
+        private char[] rows = new char[0];
+
+        private DictionaryColumn() {
+            // reserve code 0 for absent values
+            dictionary.add(null);
+        }
+
+        @Override
+        public Object get(int row) {
+            char[] rows = this.rows;
+            return row < rows.length ? dictionary.get(rows[row]) : null;
+        }
+
+        @Override
+        public boolean has(int row) {
+            char[] rows = this.rows;
+            return row < rows.length && rows[row] != 0;
+        }
+
+        @Override
+        public Column set(int row, Object value) {
+            Character code = codes.get(value);
+
+            if (code == null) {
+                if (dictionary.size() > MAX_DICTIONARY_SIZE) {
+                    return toValueColumn().set(row, value);
+                }
+
+                code = (char) dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+
+            if (row >= rows.length) rows = Arrays.copyOf(rows, grow(rows.length, row));
+            rows[row] = code;
+            return this;
+        }
+
+        private ValueColumn toValueColumn() {
+            ValueColumn column = new ValueColumn(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                if (rows[i] != 0) column.set(i, dictionary.get(rows[i]));
+            }
+            return column;
+        }
+    }
+
+    /**
+     * Column storing the value for each row. Absent values are null.
+     */
+    private static class ValueColumn implements Column {
+        private static final Object NULL = new Object();
+        private Object[] rows;
+
+        private ValueColumn(int capacity) {
+            this.rows = new Object[capacity];
+        }
+
+        @Override
+        public Object get(int row) {
+            Object[] rows = this.rows;
+            Object val = row < rows.length ? rows[row] : null;
+            return val == NULL ? null : val;
+        }
+
+        @Override
+        public boolean has(int row) {
+            Object[] rows = this.rows;
+            return row < rows.length && rows[row] != null;
+        }
+
+        @Override
+        public Column set(int row, Object value) {
+            if (row >= rows.length) rows = Arrays.copyOf(rows, grow(rows.length, row));
+            rows[row] = value == null ? NULL : value;
+            return this;
+        }
+    }
+}
@@ -24,6 +24,8 @@ public class RecordSet {
     private int projectId;
     private final Map<MultiKey, List<Record>> recordCache;
     private boolean cacheBuilt;
+    private boolean bulkLoad = false;
+    private List<Record> snapshotRecordsToPersist;
 
     private boolean deduplicated = false;
 
@@ -56,6 +58,20 @@ public class RecordSet {
         return this.reload && entity.canReload();
     }
 
+    /**
+     * Request that this RecordSet be persisted using the bulk loader. The repository may still
+     * fall back to the standard insert path for small RecordSets.
+     *
+     * @param bulkLoad
+     */
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    public boolean bulkLoad() {
+        return bulkLoad;
+    }
+
     public void remove(Record record) {
         records.remove(record);
         removeFromCache(record);
@@ -73,6 +89,8 @@ public class RecordSet {
     }
 
     public List<Record> recordsToPersist() {
+        if (snapshotRecordsToPersist != null) return snapshotRecordsToPersist;
+
         return Collections.unmodifiableList(
                 records.stream()
                         .filter(Record::persist)
@@ -80,6 +98,35 @@ public class RecordSet {
         );
     }
 
+    /**
+     * Create a RecordSet for this entity containing the provided records. The parent, expeditionCode, and projectId
+     * are copied from this RecordSet.
+     * <p>
+     * The records to persist are fixed at the time the snapshot is created. Subsequently calling
+     * {@link Record#setError()} on any of the records will not change the result of {@link #recordsToPersist()}.
+     * This allows multiple threads to consistently validate the same records.
+     *
+     * @param records the records to include in the snapshot. Usually {@link #records()} or a subset of
+     *                {@link #recordsToPersist()}
+     */
+    public RecordSet snapshot(List<Record> records) {
+        RecordSet snapshot = new RecordSet(entity, records, reload);
+        snapshot.parent = parent;
+        snapshot.expeditionCode = expeditionCode();
+        snapshot.projectId = projectId();
+        snapshot.bulkLoad = bulkLoad;
+        snapshot.snapshotRecordsToPersist = Collections.unmodifiableList(
+                records.stream()
+                        .filter(Record::persist)
+                        .collect(Collectors.toList())
+        );
+        return snapshot;
+    }
+
+    public boolean isSnapshot() {
+        return snapshotRecordsToPersist != null;
+    }
+
     public boolean hasRecordToPersist() {
         return records.stream()
                 .anyMatch(Record::persist);
@@ -8,12 +8,23 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.PreDestroy;
+import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.NotAuthorizedException;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author rjewing
@@ -23,8 +34,10 @@ public class BcidRepository {
 
     private final Client client;
     private final FimsProperties props;
-    private AccessToken accessToken;
-    private boolean triedRefresh;
+    private volatile AccessToken accessToken;
+    // assume the bcid system supports batch minting until we find out otherwise
+    private volatile boolean batchMintSupported = true;
+    private ExecutorService mintExecutor;
 
     public BcidRepository(Client client, FimsProperties props) {
         this.client = client;
@@ -32,37 +45,141 @@ public class BcidRepository {
     }
 
     public Bcid create(Bcid toMint) {
-        if (!authenticated() && !authenticate()) {
-            throw new FimsRuntimeException("Unable to authenticate with the bcid system", 500);
+        ensureAuthenticated();
+        return executeRequest(new MintBcid(client, props.bcidUrl(), toMint));
+    }
+
+    /**
+     * Mint multiple bcids.
+     * <p>
+     * The bcids are sent to the bcid system in batches of {@link FimsProperties#bcidMintBatchSize()}. If the bcid
+     * system doesn't support batch minting, we fallback to minting each bcid individually, making at most
+     * {@link FimsProperties#bcidMintConcurrency()} concurrent requests.
+     *
+     * @param toMint
+     * @return the minted bcids, in the same order as toMint
+     */
+    public List<Bcid> create(List<Bcid> toMint) {
+        if (toMint.isEmpty()) return new ArrayList<>();
+        ensureAuthenticated();
+
+        if (batchMintSupported) {
+            try {
+                return mintBatches(toMint);
+            } catch (NotFoundException | NotAllowedException e) {
+                logger.info("Bcid system does not support batch minting. Falling back to minting individual bcids");
+                batchMintSupported = false;
+            }
         }
 
-        return executeRequest(new MintBcid(client, props.bcidUrl(), toMint));
+        return mintConcurrently(toMint);
     }
 
     public Bcid get(String identifier) {
         return new FetchBcid(client, props.bcidUrl(), identifier).execute();
     }
 
+    private List<Bcid> mintBatches(List<Bcid> toMint) {
+        List<Bcid> minted = new ArrayList<>();
+        int batchSize = props.bcidMintBatchSize();
+
+        for (int i = 0; i < toMint.size(); i += batchSize) {
+            List<Bcid> batch = toMint.subList(i, Math.min(i + batchSize, toMint.size()));
+            Bcid[] result = executeRequest(new MintBcids(client, props.bcidUrl(), batch));
+
+            if (result == null || result.length != batch.size()) {
+                throw new FimsRuntimeException("Bcid system returned an unexpected number of minted bcids", 500);
+            }
+            minted.addAll(Arrays.asList(result));
+        }
+
+        return minted;
+    }
+
+    private List<Bcid> mintConcurrently(List<Bcid> toMint) {
+        ExecutorService executor = mintExecutor();
+
+        List<Future<Bcid>> futures = new ArrayList<>();
+        for (Bcid bcid : toMint) {
+            futures.add(executor.submit(() -> executeRequest(new MintBcid(client, props.bcidUrl(), bcid))));
+        }
+
+        List<Bcid> minted = new ArrayList<>();
+        try {
+            for (Future<Bcid> future : futures) {
+                minted.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new FimsRuntimeException(500, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FimsRuntimeException(500, e);
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+
+        return minted;
+    }
+
+    /**
+     * Shutdown the threads used to mint bcids concurrently. Any mint requests in progress are allowed to complete
+     */
+    @PreDestroy
+    public synchronized void destroy() {
+        if (mintExecutor != null) {
+            mintExecutor.shutdown();
+            mintExecutor = null;
+        }
+    }
+
+    private synchronized ExecutorService mintExecutor() {
+        if (mintExecutor == null) {
+            AtomicInteger count = new AtomicInteger();
+            mintExecutor = Executors.newFixedThreadPool(props.bcidMintConcurrency(), r -> {
+                Thread t = new Thread(r, "bcid-mint-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return mintExecutor;
+    }
+
     private <T> T executeRequest(AbstractRequest<T> request) {
+        return executeRequest(request, true);
+    }
+
+    private <T> T executeRequest(AbstractRequest<T> request, boolean refreshToken) {
+        AccessToken token = this.accessToken;
         try {
-            request.addHeader("Authorization", "Bearer " + accessToken.accessToken);
+            request.addHeader("Authorization", "Bearer " + token.accessToken);
             return request.execute();
-        } catch (WebApplicationException e) {
-            if (e instanceof NotAuthorizedException && !triedRefresh) {
-                this.triedRefresh = true;
-                if (authenticate()) {
-                    return executeRequest(request);
-                }
+        } catch (NotAuthorizedException e) {
+            if (refreshToken && refreshAccessToken(token)) {
+                return executeRequest(request, false);
             }
             throw e;
         }
     }
 
+    private void ensureAuthenticated() {
+        if (!authenticated() && !refreshAccessToken(null)) {
+            throw new FimsRuntimeException("Unable to authenticate with the bcid system", 500);
+        }
+    }
+
     private boolean authenticated() {
         return this.accessToken != null;
     }
 
-    private boolean authenticate() {
+    /**
+     * @param expired the token which is no longer valid
+     * @return true if there is a valid access token
+     */
+    private synchronized boolean refreshAccessToken(AccessToken expired) {
+        // another thread has already refreshed the token
+        if (this.accessToken != expired) return true;
+
         try {
             this.accessToken = new Authenticate(client, props.bcidUrl(), props.bcidClientId(), props.bcidClientSecret())
                     .execute();
@@ -71,7 +188,6 @@ public class BcidRepository {
             return false;
         }
 
-        this.triedRefresh = false;
         return true;
     }
 
@@ -97,6 +213,17 @@ public class BcidRepository {
         }
     }
 
+    private static final class MintBcids extends AbstractRequest<Bcid[]> {
+        private static final String path = "/batch";
+
+        public MintBcids(Client client, String baseUrl, List<Bcid> toMint) {
+            super("POST", Bcid[].class, client, path, baseUrl);
+
+            this.setHttpEntity(Entity.entity(toMint, MediaType.APPLICATION_JSON));
+            setAccepts(MediaType.APPLICATION_JSON);
+        }
+    }
+
     private static final class Authenticate extends AbstractRequest<AccessToken> {
         private static final String PATH = "/oAuth2/token";
         private static final String GRANT_TYPE = "client_credentials";
@@ -3,7 +3,7 @@ package biocode.fims.repositories;
 import biocode.fims.models.EntityIdentifier;
 import biocode.fims.models.Expedition;
 import biocode.fims.models.User;
-import biocode.fims.repositories.customOperations.ExpeditionCustomOperations;
+import biocode.fims.repositories.customOperations.EntityIdentifierCustomOperations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -20,7 +20,7 @@ import java.util.List;
  * This repositories provides CRUD operations for {@link EntityIdentifier} objects
  */
 @Transactional
-public interface EntityIdentifierRepository extends Repository<EntityIdentifier, Integer>, JpaSpecificationExecutor {
+public interface EntityIdentifierRepository extends Repository<EntityIdentifier, Integer>, JpaSpecificationExecutor, EntityIdentifierCustomOperations {
 
     EntityIdentifier findByIdentifier(URI identifier);
 
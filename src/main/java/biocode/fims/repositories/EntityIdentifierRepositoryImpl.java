@@ -0,0 +1,49 @@
+package biocode.fims.repositories;
+
+import biocode.fims.models.EntityIdentifier;
+import biocode.fims.repositories.customOperations.EntityIdentifierCustomOperations;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+/**
+ * Implementation of EntityIdentifierCustomOperations
+ */
+public class EntityIdentifierRepositoryImpl implements EntityIdentifierCustomOperations {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_SQL = "INSERT INTO entity_identifiers (expedition_id, concept_alias, identifier) VALUES (?, ?, ?)";
+
+    @PersistenceContext(unitName = "entityManagerFactory")
+    private EntityManager em;
+
+    @Transactional
+    @Override
+    public void insert(List<EntityIdentifier> entityIdentifiers) {
+        if (entityIdentifiers.isEmpty()) return;
+
+        // EntityIdentifier ids are generated by the db, so hibernate is unable to batch the inserts
+        em.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement stmt = connection.prepareStatement(INSERT_SQL)) {
+                int i = 0;
+                for (EntityIdentifier entityIdentifier : entityIdentifiers) {
+                    stmt.setInt(1, entityIdentifier.getExpedition().getExpeditionId());
+                    stmt.setString(2, entityIdentifier.getConceptAlias());
+                    stmt.setString(3, entityIdentifier.getIdentifier().toString());
+                    stmt.addBatch();
+
+                    if (++i % BATCH_SIZE == 0) {
+                        stmt.executeBatch();
+                    }
+                }
+
+                if (i % BATCH_SIZE != 0) {
+                    stmt.executeBatch();
+                }
+            }
+        });
+    }
+}
@@ -1,18 +1,24 @@
 package biocode.fims.repositories;
 
 import biocode.fims.models.Expedition;
+import biocode.fims.models.dataTypes.JacksonUtil;
 import biocode.fims.repositories.customOperations.ExpeditionCustomOperations;
+import org.hibernate.Session;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.Types;
 import java.util.List;
 
 /**
- * Implementation of ProjectCustomOperations
+ * Implementation of ExpeditionCustomOperations
  */
 public class ExpeditionRepositoryImpl implements ExpeditionCustomOperations {
     private static int BATCH_SIZE = 100;
+    // # of expeditions to update per statement. Each expedition has 6 parameters
+    private static int UPDATE_BATCH_SIZE = 1000;
     @PersistenceContext(unitName = "entityManagerFactory")
     private EntityManager em;
 
@@ -21,7 +27,7 @@ public class ExpeditionRepositoryImpl implements ExpeditionCustomOperations {
     public void save(List<Expedition> expeditions) {
         int i = 0;
         for (Expedition expedition: expeditions) {
-            persistOrMerge(persistOrMerge(expedition));
+            persistOrMerge(expedition);
             i++;
 
             if (i % BATCH_SIZE == 0) {
@@ -40,4 +46,47 @@ public class ExpeditionRepositoryImpl implements ExpeditionCustomOperations {
             return em.merge(expedition);
         }
     }
+
+    @Transactional
+    @Override
+    public void updateProperties(List<Expedition> expeditions) {
+        if (expeditions.isEmpty()) return;
+
+        em.unwrap(Session.class).doWork(connection -> {
+            for (int i = 0; i < expeditions.size(); i += UPDATE_BATCH_SIZE) {
+                List<Expedition> batch = expeditions.subList(i, Math.min(i + UPDATE_BATCH_SIZE, expeditions.size()));
+
+                try (PreparedStatement stmt = connection.prepareStatement(updatePropertiesSql(batch.size()))) {
+                    int p = 1;
+                    for (Expedition e : batch) {
+                        stmt.setInt(p++, e.getExpeditionId());
+                        stmt.setString(p++, e.getExpeditionTitle());
+                        stmt.setBoolean(p++, e.isPublic());
+                        stmt.setString(p++, e.getVisibility() == null ? null : e.getVisibility().name());
+                        stmt.setString(p++, e.getMetadata() == null ? null : JacksonUtil.toString(e.getMetadata()));
+                        if (e.getUser() == null) {
+                            stmt.setNull(p++, Types.INTEGER);
+                        } else {
+                            stmt.setInt(p++, e.getUser().getUserId());
+                        }
+                    }
+                    stmt.executeUpdate();
+                }
+            }
+        });
+    }
+
+    private String updatePropertiesSql(int rows) {
+        StringBuilder sql = new StringBuilder("UPDATE expeditions AS e SET expedition_title = v.expedition_title, " +
+                "public = v.public, visibility = v.visibility, metadata = v.metadata, user_id = COALESCE(v.user_id, e.user_id) " +
+                "FROM (VALUES ");
+
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(CAST(? AS INTEGER), ?, CAST(? AS BOOLEAN), ?, CAST(? AS JSONB), CAST(? AS INTEGER))");
+        }
+
+        sql.append(") AS v(id, expedition_title, public, visibility, metadata, user_id) WHERE e.id = v.id");
+        return sql.toString();
+    }
 }
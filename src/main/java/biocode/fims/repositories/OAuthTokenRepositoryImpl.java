@@ -18,11 +18,17 @@ public class OAuthTokenRepositoryImpl implements OAuthTokenCustomOperations {
 
     @Override
     public User getUser(String accessToken, long expirationInterval, String userEntityGraph) {
+        OAuthToken oAuthToken = getAccessToken(accessToken, expirationInterval, userEntityGraph);
+        return oAuthToken == null ? null : oAuthToken.getUser();
+    }
+
+    @Override
+    public OAuthToken getAccessToken(String accessToken, long expirationInterval, String userEntityGraph) {
         CriteriaBuilder builder = em.getCriteriaBuilder();
-        CriteriaQuery<User> cq = builder.createQuery(User.class);
+        CriteriaQuery<OAuthToken> cq = builder.createQuery(OAuthToken.class);
         Root<OAuthToken> root = cq.from(OAuthToken.class);
 
-        Join<OAuthToken, User> user = root.join("user", JoinType.INNER);
+        Fetch<OAuthToken, User> user = root.fetch("user", JoinType.INNER);
 
         if (userEntityGraph != null) {
             for (AttributeNode node : em.getEntityGraph(userEntityGraph).getAttributeNodes()) {
@@ -51,7 +57,7 @@ public class OAuthTokenRepositoryImpl implements OAuthTokenCustomOperations {
         Predicate hasToken = builder.equal(root.get("token"), accessToken);
         Predicate notExpired = builder.le(timeToSec, expirationInterval);
         cq.where(hasToken, notExpired);
-        cq.select(user);
+        cq.select(root);
 
         try {
             return em.createQuery(cq).getSingleResult();
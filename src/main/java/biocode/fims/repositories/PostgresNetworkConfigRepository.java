@@ -1,5 +1,6 @@
 package biocode.fims.repositories;
 
+import biocode.fims.config.ConfigCache;
 import biocode.fims.config.models.Entity;
 import biocode.fims.config.network.NetworkConfig;
 import biocode.fims.models.dataTypes.JacksonUtil;
@@ -92,6 +93,8 @@ public class PostgresNetworkConfigRepository implements NetworkConfigRepository
                 sql.getProperty("updateConfig"),
                 sqlParams
         );
+
+        ConfigCache.NETWORK_CONFIGS.invalidate(networkId);
     }
 
     private String createEntityTableSql(Entity e, int networkId, NetworkConfig config) {
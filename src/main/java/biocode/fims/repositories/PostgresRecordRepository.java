@@ -8,7 +8,9 @@ import biocode.fims.config.models.Entity;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.QueryCode;
 import biocode.fims.fimsExceptions.errorCodes.UploadCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.models.dataTypes.JacksonUtil;
+import biocode.fims.query.ContinuationToken;
 import biocode.fims.query.ParametrizedQuery;
 import biocode.fims.query.PostgresUtils;
 import biocode.fims.query.QueryResult;
@@ -19,9 +21,13 @@ import biocode.fims.run.Dataset;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.text.StringSubstitutor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
@@ -29,10 +35,13 @@ import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * @author rjewing
@@ -40,10 +49,12 @@ import java.util.*;
 @Transactional
 public class PostgresRecordRepository implements RecordRepository {
     private final static Logger logger = LoggerFactory.getLogger(PostgresRecordRepository.class);
+    private final static String STAGING_TABLE = "record_staging";
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final Properties sql;
     private final Map<Class<? extends Record>, FimsRowMapper<? extends Record>> rowMappers;
     private final FimsProperties fimsProperties;
+    private final ObjectMapper mapper = new FimsObjectMapper();
 
     public PostgresRecordRepository(NamedParameterJdbcTemplate jdbcTemplate, Properties sql, Map<Class<? extends Record>, FimsRowMapper<? extends Record>> rowMappers, FimsProperties fimsProperties) {
         this.jdbcTemplate = jdbcTemplate;
@@ -190,7 +201,6 @@ public class PostgresRecordRepository implements RecordRepository {
 
         params.addValues(extraValues);
 
-        ObjectMapper mapper = new FimsObjectMapper();
         Map<String, Object> properties = record.properties();
 
         try {
@@ -205,23 +215,42 @@ public class PostgresRecordRepository implements RecordRepository {
         );
     }
 
+    /**
+     * The time spent saving the dataset is recorded in the "dataset.save" timer
+     */
     @Override
     @SetFimsUser
-    @SuppressWarnings({"unchecked"})
     public void saveDataset(Dataset dataset, int networkId) {
+        Metrics.time("dataset.save", () -> persistDataset(dataset, networkId));
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private void persistDataset(Dataset dataset, int networkId) {
         try {
             for (RecordSet recordSet : dataset) {
 
+                List<Record> records = recordSet.recordsToPersist();
+
+                if (records.isEmpty() && !recordSet.reload()) continue;
+
+                boolean bulkLoad = shouldBulkLoad(dataset, recordSet, records);
+
+                // children of hashed parents need the replaced parent_identifiers returned. We stage these
+                // records so all replaced parent_identifiers can be returned w/ a single statement
+                if (bulkLoad || hasHashedParent(recordSet)) {
+                    saveFromStagingTable(recordSet, records, networkId, bulkLoad);
+                    continue;
+                }
+
                 String localIdentifierUri = recordSet.entity().getUniqueKeyURI();
 
                 Map<String, Object> tableMap = PostgresUtils.getTableMap(networkId, recordSet.conceptAlias());
 
                 List<HashMap<String, ?>> insertParams = new ArrayList<>();
-                ObjectMapper mapper = new FimsObjectMapper();
                 List<String> localIdentifiers = new ArrayList<>();
                 List<String> parentIdentifiers = new ArrayList<>();
 
-                for (Record record : recordSet.recordsToPersist()) {
+                for (Record record : records) {
 
                     HashMap<String, Object> recordParams = new HashMap<>();
                     recordParams.put("expeditionCode", recordSet.expeditionCode());
@@ -244,42 +273,15 @@ public class PostgresRecordRepository implements RecordRepository {
                     insertParams.add(recordParams);
                 }
 
-                if (insertParams.isEmpty() && !recordSet.reload()) continue;
-
-                boolean executeReturning = false;
-                String sqlString;
-                if (recordSet.hasParent() && recordSet.parent().entity().isHashed()) {
-                    sqlString = sql.getProperty("insertChildRecordReturning");
-                    executeReturning = true;
-                } else if (recordSet.hasParent()) {
-                    sqlString = sql.getProperty("insertChildRecord");
-                } else {
-                    sqlString = sql.getProperty("insertRecord");
-                }
+                String sqlString = recordSet.hasParent()
+                        ? sql.getProperty("insertChildRecord")
+                        : sql.getProperty("insertRecord");
 
-                // used to remove hashed parents that have been updated and no longer have a child entity attached
-                List<String> updatedHashedParents = new ArrayList<>();
                 if (!insertParams.isEmpty()) {
-                    if (executeReturning) {
-                        for (HashMap p : insertParams) {
-                            // we use query here b/c our update statement may return a value
-                            List<String> old_parent = jdbcTemplate.query(
-                                    StringSubstitutor.replace(sqlString, tableMap),
-                                    p,
-                                    (rs, rowNum) -> rs.getString("parent_identifier")
-                            );
-                            if (old_parent.size() == 1 && old_parent.get(0) != null) {
-                                updatedHashedParents.add(old_parent.get(0));
-                            } else if (old_parent.size() > 1) {
-                                throw new FimsRuntimeException(QueryCode.UNEXPECTED_RESULT, 500);
-                            }
-                        }
-                    } else {
-                        jdbcTemplate.batchUpdate(
-                                StringSubstitutor.replace(sqlString, tableMap),
-                                insertParams.toArray(new HashMap[insertParams.size()])
-                        );
-                    }
+                    jdbcTemplate.batchUpdate(
+                            StringSubstitutor.replace(sqlString, tableMap),
+                            insertParams.toArray(new HashMap[insertParams.size()])
+                    );
                 }
 
                 // Delete any records not in the current RecordSet
@@ -311,21 +313,6 @@ public class PostgresRecordRepository implements RecordRepository {
                         }
                     }
 
-                    jdbcTemplate.update(
-                            StringSubstitutor.replace(deleteSql, tableMap),
-                            deleteParams
-                    );
-                } else if (updatedHashedParents.size() > 0) {
-                    String deleteSql = sql.getProperty("deleteOrphanedParentRecords");
-
-                    HashMap<String, Object> deleteParams = new HashMap<>();
-                    deleteParams.put("expeditionCode", recordSet.expeditionCode());
-                    deleteParams.put("projectId", recordSet.projectId());
-                    deleteParams.put("identifiers", updatedHashedParents);
-
-                    tableMap.put("childTable", tableMap.get("table"));
-                    tableMap.put("table", PostgresUtils.entityTable(networkId, recordSet.entity().getParentEntity()));
-
                     jdbcTemplate.update(
                             StringSubstitutor.replace(deleteSql, tableMap),
                             deleteParams
@@ -338,6 +325,133 @@ public class PostgresRecordRepository implements RecordRepository {
         }
     }
 
+    private boolean hasHashedParent(RecordSet recordSet) {
+        return recordSet.hasParent() && recordSet.parent().entity().isHashed();
+    }
+
+    private boolean shouldBulkLoad(Dataset dataset, RecordSet recordSet, List<Record> records) {
+        if (!dataset.bulkLoad() && !recordSet.bulkLoad()) return false;
+
+        return records.size() >= fimsProperties.bulkLoadThreshold();
+    }
+
+    /**
+     * Loads the records into a temporary staging table, then upserts all records and removes any
+     * reloaded or orphaned records w/ set-based statements against the staging table.
+     *
+     * @param copy if true, the records are streamed into the staging table using COPY, otherwise a batch insert is used
+     */
+    private void saveFromStagingTable(RecordSet recordSet, List<Record> records, int networkId, boolean copy) throws JsonProcessingException {
+        Map<String, Object> tableMap = PostgresUtils.getTableMap(networkId, recordSet.conceptAlias());
+        tableMap.put("stagingTable", STAGING_TABLE);
+
+        jdbcTemplate.getJdbcOperations().execute(
+                StringSubstitutor.replace(sql.getProperty("createStagingTable"), tableMap)
+        );
+
+        if (copy) {
+            copyToStagingTable(recordSet, records, StringSubstitutor.replace(sql.getProperty("copyToStagingTable"), tableMap));
+        } else {
+            insertIntoStagingTable(recordSet, records, StringSubstitutor.replace(sql.getProperty("insertStagingRecord"), tableMap));
+        }
+
+        HashMap<String, Object> params = new HashMap<>();
+        params.put("expeditionCode", recordSet.expeditionCode());
+        params.put("projectId", recordSet.projectId());
+
+        // used to remove hashed parents that have been updated and no longer have a child entity attached
+        List<String> updatedHashedParents = new ArrayList<>();
+
+        if (hasHashedParent(recordSet)) {
+            updatedHashedParents = jdbcTemplate.query(
+                    StringSubstitutor.replace(sql.getProperty("upsertChildRecordsFromStagingReturning"), tableMap),
+                    params,
+                    (rs, rowNum) -> rs.getString("parent_identifier")
+            );
+        } else {
+            String upsertSql = recordSet.hasParent()
+                    ? sql.getProperty("upsertChildRecordsFromStaging")
+                    : sql.getProperty("upsertRecordsFromStaging");
+
+            jdbcTemplate.update(StringSubstitutor.replace(upsertSql, tableMap), params);
+        }
+
+        // Delete any records not in the current RecordSet
+        if (recordSet.reload()) {
+            String deleteSql = recordSet.hasParent()
+                    ? sql.getProperty("deleteChildRecordsNotInStaging")
+                    : sql.getProperty("deleteRecordsNotInStaging");
+
+            jdbcTemplate.update(StringSubstitutor.replace(deleteSql, tableMap), params);
+        } else if (updatedHashedParents.size() > 0) {
+            params.put("identifiers", updatedHashedParents);
+
+            tableMap.put("childTable", tableMap.get("table"));
+            tableMap.put("table", PostgresUtils.entityTable(networkId, recordSet.entity().getParentEntity()));
+
+            jdbcTemplate.update(
+                    StringSubstitutor.replace(sql.getProperty("deleteOrphanedParentRecords"), tableMap),
+                    params
+            );
+        }
+    }
+
+    private void insertIntoStagingTable(RecordSet recordSet, List<Record> records, String insertSql) throws JsonProcessingException {
+        if (records.isEmpty()) return;
+
+        String localIdentifierUri = recordSet.entity().getUniqueKeyURI();
+        String parentIdentifierUri = recordSet.hasParent()
+                ? recordSet.entity().getAttributeUri(recordSet.parent().entity().getUniqueKey())
+                : null;
+
+        List<HashMap<String, ?>> insertParams = new ArrayList<>(records.size());
+
+        for (Record record : records) {
+            HashMap<String, Object> recordParams = new HashMap<>();
+            recordParams.put("identifier", record.get(localIdentifierUri));
+            recordParams.put("parent_identifier", parentIdentifierUri == null ? null : record.get(parentIdentifierUri));
+            recordParams.put("data", mapper.writeValueAsString(removeEmptyProperties(record.properties())));
+            insertParams.add(recordParams);
+        }
+
+        jdbcTemplate.batchUpdate(insertSql, insertParams.toArray(new HashMap[insertParams.size()]));
+    }
+
+    private void copyToStagingTable(RecordSet recordSet, List<Record> records, String copySql) {
+        String localIdentifierUri = recordSet.entity().getUniqueKeyURI();
+        String parentIdentifierUri = recordSet.hasParent()
+                ? recordSet.entity().getAttributeUri(recordSet.parent().entity().getUniqueKey())
+                : null;
+
+        jdbcTemplate.getJdbcOperations().execute((ConnectionCallback<Void>) con -> {
+            PGConnection pgConnection = con.unwrap(PGConnection.class);
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(pgConnection, copySql), StandardCharsets.UTF_8))) {
+                for (Record record : records) {
+                    writeCsvValue(writer, record.get(localIdentifierUri));
+                    writer.write(',');
+                    // an unquoted empty value is copied as NULL
+                    if (parentIdentifierUri != null) writeCsvValue(writer, record.get(parentIdentifierUri));
+                    writer.write(',');
+                    writeCsvValue(writer, mapper.writeValueAsString(removeEmptyProperties(record.properties())));
+                    writer.write('\n');
+                }
+            } catch (JsonProcessingException e) {
+                throw new FimsRuntimeException(UploadCode.DATA_SERIALIZATION_ERROR, 500);
+            } catch (IOException e) {
+                throw new SQLException("Failed to copy records to staging table", e);
+            }
+
+            return null;
+        });
+    }
+
+    private void writeCsvValue(Writer writer, String value) throws IOException {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
     @Override
     public <T> List<T> query(String sql, SqlParameterSource params, Class<T> responseType) {
         return query(sql, params, (rs, rowNum) -> {
@@ -372,11 +486,44 @@ public class PostgresRecordRepository implements RecordRepository {
         logger.info(q.toString());
 
         RecordRowCallbackHandler handler = new RecordRowCallbackHandler(query.configEntities());
-        jdbcTemplate.query(q.sql(), q.params(), handler);
+        Metrics.time("query.execute", () -> jdbcTemplate.query(q.sql(), q.params(), handler));
 
         return handler.results();
     }
 
+    @Override
+    public void query(Query query, Consumer<Record> consumer) {
+        ParametrizedQuery q = query.parameterizedQuery();
+
+        logger.info(q.toString());
+
+        Entity entity = query.queryEntity();
+        FimsRowMapper<? extends Record> rowMapper = getRowMapper(entity);
+        String labelPrefix = entity.getConceptAlias().toLowerCase() + "_";
+
+        // postgres will only use a server-side cursor if a fetchSize is set and we are inside a transaction
+        jdbcTemplate.execute(q.sql(), q.params(), (PreparedStatementCallback<Void>) ps -> {
+            ps.setFetchSize(fimsProperties.queryFetchSize());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                Record previous = null;
+
+                while (rs.next()) {
+                    Record record = rowMapper.mapRow(rs, rs.getRow(), labelPrefix);
+
+                    // joining related entities will return 1 row for each related record. Results are
+                    // ordered by the queryEntity, so any duplicates will be adjacent
+                    if (record == null || record.equals(previous)) continue;
+
+                    consumer.accept(record);
+                    previous = record;
+                }
+            }
+
+            return null;
+        });
+    }
+
     @Override
     @SuppressWarnings({"unchecked"})
     public PaginatedResponse<Map<String, List<Map<String, Object>>>> query(Query query, RecordSources sources, boolean includeEmptyProperties, boolean includeBcidPrefix) {
@@ -385,10 +532,20 @@ public class PostgresRecordRepository implements RecordRepository {
         logger.info(q.toString());
 
         RecordRowCallbackHandler handler = new RecordRowCallbackHandler(query.configEntities());
-        jdbcTemplate.query(q.sql(), q.params(), handler);
+        Metrics.time("query.execute", () -> jdbcTemplate.query(q.sql(), q.params(), handler));
 
         QueryResults queryResults = handler.results();
 
+        if (query.keysetPagination()) {
+            // a full page means there may be more results
+            ContinuationToken next = handler.keys == query.limit() ? handler.lastKey : null;
+            return new PaginatedResponse<>(
+                    queryResults.isEmpty() ? Collections.emptyMap() : queryResults.toMap(includeEmptyProperties, sources, includeBcidPrefix),
+                    query.limit(),
+                    next == null ? null : next.encode()
+            );
+        }
+
         if (queryResults.isEmpty()) {
             return new PaginatedResponse<>(Collections.emptyMap(), 0, 0);
         }
@@ -413,10 +570,21 @@ public class PostgresRecordRepository implements RecordRepository {
         return nonEmptyProps;
     }
 
+    private FimsRowMapper<? extends Record> getRowMapper(Entity entity) {
+        FimsRowMapper<? extends Record> rowMapper = rowMappers.get(entity.getRecordType());
+        if (rowMapper == null) {
+            rowMapper = rowMappers.get(GenericRecord.class);
+        }
+
+        return rowMapper;
+    }
+
     private class RecordRowCallbackHandler implements RowCallbackHandler {
         private final List<Entity> entities;
         final Map<String, LinkedHashSet<Record>> records;
         final Map<String, String> rootIdentifiers;
+        int keys = 0;
+        ContinuationToken lastKey;
 
         private RecordRowCallbackHandler(List<Entity> entities) {
             this.entities = entities;
@@ -428,6 +596,8 @@ public class PostgresRecordRepository implements RecordRepository {
         public void processRow(ResultSet rs) throws SQLException {
             ResultSetMetaData metadata = rs.getMetaData();
             Map<String, Record> rowRecords = new LinkedHashMap<>();
+            String localIdentifier = null;
+            Integer expeditionId = null;
 
             // process all columns in the row
             for (int i = 1; i <= metadata.getColumnCount(); i++) {
@@ -440,6 +610,21 @@ public class PostgresRecordRepository implements RecordRepository {
                             conceptAlias,
                             getRowMapper(conceptAlias).mapRow(rs, 0, conceptAlias + "_")
                     );
+                } else if (label.equals("localIdentifier")) {
+                    localIdentifier = rs.getString(i);
+                } else if (label.equals("expeditionId")) {
+                    expeditionId = rs.getInt(i);
+                }
+            }
+
+            // only present for keyset paginated queries. results are ordered by this key, so the last row
+            // is where the next page starts. Related records are returned in multiple rows w/ the same key,
+            // so we count the distinct keys, which is what the query is limited by
+            if (localIdentifier != null && expeditionId != null) {
+                ContinuationToken key = new ContinuationToken(localIdentifier, expeditionId);
+                if (!key.equals(lastKey)) {
+                    keys++;
+                    lastKey = key;
                 }
             }
 
@@ -473,12 +658,7 @@ public class PostgresRecordRepository implements RecordRepository {
         }
 
         private FimsRowMapper<? extends Record> getRowMapper(String conceptAlias) {
-            FimsRowMapper<? extends Record> rowMapper = rowMappers.get(getEntity(conceptAlias).getRecordType());
-            if (rowMapper == null) {
-                rowMapper = rowMappers.get(GenericRecord.class);
-            }
-
-            return rowMapper;
+            return PostgresRecordRepository.this.getRowMapper(getEntity(conceptAlias));
         }
 
         private Entity getEntity(String conceptAlias) {
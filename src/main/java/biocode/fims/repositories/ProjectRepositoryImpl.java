@@ -2,11 +2,18 @@ package biocode.fims.repositories;
 
 import biocode.fims.config.project.models.PersistedProjectConfig;
 import biocode.fims.models.Project;
+import biocode.fims.models.ProjectPermissions;
 import biocode.fims.repositories.customOperations.ProjectCustomOperations;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implementation of ProjectCustomOperations
@@ -30,4 +37,66 @@ public class ProjectRepositoryImpl implements ProjectCustomOperations {
                 .setHint("javax.persistence.fetchgraph", em.getEntityGraph(entityGraph))
                 .getResultList();
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ProjectPermissions getProjectPermissions(int userId) {
+        List<Object[]> results = em.createNativeQuery(
+                "SELECT p.id, p.public, up.user_id IS NOT NULL FROM projects p " +
+                        "LEFT JOIN user_projects up ON up.project_id = p.id AND up.user_id = :userId " +
+                        "WHERE p.public = true OR up.user_id IS NOT NULL")
+                .setParameter("userId", userId)
+                .getResultList();
+
+        Set<Integer> publicProjects = new HashSet<>();
+        Set<Integer> memberProjects = new HashSet<>();
+
+        for (Object[] result : results) {
+            int projectId = ((Number) result[0]).intValue();
+            if ((Boolean) result[1]) publicProjects.add(projectId);
+            if ((Boolean) result[2]) memberProjects.add(projectId);
+        }
+
+        return new ProjectPermissions(publicProjects, memberProjects);
+    }
+
+    @Override
+    public List<Project> getProjects(int userId, boolean includePublic, String projectTitle, Pageable pageable) {
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Project AS p WHERE (");
+
+        if (includePublic) {
+            jpql.append("p.public = true OR ");
+        }
+        jpql.append("p.projectId IN (SELECT m.projectId FROM User AS u JOIN u.projectsMemberOf AS m WHERE u.userId = :userId))");
+
+        if (projectTitle != null) {
+            jpql.append(" AND p.projectTitle = :projectTitle");
+        }
+
+        jpql.append(" ORDER BY ");
+        if (pageable != null && pageable.getSort() != null) {
+            for (Sort.Order order : pageable.getSort()) {
+                if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                    throw new IllegalArgumentException("Projects can not be sorted by: " + order.getProperty());
+                }
+                jpql.append("p.").append(order.getProperty()).append(" ").append(order.getDirection()).append(", ");
+            }
+        }
+        // projectId is unique, so paging is stable
+        jpql.append("p.projectId");
+
+        TypedQuery<Project> query = em.createQuery(jpql.toString(), Project.class)
+                .setParameter("userId", userId);
+
+        if (projectTitle != null) {
+            query.setParameter("projectTitle", projectTitle);
+        }
+
+        if (pageable != null) {
+            query.setFirstResult(pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+
+        return query.getResultList();
+    }
 }
@@ -14,6 +14,7 @@ import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * @author rjewing
@@ -50,5 +51,15 @@ public interface RecordRepository {
 
     QueryResults query(Query query);
 
+    /**
+     * Execute the query, passing each {@link Query#queryEntity()} {@link Record} to the consumer as it is read from
+     * the database. The results are never fully materialized, so this should be preferred when writing large
+     * result sets. Any related entities selected in the query are ignored.
+     *
+     * @param query
+     * @param consumer
+     */
+    void query(Query query, Consumer<Record> consumer);
+
     PaginatedResponse<Map<String, List<Map<String, Object>>>> query(Query query, RecordSources sources, boolean includeEmptyProperties, boolean includeBcidPrefix);
 }
@@ -0,0 +1,21 @@
+package biocode.fims.repositories.customOperations;
+
+import biocode.fims.models.EntityIdentifier;
+
+import java.util.List;
+
+/**
+ * defines custom EntityIdentifierRepository operations
+ */
+public interface EntityIdentifierCustomOperations {
+
+    /**
+     * insert the EntityIdentifiers using jdbc batches. The EntityIdentifier.expedition must already be persisted.
+     * <p>
+     * Note: the EntityIdentifiers are not added to the Expedition.entityIdentifiers of any Expedition loaded in the
+     * current persistence context
+     *
+     * @param entityIdentifiers
+     */
+    void insert(List<EntityIdentifier> entityIdentifiers);
+}
@@ -9,4 +9,14 @@ import java.util.List;
  */
 public interface ExpeditionCustomOperations {
     void save(List<Expedition> expeditions);
+
+    /**
+     * bulk update the expeditionTitle, public, visibility, metadata, & user of existing expeditions using set-based
+     * sql updates. The user is only updated if not null.
+     * <p>
+     * Note: the persistence context is not updated, so any of the expeditions already loaded will be stale
+     *
+     * @param expeditions
+     */
+    void updateProperties(List<Expedition> expeditions);
 }
@@ -9,5 +9,13 @@ import biocode.fims.models.User;
 public interface OAuthTokenCustomOperations {
     User getUser(String accessToken, long expirationInterval, String userEntityGraph);
 
+    /**
+     * @param accessToken
+     * @param expirationInterval
+     * @param userEntityGraph    the User entity graph to fetch. may be null
+     * @return the unexpired OAuthToken for the accessToken, w/ the user fetched, or null if not found
+     */
+    OAuthToken getAccessToken(String accessToken, long expirationInterval, String userEntityGraph);
+
     OAuthToken getOAuthToken(String refreshToken, long expirationInteval);
 }
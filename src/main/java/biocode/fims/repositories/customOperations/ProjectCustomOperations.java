@@ -1,14 +1,47 @@
 package biocode.fims.repositories.customOperations;
 
 import biocode.fims.models.Project;
+import biocode.fims.models.ProjectPermissions;
+import org.springframework.data.domain.Pageable;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * defines custom ProjectRepository operations
  */
 public interface ProjectCustomOperations {
+    /**
+     * Project properties which {@link #getProjects(int, boolean, String, Pageable)} can be sorted by
+     */
+    Set<String> SORTABLE_PROPERTIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "projectId", "projectCode", "projectTitle", "created", "modified", "latestDataModification"
+    )));
+
     Project getProjectByProjectId(int projectId, String entityGraph);
 
     List<Project> getAll(List<Integer> projectIds, String entityGraph);
+
+    /**
+     * fetch the public projects and the projects the user is a member of in a single query
+     *
+     * @param userId 0 if there is no user
+     * @return
+     */
+    ProjectPermissions getProjectPermissions(int userId);
+
+    /**
+     * fetch the projects which are public, or the user is a member of
+     *
+     * @param userId        0 if there is no user
+     * @param includePublic
+     * @param projectTitle  optional exact match on projectTitle
+     * @param pageable      optional page & sort. If null, all projects are returned. Sort properties must be in
+     *                      {@link #SORTABLE_PROPERTIES}
+     * @return
+     */
+    List<Project> getProjects(int userId, boolean includePublic, String projectTitle, Pageable pageable);
 }
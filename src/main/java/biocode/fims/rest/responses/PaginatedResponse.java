@@ -10,13 +10,29 @@ import java.util.Map;
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PaginatedResponse<T> {
-    public final int page;
+    public final Integer page;
     public final int limit;
+    public final String continuationToken;
     public final T content;
 
     public PaginatedResponse(T content, int page, int limit) {
         this.content = content;
         this.page = page;
         this.limit = limit;
+        this.continuationToken = null;
+    }
+
+    /**
+     * Response for keyset paginated results
+     *
+     * @param content
+     * @param limit
+     * @param continuationToken opaque token used to fetch the next page. null if there are no more results
+     */
+    public PaginatedResponse(T content, int limit, String continuationToken) {
+        this.content = content;
+        this.page = null;
+        this.limit = limit;
+        this.continuationToken = continuationToken;
     }
 }
@@ -0,0 +1,54 @@
+package biocode.fims.rest.services;
+
+import biocode.fims.application.config.FimsProperties;
+import biocode.fims.metrics.MetricSnapshot;
+import biocode.fims.metrics.MetricsRegistry;
+import biocode.fims.rest.FimsController;
+import biocode.fims.rest.filters.Admin;
+import biocode.fims.rest.filters.Authenticated;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import java.util.List;
+
+/**
+ * Metrics API endpoints. Exposes the timers & counters recorded by the {@link MetricsRegistry}, ex. the time spent
+ * building, validating & saving datasets, and building, executing & writing queries.
+ *
+ * @exclude
+ * @resourceTag Metrics
+ */
+public abstract class BaseMetricsController extends FimsController {
+
+    private final MetricsRegistry metricsRegistry;
+
+    @Autowired
+    BaseMetricsController(MetricsRegistry metricsRegistry, FimsProperties props) {
+        super(props);
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    /**
+     * Get all metrics recorded since the application started or the metrics were last reset
+     */
+    @GET
+    @Authenticated
+    @Admin
+    @Produces(MediaType.APPLICATION_JSON)
+    public List<MetricSnapshot> getMetrics() {
+        return metricsRegistry.snapshot();
+    }
+
+    /**
+     * Reset all metrics
+     */
+    @DELETE
+    @Authenticated
+    @Admin
+    public void resetMetrics() {
+        metricsRegistry.clear();
+    }
+}
@@ -24,6 +24,9 @@ import biocode.fims.service.ProjectService;
 import biocode.fims.utils.Flag;
 import com.fasterxml.jackson.annotation.JsonView;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Controller;
 
 import javax.inject.Singleton;
@@ -33,7 +36,6 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * @author RJ Ewing
@@ -42,6 +44,8 @@ import java.util.stream.Collectors;
 @Produces(MediaType.APPLICATION_JSON)
 @Singleton
 public class ProjectsResource extends FimsController {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final ProjectService projectService;
     private final ProjectConfigurationService projectConfigurationService;
     private final NetworkService networkService;
@@ -71,22 +75,72 @@ public class ProjectsResource extends FimsController {
      * @param projectTitle  A filter on the projectTitle field.
      * @param admin         Flag used to request projects the authenticated user is an admin for. Note: this flag
      *                      takes precedence over all other query params
+     * @param page          The page to fetch, starting at 0. If neither page or limit are specified, all projects are
+     *                      returned
+     * @param limit         The number of projects per page. Defaults to 100 if page is specified
+     * @param sort          The property to sort by, optionally followed by the direction. ex. "projectTitle,desc".
+     *                      Valid properties are: projectId, projectCode, projectTitle, created, modified, &
+     *                      latestDataModification. Defaults to projectId
      */
     @JsonView(Views.Detailed.class)
     @UserEntityGraph("User.withProjectsAndProjectsMemberOf")
     @GET
     public List<Project> getProjects(@QueryParam("includePublic") @DefaultValue("true") Boolean includePublic,
                                      @QueryParam("projectTitle") String projectTitle,
-                                     @QueryParam("admin") @DefaultValue("false") Flag admin) {
+                                     @QueryParam("admin") @DefaultValue("false") Flag admin,
+                                     @QueryParam("page") Integer page,
+                                     @QueryParam("limit") Integer limit,
+                                     @QueryParam("sort") String sort) {
         if (admin.isPresent()) {
             return new ArrayList<>(userContext.getUser().getProjects());
         }
 
-        List<Project> projects = projectService.getProjects(userContext.getUser(), includePublic);
+        return projectService.getProjects(userContext.getUser(), includePublic, projectTitle, pageRequest(page, limit, sort));
+    }
+
+    static Pageable pageRequest(Integer page, Integer limit, String sort) {
+        Sort s = null;
+        if (sort != null && !sort.trim().isEmpty()) {
+            s = sort(sort);
+        }
+
+        if (page == null && limit == null) {
+            // not paged, but we still want the projects sorted
+            return s == null ? null : new PageRequest(0, Integer.MAX_VALUE, s);
+        }
+
+        if ((page != null && page < 0) || (limit != null && limit < 1)) {
+            throw new BadRequestException("page must be >= 0 and limit must be > 0");
+        }
+
+        return new PageRequest(page == null ? 0 : page, limit == null ? DEFAULT_PAGE_SIZE : limit, s);
+    }
+
+    /**
+     * @param sort "property[,direction]"
+     */
+    private static Sort sort(String sort) {
+        String[] parts = sort.split(",", -1);
+
+        if (parts.length > 2) {
+            throw new BadRequestException("Invalid sort: \"" + sort + "\". Expected \"property[,direction]\"");
+        }
+
+        String property = parts[0].trim();
+        if (property.isEmpty()) {
+            throw new BadRequestException("Invalid sort: \"" + sort + "\". A sort property is required");
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            try {
+                direction = Sort.Direction.fromString(parts[1].trim());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid sort direction: \"" + parts[1].trim() + "\"");
+            }
+        }
 
-        return projectTitle == null
-                ? projects
-                : projects.stream().filter(p -> projectTitle.equals(p.getProjectTitle())).collect(Collectors.toList());
+        return new Sort(direction, property);
     }
 
     /**
@@ -42,9 +42,17 @@ public enum APIVersion {
      * @return
      */
     public static List<APIVersion> range(String startingVersionName) {
-        List<APIVersion> orderedVersions = Arrays.asList(values());
+        return range(version(startingVersionName));
+    }
 
-        APIVersion startingVersion = version(startingVersionName);
+    /**
+     * get a list of all APIVersions from the provided version to the latest version
+     *
+     * @param startingVersion
+     * @return
+     */
+    public static List<APIVersion> range(APIVersion startingVersion) {
+        List<APIVersion> orderedVersions = Arrays.asList(values());
 
         return new ArrayList<>(orderedVersions.subList(orderedVersions.indexOf(startingVersion), orderedVersions.size()));
     }
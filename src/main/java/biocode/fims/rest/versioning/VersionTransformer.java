@@ -1,6 +1,7 @@
 package biocode.fims.rest.versioning;
 
 import biocode.fims.rest.FimsController;
+import biocode.fims.rest.versioning.transformers.FimsAbstractTransformer;
 import biocode.fims.utils.SpringApplicationContext;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
@@ -8,7 +9,9 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.ws.rs.core.MultivaluedMap;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Spring aop Advice class to wrap all jersey Resource methods in the biocode.fims.rest.services package
@@ -21,6 +24,9 @@ public class VersionTransformer {
     private final static Logger logger = LoggerFactory.getLogger(VersionTransformer.class);
     public final static String TRANSFORMER_PACKAGE = "biocode.fims.rest.versioning.transformers";
 
+    // resolved chains, including empty chains for the common case of no transformers
+    private final Map<ChainKey, TransformerChain> chains = new ConcurrentHashMap<>();
+
     @Around("execution(* biocode.fims.rest.services..*.*(..))")
     public Object transformResource(ProceedingJoinPoint jp) throws Throwable {
         FimsController fimsController = (FimsController) jp.getTarget();
@@ -33,11 +39,14 @@ public class VersionTransformer {
         }
 
         String version = fimsController.getHeaders().getHeaderString("Api-Version");
+        String methodName = jp.getSignature().getName();
+        TransformerChain chain = chain(jp.getTarget().getClass(), methodName, APIVersion.version(version));
+
         Object returnValue;
 
         Object[] args = jp.getArgs();
 
-        if (args.length == 0) {
+        if (args.length == 0 || chain.request.isEmpty()) {
             returnValue = jp.proceed();
         } else {
             LinkedHashMap<String, Object> methodParamMap = new LinkedHashMap<>();
@@ -46,42 +55,84 @@ public class VersionTransformer {
                 methodParamMap.put(argNames[i], args[i]);
             }
 
-            List<APIVersion> apiVersionRange = APIVersion.range(version);
-            // remove the latest APIVersion as that is what the previous APIVersion will transform the request to
-            apiVersionRange.remove(apiVersionRange.size() - 1);
-            for (APIVersion apiVersion : apiVersionRange) {
-                Transformer transformer = getTransformer(apiVersion, jp.getTarget().getClass().getSimpleName());
-
-                if (transformer != null) {
-                    transformer.updateRequestData(methodParamMap, jp.getSignature().getName(), fimsController.uriInfo.getQueryParameters());
-                }
+            for (Class<? extends Transformer> transformerClass : chain.request) {
+                getTransformer(transformerClass).updateRequestData(methodParamMap, methodName, fimsController.uriInfo.getQueryParameters());
             }
 
             returnValue = jp.proceed(methodParamMap.values().toArray());
         }
 
         if (returnValue != null) {
-            List<APIVersion> versionRangeReversed = APIVersion.range(version);
-            Collections.reverse(versionRangeReversed);
-            // remove the latest APIVersion as that is what the returnVal is from the resource Method
-            versionRangeReversed.remove(0);
-
-            for (APIVersion apiVersion : versionRangeReversed) {
-                Transformer transformer = getTransformer(apiVersion, jp.getTarget().getClass().getSimpleName());
-                returnValue = transformResponse(returnValue, transformer, jp.getSignature().getName());
+            for (Class<? extends Transformer> transformerClass : chain.response) {
+                returnValue = getTransformer(transformerClass).updateResponseData(returnValue, methodName);
             }
         }
 
         return returnValue;
     }
 
-    private Object transformResponse(Object returnVal, Transformer transformer, String methodName) {
-        if (transformer != null) {
-            Object obj = transformer.updateResponseData(returnVal, methodName);
-            return obj;
+    /**
+     * Get the {@link Transformer}s to apply to requests & responses of the resource method for the requested
+     * {@link APIVersion}. The chain is resolved once for each resource class, method & version and then cached.
+     *
+     * @param resourceClass
+     * @param methodName
+     * @param version       the requested APIVersion
+     * @return
+     */
+    TransformerChain chain(Class<?> resourceClass, String methodName, APIVersion version) {
+        return chains.computeIfAbsent(
+                new ChainKey(resourceClass, methodName, version),
+                k -> resolveChain(resourceClass.getSimpleName(), methodName, version)
+        );
+    }
+
+    private TransformerChain resolveChain(String classSimpleName, String methodName, APIVersion version) {
+        List<APIVersion> apiVersionRange = APIVersion.range(version);
+        // remove the latest APIVersion as that is what the previous APIVersion will transform the request to
+        // and what the returnVal is from the resource Method
+        apiVersionRange.remove(apiVersionRange.size() - 1);
+
+        List<Class<? extends Transformer>> request = new ArrayList<>();
+        List<Class<? extends Transformer>> response = new ArrayList<>();
+
+        for (APIVersion apiVersion : apiVersionRange) {
+            Class<? extends Transformer> transformerClass = getTransformerClass(apiVersion, classSimpleName);
+
+            if (transformerClass == null) continue;
+
+            if (transforms(transformerClass, methodName + "Request", LinkedHashMap.class, MultivaluedMap.class)) {
+                request.add(transformerClass);
+            }
+            if (transforms(transformerClass, methodName + "Response", Object.class)) {
+                response.add(transformerClass);
+            }
         }
 
-        return returnVal;
+        // responses are transformed from the latest version back to the requested version
+        Collections.reverse(response);
+
+        return new TransformerChain(request, response);
+    }
+
+    /**
+     * {@link FimsAbstractTransformer} delegates to a {methodName}Request or {methodName}Response method. If that method
+     * doesn't exist, the transformer is a no-op for the resource method, so we exclude it from the chain. Any other
+     * {@link Transformer} is always included.
+     */
+    private boolean transforms(Class<? extends Transformer> transformerClass, String transformMethod, Class<?>... parameterTypes) {
+        if (!FimsAbstractTransformer.class.isAssignableFrom(transformerClass)) return true;
+
+        try {
+            transformerClass.getMethod(transformMethod, parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private Transformer getTransformer(Class<? extends Transformer> transformerClass) {
+        return (Transformer) SpringApplicationContext.getBean(transformerClass);
     }
 
     /**
@@ -93,16 +144,53 @@ public class VersionTransformer {
      * @param classSimpleName
      * @return
      */
-    private Transformer getTransformer(APIVersion version, String classSimpleName) {
+    @SuppressWarnings("unchecked")
+    private Class<? extends Transformer> getTransformerClass(APIVersion version, String classSimpleName) {
         String transformerClass = TRANSFORMER_PACKAGE + "." + classSimpleName + "Transformer" + version.getTransformerSuffix();
-        Transformer transformer = null;
 
         try {
-            transformer = (Transformer) SpringApplicationContext.getBean(Class.forName(transformerClass));
+            return (Class<? extends Transformer>) Class.forName(transformerClass);
         } catch (ClassNotFoundException e) {
             logger.debug("Problem instantiating transformer class: " + transformerClass);
         }
 
-        return transformer;
+        return null;
+    }
+
+    static final class TransformerChain {
+        final List<Class<? extends Transformer>> request;
+        final List<Class<? extends Transformer>> response;
+
+        private TransformerChain(List<Class<? extends Transformer>> request, List<Class<? extends Transformer>> response) {
+            this.request = Collections.unmodifiableList(request);
+            this.response = Collections.unmodifiableList(response);
+        }
+    }
+
+    private static final class ChainKey {
+        private final Class<?> resourceClass;
+        private final String methodName;
+        private final APIVersion version;
+
+        private ChainKey(Class<?> resourceClass, String methodName, APIVersion version) {
+            this.resourceClass = resourceClass;
+            this.methodName = methodName;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ChainKey)) return false;
+            ChainKey chainKey = (ChainKey) o;
+            return resourceClass.equals(chainKey.resourceClass) &&
+                    methodName.equals(chainKey.methodName) &&
+                    version == chainKey.version;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(resourceClass, methodName, version);
+        }
     }
 }
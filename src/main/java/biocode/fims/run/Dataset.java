@@ -15,6 +15,7 @@ import java.util.stream.StreamSupport;
  */
 public class Dataset implements Iterable<RecordSet> {
     private LinkedList<RecordSet> recordSets;
+    private boolean bulkLoad = false;
 
     public Dataset() {
         this.recordSets = new LinkedList<>();
@@ -59,6 +60,20 @@ public class Dataset implements Iterable<RecordSet> {
         itr.add(recordSet);
     }
 
+    /**
+     * Request that all RecordSets in this Dataset be persisted using the bulk loader. The repository
+     * may still fall back to the standard insert path for small RecordSets.
+     *
+     * @param bulkLoad
+     */
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    public boolean bulkLoad() {
+        return bulkLoad;
+    }
+
     public RecordSet get(int index) {
         return recordSets.get(index);
     }
@@ -6,6 +6,7 @@ import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.errorCodes.FileCode;
 import biocode.fims.fimsExceptions.errorCodes.ValidationCode;
+import biocode.fims.metrics.Metrics;
 import biocode.fims.models.Project;
 import biocode.fims.records.Record;
 import biocode.fims.records.RecordMetadata;
@@ -120,15 +121,18 @@ public class DatasetBuilder {
         return mismatchedExpeditions;
     }
 
+    /**
+     * The time spent in each step is recorded in the "dataset.build" timer
+     */
     public Dataset build() {
 
-        instantiateWorkbookRecords();
-        instantiateDataSourceRecords();
-        mergeProjectRecords();
-        fetchAndMergeParentRecords();
-        setRecordSetParent();
-        mergeExistingRecordsForUniqueConstraints();
-        runDataConverters();
+        timeStep("readWorkbooks", this::instantiateWorkbookRecords);
+        timeStep("readDataSources", this::instantiateDataSourceRecords);
+        timeStep("mergeProjectRecords", this::mergeProjectRecords);
+        timeStep("mergeParentRecords", this::fetchAndMergeParentRecords);
+        timeStep("setRecordSetParent", this::setRecordSetParent);
+        timeStep("mergeUniqueConstraintRecords", this::mergeExistingRecordsForUniqueConstraints);
+        timeStep("runDataConverters", this::runDataConverters);
 
         if (recordSets.isEmpty()) {
             throw new FimsRuntimeException(ValidationCode.EMPTY_DATASET, 400);
@@ -139,6 +143,10 @@ public class DatasetBuilder {
         );
     }
 
+    private void timeStep(String step, Runnable runnable) {
+        Metrics.time("dataset.build", runnable, "step", step);
+    }
+
     private void instantiateDataSourceRecords() {
         for (DataSource dataSource : dataSources) {
             readData(dataSource.dataFile, dataSource.metadata);
@@ -49,6 +49,7 @@ public class DatasetProcessor {
     private final boolean isUpload;
     private final boolean writeToServer;
     private final boolean uploadValid;
+    private final boolean bulkLoad;
     private final String serverDataDir;
     private Dataset dataset;
     private boolean hasError = false;
@@ -72,6 +73,7 @@ public class DatasetProcessor {
         isUpload = builder.isUpload;
         writeToServer = builder.writeToServer;
         uploadValid = builder.uploadValid;
+        bulkLoad = builder.bulkLoad;
         serverDataDir = builder.serverDataDir;
         messages = new ArrayList<>();
     }
@@ -156,6 +158,7 @@ public class DatasetProcessor {
             a.onSave(project, dataset);
         }
 
+        dataset.setBulkLoad(bulkLoad);
         recordRepository.saveDataset(dataset, project.getNetwork().getId());
 
         writeDataSources();
@@ -229,6 +232,7 @@ public class DatasetProcessor {
         private boolean isUpload = false;
         private boolean writeToServer = false;
         private boolean uploadValid = false;
+        private boolean bulkLoad = false;
 
         public Builder(Project project, String expeditionCode, ProcessorStatus processorStatus) {
             this.project = project;
@@ -314,6 +318,16 @@ public class DatasetProcessor {
             return this;
         }
 
+        /**
+         * Persist large RecordSets using the bulk loader
+         *
+         * @return
+         */
+        public Builder bulkLoad() {
+            this.bulkLoad = true;
+            return this;
+        }
+
         /**
          * Is this a complete dataset reload? All previous records will be deleted if the entity allows
          *
@@ -230,11 +230,11 @@ public class ExcelWorkbookWriter {
         //Create the header row
         writeHeaderRow(sheet, worksheet);
 
-        int rowNum = 1;
-        for (Map<String, Object> record : sheet.data) {
-            addDataToRow(sheet, record, worksheet, rowNum);
-            rowNum++;
-        }
+        int[] rowNum = {1};
+        sheet.forEachRow(record -> {
+            addDataToRow(sheet, record, worksheet, rowNum[0]);
+            rowNum[0]++;
+        });
     }
 
     private void writeHeaderRow(WriterWorksheet sheet, Worksheet worksheet) {
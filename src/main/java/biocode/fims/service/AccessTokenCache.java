@@ -0,0 +1,163 @@
+package biocode.fims.service;
+
+import biocode.fims.metrics.Metrics;
+import biocode.fims.models.User;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Short-lived, bounded cache of access token -> {@link User}, used to authenticate requests w/o querying the db on
+ * every request.
+ * <p>
+ * Users are cached per access token & user entity graph. Entries expire after {@link #DEFAULT_TTL}, or when the
+ * access token expires, whichever is first. Entries must be invalidated when the token is revoked or the user is
+ * modified.
+ * <p>
+ * Cached Users are shared between requests, the same as Users stored in the HttpSession.
+ * <p>
+ * Hits & misses are recorded in the "auth.accessTokenCache" counter.
+ *
+ * @author rjewing
+ */
+@Component
+public class AccessTokenCache {
+    static final int DEFAULT_MAX_SIZE = 10000;
+    static final long DEFAULT_TTL = TimeUnit.MILLISECONDS.convert(5, TimeUnit.MINUTES);
+
+    private final Map<Key, CachedUser> cache;
+    private final long ttl;
+    private final LongSupplier clock;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public AccessTokenCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxSize max # of entries to cache. The least recently used entries are evicted first
+     * @param ttl     max time in ms to cache an entry
+     * @param clock   returns the current time in ms
+     */
+    AccessTokenCache(int maxSize, long ttl, LongSupplier clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Key, CachedUser>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedUser> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @param accessToken
+     * @param userEntityGraph
+     * @return the cached User or null if the accessToken is not cached or has expired
+     */
+    public User get(String accessToken, String userEntityGraph) {
+        Key key = new Key(accessToken, userEntityGraph);
+        CachedUser cached = cache.get(key);
+
+        if (cached == null || cached.expiresAt <= clock.getAsLong()) {
+            if (cached != null) cache.remove(key);
+            misses.incrementAndGet();
+            Metrics.increment("auth.accessTokenCache", "result", "miss");
+            return null;
+        }
+
+        hits.incrementAndGet();
+        Metrics.increment("auth.accessTokenCache", "result", "hit");
+        return cached.user;
+    }
+
+    /**
+     * @param accessToken
+     * @param refreshToken    the refreshToken issued w/ the accessToken. Used for invalidation
+     * @param userEntityGraph the entity graph loaded for the user
+     * @param user
+     * @param tokenExpiresAt  time in ms when the accessToken expires
+     */
+    public void put(String accessToken, String refreshToken, String userEntityGraph, User user, long tokenExpiresAt) {
+        long expiresAt = Math.min(clock.getAsLong() + ttl, tokenExpiresAt);
+        cache.put(new Key(accessToken, userEntityGraph), new CachedUser(refreshToken, user, expiresAt));
+    }
+
+    /**
+     * Remove all entries for the given token
+     *
+     * @param token accessToken or refreshToken
+     */
+    public void invalidateToken(String token) {
+        synchronized (cache) {
+            cache.entrySet().removeIf(e -> e.getKey().accessToken.equals(token) || token.equals(e.getValue().refreshToken));
+        }
+    }
+
+    /**
+     * Remove all entries for the given user
+     *
+     * @param userId
+     */
+    public void invalidateUser(int userId) {
+        synchronized (cache) {
+            cache.values().removeIf(c -> c.user.getUserId() == userId);
+        }
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private static class Key {
+        private final String accessToken;
+        private final String userEntityGraph;
+
+        private Key(String accessToken, String userEntityGraph) {
+            this.accessToken = accessToken;
+            this.userEntityGraph = userEntityGraph;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return accessToken.equals(key.accessToken) && Objects.equals(userEntityGraph, key.userEntityGraph);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * accessToken.hashCode() + (userEntityGraph != null ? userEntityGraph.hashCode() : 0);
+        }
+    }
+
+    private static class CachedUser {
+        private final String refreshToken;
+        private final User user;
+        private final long expiresAt;
+
+        private CachedUser(String refreshToken, User user, long expiresAt) {
+            this.refreshToken = refreshToken;
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Service
 public class BcidService {
 
@@ -23,12 +25,27 @@ public class BcidService {
 
     @Transactional
     public Bcid create(Bcid bcid, User user) {
+        checkEzidRequest(bcid, user);
+        return bcidRepository.create(bcid);
+    }
+
+    /**
+     * Mint multiple bcids for the user. This is much faster then calling {@link #create(Bcid, User)} for each bcid.
+     *
+     * @param bcids
+     * @param user
+     * @return the minted bcids, in the same order as bcids
+     */
+    @Transactional
+    public List<Bcid> create(List<Bcid> bcids, User user) {
+        bcids.forEach(b -> checkEzidRequest(b, user));
+        return bcidRepository.create(bcids);
+    }
 
+    private void checkEzidRequest(Bcid bcid, User user) {
         // if the user is demo, never create ezid's
         if (bcid.ezidRequest() && user.getUsername().equals("demo"))
             bcid.setEzidRequest(false);
-
-        return bcidRepository.create(bcid);
     }
 
     @Transactional(readOnly = true)
@@ -12,6 +12,7 @@ import biocode.fims.fimsExceptions.FimsException;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import biocode.fims.fimsExceptions.ForbiddenRequestException;
 import biocode.fims.fimsExceptions.errorCodes.ProjectCode;
+import biocode.fims.repositories.EntityIdentifierRepository;
 import biocode.fims.repositories.ExpeditionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -23,9 +24,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -39,14 +38,16 @@ public class ExpeditionService {
     private EntityManager entityManager;
 
     private final ExpeditionRepository expeditionRepository;
+    private final EntityIdentifierRepository entityIdentifierRepository;
     private final BcidService bcidService;
     private final ProjectAuthorizer projectAuthorizer;
     private final FimsProperties props;
 
     @Autowired
-    public ExpeditionService(ExpeditionRepository expeditionRepository, BcidService bcidService,
-                             ProjectAuthorizer projectAuthorizer, FimsProperties props) {
+    public ExpeditionService(ExpeditionRepository expeditionRepository, EntityIdentifierRepository entityIdentifierRepository,
+                             BcidService bcidService, ProjectAuthorizer projectAuthorizer, FimsProperties props) {
         this.expeditionRepository = expeditionRepository;
+        this.entityIdentifierRepository = entityIdentifierRepository;
         this.bcidService = bcidService;
         this.projectAuthorizer = projectAuthorizer;
         this.props = props;
@@ -146,23 +147,66 @@ public class ExpeditionService {
     }
 
     public List<EntityIdentifier> createEntityBcids(Expedition expedition, List<Entity> entities, User user) {
-        List<EntityIdentifier> identifiers = new ArrayList<>();
-
+        List<Bcid> toMint = new ArrayList<>();
         for (Entity entity : entities) {
-            Bcid bcid = new Bcid.BcidBuilder(entity.getConceptURI(), props.publisher())
-                    .creator(user, props.creator())
-                    .title(entity.getConceptAlias())
-                    .webAddress(props.entityResolverTarget())
-                    .build();
+            toMint.add(entityBcid(entity, user));
+        }
 
-            bcid = bcidService.create(bcid, user);
+        List<Bcid> bcids = bcidService.create(toMint, user);
 
-            identifiers.add(new EntityIdentifier(expedition, entity.getConceptAlias(), bcid.identifier()));
+        List<EntityIdentifier> identifiers = new ArrayList<>();
+        for (int i = 0; i < entities.size(); i++) {
+            identifiers.add(new EntityIdentifier(expedition, entities.get(i).getConceptAlias(), bcids.get(i).identifier()));
         }
 
         return identifiers;
     }
 
+    /**
+     * Mint & persist an {@link EntityIdentifier} for each entity of each expedition. The bcids for all expeditions
+     * created by the same user are minted together.
+     * <p>
+     * Note: the new EntityIdentifiers are not added to the Expedition.entityIdentifiers of the provided expeditions
+     *
+     * @param expeditions
+     * @param entities
+     * @return
+     */
+    public List<EntityIdentifier> createEntityBcids(List<Expedition> expeditions, List<Entity> entities) {
+        Map<User, List<Expedition>> userExpeditions = expeditions.stream()
+                .collect(Collectors.groupingBy(Expedition::getUser, LinkedHashMap::new, Collectors.toList()));
+
+        List<EntityIdentifier> identifiers = new ArrayList<>();
+
+        userExpeditions.forEach((user, userExps) -> {
+            List<Bcid> toMint = new ArrayList<>();
+            for (Expedition e : userExps) {
+                for (Entity entity : entities) {
+                    toMint.add(entityBcid(entity, user));
+                }
+            }
+
+            Iterator<Bcid> bcids = bcidService.create(toMint, user).iterator();
+
+            for (Expedition e : userExps) {
+                for (Entity entity : entities) {
+                    identifiers.add(new EntityIdentifier(e, entity.getConceptAlias(), bcids.next().identifier()));
+                }
+            }
+        });
+
+        entityIdentifierRepository.insert(identifiers);
+        return identifiers;
+    }
+
+    private Bcid entityBcid(Entity entity, User user) {
+        return new Bcid.BcidBuilder(entity.getConceptURI(), props.publisher())
+                .creator(user, props.creator())
+                .title(entity.getConceptAlias())
+                .webAddress(props.entityResolverTarget())
+                .build();
+    }
+
     /**
      * Check that expedition code is between 4 and 50 characters and doesn't already exist in the {@link Project}
      *
@@ -234,7 +278,8 @@ public class ExpeditionService {
     }
 
     /**
-     * bulk update expeditions for a project
+     * bulk update expeditions for a project. Only the expeditionTitle, public, visibility, metadata, & user
+     * (if not null) are updated
      *
      * @param expeditions
      */
@@ -247,7 +292,7 @@ public class ExpeditionService {
             checkExpeditionMetadata(expedition);
         }
 
-        expeditionRepository.save(expeditions);
+        expeditionRepository.updateProperties(expeditions);
     }
 
 
@@ -25,14 +25,17 @@ public class OAuthProviderService {
     private final OAuthTokenRepository oAuthTokenRepository;
     private final OAuthNonceRepository oAuthNonceRepository;
     private final UserService userService;
+    private final AccessTokenCache accessTokenCache;
 
     @Autowired
     public OAuthProviderService(OAuthClientRepository oAuthClientRepository, OAuthTokenRepository oAuthTokenRepository,
-                                OAuthNonceRepository oAuthNonceRepository, UserService userService) {
+                                OAuthNonceRepository oAuthNonceRepository, UserService userService,
+                                AccessTokenCache accessTokenCache) {
         this.oAuthClientRepository = oAuthClientRepository;
         this.oAuthTokenRepository = oAuthTokenRepository;
         this.oAuthNonceRepository = oAuthNonceRepository;
         this.userService = userService;
+        this.accessTokenCache = accessTokenCache;
     }
 
     /**
@@ -49,9 +52,24 @@ public class OAuthProviderService {
         return oAuthNonceRepository.getOAuthNonce(clientId, code, redirectUri, NONCE_EXPIRATION_INTEVAL);
     }
 
+    /**
+     * Users are cached by {@link AccessTokenCache}, so most requests w/ the same accessToken will not query the db.
+     *
+     * @param accessToken
+     * @param userEntityGraph
+     * @return the user the unexpired accessToken was issued to, or null
+     */
     @Transactional(readOnly = true)
     public User getUser(String accessToken, String userEntityGraph) {
-        return oAuthTokenRepository.getUser(accessToken, ACCESS_TOKEN_EXPIRATION_INTEVAL, userEntityGraph);
+        User user = accessTokenCache.get(accessToken, userEntityGraph);
+        if (user != null) return user;
+
+        OAuthToken oAuthToken = oAuthTokenRepository.getAccessToken(accessToken, ACCESS_TOKEN_EXPIRATION_INTEVAL, userEntityGraph);
+        if (oAuthToken == null) return null;
+
+        long expiresAt = oAuthToken.getCreated().getTime() + MILLISECONDS.convert(ACCESS_TOKEN_EXPIRATION_INTEVAL, SECONDS);
+        accessTokenCache.put(accessToken, oAuthToken.getRefreshToken(), userEntityGraph, oAuthToken.getUser(), expiresAt);
+        return oAuthToken.getUser();
     }
 
     @Transactional(readOnly = true)
@@ -64,6 +82,7 @@ public class OAuthProviderService {
 
         // refresh tokens are only good once, so delete the old access token so the refresh token can no longer be used
         oAuthTokenRepository.delete(expiredOAuthToken);
+        accessTokenCache.invalidateToken(expiredOAuthToken.getToken());
         return newOAuthToken;
     }
 
@@ -113,5 +132,6 @@ public class OAuthProviderService {
      */
     public void invalidateToken(String token) {
         oAuthTokenRepository.invalidate(token);
+        accessTokenCache.invalidateToken(token);
     }
 }
@@ -1,5 +1,6 @@
 package biocode.fims.service;
 
+import biocode.fims.config.ConfigCache;
 import biocode.fims.config.network.NetworkConfig;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.config.project.ProjectConfigUpdator;
@@ -10,6 +11,7 @@ import biocode.fims.fimsExceptions.errorCodes.GenericErrorCode;
 import biocode.fims.models.*;
 import biocode.fims.repositories.ProjectConfigurationRepository;
 import biocode.fims.repositories.SetFimsUser;
+import biocode.fims.validation.rules.MatcherCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Service;
@@ -47,7 +49,12 @@ public class ProjectConfigurationService {
     @SetFimsUser
     public ProjectConfiguration update(ProjectConfiguration config) {
         validateProjectConfig(config);
-        return projectConfigurationRepository.save(config);
+        ProjectConfiguration saved = projectConfigurationRepository.save(config);
+
+        // validation rules cache compiled matchers per ProjectConfig instance
+        MatcherCache.invalidate(saved.getProjectConfig());
+        ConfigCache.PROJECT_CONFIGS.invalidate(saved.getId());
+        return saved;
     }
 
     @SetFimsUser
@@ -105,6 +112,9 @@ public class ProjectConfigurationService {
         ProjectConfigUpdator updator = new ProjectConfigUpdator(config);
         projectConfiguration.setProjectConfig(updator.update(existingConfig));
 
+        // config was modified above, so any cached matchers are stale
+        MatcherCache.invalidate(config);
+
         if (updator.newEntities().size() > 0) {
             projectService.createEntityBcids(updator.newEntities(), projectConfiguration.getId());
         }
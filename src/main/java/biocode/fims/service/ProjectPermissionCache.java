@@ -0,0 +1,109 @@
+package biocode.fims.service;
+
+import biocode.fims.models.ProjectPermissions;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of userId -> {@link ProjectPermissions}.
+ * <p>
+ * Entries are cached w/ the membership version they were loaded at. {@link #invalidate()} must be called whenever
+ * project membership or project visibility changes, which increments the version & makes all cached entries stale.
+ * Entries also expire after {@link #DEFAULT_TTL} so changes made by other processes are eventually seen.
+ *
+ * @author rjewing
+ */
+@Component
+public class ProjectPermissionCache {
+    static final int DEFAULT_MAX_SIZE = 10000;
+    static final long DEFAULT_TTL = TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+
+    private final Map<Integer, CachedPermissions> cache;
+    private final AtomicLong version = new AtomicLong();
+    private final long ttl;
+    private final LongSupplier clock;
+
+    public ProjectPermissionCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TTL, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxSize max # of users to cache. The least recently used entries are evicted first
+     * @param ttl     max time in ms to cache an entry
+     * @param clock   returns the current time in ms
+     */
+    ProjectPermissionCache(int maxSize, long ttl, LongSupplier clock) {
+        this.ttl = ttl;
+        this.clock = clock;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<Integer, CachedPermissions>(16, .75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CachedPermissions> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * @param userId 0 if there is no user
+     * @param loader loads the permissions if they are not cached
+     * @return
+     */
+    public ProjectPermissions get(int userId, IntFunction<ProjectPermissions> loader) {
+        long currentVersion = version.get();
+        long now = clock.getAsLong();
+
+        CachedPermissions cached = cache.get(userId);
+        if (cached != null && cached.version == currentVersion && cached.expiresAt > now) {
+            return cached.permissions;
+        }
+
+        ProjectPermissions permissions = loader.apply(userId);
+        // if invalidated while loading, the entry is stored w/ the old version & will be reloaded on the next call
+        cache.put(userId, new CachedPermissions(currentVersion, now + ttl, permissions));
+        return permissions;
+    }
+
+    /**
+     * Invalidate all cached permissions. Should be called when project membership or visibility changes
+     */
+    public void invalidate() {
+        clear();
+
+        // clear again once the change is visible to other transactions, so permissions loaded before the commit
+        // are not cached
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    clear();
+                }
+            });
+        }
+    }
+
+    private void clear() {
+        version.incrementAndGet();
+        cache.clear();
+    }
+
+    private static class CachedPermissions {
+        private final long version;
+        private final long expiresAt;
+        private final ProjectPermissions permissions;
+
+        private CachedPermissions(long version, long expiresAt, ProjectPermissions permissions) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+            this.permissions = permissions;
+        }
+    }
+}
@@ -8,8 +8,11 @@ import biocode.fims.models.*;
 import biocode.fims.repositories.ProjectConfigurationRepository;
 import biocode.fims.repositories.ProjectRepository;
 import biocode.fims.repositories.SetFimsUser;
+import biocode.fims.repositories.customOperations.ProjectCustomOperations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,14 +38,17 @@ public class ProjectService {
     private final ProjectRepository projectRepository;
     private final UserService userService;
     private final ProjectConfigurationRepository projectConfigurationRepository;
+    private final ProjectPermissionCache projectPermissionCache;
 
     @Autowired
     public ProjectService(ProjectRepository projectRepository, ExpeditionService expeditionService,
-                          UserService userService, ProjectConfigurationRepository projectConfigurationRepository) {
+                          UserService userService, ProjectConfigurationRepository projectConfigurationRepository,
+                          ProjectPermissionCache projectPermissionCache) {
         this.expeditionService = expeditionService;
         this.projectRepository = projectRepository;
         this.userService = userService;
         this.projectConfigurationRepository = projectConfigurationRepository;
+        this.projectPermissionCache = projectPermissionCache;
     }
 
     public Project create(Project project) {
@@ -60,12 +66,14 @@ public class ProjectService {
 
     public void update(Project project) {
         projectRepository.save(project);
+        projectPermissionCache.invalidate();
     }
 
     public void delete(Project project) {
         ProjectConfiguration projectConfiguration = project.getProjectConfiguration();
         projectRepository.deleteByProjectId(project.getProjectId());
         projectConfigurationRepository.deleteIfNoProjects(projectConfiguration.getId());
+        projectPermissionCache.invalidate();
     }
 
     public Project getProject(int projectId) {
@@ -150,6 +158,19 @@ public class ProjectService {
         return projectRepository.findAll();
     }
 
+    /**
+     * Returns the projects the user is able to read. Permissions are cached per user until project membership or
+     * visibility changes.
+     *
+     * @param user can be null
+     * @return
+     */
+    @Transactional(readOnly = true)
+    public ProjectPermissions getProjectPermissions(User user) {
+        int userId = user == null ? 0 : user.getUserId();
+        return projectPermissionCache.get(userId, projectRepository::getProjectPermissions);
+    }
+
     public List<Project> getProjectsWithExpeditions(List<Integer> projectIds) {
         return projectRepository.getAll(projectIds, "Project.withExpeditions");
     }
@@ -162,17 +183,31 @@ public class ProjectService {
      * @return
      */
     public List<Project> getProjects(User user, boolean inludePublic) {
-        List<Project> projects = projectRepository.findAll();
-        List<Project> filteredProjects = new ArrayList<>();
+        return getProjects(user, inludePublic, null, null);
+    }
 
-        for (Project project : projects) {
-            if ((inludePublic && project.isPublic()) ||
-                    isUserMemberOfProject(user, project.getProjectId())) {
-                filteredProjects.add(project);
+    /**
+     * get a page of projects which are public, or the user is a member of
+     *
+     * @param user         can be null
+     * @param includePublic
+     * @param projectTitle optional exact match on the projectTitle
+     * @param pageable     optional page & sort. If null, all projects are returned
+     * @return
+     */
+    @Transactional(readOnly = true)
+    public List<Project> getProjects(User user, boolean includePublic, String projectTitle, Pageable pageable) {
+        if (pageable != null && pageable.getSort() != null) {
+            for (Sort.Order order : pageable.getSort()) {
+                if (!ProjectCustomOperations.SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                    throw new BadRequestException("Invalid sort property: \"" + order.getProperty() + "\". Projects can be sorted by: " +
+                            String.join(", ", ProjectCustomOperations.SORTABLE_PROPERTIES));
+                }
             }
         }
 
-        return filteredProjects;
+        int userId = user == null ? 0 : user.getUserId();
+        return projectRepository.getProjects(userId, includePublic, projectTitle, pageable);
     }
 
     public Project findByProjectTitle(String projectTitle) {
@@ -180,13 +215,12 @@ public class ProjectService {
     }
 
     void createEntityBcids(List<Entity> entities, int configId) {
+        List<Expedition> expeditions = new ArrayList<>();
         for (Project project : projectRepository.findAllByProjectConfigurationId(configId)) {
-            for (Expedition e : expeditionService.getExpeditions(project.getProjectId(), true)) {
-                List<EntityIdentifier> entityIdentifiers = expeditionService.createEntityBcids(e, entities, e.getUser());
-                e.getEntityIdentifiers().addAll(entityIdentifiers);
-                expeditionService.update(e);
-            }
+            expeditions.addAll(expeditionService.getExpeditions(project.getProjectId(), true));
         }
+
+        expeditionService.createEntityBcids(expeditions, entities);
     }
 }
 
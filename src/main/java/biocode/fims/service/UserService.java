@@ -46,16 +46,21 @@ public class UserService {
     private final MessageSource messageSource;
     private final ProjectRepository projectRepository;
     private final FimsProperties props;
+    private final AccessTokenCache accessTokenCache;
+    private final ProjectPermissionCache projectPermissionCache;
 
     @Autowired
     public UserService(UserRepository userRepository, UserInviteRepository userInviteRepository,
                        ProjectRepository projectRepository,
-                       FimsProperties props, MessageSource messageSource) {
+                       FimsProperties props, MessageSource messageSource, AccessTokenCache accessTokenCache,
+                       ProjectPermissionCache projectPermissionCache) {
         this.userRepository = userRepository;
         this.userInviteRepository = userInviteRepository;
         this.projectRepository = projectRepository;
         this.messageSource = messageSource;
         this.props = props;
+        this.accessTokenCache = accessTokenCache;
+        this.projectPermissionCache = projectPermissionCache;
     }
 
 
@@ -89,7 +94,12 @@ public class UserService {
     }
 
     public User update(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+
+        // includes password & project membership changes, so any cached users & permissions are stale
+        accessTokenCache.invalidateUser(user.getUserId());
+        projectPermissionCache.invalidate();
+        return saved;
     }
 
     @Transactional(readOnly = true)
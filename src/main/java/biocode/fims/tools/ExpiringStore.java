@@ -0,0 +1,335 @@
+package biocode.fims.tools;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, bounded store where entries expire a fixed amount of time after they are added.
+ * <p>
+ * Entries are indexed by expiration time, so expired entries can be removed w/o scanning the entire store. Expired
+ * entries are removed by a background sweep, and are never returned from {@link #get(Object)}. Each store has its own
+ * sweeper thread, which must be stopped w/ {@link #shutdown()} when the store is no longer needed.
+ * <p>
+ * The store is bounded by the total weight of all entries. When the max weight is exceeded, the entries closest to
+ * expiring are evicted first. The entry being added or reweighed is never evicted to make room for itself, nor are
+ * entries rejected by the evictable predicate (ex. work in progress). These entries are still expired, so the store may
+ * exceed the max weight until they become evictable or expire. A single entry heavier than the max weight is never
+ * stored, see {@link #put(Object, Object)} & {@link #reweigh(Object)}.
+ * <p>
+ * The evictionListener is notified when an entry expires or is evicted, but not when an entry is explicitly removed or
+ * replaced. The listener is called outside of any locks.
+ *
+ * @author rjewing
+ */
+public class ExpiringStore<K, V> {
+    private static final long MAX_SWEEP_INTERVAL = TimeUnit.MILLISECONDS.convert(1, TimeUnit.MINUTES);
+
+    private final Map<K, Node<K, V>> store = new ConcurrentHashMap<>();
+    private final NavigableSet<Node<K, V>> expirations = new TreeSet<>();
+    private final long ttl;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final Predicate<V> evictable;
+    private final BiConsumer<K, V> evictionListener;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sweeper;
+    private long weight;
+    private long sequence;
+
+    /**
+     * @param ttl     time in ms an entry will be stored
+     * @param maxSize max # of entries to store
+     */
+    public ExpiringStore(long ttl, long maxSize) {
+        this(ttl, maxSize, v -> 1, (k, v) -> {
+        });
+    }
+
+    /**
+     * @param ttl              time in ms an entry will be stored
+     * @param maxWeight        max total weight of all entries
+     * @param weigher          calculates the weight of an entry. Must be >= 0
+     * @param evictionListener notified when an entry expires or is evicted
+     */
+    public ExpiringStore(long ttl, long maxWeight, ToLongFunction<V> weigher, BiConsumer<K, V> evictionListener) {
+        this(ttl, maxWeight, weigher, v -> true, evictionListener);
+    }
+
+    /**
+     * @param ttl              time in ms an entry will be stored
+     * @param maxWeight        max total weight of all entries
+     * @param weigher          calculates the weight of an entry. Must be >= 0
+     * @param evictable        returns false if an entry can not currently be evicted to stay under the maxWeight
+     * @param evictionListener notified when an entry expires or is evicted
+     */
+    public ExpiringStore(long ttl, long maxWeight, ToLongFunction<V> weigher, Predicate<V> evictable, BiConsumer<K, V> evictionListener) {
+        this(ttl, maxWeight, weigher, evictable, evictionListener, System::currentTimeMillis, true);
+    }
+
+    /**
+     * Does not schedule a background sweep. Used for testing
+     *
+     * @param clock returns the current time in ms
+     */
+    ExpiringStore(long ttl, long maxWeight, ToLongFunction<V> weigher, BiConsumer<K, V> evictionListener, LongSupplier clock) {
+        this(ttl, maxWeight, weigher, v -> true, evictionListener, clock);
+    }
+
+    /**
+     * Does not schedule a background sweep. Used for testing
+     *
+     * @param clock returns the current time in ms
+     */
+    ExpiringStore(long ttl, long maxWeight, ToLongFunction<V> weigher, Predicate<V> evictable, BiConsumer<K, V> evictionListener, LongSupplier clock) {
+        this(ttl, maxWeight, weigher, evictable, evictionListener, clock, false);
+    }
+
+    private ExpiringStore(long ttl, long maxWeight, ToLongFunction<V> weigher, Predicate<V> evictable,
+                          BiConsumer<K, V> evictionListener, LongSupplier clock, boolean sweep) {
+        this.ttl = ttl;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.evictable = evictable;
+        this.evictionListener = evictionListener;
+        this.clock = clock;
+        this.sweeper = sweep ? scheduleSweep(this, Math.max(1, Math.min(ttl, MAX_SWEEP_INTERVAL))) : null;
+    }
+
+    /**
+     * Add an entry to the store, replacing any existing entry for the key. The entry will expire ttl ms from now.
+     *
+     * @param key
+     * @param value
+     * @throws IllegalArgumentException if the weight of the value exceeds the maxWeight. Any existing entry is not
+     *                                  replaced
+     */
+    public void put(K key, V value) {
+        long w = weigher.applyAsLong(value);
+        if (w > maxWeight) {
+            throw new IllegalArgumentException("value weight: " + w + " exceeds the maxWeight: " + maxWeight);
+        }
+
+        List<Node<K, V>> evicted;
+
+        synchronized (expirations) {
+            unlink(store.get(key));
+
+            Node<K, V> node = new Node<>(key, value, clock.getAsLong() + ttl, w, sequence++);
+            store.put(key, node);
+            expirations.add(node);
+            weight += node.weight;
+
+            evicted = evict(node);
+        }
+
+        notify(evicted);
+    }
+
+    /**
+     * @param key
+     * @return the stored value, or null if there is no value or the value has expired
+     */
+    public V get(K key) {
+        Node<K, V> node = store.get(key);
+
+        if (node == null) return null;
+        if (node.expiresAt > clock.getAsLong()) return node.value;
+
+        cleanUp();
+        return null;
+    }
+
+    /**
+     * Remove an entry from the store. The evictionListener is not notified.
+     *
+     * @param key
+     * @return the removed value, or null if there is no value or the value has expired
+     */
+    public V remove(K key) {
+        Node<K, V> node;
+        synchronized (expirations) {
+            node = store.get(key);
+            unlink(node);
+        }
+
+        if (node == null) return null;
+        if (node.expiresAt > clock.getAsLong()) return node.value;
+
+        // the entry expired before the sweep removed it
+        notify(Collections.singletonList(node));
+        return null;
+    }
+
+    /**
+     * Recalculate the weight of an entry. Should be called after a mutable value has been modified.
+     * The expiration time of the entry is not changed.
+     * <p>
+     * If the entry now exceeds the maxWeight, it is removed from the store & the evictionListener is notified. Callers
+     * can avoid this by checking the weight of the value before modifying it.
+     *
+     * @param key
+     * @return false if the entry was removed because it exceeds the maxWeight
+     */
+    public boolean reweigh(K key) {
+        List<Node<K, V>> evicted;
+        boolean stored = true;
+
+        synchronized (expirations) {
+            Node<K, V> node = store.get(key);
+            if (node == null) return true;
+
+            long w = weigher.applyAsLong(node.value);
+
+            if (w > maxWeight) {
+                unlink(node);
+                evicted = Collections.singletonList(node);
+                stored = false;
+            } else {
+                weight += w - node.weight;
+                node.weight = w;
+
+                evicted = evict(node);
+            }
+        }
+
+        notify(evicted);
+        return stored;
+    }
+
+    /**
+     * Remove all expired entries
+     */
+    public void cleanUp() {
+        List<Node<K, V>> expired = new ArrayList<>();
+        long now = clock.getAsLong();
+
+        synchronized (expirations) {
+            Node<K, V> node;
+            while ((node = expirations.pollFirst()) != null) {
+                if (node.expiresAt > now) {
+                    expirations.add(node);
+                    break;
+                }
+                store.remove(node.key);
+                weight -= node.weight;
+                expired.add(node);
+            }
+        }
+
+        notify(expired);
+    }
+
+    /**
+     * Stop the background sweep & its thread. Any sweep in progress is allowed to complete. The store can still be
+     * used, but expired entries are only removed when {@link #get(Object)} finds one or {@link #cleanUp()} is called.
+     */
+    public void shutdown() {
+        if (sweeper != null) {
+            sweeper.shutdown();
+        }
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public long weight() {
+        synchronized (expirations) {
+            return weight;
+        }
+    }
+
+    /**
+     * evict the entries closest to expiring until the weight is <= maxWeight. Must hold the expirations lock
+     *
+     * @param exempt the entry being added or reweighed, which is never evicted
+     */
+    private List<Node<K, V>> evict(Node<K, V> exempt) {
+        if (weight <= maxWeight) return Collections.emptyList();
+
+        List<Node<K, V>> evicted = new ArrayList<>();
+        Iterator<Node<K, V>> it = expirations.iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            Node<K, V> node = it.next();
+            if (node == exempt || !evictable.test(node.value)) continue;
+
+            it.remove();
+            store.remove(node.key, node);
+            weight -= node.weight;
+            evicted.add(node);
+        }
+        return evicted;
+    }
+
+    /**
+     * Must hold the expirations lock
+     */
+    private void unlink(Node<K, V> node) {
+        if (node == null) return;
+        store.remove(node.key, node);
+        if (expirations.remove(node)) weight -= node.weight;
+    }
+
+    private void notify(List<Node<K, V>> nodes) {
+        for (Node<K, V> node : nodes) {
+            evictionListener.accept(node.key, node.value);
+        }
+    }
+
+    /**
+     * schedule a sweep on a new sweeper thread. The sweeper is also shutdown if the store is garbage collected w/o
+     * calling {@link #shutdown()}
+     *
+     * @return the sweeper
+     */
+    private static ScheduledExecutorService scheduleSweep(ExpiringStore<?, ?> store, long interval) {
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fims-expiring-store-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        WeakReference<ExpiringStore<?, ?>> ref = new WeakReference<>(store);
+
+        sweeper.scheduleWithFixedDelay(() -> {
+            ExpiringStore<?, ?> s = ref.get();
+            if (s == null) {
+                sweeper.shutdown();
+                return;
+            }
+            try {
+                s.cleanUp();
+            } catch (Exception e) {
+                // the sweep would be cancelled if we don't catch the exception
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+
+        return sweeper;
+    }
+
+    private static class Node<K, V> implements Comparable<Node<K, V>> {
+        private final K key;
+        private final V value;
+        private final long expiresAt;
+        private final long sequence;
+        private long weight;
+
+        private Node(K key, V value, long expiresAt, long weight, long sequence) {
+            this.key = key;
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Node<K, V> o) {
+            int c = Long.compare(expiresAt, o.expiresAt);
+            return c != 0 ? c : Long.compare(sequence, o.sequence);
+        }
+    }
+}
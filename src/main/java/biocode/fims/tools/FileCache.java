@@ -2,22 +2,87 @@ package biocode.fims.tools;
 
 import biocode.fims.models.User;
 import biocode.fims.utils.StringGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * simple file cache used to cache files for later downloading. This is useful b/c XHR requests can't download file.
  * we can use the fileCache, then return a url where the user can later fetch the file with a GET request.
+ * <p>
+ * Cached files expire after {@link #DEFAULT_TTL}. If more then maxFiles are cached, the oldest are evicted first.
+ * <p>
+ * If a directory is provided, cached files are moved to that directory & deleted once they have expired or been
+ * evicted. Files in the directory are also deleted when they are older then the ttl, so files that were downloaded,
+ * or cached before a restart, are eventually removed. The directory should only be used by the FileCache.
  *
  * @author rjewing
  */
 public class FileCache {
-    Map<String, CachedFile> files;
+    private static final Logger logger = LoggerFactory.getLogger(FileCache.class);
+
+    static final long DEFAULT_TTL = TimeUnit.MILLISECONDS.convert(1, TimeUnit.HOURS);
+    static final int DEFAULT_MAX_FILES = 1000;
+
+    private final ExpiringStore<String, CachedFile> files;
+    private final Path directory;
+    private final long ttl;
+    private final LongSupplier clock;
 
     public FileCache() {
-        this.files = new HashMap<>();
+        this(null);
+    }
+
+    /**
+     * @param directory (optional) directory to move cached files to
+     */
+    public FileCache(File directory) {
+        this(directory, DEFAULT_TTL, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * @param directory (optional) directory to move cached files to
+     * @param ttl       time in ms to cache a file
+     * @param maxFiles  max # of files to cache
+     */
+    public FileCache(File directory, long ttl, int maxFiles) {
+        this.directory = directory == null ? null : directory.toPath().toAbsolutePath();
+        this.ttl = ttl;
+        this.clock = System::currentTimeMillis;
+        this.files = new ExpiringStore<>(ttl, maxFiles, f -> 1, (id, f) -> onEviction(f));
+        init();
+    }
+
+    /**
+     * Does not schedule a background sweep. Used for testing
+     */
+    FileCache(File directory, long ttl, int maxFiles, LongSupplier clock) {
+        this.directory = directory == null ? null : directory.toPath().toAbsolutePath();
+        this.ttl = ttl;
+        this.clock = clock;
+        this.files = new ExpiringStore<>(ttl, maxFiles, f -> 1, (id, f) -> onEviction(f), clock);
+        init();
+    }
+
+    private void init() {
+        if (directory == null) return;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create FileCache directory: " + directory, e);
+        }
+
+        // remove any files left over from a previous run
+        cleanUp();
     }
 
     public void addFile(CachedFile file) {
@@ -35,7 +100,7 @@ public class FileCache {
     public String cacheFileForUser(File file, User user, String name) {
         int userId = user == null ? 0 : user.getUserId();
         String fileId = StringGenerator.generateString(20);
-        CachedFile cf = new CachedFile(fileId, file.getAbsolutePath(), userId, name);
+        CachedFile cf = new CachedFile(fileId, store(file, fileId).getAbsolutePath(), userId, name);
         addFile(cf);
         return fileId;
     }
@@ -60,4 +125,73 @@ public class FileCache {
 
         return null;
     }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Stop the background sweep of expired files
+     */
+    @PreDestroy
+    public void destroy() {
+        files.shutdown();
+    }
+
+    /**
+     * Remove expired files. If a directory is used, any files in the directory older then the ttl are also deleted.
+     * <p>
+     * Expired entries are also removed by a background sweep, however files in the directory are only removed by this
+     * method, which is scheduled when the FileCache is a spring bean.
+     */
+    @Scheduled(fixedDelay = 60 * 1000)
+    public void cleanUp() {
+        files.cleanUp();
+
+        if (directory == null) return;
+
+        long expired = clock.getAsLong() - ttl;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path p : stream) {
+                if (Files.isRegularFile(p) && Files.getLastModifiedTime(p).toMillis() <= expired) {
+                    delete(p);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to clean FileCache directory: " + directory, e);
+        }
+    }
+
+    /**
+     * move the file to the cache directory. The original file is returned if no directory is used or the move fails
+     */
+    private File store(File file, String fileId) {
+        if (directory == null) return file;
+
+        Path dest = directory.resolve(fileId + "-" + file.getName());
+        try {
+            Files.move(file.toPath(), dest, StandardCopyOption.REPLACE_EXISTING);
+            // the last modified time is used to expire files after a restart
+            Files.setLastModifiedTime(dest, FileTime.fromMillis(clock.getAsLong()));
+            return dest.toFile();
+        } catch (IOException e) {
+            logger.warn("Failed to move file to FileCache directory: " + file, e);
+            return file;
+        }
+    }
+
+    private void onEviction(CachedFile file) {
+        if (directory == null) return;
+
+        Path p = Paths.get(file.getPath());
+        if (directory.equals(p.getParent())) delete(p);
+    }
+
+    private void delete(Path p) {
+        try {
+            Files.deleteIfExists(p);
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached file: " + p, e);
+        }
+    }
 }
@@ -1,40 +1,77 @@
 package biocode.fims.tools;
 
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.fimsExceptions.errorCodes.ValidationCode;
 import biocode.fims.rest.responses.ValidationResponse;
-import biocode.fims.run.DatasetProcessor;
 import biocode.fims.run.ProcessorStatus;
+import biocode.fims.validation.messages.EntityMessages;
+import biocode.fims.validation.messages.MessagesGroup;
 
+import javax.annotation.PreDestroy;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
  * A simple store used for holding Validation status & results for async processing
  * <p>
- * Entries will expire after 2 hrs.
+ * Entries will expire after 2 hrs. The store is bounded by the total # of validation messages held, so a few large
+ * datasets can't exhaust the heap. When the bound is exceeded, the oldest completed results are evicted first. Results
+ * for validations in progress are never evicted. If a single result has more messages than the bound, the messages
+ * are dropped & the result holds an exception instead.
  *
  * @author rjewing
  */
 public class ValidationStore {
-    private final static int CACHE_EXPRIATION = 2 * 60 * 60 * 1000; // 2 hrs
+    static final long CACHE_EXPIRATION = TimeUnit.MILLISECONDS.convert(2, TimeUnit.HOURS);
+    static final long DEFAULT_MAX_WEIGHT = 1000000;
 
-    private final Map<UUID, ValidationResult> store;
+    private final ExpiringStore<UUID, ValidationResult> store;
+    private final long maxWeight;
 
     public ValidationStore() {
-        store = new ConcurrentHashMap<>();
+        this(DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param maxWeight the max # of validation messages to store. Each result has a weight of 1 + the # of messages
+     */
+    public ValidationStore(long maxWeight) {
+        this.maxWeight = maxWeight;
+        store = new ExpiringStore<>(CACHE_EXPIRATION, maxWeight, ValidationResult::weight, ValidationResult::isComplete, (id, r) -> {
+        });
+    }
+
+    /**
+     * Does not schedule a background sweep. Used for testing
+     */
+    ValidationStore(long maxWeight, LongSupplier clock) {
+        this.maxWeight = maxWeight;
+        store = new ExpiringStore<>(CACHE_EXPIRATION, maxWeight, ValidationResult::weight, ValidationResult::isComplete, (id, r) -> {
+        }, clock);
     }
 
     public UUID put(UUID id, ProcessorStatus status, int userId) {
         store.put(id, new ValidationResult(status, userId));
-        removeExpired();
-
         return id;
     }
 
     public void update(UUID id, ValidationResponse response, Throwable throwable) {
         ValidationResult validationResult = store.get(id);
         if (validationResult != null) {
+            if (ValidationResult.weight(response) > maxWeight) {
+                // too large to store, so we drop the messages instead of evicting the result
+                response = null;
+                throwable = new FimsRuntimeException(
+                        ValidationCode.INVALID_DATASET,
+                        400,
+                        "Too many validation messages to display. Please correct some of the errors and validate again."
+                );
+            }
+
             validationResult.setResponse(response);
             validationResult.setException(throwable);
+            store.reweigh(id);
         }
     }
 
@@ -52,32 +89,28 @@ public class ValidationStore {
         store.remove(id);
     }
 
-    private void removeExpired() {
-        List<UUID> expired = new ArrayList<>();
-
-        for (Map.Entry<UUID, ValidationResult> entry : store.entrySet()) {
-            if (entry.getValue().isExpired()) {
-                expired.add(entry.getKey());
-            }
-        }
+    public int size() {
+        return store.size();
+    }
 
-        for (UUID id : expired) {
-            store.remove(id);
-        }
+    /**
+     * Stop the background sweep of expired results
+     */
+    @PreDestroy
+    public void destroy() {
+        store.shutdown();
     }
 
 
     public static class ValidationResult {
         private final ProcessorStatus status;
-        private ValidationResponse response;
-        private final Date ts;
+        private volatile ValidationResponse response;
         private int userId;
-        private Throwable exception;
+        private volatile Throwable exception;
 
         private ValidationResult(ProcessorStatus status, int userId) {
             this.status = status;
             this.userId = userId;
-            this.ts = new Date();
         }
 
         public ProcessorStatus status() {
@@ -97,10 +130,6 @@ public class ValidationStore {
             this.response = response;
         }
 
-        private boolean isExpired() {
-            return ts.getTime() < (new Date().getTime() - CACHE_EXPRIATION);
-        }
-
         private boolean authorizedUser(int userId) {
             return !(this.userId > 0 && this.userId != userId);
         }
@@ -108,7 +137,27 @@ public class ValidationStore {
         public void setException(Throwable exception) {
             this.exception = exception;
         }
+
+        private boolean isComplete() {
+            return response != null || exception != null;
+        }
+
+        private long weight() {
+            return weight(response);
+        }
+
+        private static long weight(ValidationResponse response) {
+            long weight = 1;
+
+            if (response != null && response.getMessages() != null) {
+                for (EntityMessages m : response.getMessages()) {
+                    for (MessagesGroup g : m.errorMessages()) weight += g.messages().size();
+                    for (MessagesGroup g : m.warningMessages()) weight += g.messages().size();
+                }
+            }
+
+            return weight;
+        }
     }
 
 }
-
@@ -4,8 +4,15 @@ import biocode.fims.config.models.DataType;
 import biocode.fims.fimsExceptions.FimsRuntimeException;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.joda.time.Chronology;
+import org.joda.time.DateTimeUtils;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utils class for working with dates
@@ -15,6 +22,11 @@ public class DateUtils {
     public static String ISO_8061_DATE = "yyyy-MM-dd";
     public static String ISO_8061_TIME = "HH:mm:ss.SSS";
 
+    // compiled formatters keyed by pattern. DateTimeFormatter is immutable & thread-safe
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+    // placeholder for patterns which can't be compiled, as ConcurrentHashMap doesn't support null values
+    private static final DateTimeFormatter INVALID_PATTERN = new DateTimeFormatter(null, null);
+
     private static String[] ISO8601_DATE_FORMATS = {
             "YYYY",
             "YYYY-MM",
@@ -106,28 +118,67 @@ public class DateUtils {
      * @return
      */
     public static String convertDateToFormat(String dateString, String newFormat, String[] formats) {
-        DateTimeFormatter formatter;
         formats = (String[]) ArrayUtils.add(formats, ISO_8061_DATE);
         formats = (String[]) ArrayUtils.add(formats, ISO_8061_DATETIME);
         formats = (String[]) ArrayUtils.add(formats, ISO_8061_TIME);
 
         for (String format : formats) {
             if (dateStringMatchesFormat(dateString, format)) {
-                formatter = DateTimeFormat.forPattern(format);
-                return formatter.parseDateTime(dateString.trim()).toString(newFormat);
+                return formatter(format).parseDateTime(dateString.trim()).toString(newFormat);
             }
         }
 
         throw new FimsRuntimeException("Couldn't detect date format for value: " + dateString, 500);
     }
 
+    /**
+     * Check if the dateString can be parsed by the given format. This has the same result as
+     * {@link DateTimeFormatter#parseDateTime(String)} not throwing an exception, however we use the formatter's
+     * {@link DateTimeParser} directly so that values not matching the format are rejected w/o creating an exception.
+     * This is called for every date value x candidate format during validation, where most candidates don't match.
+     *
+     * @param dateString
+     * @param format
+     * @return
+     */
     private static boolean dateStringMatchesFormat(String dateString, String format) {
+        DateTimeFormatter formatter = formatter(format);
+        DateTimeParser parser = formatter.getParser();
+        if (parser == null) return false;
+
+        Chronology chrono = DateTimeUtils.getChronology(formatter.getChronology());
+        if (formatter.getZone() != null) chrono = chrono.withZone(formatter.getZone());
+
+        DateTimeParserBucket bucket = new DateTimeParserBucket(
+                0, chrono, formatter.getLocale(), formatter.getPivotYear(), formatter.getDefaultYear()
+        );
+
+        // a negative position indicates a parse failure, otherwise the entire string must be consumed
+        if (parser.parseInto(bucket, dateString, 0) < dateString.length()) return false;
+
         try {
-            DateTimeFormatter formatter = DateTimeFormat.forPattern(format);
-            formatter.parseDateTime(dateString);
-        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            // validates the parsed field values, ex. month 13 or Feb 30
+            bucket.computeMillis(true, dateString);
+        } catch (IllegalArgumentException e) {
             return false;
         }
         return true;
     }
+
+    /**
+     * @param pattern
+     * @return the compiled formatter for the pattern. If the pattern is invalid, the returned formatter will not
+     * have a {@link DateTimeParser}
+     */
+    static DateTimeFormatter formatter(String pattern) {
+        if (pattern == null) return INVALID_PATTERN;
+
+        return FORMATTERS.computeIfAbsent(pattern, p -> {
+            try {
+                return DateTimeFormat.forPattern(p);
+            } catch (IllegalArgumentException e) {
+                return INVALID_PATTERN;
+            }
+        });
+    }
 }
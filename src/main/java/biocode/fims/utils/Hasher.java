@@ -7,6 +7,16 @@ import java.security.NoSuchAlgorithmException;
 
 public class Hasher {
     private static String algorithm = "MD5";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // MessageDigest.getInstance does a provider lookup each call, so we keep 1 instance per thread
+    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new FimsRuntimeException(500, e);
+        }
+    });
 
     /* MD5 creates a MD of 32 chars the following
      * string can be changed to SHA it will create
@@ -15,23 +25,26 @@ public class Hasher {
     public static String hash(String s) {
         // Don't create a hash for empty content!
         if (s.trim().equals("")) return "";
-        byte[] plainText = s.getBytes();
-        try {
-            MessageDigest md = MessageDigest.getInstance(algorithm);
-            md.reset();
-            md.update(plainText);
-            byte[] digest = md.digest();
+        MessageDigest md = digest();
+        md.update(s.getBytes());
+        return toHex(md.digest());
+    }
 
-            StringBuilder sb = new StringBuilder();
-            for (int i = 0; i < digest.length; i++) {
-                if ((digest[i] & 0xff) < 0x10) {
-                    sb.append("0");
-                }
-                sb.append(Long.toString(digest[i] & 0xff, 16));
-            }
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new FimsRuntimeException(500, e);
+    /**
+     * @return the reset {@link MessageDigest} for the current thread. This must not be shared with other threads.
+     */
+    static MessageDigest digest() {
+        MessageDigest md = DIGEST.get();
+        md.reset();
+        return md;
+    }
+
+    static String toHex(byte[] digest) {
+        char[] chars = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            chars[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[digest[i] & 0xf];
         }
+        return new String(chars);
     }
 }
@@ -2,12 +2,32 @@ package biocode.fims.utils;
 
 import biocode.fims.records.Record;
 
-import java.util.TreeMap;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
 
 /**
+ * Generates the uniqueKey for Records of hashed entities.
+ * <p>
+ * The hash is the MD5 of the concatenated, trimmed key + value of each non-empty property, sorted by key. This
+ * format must not change, as the hashes are persisted as identifiers. Instead of building that string, we stream each
+ * key & value directly into a per thread {@link MessageDigest}.
+ *
  * @author rjewing
  */
 public class RecordHasher {
+    private static final int BUFFER_SIZE = 8192;
+    // Hasher.hash uses the platform charset. For charsets which encode ASCII as single bytes, we can copy ASCII chars
+    // directly into the buffer w/o encoding the String
+    private static final Charset CHARSET = Charset.defaultCharset();
+    private static final boolean ASCII_COMPATIBLE = CHARSET.equals(StandardCharsets.UTF_8)
+            || CHARSET.equals(StandardCharsets.US_ASCII)
+            || CHARSET.equals(StandardCharsets.ISO_8859_1);
+
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
     /**
      * Generate a hash of the non-empty record properties
      *
@@ -15,18 +35,124 @@ public class RecordHasher {
      * @return
      */
     public static String hash(Record r) {
+        String[] keys = r.properties().keySet().toArray(new String[0]);
         // will sort by natural ordering of keys
-        TreeMap<String, Object> sortedMap = new TreeMap<>(r.properties());
+        Arrays.sort(keys);
+
+        return hash(r.properties(), keys);
+    }
+
+    /**
+     * Generate a hash of the non-empty record properties, using a precomputed key order. This avoids sorting the
+     * properties of every Record when hashing many Records of the same {@link biocode.fims.config.models.Entity}.
+     * <p>
+     * If the Record contains properties not in sortedKeys, we fallback to {@link #hash(Record)}
+     *
+     * @param r
+     * @param sortedKeys the property keys in natural order
+     * @return
+     */
+    public static String hash(Record r, String[] sortedKeys) {
+        Map<String, Object> properties = r.properties();
 
-        StringBuilder sb = new StringBuilder();
+        int found = 0;
+        for (String k : sortedKeys) {
+            if (properties.get(k) != null || properties.containsKey(k)) found++;
+        }
 
-        sortedMap.forEach((k, v) -> {
-            String val = String.valueOf(v).trim();
-            if (!val.equals("")) {
-                sb.append(k.trim()).append(val);
+        if (found != properties.size()) return hash(r);
+        return hash(properties, sortedKeys);
+    }
+
+    private static String hash(Map<String, Object> properties, String[] sortedKeys) {
+        DigestWriter writer = new DigestWriter(Hasher.digest(), BUFFER.get());
+
+        for (String k : sortedKeys) {
+            Object v = properties.get(k);
+            if (v == null && !properties.containsKey(k)) continue;
+
+            String val = String.valueOf(v);
+            int start = trimStart(val);
+            int end = trimEnd(val, start);
+
+            if (start < end) {
+                int kStart = trimStart(k);
+                writer.write(k, kStart, trimEnd(k, kStart));
+                writer.write(val, start, end);
             }
-        });
+        }
+
+        // Don't create a hash for empty content!
+        if (writer.isEmpty()) return "";
+        return Hasher.toHex(writer.digest());
+    }
+
+    /**
+     * same as {@link String#trim()}
+     */
+    private static int trimStart(String s) {
+        int start = 0;
+        while (start < s.length() && s.charAt(start) <= ' ') start++;
+        return start;
+    }
+
+    /**
+     * same as {@link String#trim()}
+     */
+    private static int trimEnd(String s, int start) {
+        int end = s.length();
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        return end;
+    }
+
+    private static class DigestWriter {
+        private final MessageDigest md;
+        private final byte[] buffer;
+        private int pos = 0;
+        private boolean empty = true;
+
+        private DigestWriter(MessageDigest md, byte[] buffer) {
+            this.md = md;
+            this.buffer = buffer;
+        }
+
+        private void write(String s, int start, int end) {
+            if (start == end) return;
+            empty = false;
+
+            if (!ASCII_COMPATIBLE || !isAscii(s, start, end)) {
+                flush();
+                md.update(s.substring(start, end).getBytes(CHARSET));
+                return;
+            }
+
+            for (int i = start; i < end; i++) {
+                if (pos == buffer.length) flush();
+                buffer[pos++] = (byte) s.charAt(i);
+            }
+        }
+
+        private boolean isAscii(String s, int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (s.charAt(i) >= 0x80) return false;
+            }
+            return true;
+        }
+
+        private void flush() {
+            if (pos > 0) {
+                md.update(buffer, 0, pos);
+                pos = 0;
+            }
+        }
+
+        private boolean isEmpty() {
+            return empty;
+        }
 
-        return Hasher.hash(sb.toString());
+        private byte[] digest() {
+            flush();
+            return md.digest();
+        }
     }
 }
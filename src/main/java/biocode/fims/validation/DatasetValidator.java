@@ -107,13 +107,7 @@ public class DatasetValidator {
             MultiKey k = new MultiKey(m.conceptAlias(), m.sheetName());
 
             if (newMessages.containsKey(k)) {
-                EntityMessages em = newMessages.get(k);
-
-                m.warningMessages().forEach(wm -> wm.messages()
-                        .forEach(message -> em.addWarningMessage(wm.getName(), message)));
-                m.errorMessages().forEach(wm -> wm.messages()
-                        .forEach(message -> em.addErrorMessage(wm.getName(), message)));
-
+                newMessages.get(k).addMessages(m);
             } else {
                 newMessages.put(k, m);
             }
@@ -1,6 +1,9 @@
 package biocode.fims.validation;
 
 import biocode.fims.config.models.Entity;
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.metrics.Metrics;
+import biocode.fims.records.Record;
 import biocode.fims.records.RecordSet;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.validation.messages.EntityMessages;
@@ -8,6 +11,10 @@ import biocode.fims.validation.rules.*;
 import org.springframework.util.Assert;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * This class serves as a base for all other RecordSet validators and is meant to be extended.
@@ -15,32 +22,63 @@ import java.util.*;
  * Sub-classes should also create a {@link ValidatorInstantiator} implementation to instantiate a instance. This is
  * used in the RecordValidatorFactory
  * <p>
- * This class will apply any {@link Rule} defined in the {@link Entity} to the {@link RecordSet}
+ * This class will apply any {@link Rule} defined in the {@link Entity} to the {@link RecordSet}. Consecutive
+ * {@link ColumnRule}s are evaluated together w/ a single pass over the records. See {@link ValidationPlan}
+ * <p>
+ * If an {@link ExecutorService} is set, the Rules are run concurrently. {@link Rule#isPartitionable()} Rules are
+ * additionally split into partitions of {@link #PARTITION_SIZE} records. When run sequentially, any Record errored
+ * by a {@link RuleLevel#ERROR} Rule is excluded from {@link RecordSet#recordsToPersist()} for all subsequent Rules.
+ * To produce the same results, the Rules are run in stages, each ending w/ a {@link RuleLevel#ERROR} Rule. The Rules
+ * in a stage are run concurrently against a {@link RecordSet#snapshot(List)} taken at the start of the stage, and
+ * the messages are merged in Rule order. The messages, errors, and Records to persist are therefore identical to
+ * running the Rules sequentially.
  *
  * @author rjewing
  */
 public class RecordValidator {
+    static final int PARTITION_SIZE = 5000;
+
     protected ProjectConfig config;
     protected EntityMessages messages;
     protected boolean hasError = false;
     protected boolean isValid = true;
+    private ExecutorService executorService;
 
     public RecordValidator(ProjectConfig config) {
         Assert.notNull(config);
         this.config = config;
     }
 
+    /**
+     * @param executorService used to run the Rules concurrently. If null, the Rules are run sequentially
+     *                        on the calling thread
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
     public boolean validate(RecordSet recordSet) {
         Assert.notNull(recordSet);
 
         this.messages = new EntityMessages(recordSet.conceptAlias(), recordSet.entity().getWorksheet());
 
-        Set<Rule> rules = recordSet.entity().getRules();
+        // the Entity may belong to a cached config, so we run a copy of each Rule
+        List<Rule> rules = new ArrayList<>();
+        for (Rule r : recordSet.entity().getRules()) {
+            rules.add(r.copy());
+        }
+
+        if (executorService != null) {
+            validateConcurrently(recordSet, rules);
+            return isValid;
+        }
 
         for (Rule r : rules) {
             r.setProjectConfig(config);
+        }
 
-            if (!r.run(recordSet, messages)) {
+        new ValidationPlan(rules).run(recordSet, messages, (r, valid) -> {
+            if (!valid) {
 
                 if (r.hasError()) {
                     hasError = true;
@@ -48,9 +86,81 @@ public class RecordValidator {
 
                 isValid = false;
             }
+        });
+        return isValid;
+    }
+
+    private void validateConcurrently(RecordSet recordSet, List<Rule> rules) {
+        List<Rule> stage = new ArrayList<>();
+
+        for (Rule r : rules) {
+            r.setProjectConfig(config);
+            stage.add(r);
+
+            // Records errored by this Rule are excluded from the recordsToPersist of any subsequent Rule
+            if (RuleLevel.ERROR.equals(r.level())) {
+                runStage(recordSet, stage);
+                stage = new ArrayList<>();
+            }
+        }
 
+        if (!stage.isEmpty()) {
+            runStage(recordSet, stage);
+        }
+    }
+
+    private void runStage(RecordSet recordSet, List<Rule> rules) {
+        // all snapshots must be created before any Rule is run, as running a Rule may set errors on the Records
+        RecordSet snapshot = recordSet.snapshot(recordSet.records());
+        List<Record> recordsToPersist = snapshot.recordsToPersist();
+
+        List<RuleTask> tasks = new ArrayList<>();
+        for (Rule r : rules) {
+            if (r.isPartitionable() && recordsToPersist.size() > PARTITION_SIZE) {
+                for (int i = 0; i < recordsToPersist.size(); i += PARTITION_SIZE) {
+                    List<Record> partition = recordsToPersist.subList(i, Math.min(i + PARTITION_SIZE, recordsToPersist.size()));
+                    tasks.add(new RuleTask(r, recordSet.snapshot(partition)));
+                }
+            } else {
+                tasks.add(new RuleTask(r, snapshot));
+            }
+        }
+
+        List<Future<Boolean>> results;
+        try {
+            results = executorService.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FimsRuntimeException(500, e);
+        }
+
+        for (int i = 0; i < tasks.size(); i++) {
+            RuleTask task = tasks.get(i);
+            messages.addMessages(task.messages);
+
+            if (!getResult(results.get(i))) {
+
+                if (task.rule.hasError()) {
+                    hasError = true;
+                }
+
+                isValid = false;
+            }
+        }
+    }
+
+    private boolean getResult(Future<Boolean> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FimsRuntimeException(500, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FimsRuntimeException(500, e.getCause());
         }
-        return isValid;
     }
 
     public boolean hasError() {
@@ -61,6 +171,26 @@ public class RecordValidator {
         return messages;
     }
 
+    /**
+     * Runs a single Rule, collecting the messages so they can be merged in Rule order
+     */
+    private class RuleTask implements Callable<Boolean> {
+        private final Rule rule;
+        private final RecordSet recordSet;
+        private final EntityMessages messages;
+
+        private RuleTask(Rule rule, RecordSet recordSet) {
+            this.rule = rule;
+            this.recordSet = recordSet;
+            this.messages = new EntityMessages(recordSet.conceptAlias(), recordSet.entity().getWorksheet());
+        }
+
+        @Override
+        public Boolean call() {
+            return Metrics.time("validation.rule", () -> rule.run(recordSet, messages), "rule", rule.name());
+        }
+    }
+
     public static class DefaultValidatorInstantiator implements ValidatorInstantiator {
         @Override
         public RecordValidator newInstance(ProjectConfig config) {
@@ -5,21 +5,35 @@ import biocode.fims.records.Record;
 import org.springframework.util.Assert;
 
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author rjewing
  */
 public class RecordValidatorFactory {
     private final Map<Class<? extends Record>, ValidatorInstantiator> validators;
+    private final ExecutorService executorService;
 
     public RecordValidatorFactory(Map<Class<? extends Record>, ValidatorInstantiator> validators) {
+        this(validators, null);
+    }
+
+    /**
+     * @param validators
+     * @param executorService if not null, validators will run {@link biocode.fims.validation.rules.Rule}s
+     *                        concurrently using this executorService. See {@link RecordValidator#setExecutorService(ExecutorService)}
+     */
+    public RecordValidatorFactory(Map<Class<? extends Record>, ValidatorInstantiator> validators, ExecutorService executorService) {
         Assert.notNull(validators);
         this.validators = validators;
+        this.executorService = executorService;
     }
 
     public RecordValidator getValidator(Class<? extends Record> recordType, ProjectConfig config) {
         Assert.notNull(config);
 
-        return validators.getOrDefault(recordType, new RecordValidator.DefaultValidatorInstantiator()).newInstance(config);
+        RecordValidator validator = validators.getOrDefault(recordType, new RecordValidator.DefaultValidatorInstantiator()).newInstance(config);
+        validator.setExecutorService(executorService);
+        return validator;
     }
 }
@@ -0,0 +1,96 @@
+package biocode.fims.validation;
+
+import biocode.fims.metrics.Metrics;
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.messages.EntityMessages;
+import biocode.fims.validation.rules.ColumnRule;
+import biocode.fims.validation.rules.ColumnRuleEvaluator;
+import biocode.fims.validation.rules.Rule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Plan for running the {@link Rule}s of an {@link biocode.fims.config.models.Entity}.
+ * <p>
+ * Consecutive {@link ColumnRule}s are grouped and evaluated w/ a single pass over the {@link RecordSet} using a
+ * {@link ColumnRuleEvaluator}. All other Rules are run individually. The Rules are run in the same order they are
+ * provided, so the results are the same as running each Rule sequentially.
+ * <p>
+ * The time spent running each Rule is recorded in the "validation.rule" timer. Grouped ColumnRules are recorded
+ * together w/ the rule tag "ColumnRules".
+ *
+ * @author rjewing
+ */
+class ValidationPlan {
+    private final List<Step> steps;
+
+    ValidationPlan(Collection<Rule> rules) {
+        this.steps = new ArrayList<>();
+
+        List<ColumnRule> columnRules = new ArrayList<>();
+        for (Rule r : rules) {
+            if (r instanceof ColumnRule) {
+                columnRules.add((ColumnRule) r);
+                continue;
+            }
+
+            addColumnRulesStep(columnRules);
+            columnRules = new ArrayList<>();
+            steps.add(new Step(r));
+        }
+        addColumnRulesStep(columnRules);
+    }
+
+    private void addColumnRulesStep(List<ColumnRule> columnRules) {
+        if (columnRules.size() == 1) {
+            steps.add(new Step(columnRules.get(0)));
+        } else if (columnRules.size() > 1) {
+            steps.add(new Step(columnRules));
+        }
+    }
+
+    /**
+     * @param recordSet
+     * @param messages
+     * @param resultConsumer called w/ the result of each Rule, in Rule order
+     */
+    void run(RecordSet recordSet, EntityMessages messages, BiConsumer<Rule, Boolean> resultConsumer) {
+        for (Step step : steps) {
+            if (step.rule != null) {
+                boolean valid = Metrics.time(
+                        "validation.rule", () -> step.rule.run(recordSet, messages), "rule", step.rule.name()
+                );
+                resultConsumer.accept(step.rule, valid);
+            } else {
+                boolean[] results = Metrics.time(
+                        "validation.rule", () -> step.evaluator.run(recordSet, messages), "rule", "ColumnRules"
+                );
+
+                for (int i = 0; i < results.length; i++) {
+                    resultConsumer.accept(step.columnRules.get(i), results[i]);
+                }
+            }
+        }
+    }
+
+    private static class Step {
+        private final Rule rule;
+        private final List<ColumnRule> columnRules;
+        private final ColumnRuleEvaluator evaluator;
+
+        private Step(Rule rule) {
+            this.rule = rule;
+            this.columnRules = null;
+            this.evaluator = null;
+        }
+
+        private Step(List<ColumnRule> columnRules) {
+            this.rule = null;
+            this.columnRules = columnRules;
+            this.evaluator = new ColumnRuleEvaluator(columnRules);
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
 
 /**
+ * Messages may be added concurrently from multiple threads.
+ *
  * @author rjewing
  */
 public class EntityMessages {
@@ -26,11 +28,11 @@ public class EntityMessages {
         this.sheetName = sheetName;
     }
 
-    public void addErrorMessage(String groupMessage, Message message) {
+    public synchronized void addErrorMessage(String groupMessage, Message message) {
         errorMessages.addMessage(groupMessage, message);
     }
 
-    public void addWarningMessage(String groupMessage, Message msg) {
+    public synchronized void addWarningMessage(String groupMessage, Message msg) {
         warningMessages.addMessage(groupMessage, msg);
     }
 
@@ -42,6 +44,18 @@ public class EntityMessages {
         }
     }
 
+    /**
+     * Add all warning and error messages from another EntityMessages object, preserving the group order.
+     *
+     * @param messages
+     */
+    public void addMessages(EntityMessages messages) {
+        messages.warningMessages().forEach(g -> g.messages()
+                .forEach(m -> addWarningMessage(g.getName(), m)));
+        messages.errorMessages().forEach(g -> g.messages()
+                .forEach(m -> addErrorMessage(g.getName(), m)));
+    }
+
     @JsonProperty("warnings")
     public List<MessagesGroup> warningMessages() {
         return warningMessages.allGroupMessages();
@@ -16,7 +16,7 @@ import java.util.List;
 /**
  * @author rjewing
  */
-public abstract class AbstractRule implements Rule {
+public abstract class AbstractRule implements Rule, Cloneable {
     private boolean hasError = false;
     private RuleLevel level;
     protected boolean networkRule = false;
@@ -112,6 +112,17 @@ public abstract class AbstractRule implements Rule {
         return this;
     }
 
+    @Override
+    public Rule copy() {
+        try {
+            AbstractRule copy = (AbstractRule) super.clone();
+            copy.hasError = false;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
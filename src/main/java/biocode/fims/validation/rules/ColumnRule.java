@@ -0,0 +1,27 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.messages.EntityMessages;
+
+import java.util.List;
+
+/**
+ * A {@link Rule} which validates each column value of a {@link biocode.fims.records.Record} independently of all
+ * other values. Multiple ColumnRules can be evaluated w/ a single pass over a {@link RecordSet}.
+ * See {@link ColumnRuleEvaluator}.
+ * <p>
+ * Implementations should implement {@link Rule#run(RecordSet, EntityMessages)} using {@link ColumnRuleEvaluator#run(ColumnRule, RecordSet, EntityMessages)}
+ *
+ * @author rjewing
+ */
+public interface ColumnRule extends Rule {
+
+    /**
+     * Create the {@link ColumnValidator}s needed to run this Rule on the recordSet.
+     *
+     * @param recordSet the recordSet to validate
+     * @param messages  messages to add any validation messages to
+     * @return the validators, or null if the rule configuration is invalid. If null, the rule has failed
+     */
+    List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages);
+}
@@ -0,0 +1,114 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.messages.EntityMessages;
+import org.springframework.util.Assert;
+
+import java.util.*;
+
+/**
+ * Evaluates a group of {@link ColumnRule}s w/ a single pass over the records in a {@link RecordSet}.
+ * <p>
+ * The results are the same as calling {@link Rule#run(RecordSet, EntityMessages)} for each rule in order. If a rule
+ * sets an error on a {@link Record}, the Record is not validated by any of the subsequent rules, unless the RecordSet
+ * is a {@link RecordSet#snapshot(List)}. Each column value
+ * is fetched from the Record once and shared by all rules validating that column.
+ *
+ * @author rjewing
+ */
+public class ColumnRuleEvaluator {
+    private final List<ColumnRule> rules;
+
+    public ColumnRuleEvaluator(List<ColumnRule> rules) {
+        Assert.notNull(rules);
+        this.rules = rules;
+    }
+
+    /**
+     * Run a single ColumnRule
+     */
+    public static boolean run(ColumnRule rule, RecordSet recordSet, EntityMessages messages) {
+        Assert.notNull(recordSet);
+        return new ColumnRuleEvaluator(Collections.singletonList(rule)).run(recordSet, messages)[0];
+    }
+
+    /**
+     * @param recordSet
+     * @param messages  the messages for each rule are added in rule order
+     * @return the result of each rule, in rule order
+     */
+    public boolean[] run(RecordSet recordSet, EntityMessages messages) {
+        int numRules = rules.size();
+
+        // collect messages per rule so they can be merged in rule order
+        EntityMessages[] ruleMessages = new EntityMessages[numRules];
+        ColumnValidator[][] validators = new ColumnValidator[numRules][];
+        int[][] columns = new int[numRules][];
+        List<String> uris = new ArrayList<>();
+
+        for (int i = 0; i < numRules; i++) {
+            ruleMessages[i] = (numRules == 1) ? messages : new EntityMessages(messages.conceptAlias(), messages.sheetName());
+
+            List<ColumnValidator> ruleValidators = rules.get(i).columnValidators(recordSet, ruleMessages[i]);
+            if (ruleValidators == null) continue;
+
+            validators[i] = ruleValidators.toArray(new ColumnValidator[0]);
+            columns[i] = new int[validators[i].length];
+
+            for (int j = 0; j < validators[i].length; j++) {
+                String uri = validators[i][j].uri();
+                int index = uris.indexOf(uri);
+                if (index == -1) {
+                    index = uris.size();
+                    uris.add(uri);
+                }
+                columns[i][j] = index;
+            }
+        }
+
+        String[] columnUris = uris.toArray(new String[0]);
+        String[] values = new String[columnUris.length];
+        boolean skipErrors = !recordSet.isSnapshot();
+
+        for (Record r : recordSet.recordsToPersist()) {
+            Arrays.fill(values, null);
+
+            for (int i = 0; i < numRules; i++) {
+                // a previous rule set an error on this record, so this record would not be in the
+                // recordsToPersist for any subsequent rule
+                if (skipErrors && i > 0 && !r.persist()) break;
+                if (validators[i] == null) continue;
+
+                for (int j = 0; j < validators[i].length; j++) {
+                    int col = columns[i][j];
+                    String value = values[col];
+
+                    if (value == null) {
+                        value = r.get(columnUris[col]);
+                        values[col] = value;
+                    }
+
+                    validators[i][j].validate(r, value);
+                }
+            }
+        }
+
+        boolean[] results = new boolean[numRules];
+        for (int i = 0; i < numRules; i++) {
+            if (validators[i] != null) {
+                boolean valid = true;
+                for (ColumnValidator v : validators[i]) {
+                    valid &= v.complete();
+                }
+                results[i] = valid;
+            }
+
+            if (ruleMessages[i] != messages) {
+                messages.addMessages(ruleMessages[i]);
+            }
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,32 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.records.Record;
+
+/**
+ * Validates the value of a single column for each {@link Record} in a {@link biocode.fims.records.RecordSet}.
+ * <p>
+ * A ColumnValidator is created by a {@link ColumnRule} for a single run of the rule, and may collect state
+ * while validating each value.
+ *
+ * @author rjewing
+ */
+public interface ColumnValidator {
+
+    /**
+     * @return the uri of the column to validate
+     */
+    String uri();
+
+    /**
+     * @param record the record being validated
+     * @param value  the value of {@link #uri()} for the record. This is the same as {@code record.get(uri())}
+     */
+    void validate(Record record, String value);
+
+    /**
+     * Called after all records have been validated. Any remaining messages should be added at this time.
+     *
+     * @return true if all values were valid
+     */
+    boolean complete();
+}
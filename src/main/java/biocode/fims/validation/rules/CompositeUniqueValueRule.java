@@ -46,15 +46,22 @@ public class CompositeUniqueValueRule extends MultiColumnRule {
         Set<LinkedList<String>> set = new HashSet<>();
         List<LinkedList<String>> duplicateValues = new ArrayList<>();
 
+        List<Record> recordsToPersist = recordSet.recordsToPersist();
+
+        // use the recordSet's recordsToPersist instead of Record.persist() as the RecordSet
+        // may be a snapshot. see RecordSet.snapshot
+        Set<Record> persisting = Collections.newSetFromMap(new IdentityHashMap<>());
+        persisting.addAll(recordsToPersist);
+
         String uploadingExpeditionCode = recordSet.expeditionCode();
         set.addAll(
                 recordSet.records().stream()
-                        .filter(r -> Objects.equals(r.expeditionCode(), uploadingExpeditionCode) && !r.persist())
+                        .filter(r -> Objects.equals(r.expeditionCode(), uploadingExpeditionCode) && !persisting.contains(r))
                         .map(r -> buildCompositeValue(uris, r))
                         .collect(Collectors.toList())
         );
 
-        for (Record r : recordSet.recordsToPersist()) {
+        for (Record r : recordsToPersist) {
             LinkedList<String> composite = buildCompositeValue(uris, r);
 
             if (composite.size() > 0 && !set.add(composite)) {
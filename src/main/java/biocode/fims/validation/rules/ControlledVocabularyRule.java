@@ -31,7 +31,7 @@ import java.util.stream.Collectors;
  * @author rjewing
  */
 @JsonValueInstantiator(ControlledVocabularyRule.ValueInstantiator.class)
-public class ControlledVocabularyRule extends SingleColumnRule {
+public class ControlledVocabularyRule extends SingleColumnRule implements ColumnRule {
     private static final String NAME = "ControlledVocabulary";
     @JsonProperty
     private String listName;
@@ -55,61 +55,49 @@ public class ControlledVocabularyRule extends SingleColumnRule {
     @Override
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet);
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
 
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
         if (!validConfiguration(recordSet, messages)) {
-            return false;
+            return null;
         }
 
         String uri = recordSet.entity().getAttributeUri(column);
-        List<String> fields = getListFields();
+        MatcherCache.Vocabulary vocabulary = MatcherCache.vocabulary(config, list);
 
         Set<String> invalidValues = new LinkedHashSet<>();
 
-        for (Record r : recordSet.recordsToPersist()) {
-
-            String value = r.get(uri);
-
-            if (value.equals("")) {
-                continue;
+        return Collections.singletonList(new ColumnValidator() {
+            @Override
+            public String uri() {
+                return uri;
             }
 
-            if (list.getCaseInsensitive()) {
-
-                if (!fields.contains(value.toLowerCase())) {
-                    invalidValues.add(value);
-                    if (level().equals(RuleLevel.ERROR)) r.setError();
+            @Override
+            public void validate(Record r, String value) {
+                if (value.equals("")) {
+                    return;
                 }
-            } else {
 
-                if (!fields.contains(value)) {
+                if (!vocabulary.contains(value)) {
                     invalidValues.add(value);
                     if (level().equals(RuleLevel.ERROR)) r.setError();
                 }
             }
 
-        }
-
-        if (invalidValues.size() == 0) {
-            return true;
-        }
-
-        setMessages(invalidValues, messages);
-        setError();
-        return false;
-    }
-
-    private List<String> getListFields() {
-        List<String> listFields = new ArrayList<>();
+            @Override
+            public boolean complete() {
+                if (invalidValues.size() == 0) {
+                    return true;
+                }
 
-        for (Field f : list.getFields()) {
-            if (list.getCaseInsensitive()) {
-                listFields.add(f.getValue().toLowerCase());
-            } else {
-                listFields.add(f.getValue());
+                setMessages(invalidValues, messages);
+                setError();
+                return false;
             }
-        }
-
-        return listFields;
+        });
     }
 
     private void setMessages(Set<String> invalidValues, EntityMessages messages) {
@@ -152,6 +140,11 @@ public class ControlledVocabularyRule extends SingleColumnRule {
         return valid;
     }
 
+    @Override
+    public boolean isPartitionable() {
+        return true;
+    }
+
     @Override
     public String name() {
         return NAME;
@@ -0,0 +1,139 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.config.Config;
+import biocode.fims.config.models.Field;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Shared cache of compiled {@link Pattern}s and controlled vocabularies used by validation {@link Rule}s.
+ * <p>
+ * Matchers are cached per {@link Config} instance. Config's equals/hashCode are content based, so Configs are compared
+ * by identity instead, otherwise distinct Configs w/ equal contents would share matchers and a modified Config would no
+ * longer find its own. Configs are weakly referenced, so the cached matchers are released when the Config is no longer
+ * in use. If a Config is modified, {@link #invalidate(Config)} must be called.
+ *
+ * @author rjewing
+ */
+public final class MatcherCache {
+    private static final ReferenceQueue<Config> queue = new ReferenceQueue<>();
+    private static final Map<ConfigKey, ConfigMatchers> cache = new ConcurrentHashMap<>();
+
+    private MatcherCache() {
+    }
+
+    /**
+     * @param config          config the pattern belongs to. If null, the pattern will not be cached
+     * @param regex
+     * @param caseInsensitive
+     * @return the compiled pattern
+     */
+    public static Pattern pattern(Config config, String regex, boolean caseInsensitive) {
+        if (config == null) return compile(regex, caseInsensitive);
+
+        String key = (caseInsensitive ? "i:" : "s:") + regex;
+        return matchers(config).patterns.computeIfAbsent(key, k -> compile(regex, caseInsensitive));
+    }
+
+    /**
+     * @param config config the list belongs to. If null, the vocabulary will not be cached
+     * @param list
+     * @return the vocabulary for the list
+     */
+    public static Vocabulary vocabulary(Config config, biocode.fims.config.models.List list) {
+        if (config == null) return new Vocabulary(list);
+
+        return matchers(config).vocabularies.computeIfAbsent(list.getAlias(), k -> new Vocabulary(list));
+    }
+
+    /**
+     * Remove all cached matchers for the config.
+     *
+     * @param config
+     */
+    public static void invalidate(Config config) {
+        if (config == null) return;
+
+        expungeStaleEntries();
+        cache.remove(new ConfigKey(config, null));
+    }
+
+    private static ConfigMatchers matchers(Config config) {
+        expungeStaleEntries();
+
+        ConfigMatchers matchers = cache.get(new ConfigKey(config, null));
+        if (matchers != null) return matchers;
+
+        ConfigMatchers newMatchers = new ConfigMatchers();
+        matchers = cache.putIfAbsent(new ConfigKey(config, queue), newMatchers);
+        return matchers == null ? newMatchers : matchers;
+    }
+
+    private static Pattern compile(String regex, boolean caseInsensitive) {
+        return caseInsensitive ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE) : Pattern.compile(regex);
+    }
+
+    private static void expungeStaleEntries() {
+        Reference<? extends Config> ref;
+        while ((ref = queue.poll()) != null) {
+            cache.remove(ref);
+        }
+    }
+
+    /**
+     * Hashed set of {@link biocode.fims.config.models.List} values
+     */
+    public static class Vocabulary {
+        private final boolean caseInsensitive;
+        private final Set<String> values;
+
+        private Vocabulary(biocode.fims.config.models.List list) {
+            this.caseInsensitive = list.getCaseInsensitive();
+            this.values = new HashSet<>();
+
+            for (Field f : list.getFields()) {
+                values.add(caseInsensitive ? f.getValue().toLowerCase() : f.getValue());
+            }
+        }
+
+        public boolean contains(String value) {
+            return values.contains(caseInsensitive ? value.toLowerCase() : value);
+        }
+    }
+
+    private static class ConfigMatchers {
+        private final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+        private final Map<String, Vocabulary> vocabularies = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Weak reference to a Config, compared by identity
+     */
+    private static class ConfigKey extends WeakReference<Config> {
+        private final int hash;
+
+        private ConfigKey(Config config, ReferenceQueue<Config> queue) {
+            super(config, queue);
+            this.hash = System.identityHashCode(config);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ConfigKey)) return false;
+
+            Config config = get();
+            return config != null && config == ((ConfigKey) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -20,14 +20,14 @@ import java.util.*;
  *
  * @author rjewing
  */
-public class NumericRangeRule extends SingleColumnRule {
+public class NumericRangeRule extends SingleColumnRule implements ColumnRule {
     private static final String NAME = "NumericRange";
     private static final String GROUP_MESSAGE = "Invalid number format";
     @JsonProperty
     private String range;
 
     private boolean validRange = true;
-    private List<Range> ranges;
+    private volatile List<Range> ranges;
 
     // needed for RuleTypeIdResolver to dynamically instantiate Rule implementation
     private NumericRangeRule() {
@@ -45,76 +45,88 @@ public class NumericRangeRule extends SingleColumnRule {
     @Override
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet);
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
 
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
         if (!validConfiguration(recordSet, messages)) {
-            return false;
+            return null;
         }
 
         String uri = recordSet.entity().getAttributeUri(column);
         boolean allowUnknown = recordSet.entity().getAttribute(column).getAllowUnknown();
         boolean allowTBD = recordSet.entity().getAttribute(column).getAllowTBD();
+        List<Range> ranges = this.ranges;
 
         List<String> invalidValues = new ArrayList<>();
 
-        for (Record r : recordSet.recordsToPersist()) {
-
-            String value = r.get(uri);
-
-            if (!value.equals("")) {
-                try {
-                    Double numericValue = Double.parseDouble(value);
-
-                    for (Range range : ranges) {
+        return Collections.singletonList(new ColumnValidator() {
+            @Override
+            public String uri() {
+                return uri;
+            }
 
-                        switch (range.operator) {
-                            case GREATER_THEN_EQUALS:
-                                if (numericValue < range.value) {
-                                    if (level().equals(RuleLevel.ERROR)) r.setError();
-                                    invalidValues.add(value);
-                                }
-                                break;
-                            case GREATER_THEN:
-                                if (numericValue <= range.value) {
-                                    if (level().equals(RuleLevel.ERROR)) r.setError();
-                                    invalidValues.add(value);
-                                }
-                                break;
-                            case LESS_THEN_EQUALS:
-                                if (numericValue > range.value) {
-                                    if (level().equals(RuleLevel.ERROR)) r.setError();
-                                    invalidValues.add(value);
-                                }
-                                break;
-                            case LESS_THEN:
-                                if (numericValue >= range.value) {
+            @Override
+            public void validate(Record r, String value) {
+                if (!value.equals("")) {
+                    try {
+                        Double numericValue = Double.parseDouble(value);
+
+                        for (Range range : ranges) {
+
+                            switch (range.operator) {
+                                case GREATER_THEN_EQUALS:
+                                    if (numericValue < range.value) {
+                                        if (level().equals(RuleLevel.ERROR)) r.setError();
+                                        invalidValues.add(value);
+                                    }
+                                    break;
+                                case GREATER_THEN:
+                                    if (numericValue <= range.value) {
+                                        if (level().equals(RuleLevel.ERROR)) r.setError();
+                                        invalidValues.add(value);
+                                    }
+                                    break;
+                                case LESS_THEN_EQUALS:
+                                    if (numericValue > range.value) {
+                                        if (level().equals(RuleLevel.ERROR)) r.setError();
+                                        invalidValues.add(value);
+                                    }
+                                    break;
+                                case LESS_THEN:
+                                    if (numericValue >= range.value) {
+                                        if (level().equals(RuleLevel.ERROR)) r.setError();
+                                        invalidValues.add(value);
+                                    }
+                                    break;
+                                default:
                                     if (level().equals(RuleLevel.ERROR)) r.setError();
                                     invalidValues.add(value);
-                                }
-                                break;
-                            default:
-                                if (level().equals(RuleLevel.ERROR)) r.setError();
-                                invalidValues.add(value);
+                            }
+                        }
+                    } catch (NumberFormatException e) {
+                        if ((allowUnknown && Attribute.isUnknownValue(value)) || (allowTBD && Attribute.isTBDValue(value))) {
+                            // unknown/tbd is a valid value
+                        } else {
+                            if (level().equals(RuleLevel.ERROR)) r.setError();
+                            invalidValues.add(value);
                         }
-                    }
-                } catch (NumberFormatException e) {
-                    if ((allowUnknown && Attribute.isUnknownValue(value)) || (allowTBD && Attribute.isTBDValue(value))) {
-                        // unknown/tbd is a valid value
-                    } else {
-                        if (level().equals(RuleLevel.ERROR)) r.setError();
-                        invalidValues.add(value);
                     }
                 }
             }
 
-        }
-
-        if (invalidValues.size() == 0) {
-            return true;
-        }
+            @Override
+            public boolean complete() {
+                if (invalidValues.size() == 0) {
+                    return true;
+                }
 
-        setMessages(invalidValues, messages);
-        setError();
-        return false;
+                setMessages(invalidValues, messages);
+                setError();
+                return false;
+            }
+        });
     }
 
     private void setMessages(List<String> invalidValues, EntityMessages messages) {
@@ -149,6 +161,11 @@ public class NumericRangeRule extends SingleColumnRule {
         return valid;
     }
 
+    @Override
+    public boolean isPartitionable() {
+        return true;
+    }
+
     @Override
     public String name() {
         return NAME;
@@ -156,7 +173,8 @@ public class NumericRangeRule extends SingleColumnRule {
 
 
     private void parseRange() {
-        ranges = new ArrayList<>();
+        // build a local list, this rule may be run concurrently
+        List<Range> ranges = new ArrayList<>();
         List<String> rangeStrings = Arrays.asList(range.split("\\|"));
 
         for (String rs : rangeStrings) {
@@ -187,6 +205,8 @@ public class NumericRangeRule extends SingleColumnRule {
             }
 
         }
+
+        this.ranges = ranges;
     }
 
     private static class Range {
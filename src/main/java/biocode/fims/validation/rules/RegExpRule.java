@@ -9,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -19,7 +20,7 @@ import java.util.regex.Pattern;
  *
  * @author rjewing
  */
-public class RegExpRule extends SingleColumnRule {
+public class RegExpRule extends SingleColumnRule implements ColumnRule {
     private static final String NAME = "RegExp";
     private static final String GROUP_MESSAGE = "Value constraint did not pass";
     @JsonProperty
@@ -44,9 +45,13 @@ public class RegExpRule extends SingleColumnRule {
     @Override
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet, "recordSet must not be null");
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
 
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
         if (!validConfiguration(recordSet, messages)) {
-            return false;
+            return null;
         }
 
         String uri = recordSet.entity().getAttributeUri(column);
@@ -55,28 +60,35 @@ public class RegExpRule extends SingleColumnRule {
         String p = this.pattern;
         if (!p.startsWith("^")) p = "^" + p;
         if (!p.endsWith("$")) p += "$";
-        Pattern pattern = caseInsensitive ? Pattern.compile(p, Pattern.CASE_INSENSITIVE) : Pattern.compile(p);
+        Pattern pattern = MatcherCache.pattern(config, p, caseInsensitive);
 
-        for (Record r : recordSet.recordsToPersist()) {
-
-            String value = r.get(uri);
-
-            if (value.equals("")) {
-                continue;
+        return Collections.singletonList(new ColumnValidator() {
+            @Override
+            public String uri() {
+                return uri;
             }
 
-            if (!pattern.matcher(value).matches()) {
-                invalidValues.add(value);
-                if (level().equals(RuleLevel.ERROR)) r.setError();
-            }
-        }
+            @Override
+            public void validate(Record r, String value) {
+                if (value.equals("")) {
+                    return;
+                }
 
+                if (!pattern.matcher(value).matches()) {
+                    invalidValues.add(value);
+                    if (level().equals(RuleLevel.ERROR)) r.setError();
+                }
+            }
 
-        if (invalidValues.size() == 0) return true;
+            @Override
+            public boolean complete() {
+                if (invalidValues.size() == 0) return true;
 
-        setMessages(invalidValues, messages);
-        setError();
-        return false;
+                setMessages(invalidValues, messages);
+                setError();
+                return false;
+            }
+        });
     }
 
     private void setMessages(Set<String> invalidValues, EntityMessages messages) {
@@ -89,6 +101,11 @@ public class RegExpRule extends SingleColumnRule {
         }
     }
 
+    @Override
+    public boolean isPartitionable() {
+        return true;
+    }
+
     @Override
     public String name() {
         return NAME;
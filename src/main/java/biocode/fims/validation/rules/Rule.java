@@ -5,6 +5,7 @@ import biocode.fims.config.models.Entity;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.records.RecordSet;
 import biocode.fims.config.ConfigValidator;
+import biocode.fims.models.dataTypes.JacksonUtil;
 import biocode.fims.validation.messages.EntityMessages;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -46,6 +47,21 @@ public interface Rule {
     @JsonIgnore
     boolean hasError();
 
+    /**
+     * Rules which validate each {@link biocode.fims.records.Record} independently of the other Records in the
+     * {@link RecordSet} can be run concurrently on partitions of the RecordSet. The messages from each partition are
+     * merged.
+     * <p>
+     * The same Rule instance will be run on multiple partitions at the same time, so any state modified in
+     * {@link Rule#run(RecordSet, EntityMessages)} must be thread-safe.
+     *
+     * @return true if this rule can be run on a partition of the RecordSet
+     */
+    @JsonIgnore
+    default boolean isPartitionable() {
+        return false;
+    }
+
     @JsonIgnore
     boolean isNetworkRule();
 
@@ -85,4 +101,19 @@ public interface Rule {
 
     @JsonIgnore
     void setProjectConfig(ProjectConfig config);
+
+    /**
+     * Rules are shared by all readers of a cached {@link biocode.fims.config.Config}, but hold state for a single
+     * validation (ex. {@link #hasError()} & {@link #setProjectConfig(ProjectConfig)}). A copy should be run for each
+     * validation.
+     * <p>
+     * The default implementation copies the Rule w/ a json round-trip, which only copies the Rule's configuration.
+     * Implementations should override this if there is a cheaper way to copy the Rule.
+     *
+     * @return a copy of this Rule w/o any state from a previous run
+     */
+    @JsonIgnore
+    default Rule copy() {
+        return JacksonUtil.clone(this);
+    }
 }
@@ -54,10 +54,15 @@ public class UniqueValueRule extends SingleColumnRule {
         List<Record> recordsToPersist = recordSet.recordsToPersist();
 
         if (recordsToPersist.size() > 0) {
+            // use the recordSet's recordsToPersist instead of Record.persist() as the RecordSet
+            // may be a snapshot. see RecordSet.snapshot
+            Set<Record> persisting = Collections.newSetFromMap(new IdentityHashMap<>());
+            persisting.addAll(recordsToPersist);
+
             if (uniqueAcrossProject) {
                 existingValues.addAll(
                         recordSet.records().stream()
-                                .filter(r -> !r.persist())
+                                .filter(r -> !persisting.contains(r))
                                 .map(r -> r.get(uri))
                                 .collect(Collectors.toList())
                 );
@@ -67,7 +72,7 @@ public class UniqueValueRule extends SingleColumnRule {
 
                 existingValues.addAll(
                         recordSet.records().stream()
-                                .filter(r -> Objects.equals(r.expeditionCode(), uploadingExpeditionCode) && !r.persist())
+                                .filter(r -> Objects.equals(r.expeditionCode(), uploadingExpeditionCode) && !persisting.contains(r))
                                 .map(r -> r.get(uri))
                                 .collect(Collectors.toList())
                 );
@@ -21,7 +21,7 @@ import java.util.regex.Pattern;
  *
  * @author rjewing
  */
-public class ValidDataTypeFormatRule extends AbstractRule {
+public class ValidDataTypeFormatRule extends AbstractRule implements ColumnRule {
     private static final String NAME = "ValidDataTypeFormat";
     private static final String GROUP_MESSAGE = "Invalid DataFormat";
     private static final Pattern INT_PATTERN = Pattern.compile("[+-]?\\d*");
@@ -35,90 +35,120 @@ public class ValidDataTypeFormatRule extends AbstractRule {
     @Override
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet);
-        boolean isValid = true;
-
-        for (Record r : recordSet.recordsToPersist()) {
-            for (Attribute a : recordSet.entity().getAttributes()) {
-
-                String value = r.get(a.getUri());
-
-                if (value.equals("")) {
-                    continue;
-                }
-
-                List<String> acceptableValues = new ArrayList<>();
-                if (a.getAllowUnknown()) {
-                    acceptableValues.add("Unknown");
-                }
-                if (a.getAllowTBD()) {
-                    acceptableValues.add("to be determined");
-                    acceptableValues.add("tbd");
-                }
-                switch (a.getDataType()) {
-                    case INTEGER:
-                        if (!isIntegerDataFormat(value, a.getAllowUnknown(), a.getAllowTBD())) {
-                            String msg = "\"" + a.getColumn() + "\" contains non-integer value \"" + value + "\"";
-                            if (a.getAllowUnknown() || a.getAllowTBD()) {
-                                msg += ". Value can also be \"" + String.join("\", \"", acceptableValues) + "\"";
-                            }
-                            messages.addErrorMessage(
-                                    GROUP_MESSAGE,
-                                    new Message(msg)
-                            );
-                            isValid = false;
-                            if (level().equals(RuleLevel.ERROR)) r.setError();
-                        }
-                        break;
-                    case FLOAT:
-                        if (!isFloatDataFormat(value, a.getAllowUnknown(), a.getAllowTBD())) {
-                            String msg = "\"" + a.getColumn() + "\" contains non-float value \"" + value + "\"";
-                            if (a.getAllowUnknown() || a.getAllowTBD()) {
-                                msg += ". Value can also be \"" + String.join("\", \"", acceptableValues) + "\"";
-                            }
-                            messages.addErrorMessage(
-                                    GROUP_MESSAGE,
-                                    new Message(msg)
-                            );
-                            isValid = false;
-                            if (level().equals(RuleLevel.ERROR)) r.setError();
-                        }
-                        break;
-                    case DATE:
-                    case TIME:
-                    case DATETIME:
-                        if (!isDateDataFormat(value, a.getDataType(), a.getDataFormat(), a.getAllowUnknown(), a.getAllowTBD())) {
-                            String msg = "\"" + a.getColumn() + "\" contains invalid date value \"" +
-                                    value + "\". " + "Format must be one of [" + a.getDataFormat() + "]. If this " +
-                                    "is an Excel workbook, the value can also be an Excel DATE cell";
-                            if (a.getAllowUnknown() || a.getAllowTBD()) {
-                                msg += ". Value can also be \"" + String.join("\", \"", acceptableValues) + "\"";
-                            }
-                            messages.addErrorMessage(
-                                    GROUP_MESSAGE,
-                                    new Message(msg)
-                            );
-                            isValid = false;
-                            if (level().equals(RuleLevel.ERROR)) r.setError();
-                        }
-                        break;
-                    case BOOLEAN:
-                        if (!isBooleanDataFormat(value)) {
-                            messages.addErrorMessage(
-                                    GROUP_MESSAGE,
-                                    new Message("\"" + a.getColumn() + "\" contains non-boolean value \"" + value + "\". Must be either true or false")
-                            );
-                            isValid = false;
-                            if (level().equals(RuleLevel.ERROR)) r.setError();
-                        }
-                        break;
-                    default:
-                        break;
-                }
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
+
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
+        List<ColumnValidator> validators = new ArrayList<>();
+
+        for (Attribute a : recordSet.entity().getAttributes()) {
+            switch (a.getDataType()) {
+                case INTEGER:
+                case FLOAT:
+                case DATE:
+                case TIME:
+                case DATETIME:
+                case BOOLEAN:
+                    validators.add(new DataTypeValidator(a, messages));
+                    break;
+                default:
+                    break;
             }
         }
 
         setError();
-        return isValid;
+        return validators;
+    }
+
+    private class DataTypeValidator implements ColumnValidator {
+        private final Attribute a;
+        private final EntityMessages messages;
+        private final List<String> acceptableValues;
+        private String[] dateFormats;
+        private boolean isValid = true;
+
+        private DataTypeValidator(Attribute a, EntityMessages messages) {
+            this.a = a;
+            this.messages = messages;
+
+            acceptableValues = new ArrayList<>();
+            if (a.getAllowUnknown()) {
+                acceptableValues.add("Unknown");
+            }
+            if (a.getAllowTBD()) {
+                acceptableValues.add("to be determined");
+                acceptableValues.add("tbd");
+            }
+        }
+
+        @Override
+        public String uri() {
+            return a.getUri();
+        }
+
+        @Override
+        public void validate(Record r, String value) {
+            if (value.equals("")) {
+                return;
+            }
+
+            switch (a.getDataType()) {
+                case INTEGER:
+                    if (!isIntegerDataFormat(value, a.getAllowUnknown(), a.getAllowTBD())) {
+                        String msg = "\"" + a.getColumn() + "\" contains non-integer value \"" + value + "\"";
+                        addMessage(r, msg);
+                    }
+                    break;
+                case FLOAT:
+                    if (!isFloatDataFormat(value, a.getAllowUnknown(), a.getAllowTBD())) {
+                        String msg = "\"" + a.getColumn() + "\" contains non-float value \"" + value + "\"";
+                        addMessage(r, msg);
+                    }
+                    break;
+                case DATE:
+                case TIME:
+                case DATETIME:
+                    if (dateFormats == null) dateFormats = dateFormats(a.getDataType(), a.getDataFormat());
+
+                    if (!isDateDataFormat(value, dateFormats, a.getAllowUnknown(), a.getAllowTBD())) {
+                        String msg = "\"" + a.getColumn() + "\" contains invalid date value \"" +
+                                value + "\". " + "Format must be one of [" + a.getDataFormat() + "]. If this " +
+                                "is an Excel workbook, the value can also be an Excel DATE cell";
+                        addMessage(r, msg);
+                    }
+                    break;
+                case BOOLEAN:
+                    if (!isBooleanDataFormat(value)) {
+                        messages.addErrorMessage(
+                                GROUP_MESSAGE,
+                                new Message("\"" + a.getColumn() + "\" contains non-boolean value \"" + value + "\". Must be either true or false")
+                        );
+                        isValid = false;
+                        if (level().equals(RuleLevel.ERROR)) r.setError();
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void addMessage(Record r, String msg) {
+            if (a.getAllowUnknown() || a.getAllowTBD()) {
+                msg += ". Value can also be \"" + String.join("\", \"", acceptableValues) + "\"";
+            }
+            messages.addErrorMessage(
+                    GROUP_MESSAGE,
+                    new Message(msg)
+            );
+            isValid = false;
+            if (level().equals(RuleLevel.ERROR)) r.setError();
+        }
+
+        @Override
+        public boolean complete() {
+            return isValid;
+        }
     }
 
     private boolean isIntegerDataFormat(String value, boolean allowUnknown, boolean allowTBD) {
@@ -133,7 +163,7 @@ public class ValidDataTypeFormatRule extends AbstractRule {
         return BOOL_PATTERN.matcher(value).matches();
     }
 
-    private boolean isDateDataFormat(String value, DataType dataType, String dataformat, boolean allowUnknown, boolean allowTBD) {
+    private String[] dateFormats(DataType dataType, String dataformat) {
         // if the Excel cell is a DateCell, then ExcelReader will parse it as joda-time value.
         // therefore we need to add this format
         String jodaFormat;
@@ -148,11 +178,18 @@ public class ValidDataTypeFormatRule extends AbstractRule {
                 jodaFormat = DateUtils.ISO_8061_DATETIME;
                 break;
         }
-        String[] formats = (String[]) ArrayUtils.add(dataformat.split(","), jodaFormat);
+        return (String[]) ArrayUtils.add(dataformat.split(","), jodaFormat);
+    }
 
+    private boolean isDateDataFormat(String value, String[] formats, boolean allowUnknown, boolean allowTBD) {
         return DateUtils.isValidDateFormat(value, formats) || (allowUnknown && Attribute.isUnknownValue(value)) || (allowTBD && Attribute.isTBDValue(value));
     }
 
+    @Override
+    public boolean isPartitionable() {
+        return true;
+    }
+
     @Override
     public String name() {
         return NAME;
@@ -7,6 +7,7 @@ import biocode.fims.validation.messages.Message;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -22,7 +23,7 @@ import java.util.regex.Pattern;
  *
  * @author rjewing
  */
-public class ValidForURIRule extends SingleColumnRule {
+public class ValidForURIRule extends SingleColumnRule implements ColumnRule {
     private static final String NAME = "ValidForURI";
     private static final String GROUP_MESSAGE = "Non-valid URI characters";
 //    private static final Pattern pattern = Pattern.compile("[^ %$&+,\\\\/:;=?@<>#%\\\\]+");
@@ -43,30 +44,43 @@ public class ValidForURIRule extends SingleColumnRule {
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet);
 
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
+
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
         if (!validConfiguration(recordSet, messages)) {
-            return false;
+            return null;
         }
 
         String uri = recordSet.entity().getAttributeUri(column);
         List<String> invalidValues = new ArrayList<>();
 
-        for (Record r: recordSet.recordsToPersist()) {
-
-            String value = r.get(uri);
+        return Collections.singletonList(new ColumnValidator() {
+            @Override
+            public String uri() {
+                return uri;
+            }
 
-            if (!pattern.matcher(value).matches()) {
-                invalidValues.add(value);
-                if (level().equals(RuleLevel.ERROR)) r.setError();
+            @Override
+            public void validate(Record r, String value) {
+                if (!pattern.matcher(value).matches()) {
+                    invalidValues.add(value);
+                    if (level().equals(RuleLevel.ERROR)) r.setError();
+                }
             }
-        }
 
-        if (invalidValues.size() == 0) {
-            return true;
-        }
+            @Override
+            public boolean complete() {
+                if (invalidValues.size() == 0) {
+                    return true;
+                }
 
-        setMessages(invalidValues, messages);
-        setError();
-        return false;
+                setMessages(invalidValues, messages);
+                setError();
+                return false;
+            }
+        });
     }
 
     private void setMessages(List<String> invalidValues, EntityMessages messages) {
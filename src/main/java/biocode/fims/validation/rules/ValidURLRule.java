@@ -8,6 +8,7 @@ import org.apache.commons.validator.routines.UrlValidator;
 import org.springframework.util.Assert;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,7 +16,7 @@ import java.util.List;
  *
  * @author rjewing
  */
-public class ValidURLRule extends SingleColumnRule {
+public class ValidURLRule extends SingleColumnRule implements ColumnRule {
     private static final String NAME = "ValidURL";
     private static final String GROUP_MESSAGE = "Invalid URL";
 
@@ -34,8 +35,13 @@ public class ValidURLRule extends SingleColumnRule {
     public boolean run(RecordSet recordSet, EntityMessages messages) {
         Assert.notNull(recordSet);
 
+        return ColumnRuleEvaluator.run(this, recordSet, messages);
+    }
+
+    @Override
+    public List<ColumnValidator> columnValidators(RecordSet recordSet, EntityMessages messages) {
         if (!validConfiguration(recordSet, messages)) {
-            return false;
+            return null;
         }
 
         String uri = recordSet.entity().getAttributeUri(column);
@@ -44,24 +50,31 @@ public class ValidURLRule extends SingleColumnRule {
         UrlValidator urlValidator = new UrlValidator(schemes);
         List<String> invalidValues = new ArrayList<>();
 
-        for (Record r: recordSet.recordsToPersist()) {
-
-            String value = r.get(uri);
-
-            if (!value.equals("") && !urlValidator.isValid(value)) {
-                invalidValues.add(value);
-                if (level().equals(RuleLevel.ERROR)) r.setError();
+        return Collections.singletonList(new ColumnValidator() {
+            @Override
+            public String uri() {
+                return uri;
             }
 
-        }
+            @Override
+            public void validate(Record r, String value) {
+                if (!value.equals("") && !urlValidator.isValid(value)) {
+                    invalidValues.add(value);
+                    if (level().equals(RuleLevel.ERROR)) r.setError();
+                }
+            }
 
-        if (invalidValues.size() == 0) {
-            return true;
-        }
+            @Override
+            public boolean complete() {
+                if (invalidValues.size() == 0) {
+                    return true;
+                }
 
-        setMessages(invalidValues, messages);
-        setError();
-        return false;
+                setMessages(invalidValues, messages);
+                setError();
+                return false;
+            }
+        });
     }
 
     private void setMessages(List<String> invalidValues, EntityMessages messages) {
@@ -74,6 +87,11 @@ public class ValidURLRule extends SingleColumnRule {
         }
     }
 
+    @Override
+    public boolean isPartitionable() {
+        return true;
+    }
+
     @Override
     public String name() {
         return NAME;
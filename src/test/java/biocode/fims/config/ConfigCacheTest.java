@@ -0,0 +1,70 @@
+package biocode.fims.config;
+
+import biocode.fims.config.network.NetworkConfig;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class ConfigCacheTest {
+
+    @Test
+    public void should_return_cached_config_for_same_version() {
+        ConfigCache<NetworkConfig> cache = new ConfigCache<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        NetworkConfig c1 = cache.get(1, "v1", () -> load(loads));
+        NetworkConfig c2 = cache.get(1, "v1", () -> load(loads));
+
+        assertSame(c1, c2);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_reload_config_if_version_changed() {
+        ConfigCache<NetworkConfig> cache = new ConfigCache<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        NetworkConfig c1 = cache.get(1, "v1", () -> load(loads));
+        NetworkConfig c2 = cache.get(1, "v2", () -> load(loads));
+
+        assertNotSame(c1, c2);
+        assertSame(c2, cache.get(1, "v2", () -> load(loads)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void should_reload_config_after_invalidate() {
+        ConfigCache<NetworkConfig> cache = new ConfigCache<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        NetworkConfig c1 = cache.get(1, "v1", () -> load(loads));
+        NetworkConfig other = cache.get(2, "v1", () -> load(loads));
+        cache.invalidate(1);
+
+        assertNotSame(c1, cache.get(1, "v1", () -> load(loads)));
+        assertSame(other, cache.get(2, "v1", () -> load(loads)));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void should_not_cache_config_without_version() {
+        ConfigCache<NetworkConfig> cache = new ConfigCache<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        NetworkConfig c1 = cache.get(1, null, () -> load(loads));
+        NetworkConfig c2 = cache.get(1, null, () -> load(loads));
+
+        assertNotSame(c1, c2);
+        assertEquals(2, loads.get());
+    }
+
+    private NetworkConfig load(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new NetworkConfig();
+    }
+}
@@ -0,0 +1,64 @@
+package biocode.fims.config.models;
+
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class DefaultEntityTest {
+
+    @Test
+    public void should_lookup_attributes_by_column_and_uri() {
+        DefaultEntity entity = entity();
+
+        assertEquals("urn:col1", entity.getAttributeUri("col1"));
+        assertEquals("col2", entity.getAttributeColumn("urn:col2"));
+        assertEquals("urn:col1", entity.getUniqueKeyURI());
+        assertNull(entity.getAttributeUri("unknown"));
+        assertNull(entity.getAttributeColumn("urn:unknown"));
+        assertNull(entity.getAttributeUri(null));
+    }
+
+    @Test
+    public void should_return_first_attribute_for_duplicate_column() {
+        DefaultEntity entity = entity();
+        entity.addAttribute(new Attribute("col1", "urn:duplicate"));
+
+        assertEquals("urn:col1", entity.getAttributeUri("col1"));
+    }
+
+    @Test
+    public void should_update_lookups_when_attributes_are_modified() {
+        DefaultEntity entity = entity();
+        assertNull(entity.getAttributeUri("col3"));
+
+        entity.addAttribute(new Attribute("col3", "urn:col3"));
+        assertEquals("urn:col3", entity.getAttributeUri("col3"));
+
+        entity.getAttribute("col2").setColumn("renamed");
+        assertNull(entity.getAttributeUri("col2"));
+        assertEquals("urn:col2", entity.getAttributeUri("renamed"));
+
+        entity.getAttributes().set(0, new Attribute("col1", "urn:replaced"));
+        assertEquals("urn:replaced", entity.getAttributeUri("col1"));
+
+        entity.getAttributes().clear();
+        assertNull(entity.getAttributeUri("col1"));
+    }
+
+    @Test(expected = FimsRuntimeException.class)
+    public void should_throw_exception_for_missing_attribute() {
+        entity().getAttributeByUri("urn:unknown");
+    }
+
+    private DefaultEntity entity() {
+        DefaultEntity entity = new DefaultEntity("sample", "urn:sample");
+        entity.addAttribute(new Attribute("col1", "urn:col1"));
+        entity.addAttribute(new Attribute("col2", "urn:col2"));
+        entity.setUniqueKey("col1");
+        return entity;
+    }
+}
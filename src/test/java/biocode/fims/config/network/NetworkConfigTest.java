@@ -235,6 +235,42 @@ public class NetworkConfigTest {
         assertEquals(Collections.singletonList("Invalid Attribute uri \"null\" found in entity \"parent\". Uri must only contain alpha-numeric or _:/ characters."), config.errors());
     }
 
+    @Test
+    public void should_update_entity_lookups_when_entities_are_modified() {
+        config.addEntity(parent());
+        Entity parent = config.entity("parent");
+        assertEquals("parent", parent.getConceptAlias());
+        assertNull(config.entity("child"));
+
+        config.addEntity(child());
+        Entity child = config.entity("child");
+        assertEquals("child", child.getConceptAlias());
+        assertEquals(Collections.singletonList(parent), config.parentEntities("child"));
+
+        assertTrue(config.entitiesForSheet("sheet").isEmpty());
+        child.setWorksheet("sheet");
+        assertEquals(Collections.singletonList(child), config.entitiesForSheet("sheet"));
+
+        config.entities().remove(parent);
+        assertNull(config.entity("parent"));
+    }
+
+    @Test
+    public void should_return_same_entity_relations_for_config_entities() {
+        config.addEntity(parent());
+        config.addEntity(child());
+        Entity parent = config.entity("parent");
+        Entity child = config.entity("child");
+
+        List<EntityRelation> relations = config.getEntityRelations(child, parent);
+
+        assertEquals(Collections.singletonList(new EntityRelation(parent, child)), relations);
+        assertSame(relations, config.getEntityRelations(child, parent));
+
+        config.addEntity(grandChild());
+        assertNotSame(relations, config.getEntityRelations(child, parent));
+    }
+
     private Entity parent() {
         return new DefaultEntity("parent", "someURI");
     }
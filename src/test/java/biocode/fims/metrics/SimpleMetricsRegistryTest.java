@@ -0,0 +1,79 @@
+package biocode.fims.metrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SimpleMetricsRegistry} & {@link Metrics}
+ */
+public class SimpleMetricsRegistryTest {
+
+    @After
+    public void tearDown() {
+        Metrics.setRegistry(new NoopMetricsRegistry());
+    }
+
+    @Test
+    public void should_record_timer_count_total_and_max_per_tags() {
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+        registry.record("validation.rule", TimeUnit.MILLISECONDS.toNanos(1), "rule", "RequiredValue");
+        registry.record("validation.rule", TimeUnit.MILLISECONDS.toNanos(3), "rule", "RequiredValue");
+        registry.record("validation.rule", TimeUnit.MILLISECONDS.toNanos(5), "rule", "UniqueValue");
+
+        List<MetricSnapshot> snapshot = registry.snapshot();
+        assertEquals(2, snapshot.size());
+
+        MetricSnapshot s = snapshot.get(0);
+        assertEquals("validation.rule", s.getName());
+        assertEquals("RequiredValue", s.getTags().get("rule"));
+        assertEquals(MetricSnapshot.Type.TIMER, s.getType());
+        assertEquals(2, s.getCount());
+        assertEquals(4.0, s.getTotalMs(), 0);
+        assertEquals(3.0, s.getMaxMs(), 0);
+        assertEquals(2.0, s.getMeanMs(), 0);
+    }
+
+    @Test
+    public void should_increment_counters() {
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+
+        registry.increment("auth.accessTokenCache", 1, "result", "hit");
+        registry.increment("auth.accessTokenCache", 2, "result", "hit");
+
+        MetricSnapshot s = registry.snapshot().get(0);
+        assertEquals(MetricSnapshot.Type.COUNTER, s.getType());
+        assertEquals(3, s.getCount());
+        assertNull(s.getTotalMs());
+
+        registry.clear();
+        assertTrue(registry.snapshot().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_exception_for_unpaired_tags() {
+        new SimpleMetricsRegistry().increment("counter", 1, "tag");
+    }
+
+    @Test
+    public void should_record_to_global_registry() {
+        SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+        Metrics.setRegistry(registry);
+
+        assertEquals("result", Metrics.time("query.build", () -> "result"));
+
+        Metrics.time("query.build", () -> {
+        });
+
+        Metrics.Stopwatch stopwatch = Metrics.start("query.build");
+        stopwatch.stop();
+        stopwatch.stop();
+
+        assertEquals(3, registry.snapshot().get(0).getCount());
+    }
+}
@@ -0,0 +1,31 @@
+package biocode.fims.query;
+
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * @author rjewing
+ */
+public class ContinuationTokenTest {
+
+    @Test
+    public void should_decode_encoded_token() {
+        ContinuationToken token = new ContinuationToken("sample:1/ä", 12);
+
+        assertEquals(token, ContinuationToken.decode(token.encode()));
+    }
+
+    @Test
+    public void should_return_null_for_empty_token() {
+        assertNull(ContinuationToken.decode(null));
+        assertNull(ContinuationToken.decode(""));
+    }
+
+    @Test(expected = FimsRuntimeException.class)
+    public void should_throw_exception_for_invalid_token() {
+        ContinuationToken.decode("not a token");
+    }
+}
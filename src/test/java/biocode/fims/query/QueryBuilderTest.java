@@ -757,6 +757,67 @@ public class QueryBuilderTest {
         assertEquals(expected, queryBuilder.parameterizedQuery(false));
     }
 
+    @Test
+    public void should_write_valid_sql_for_first_keyset_page() {
+        QueryBuilder queryBuilder = new QueryBuilder(config(), 1, "event", null, 10);
+        queryBuilder.visit(new AllExpression());
+
+        String expectedSql = "SELECT event.data AS \"event_data\", event_entity_identifiers.identifier AS \"event_rootIdentifier\", expeditions.expedition_code AS \"expeditionCode\", expeditions.project_id AS \"projectId\", " +
+                "event.local_identifier AS \"localIdentifier\", event.expedition_id AS \"expeditionId\" FROM network_1.event AS event " +
+                "LEFT JOIN entity_identifiers AS event_entity_identifiers ON event_entity_identifiers.expedition_id = event.expedition_id and event_entity_identifiers.concept_alias = 'event' " +
+                "ORDER BY event.local_identifier, event.expedition_id LIMIT 10";
+
+        Map<String, String> params = new HashMap<>();
+        ParametrizedQuery expected = new ParametrizedQuery(expectedSql, params);
+        assertEquals(expected, queryBuilder.parameterizedQuery(false));
+    }
+
+    @Test
+    public void should_write_valid_sql_for_keyset_page_with_continuation_token() {
+        QueryBuilder queryBuilder = new QueryBuilder(config(), 1, "event", new ContinuationToken("event1", 2), 10);
+        queryBuilder.visit(new ExpeditionExpression("TEST"));
+
+        String expectedSql = "SELECT event.data AS \"event_data\", event_entity_identifiers.identifier AS \"event_rootIdentifier\", expeditions.expedition_code AS \"expeditionCode\", expeditions.project_id AS \"projectId\", " +
+                "event.local_identifier AS \"localIdentifier\", event.expedition_id AS \"expeditionId\" FROM network_1.event AS event " +
+                "JOIN expeditions ON expeditions.id = event.expedition_id " +
+                "LEFT JOIN entity_identifiers AS event_entity_identifiers ON event_entity_identifiers.expedition_id = event.expedition_id and event_entity_identifiers.concept_alias = 'event' " +
+                "WHERE (expeditions.expedition_code = :1) AND (event.local_identifier, event.expedition_id) > (:keysetLocalIdentifier, :keysetExpeditionId) " +
+                "ORDER BY event.local_identifier, event.expedition_id LIMIT 10";
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("1", "TEST");
+        params.put("keysetLocalIdentifier", "event1");
+        params.put("keysetExpeditionId", 2);
+        ParametrizedQuery expected = new ParametrizedQuery(expectedSql, params);
+        assertEquals(expected, queryBuilder.parameterizedQuery(false));
+    }
+
+    @Test
+    public void should_write_valid_sql_for_keyset_page_with_child_entity_select() {
+        QueryBuilder queryBuilder = new QueryBuilder(config(), 1, "event", new ContinuationToken("event1", 2), 10);
+        queryBuilder.visit(new SelectExpression("sample", new ExpeditionExpression("TEST")));
+
+        String joins = "JOIN expeditions ON expeditions.id = event.expedition_id " +
+                "LEFT JOIN network_1.sample AS sample ON sample.parent_identifier = event.local_identifier and sample.expedition_id = event.expedition_id " +
+                "LEFT JOIN entity_identifiers AS event_entity_identifiers ON event_entity_identifiers.expedition_id = event.expedition_id and event_entity_identifiers.concept_alias = 'event' " +
+                "LEFT JOIN entity_identifiers AS sample_entity_identifiers ON sample_entity_identifiers.expedition_id = sample.expedition_id and sample_entity_identifiers.concept_alias = 'sample' ";
+        String where = "WHERE (expeditions.expedition_code = :1) AND (event.local_identifier, event.expedition_id) > (:keysetLocalIdentifier, :keysetExpeditionId) " +
+                "ORDER BY event.local_identifier, event.expedition_id";
+
+        String expectedSql = "SELECT event.data AS \"event_data\", event_entity_identifiers.identifier AS \"event_rootIdentifier\", expeditions.expedition_code AS \"expeditionCode\", expeditions.project_id AS \"projectId\", " +
+                "event.local_identifier AS \"localIdentifier\", event.expedition_id AS \"expeditionId\", sample.data AS \"sample_data\", sample_entity_identifiers.identifier AS \"sample_rootIdentifier\" FROM network_1.event AS event " +
+                "JOIN (SELECT DISTINCT event.local_identifier, event.expedition_id FROM network_1.event AS event " + joins + where + " LIMIT 10) AS keyset_page " +
+                "ON event.local_identifier = keyset_page.local_identifier and event.expedition_id = keyset_page.expedition_id " +
+                joins + where;
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("1", "TEST");
+        params.put("keysetLocalIdentifier", "event1");
+        params.put("keysetExpeditionId", 2);
+        ParametrizedQuery expected = new ParametrizedQuery(expectedSql, params);
+        assertEquals(expected, queryBuilder.parameterizedQuery(false));
+    }
+
     @Test
     public void should_write_valid_sql_for_group_expression() {
         QueryBuilder queryBuilder = queryBuilder("event");
@@ -0,0 +1,111 @@
+package biocode.fims.query.dsl;
+
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.network.NetworkConfig;
+import biocode.fims.models.Network;
+import biocode.fims.query.ContinuationToken;
+import biocode.fims.query.ParametrizedQuery;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class QueryCacheTest {
+
+    @Before
+    public void setUp() {
+        QueryCache.clear();
+    }
+
+    @Test
+    public void should_reuse_parsed_expression() {
+        Expression e1 = QueryCache.expression("value1");
+        Expression e2 = QueryCache.expression("value1");
+
+        assertSame(e1, e2);
+        assertEquals(new FTSExpression(null, "value1"), e1);
+    }
+
+    @Test
+    public void should_parse_different_queries_on_same_thread() {
+        assertEquals(new FTSExpression(null, "value1"), QueryCache.expression("value1"));
+        assertEquals(new FTSExpression(null, "value2"), QueryCache.expression("value2"));
+        assertEquals(new FTSExpression("foo", "bar"), QueryCache.expression("foo:bar"));
+        assertEquals(new LikeExpression("foo", "%some phrase%"), QueryCache.expression("foo:\"some phrase\""));
+        assertEquals(new ComparisonExpression("col1", "value3", ComparisonOperator.EQUALS), QueryCache.expression("col1 = value3"));
+    }
+
+    @Test
+    public void should_reuse_sql_for_same_query() {
+        Network network = network();
+
+        ParametrizedQuery q1 = Query.build(network, "event", "value1", 0, 10).parameterizedQuery();
+        ParametrizedQuery q2 = Query.build(network, "event", "value1", 0, 10).parameterizedQuery();
+
+        assertSame(q1, q2);
+        assertEquals(1, QueryCache.size());
+    }
+
+    @Test
+    public void should_not_reuse_sql_for_different_page_or_config() {
+        Network network = network();
+
+        ParametrizedQuery q1 = Query.build(network, "event", "value1", 0, 10).parameterizedQuery();
+        ParametrizedQuery q2 = Query.build(network, "event", "value1", 1, 10).parameterizedQuery();
+        ParametrizedQuery q3 = Query.build(network(), "event", "value1", 0, 10).parameterizedQuery();
+
+        assertNotSame(q1, q2);
+        assertFalse(q1.sql().equals(q2.sql()));
+        assertNotSame(q1, q3);
+        assertEquals(q1, q3);
+    }
+
+    @Test
+    public void should_reuse_sql_for_keyset_pages_and_bind_continuation_token() {
+        Network network = network();
+        String token1 = new ContinuationToken("event1", 1).encode();
+        String token2 = new ContinuationToken("event2", 3).encode();
+
+        ParametrizedQuery first = Query.buildKeyset(network, "event", "value1", null, 10).parameterizedQuery();
+        ParametrizedQuery q1 = Query.buildKeyset(network, "event", "value1", token1, 10).parameterizedQuery();
+        ParametrizedQuery q2 = Query.buildKeyset(network, "event", "value1", token2, 10).parameterizedQuery();
+
+        assertEquals(2, QueryCache.size());
+        assertFalse(first.sql().equals(q1.sql()));
+        assertSame(q1.sql(), q2.sql());
+        assertFalse(q1.sql().contains("event1"));
+        assertEquals("event1", q1.params().get(ContinuationToken.LOCAL_IDENTIFIER_PARAM));
+        assertEquals(1, q1.params().get(ContinuationToken.EXPEDITION_ID_PARAM));
+        assertEquals("event2", q2.params().get(ContinuationToken.LOCAL_IDENTIFIER_PARAM));
+        assertEquals(3, q2.params().get(ContinuationToken.EXPEDITION_ID_PARAM));
+    }
+
+    @Test
+    public void should_not_modify_cached_expression_when_restricting_projects() {
+        Network network = network();
+
+        Query query = Query.build(network, "event", "value1", 0, 10);
+        query.restrictToProjects(Collections.singletonList(1));
+        ParametrizedQuery restricted = query.parameterizedQuery();
+
+        ParametrizedQuery unrestricted = Query.build(network, "event", "value1", 0, 10).parameterizedQuery();
+
+        assertEquals(new FTSExpression(null, "value1"), QueryCache.expression("value1"));
+        assertFalse(restricted.sql().equals(unrestricted.sql()));
+        assertFalse(unrestricted.params().containsValue(1));
+    }
+
+    private Network network() {
+        NetworkConfig config = new NetworkConfig();
+        config.addEntity(new DefaultEntity("event", "someURI"));
+
+        Network network = new Network("test", config);
+        network.setId(1);
+        return network;
+    }
+}
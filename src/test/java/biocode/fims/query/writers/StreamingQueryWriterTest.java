@@ -0,0 +1,228 @@
+package biocode.fims.query.writers;
+
+import biocode.fims.config.models.Attribute;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.models.Entity;
+import biocode.fims.config.network.NetworkConfig;
+import biocode.fims.models.Network;
+import biocode.fims.query.QueryResult;
+import biocode.fims.query.QueryResults;
+import biocode.fims.query.StreamingQueryResult;
+import biocode.fims.query.dsl.Query;
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.Record;
+import biocode.fims.repositories.TestRecordRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the {@link StreamingQueryResult} writers produce the same output as the {@link QueryResults} writers
+ *
+ * @author rjewing
+ */
+public class StreamingQueryWriterTest {
+    private static final String PREFIX = "https://n2t.net/";
+
+    private NetworkConfig config;
+    private Query query;
+    private LinkedList<Record> records;
+    private LinkedList<Record> eventRecords;
+    private List<File> files;
+
+    @Before
+    public void setUp() {
+        config = new NetworkConfig();
+        config.addEntity(event("Events"));
+        config.addEntity(sample());
+
+        Network network = new Network("test", config);
+        network.setId(1);
+
+        query = Query.build(network, "sample", "*", null, null);
+
+        records = new LinkedList<>();
+        records.add(sampleRecord("1", "event1", "has, comma", "45.5", "-122.1"));
+        records.add(sampleRecord("2", "event1", "has \"quotes\"\nand newline", "", "-122.2"));
+        records.add(sampleRecord("3", "event2", "<xml> & unicode é", "46.1", "-123"));
+        records.add(sampleRecord("4", "event2", "", "", ""));
+
+        eventRecords = new LinkedList<>();
+        eventRecords.add(eventRecord("event1", "Oregon"));
+        eventRecords.add(eventRecord("event2", "California"));
+
+        files = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        files.forEach(File::delete);
+    }
+
+    @Test
+    public void streaming_delimited_text_should_match_query_results() throws IOException {
+        for (String delimiter : Arrays.asList(",", "\t")) {
+            File expected = single(new DelimitedTextQueryWriter(queryResults(), delimiter, config).write());
+            File actual = single(new DelimitedTextQueryWriter(streamingQueryResult(), delimiter, config).write());
+
+            assertEquals(expected.getName().replaceAll("\\..*", ""), actual.getName().replaceAll("\\..*", ""));
+            assertEquals(read(expected), read(actual));
+        }
+    }
+
+    @Test
+    public void delimited_text_should_include_parent_values_when_parent_shares_worksheet() throws IOException {
+        config = new NetworkConfig();
+        config.addEntity(event("Samples"));
+        config.addEntity(sample());
+
+        assertFalse(WriterSheetGenerator.canStream(streamingQueryResult(), config));
+
+        File expected = single(new DelimitedTextQueryWriter(queryResultsWithEvents(), ",", config).write());
+        File actual = single(new DelimitedTextQueryWriter(streamingQueryResult(), ",", config).write());
+
+        String text = read(actual);
+        assertEquals(read(expected), text);
+        assertTrue(text.startsWith("eventId,locality,sampleId,"));
+        assertTrue(text.contains("\nevent1,Oregon,1,"));
+        assertTrue(text.contains("\nevent1,Oregon,2,"));
+        assertTrue(text.contains("\nevent2,California,3,"));
+        assertTrue(text.contains("\nevent2,California,4,"));
+    }
+
+    @Test
+    public void streaming_kml_should_match_query_results() throws IOException {
+        File expected = single(
+                new KmlQueryWriter.Builder(queryResults().getResult("sample"))
+                        .latColumn("decimalLatitude")
+                        .lngColumn("decimalLongitude")
+                        .nameColumn("sampleId")
+                        .build()
+                        .write()
+        );
+        File actual = single(
+                new KmlQueryWriter.Builder(streamingQueryResult())
+                        .latColumn("decimalLatitude")
+                        .lngColumn("decimalLongitude")
+                        .nameColumn("sampleId")
+                        .build()
+                        .write()
+        );
+
+        assertEquals(read(expected), read(actual));
+        assertEquals(3, read(actual).split("<Placemark>", -1).length - 1);
+    }
+
+    /**
+     * both {@link ExcelQueryWriter} constructors pass the generated {@link WriterWorksheet}s to
+     * {@link biocode.fims.run.ExcelWorkbookWriter#write(List)}, so we compare the generated worksheets
+     */
+    @Test
+    public void streaming_excel_worksheet_should_match_query_results() {
+        assertTrue(WriterSheetGenerator.canStream(streamingQueryResult(), config));
+
+        List<WriterWorksheet> expected = new WriterSheetGenerator(queryResults(), config).recordsToWriterSheets();
+        WriterWorksheet actual = WriterSheetGenerator.streamingWriterSheet(streamingQueryResult(), config);
+
+        assertEquals(1, expected.size());
+        assertEquals(expected.get(0).sheetName, actual.sheetName);
+        assertEquals(expected.get(0).columns, actual.columns);
+        assertEquals(rows(expected.get(0)), rows(actual));
+        assertTrue(actual.data.isEmpty());
+    }
+
+    private QueryResults queryResults() {
+        Entity sample = config.entity("sample");
+        Entity event = config.entity("event");
+        return new QueryResults(Collections.singletonList(new QueryResult(new LinkedList<>(records), sample, event, PREFIX)));
+    }
+
+    private QueryResults queryResultsWithEvents() {
+        Entity sample = config.entity("sample");
+        Entity event = config.entity("event");
+        return new QueryResults(Arrays.asList(
+                new QueryResult(new LinkedList<>(records), sample, event, PREFIX),
+                new QueryResult(new LinkedList<>(eventRecords), event, PREFIX)
+        ));
+    }
+
+    private StreamingQueryResult streamingQueryResult() {
+        return new StreamingQueryResult(query, new TestRecordRepository() {
+            @Override
+            public void query(Query query, Consumer<Record> consumer) {
+                records.forEach(consumer);
+            }
+
+            @Override
+            public QueryResults query(Query query) {
+                return queryResultsWithEvents();
+            }
+        }, PREFIX);
+    }
+
+    private File single(List<File> written) {
+        assertEquals(1, written.size());
+        files.addAll(written);
+        return written.get(0);
+    }
+
+    private String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private List<Map<String, Object>> rows(WriterWorksheet worksheet) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        int count = worksheet.forEachRow(rows::add);
+
+        assertEquals(records.size(), count);
+        return rows;
+    }
+
+    private Record sampleRecord(String sampleId, String eventId, String notes, String lat, String lng) {
+        Record r = new GenericRecord(new HashMap<>(), "ark:/99999/s2", 1, "exp1", true);
+        r.set("urn:sampleId", sampleId);
+        r.set("urn:eventId", eventId);
+        r.set("urn:notes", notes);
+        r.set("urn:decimalLatitude", lat);
+        r.set("urn:decimalLongitude", lng);
+        return r;
+    }
+
+    private Record eventRecord(String eventId, String locality) {
+        Record r = new GenericRecord(new HashMap<>(), "ark:/99999/e2", 1, "exp1", true);
+        r.set("urn:eventId", eventId);
+        r.set("urn:locality", locality);
+        return r;
+    }
+
+    private Entity event(String worksheet) {
+        Entity e = new DefaultEntity("event", "someURI");
+        e.setWorksheet(worksheet);
+        e.setUniqueKey("eventId");
+        e.addAttribute(new Attribute("eventId", "urn:eventId"));
+        e.addAttribute(new Attribute("locality", "urn:locality"));
+        return e;
+    }
+
+    private Entity sample() {
+        Entity e = new DefaultEntity("sample", "someURI");
+        e.setWorksheet("Samples");
+        e.setParentEntity("event");
+        e.setUniqueKey("sampleId");
+        e.addAttribute(new Attribute("sampleId", "urn:sampleId"));
+        e.addAttribute(new Attribute("eventId", "urn:eventId"));
+        e.addAttribute(new Attribute("notes", "urn:notes"));
+        e.addAttribute(new Attribute("decimalLatitude", "urn:decimalLatitude"));
+        e.addAttribute(new Attribute("decimalLongitude", "urn:decimalLongitude"));
+        return e;
+    }
+}
@@ -0,0 +1,188 @@
+package biocode.fims.reader.plugins;
+
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.Before;
+import org.junit.Test;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class XlsxSheetHandlerTest {
+    private SharedStringsTable sharedStrings;
+    private StylesTable styles;
+    private int dateStyle;
+    private int dateTimeStyle;
+    private int timeStyle;
+    private int decimalStyle;
+
+    @Before
+    public void setUp() {
+        sharedStrings = new SharedStringsTable();
+        sharedStrings.addSharedStringItem(new XSSFRichTextString("  shared  "));
+        sharedStrings.addSharedStringItem(new XSSFRichTextString("second"));
+
+        styles = new StylesTable();
+        dateStyle = style(14); // m/d/yy
+        dateTimeStyle = style(22); // m/d/yy h:mm
+        timeStyle = style(20); // h:mm
+        decimalStyle = style(2); // 0.00
+    }
+
+    @Test
+    public void should_read_shared_strings() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c></row>"
+        );
+
+        assertArrayEquals(new String[]{"shared", "second"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_inline_strings_without_phonetic_runs() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\">" +
+                        "<c r=\"A1\" t=\"inlineStr\"><is><t> inline </t></is></c>" +
+                        "<c r=\"B1\" t=\"inlineStr\"><is><r><t>rich</t></r><r><t> text</t></r><rPh sb=\"0\" eb=\"1\"><t>phonetic</t></rPh></is></c>" +
+                        "</row>"
+        );
+
+        assertArrayEquals(new String[]{"inline", "rich text"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_booleans() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\"><c r=\"A1\" t=\"b\"><v>1</v></c><c r=\"B1\" t=\"b\"><v>0</v></c></row>"
+        );
+
+        assertArrayEquals(new String[]{"true", "false"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_numbers_as_raw_values() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\">" +
+                        "<c r=\"A1\"><v>1</v></c>" +
+                        "<c r=\"B1\" t=\"n\"><v>1.5</v></c>" +
+                        "<c r=\"C1\" s=\"" + decimalStyle + "\"><v>3</v></c>" +
+                        "<c r=\"D1\"><v>-0.25</v></c>" +
+                        "</row>"
+        );
+
+        assertArrayEquals(new String[]{"1", "1.5", "3", "-0.25"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_dates_times_and_datetimes() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\">" +
+                        "<c r=\"A1\" s=\"" + dateStyle + "\"><v>43101</v></c>" +
+                        "<c r=\"B1\" s=\"" + dateTimeStyle + "\"><v>43101.5</v></c>" +
+                        "<c r=\"C1\" s=\"" + timeStyle + "\"><v>0.75</v></c>" +
+                        "</row>"
+        );
+
+        assertArrayEquals(new String[]{"2018-01-01", "2018-01-01T12:00:00.000", "18:00:00.000"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_dates_with_1904_date_system() throws Exception {
+        List<String[]> rows = parse(
+                true,
+                "<row r=\"1\"><c r=\"A1\" s=\"" + dateStyle + "\"><v>41639</v></c></row>"
+        );
+
+        assertArrayEquals(new String[]{"2018-01-01"}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_cached_formula_results() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\">" +
+                        "<c r=\"A1\"><f>1+2</f><v>3</v></c>" +
+                        "<c r=\"B1\" s=\"" + decimalStyle + "\"><f>1+2</f><v>3</v></c>" +
+                        "<c r=\"C1\" t=\"str\"><f>\"a\"&amp;\"b\"</f><v>ab</v></c>" +
+                        "<c r=\"D1\" t=\"b\"><f>TRUE()</f><v>1</v></c>" +
+                        "<c r=\"E1\" t=\"e\"><f>1/0</f><v>#DIV/0!</v></c>" +
+                        "<c r=\"F1\" t=\"str\"><f>\"\"</f><v></v></c>" +
+                        "</row>"
+        );
+
+        assertArrayEquals(new String[]{"3", "3.00", "ab", "TRUE", "#DIV/0!", ""}, rows.get(0));
+    }
+
+    @Test
+    public void should_read_cached_numeric_formula_results_without_styles_table() throws Exception {
+        styles = null;
+
+        List<String[]> rows = parse(
+                "<row r=\"1\">" +
+                        "<c r=\"A1\"><v>3</v></c>" +
+                        "<c r=\"B1\"><f>1+2</f><v>3</v></c>" +
+                        "<c r=\"C1\"><f>3/2</f><v>1.5</v></c>" +
+                        "</row>"
+        );
+
+        assertArrayEquals(new String[]{"3", "3", "1.5"}, rows.get(0));
+    }
+
+    @Test
+    public void should_throw_exception_for_formula_without_cached_result() throws Exception {
+        try {
+            parse("<row r=\"1\"><c r=\"A1\"><v>1</v></c><c r=\"B1\"><f>A1+1</f></c></row>");
+            fail();
+        } catch (XlsxSheetHandler.UncachedFormulaException e) {
+            assertTrue(e.getMessage().contains("B1"));
+        }
+    }
+
+    @Test
+    public void should_return_null_for_missing_and_blank_cells() throws Exception {
+        List<String[]> rows = parse(
+                "<row r=\"1\"><c r=\"B1\" t=\"s\"><v>1</v></c><c r=\"C1\" s=\"" + decimalStyle + "\"/><c r=\"E1\"><v>5</v></c></row>" +
+                        "<row r=\"2\"><c t=\"s\"><v>1</v></c><c><v>2</v></c></row>" +
+                        "<row r=\"3\"/>"
+        );
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{null, "second", null, null, "5"}, rows.get(0));
+        assertArrayEquals(new String[]{"second", "2"}, rows.get(1));
+        assertArrayEquals(new String[]{}, rows.get(2));
+    }
+
+    private int style(int dataFormat) {
+        XSSFCellStyle style = styles.createCellStyle();
+        style.setDataFormat(dataFormat);
+        return style.getIndex();
+    }
+
+    private List<String[]> parse(String sheetData) throws Exception {
+        return parse(false, sheetData);
+    }
+
+    private List<String[]> parse(boolean date1904, String sheetData) throws Exception {
+        String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+                sheetData +
+                "</sheetData></worksheet>";
+
+        List<String[]> rows = new ArrayList<>();
+
+        XMLReader parser = SAXHelper.newXMLReader();
+        parser.setContentHandler(new XlsxSheetHandler(sharedStrings, styles, date1904, rows::add));
+        parser.parse(new InputSource(new StringReader(xml)));
+
+        return rows;
+    }
+}
@@ -0,0 +1,126 @@
+package biocode.fims.records;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class ColumnarRecordTest {
+
+    @Test
+    public void should_return_empty_string_if_property_doesnt_exist() {
+        ColumnarRecord record = new ColumnarRecord();
+
+        assertEquals("", record.get("non_existant_property"));
+        assertEquals("", record.getAsObject("non_existant_property"));
+        assertFalse(record.has("non_existant_property"));
+    }
+
+    @Test
+    public void should_return_trimmed_property_if_property_exists() {
+        ColumnarRecord record = new ColumnarRecord();
+        record.set("property1", " test_value ");
+
+        assertTrue(record.has("property1"));
+        assertEquals("test_value", record.get("property1"));
+        assertEquals(" test_value ", record.getAsObject("property1"));
+    }
+
+    @Test
+    public void should_store_records_in_shared_store() {
+        ColumnarRecordStore store = new ColumnarRecordStore();
+        Record r1 = store.newRecord();
+        Record r2 = store.newRecord();
+
+        r1.set("property1", "value1");
+        r2.set("property2", "value2");
+
+        assertEquals(2, store.size());
+        assertEquals(2, store.slots());
+        assertEquals("value1", r1.get("property1"));
+        assertFalse(r1.has("property2"));
+        assertFalse(r2.has("property1"));
+        assertEquals("value2", r2.get("property2"));
+    }
+
+    @Test
+    public void should_return_same_properties_as_generic_record() {
+        ColumnarRecord record = new ColumnarRecord();
+        GenericRecord genericRecord = new GenericRecord();
+
+        for (Record r : new Record[]{record, genericRecord}) {
+            r.set("property1", "value1");
+            r.set("property2", 2);
+            r.set("property3", null);
+        }
+
+        assertEquals(genericRecord.properties(), record.properties());
+        assertEquals(genericRecord.hashCode(), record.hashCode());
+        assertTrue(record.has("property3"));
+        assertEquals("null", record.get("property3"));
+    }
+
+    @Test
+    public void should_convert_high_cardinality_column_from_dictionary_encoding() {
+        ColumnarRecordStore store = new ColumnarRecordStore();
+        Map<Record, String> values = new HashMap<>();
+
+        for (int i = 0; i < ColumnarRecordStore.MAX_DICTIONARY_SIZE * 2; i++) {
+            Record r = store.newRecord();
+            r.set("id", String.valueOf(i));
+            r.set("type", i % 2 == 0 ? "even" : "odd");
+            values.put(r, String.valueOf(i));
+        }
+
+        assertEquals(1, store.dictionaryEncodedColumns());
+        for (Map.Entry<Record, String> e : values.entrySet()) {
+            assertEquals(e.getValue(), e.getKey().get("id"));
+        }
+    }
+
+    @Test
+    public void should_be_equal_if_properties_are_equal() {
+        ColumnarRecordStore store = new ColumnarRecordStore();
+        Record r1 = store.newRecord();
+        Record r2 = store.newRecord();
+        Record r3 = new ColumnarRecord();
+
+        for (Record r : new Record[]{r1, r2, r3}) {
+            r.set("property1", "value1");
+            r.setExpeditionCode("exp");
+        }
+
+        Set<Record> set = new HashSet<>();
+        set.add(r1);
+        set.add(r2);
+        set.add(r3);
+        assertEquals(1, set.size());
+
+        r2.set("property2", "value2");
+        assertFalse(r1.equals(r2));
+    }
+
+    @Test
+    public void should_clone_record() {
+        ColumnarRecordStore store = new ColumnarRecordStore();
+        Record record = store.newRecord();
+        record.set("property1", "value1");
+        record.setProjectId(1);
+        record.setError();
+
+        Record clone = record.clone();
+        clone.set("property1", "value2");
+
+        assertEquals("value1", record.get("property1"));
+        assertEquals("value2", clone.get("property1"));
+        assertEquals(1, clone.projectId());
+        assertFalse(clone.persist());
+    }
+}
@@ -0,0 +1,212 @@
+package biocode.fims.repositories;
+
+import biocode.fims.application.config.FimsProperties;
+import biocode.fims.bcid.Bcid;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.ws.rs.client.ClientBuilder;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link BcidRepository} against an in-process stub of the bcid system
+ *
+ * @author rjewing
+ */
+public class BcidRepositoryTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private HttpServer server;
+    private BcidRepository repository;
+
+    private volatile boolean batchSupported = true;
+    private volatile String validToken = "token1";
+    private final AtomicInteger authRequests = new AtomicInteger();
+    private final AtomicInteger batchRequests = new AtomicInteger();
+    private final AtomicInteger mintRequests = new AtomicInteger();
+    private final AtomicInteger activeMintRequests = new AtomicInteger();
+    private final AtomicInteger maxActiveMintRequests = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/oAuth2/token", this::authenticate);
+        server.createContext("/batch", this::mintBatch);
+        server.createContext("/", this::mint);
+        server.start();
+
+        FimsProperties props = mock(FimsProperties.class);
+        when(props.bcidUrl()).thenReturn("http://localhost:" + server.getAddress().getPort());
+        when(props.bcidClientId()).thenReturn("id");
+        when(props.bcidClientSecret()).thenReturn("secret");
+        when(props.bcidMintBatchSize()).thenReturn(3);
+        when(props.bcidMintConcurrency()).thenReturn(2);
+
+        repository = new BcidRepository(ClientBuilder.newClient(), props);
+    }
+
+    @After
+    public void tearDown() {
+        repository.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    public void should_mint_bcids_in_batches() {
+        List<Bcid> minted = repository.create(bcids(7));
+
+        assertIdentifiers(7, minted);
+        assertEquals(3, batchRequests.get());
+        assertEquals(0, mintRequests.get());
+        assertEquals(1, authRequests.get());
+    }
+
+    @Test
+    public void should_mint_bcids_concurrently_if_batch_minting_is_not_supported() {
+        batchSupported = false;
+
+        List<Bcid> minted = repository.create(bcids(10));
+        assertIdentifiers(10, minted);
+        assertEquals(10, mintRequests.get());
+        assertTrue(maxActiveMintRequests.get() <= 2);
+
+        // don't retry the batch endpoint
+        repository.create(bcids(2));
+        assertEquals(1, batchRequests.get());
+        assertEquals(12, mintRequests.get());
+    }
+
+    @Test
+    public void should_refresh_access_token_once_when_unauthorized() {
+        batchSupported = false;
+        repository.create(bcids(1));
+
+        validToken = "token2";
+        List<Bcid> minted = repository.create(bcids(6));
+
+        assertIdentifiers(6, minted);
+        assertEquals(2, authRequests.get());
+    }
+
+    @Test
+    public void should_return_empty_list_without_requests_if_nothing_to_mint() {
+        assertTrue(repository.create(new ArrayList<>()).isEmpty());
+        assertEquals(0, authRequests.get());
+    }
+
+    @Test
+    public void should_shutdown_mint_executor_on_destroy() throws InterruptedException {
+        batchSupported = false;
+        repository.create(bcids(4));
+
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(repository, "mintExecutor");
+        repository.destroy();
+
+        assertTrue(executor.isShutdown());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertNull(ReflectionTestUtils.getField(repository, "mintExecutor"));
+    }
+
+    private List<Bcid> bcids(int count) {
+        List<Bcid> bcids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bcids.add(new Bcid.BcidBuilder("Resource", "publisher")
+                    .creator(null, "creator")
+                    .title(String.valueOf(i))
+                    .build());
+        }
+        return bcids;
+    }
+
+    private void assertIdentifiers(int count, List<Bcid> minted) {
+        assertEquals(count, minted.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("ark:/99999/" + i, minted.get(i).identifier().toString());
+        }
+    }
+
+    private void authenticate(HttpExchange exchange) throws IOException {
+        authRequests.incrementAndGet();
+        ObjectNode token = MAPPER.createObjectNode()
+                .put("access_token", validToken)
+                .put("token_type", "bearer")
+                .put("expires_in", 3600);
+        respond(exchange, 200, token);
+    }
+
+    private void mintBatch(HttpExchange exchange) throws IOException {
+        batchRequests.incrementAndGet();
+        if (!batchSupported) {
+            respond(exchange, 404, null);
+            return;
+        }
+        if (!authorized(exchange)) return;
+
+        ArrayNode bcids = (ArrayNode) MAPPER.readTree(exchange.getRequestBody());
+        bcids.forEach(this::setIdentifier);
+        respond(exchange, 200, bcids);
+    }
+
+    private void mint(HttpExchange exchange) throws IOException {
+        if (!authorized(exchange)) return;
+
+        int active = activeMintRequests.incrementAndGet();
+        maxActiveMintRequests.accumulateAndGet(active, Math::max);
+        try {
+            mintRequests.incrementAndGet();
+            JsonNode bcid = MAPPER.readTree(exchange.getRequestBody());
+            setIdentifier(bcid);
+            Thread.sleep(20);
+            respond(exchange, 200, bcid);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        } finally {
+            activeMintRequests.decrementAndGet();
+        }
+    }
+
+    private boolean authorized(HttpExchange exchange) throws IOException {
+        if (!("Bearer " + validToken).equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 401, null);
+            return false;
+        }
+        return true;
+    }
+
+    private void setIdentifier(JsonNode bcid) {
+        ((ObjectNode) bcid).put("identifier", "ark:/99999/" + bcid.get("title").asText());
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonNode body) throws IOException {
+        byte[] bytes = body == null ? new byte[0] : MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+}
@@ -16,6 +16,7 @@ import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -88,6 +89,11 @@ public class TestRecordRepository implements RecordRepository {
         throw new NotImplementedException();
     }
 
+    @Override
+    public void query(Query query, Consumer<Record> consumer) {
+        throw new NotImplementedException();
+    }
+
     @Override
     public PaginatedResponse<Map<String, List<Map<String, Object>>>> query(Query query, RecordSources sources, boolean includeEmptyProperties, boolean includeBcidPrefix) {
         throw new NotImplementedException();
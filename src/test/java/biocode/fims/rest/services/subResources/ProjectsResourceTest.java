@@ -0,0 +1,69 @@
+package biocode.fims.rest.services.subResources;
+
+import biocode.fims.fimsExceptions.BadRequestException;
+import org.junit.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class ProjectsResourceTest {
+
+    @Test
+    public void should_return_null_page_request_if_not_paged_or_sorted() {
+        assertNull(ProjectsResource.pageRequest(null, null, null));
+        assertNull(ProjectsResource.pageRequest(null, null, "  "));
+    }
+
+    @Test
+    public void should_parse_sort_property_and_direction() {
+        assertEquals(
+                new PageRequest(0, Integer.MAX_VALUE, new Sort(Sort.Direction.DESC, "projectTitle")),
+                ProjectsResource.pageRequest(null, null, " projectTitle , DESC ")
+        );
+        assertEquals(
+                new PageRequest(2, 100, new Sort(Sort.Direction.ASC, "created")),
+                ProjectsResource.pageRequest(2, null, "created")
+        );
+        assertEquals(
+                new PageRequest(0, 10, null),
+                ProjectsResource.pageRequest(null, 10, null)
+        );
+    }
+
+    @Test
+    public void should_throw_bad_request_for_missing_sort_property() {
+        assertBadRequest(",", "A sort property is required");
+        assertBadRequest(",asc", "A sort property is required");
+        assertBadRequest(" ,desc", "A sort property is required");
+    }
+
+    @Test
+    public void should_throw_bad_request_for_invalid_sort_direction() {
+        assertBadRequest("projectTitle,up", "Invalid sort direction: \"up\"");
+        assertBadRequest("projectTitle,", "Invalid sort direction: \"\"");
+    }
+
+    @Test
+    public void should_throw_bad_request_for_too_many_sort_parts() {
+        assertBadRequest("projectTitle,asc,created", "Expected \"property[,direction]\"");
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void should_throw_bad_request_for_invalid_page() {
+        ProjectsResource.pageRequest(-1, 10, null);
+    }
+
+    private void assertBadRequest(String sort, String message) {
+        try {
+            Pageable pageable = ProjectsResource.pageRequest(null, null, sort);
+            fail("expected BadRequestException for sort: \"" + sort + "\" but was: " + pageable);
+        } catch (BadRequestException e) {
+            assertTrue(e.getUsrMessage(), e.getUsrMessage().contains(message));
+        }
+    }
+}
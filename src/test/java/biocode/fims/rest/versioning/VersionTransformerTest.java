@@ -0,0 +1,67 @@
+package biocode.fims.rest.versioning;
+
+import biocode.fims.rest.versioning.transformers.TestResourceTransformer1_0;
+import biocode.fims.rest.versioning.transformers.TestResourceTransformer1_1;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author rjewing
+ */
+public class VersionTransformerTest {
+
+    @Test
+    public void should_resolve_request_chain_in_ascending_and_response_chain_in_descending_order() {
+        VersionTransformer versionTransformer = new VersionTransformer();
+
+        VersionTransformer.TransformerChain chain = versionTransformer.chain(TestResource.class, "get", APIVersion.v1_0);
+
+        assertEquals(Collections.singletonList(TestResourceTransformer1_0.class), chain.request);
+        assertEquals(Arrays.asList(TestResourceTransformer1_1.class, TestResourceTransformer1_0.class), chain.response);
+    }
+
+    @Test
+    public void should_only_include_transformers_for_requested_and_later_versions() {
+        VersionTransformer versionTransformer = new VersionTransformer();
+
+        VersionTransformer.TransformerChain chain = versionTransformer.chain(TestResource.class, "get", APIVersion.v1_1);
+
+        assertEquals(Collections.emptyList(), chain.request);
+        assertEquals(Collections.singletonList(TestResourceTransformer1_1.class), chain.response);
+    }
+
+    @Test
+    public void should_resolve_empty_chain_for_latest_version_and_methods_without_transformations() {
+        VersionTransformer versionTransformer = new VersionTransformer();
+
+        VersionTransformer.TransformerChain chain = versionTransformer.chain(TestResource.class, "get", APIVersion.v2_0);
+        assertEquals(Collections.emptyList(), chain.request);
+        assertEquals(Collections.emptyList(), chain.response);
+
+        chain = versionTransformer.chain(TestResource.class, "list", APIVersion.v1_0);
+        assertEquals(Collections.emptyList(), chain.request);
+        assertEquals(Collections.emptyList(), chain.response);
+
+        chain = versionTransformer.chain(VersionTransformerTest.class, "get", APIVersion.v1_0);
+        assertEquals(Collections.emptyList(), chain.request);
+        assertEquals(Collections.emptyList(), chain.response);
+    }
+
+    @Test
+    public void should_cache_resolved_chains() {
+        VersionTransformer versionTransformer = new VersionTransformer();
+
+        assertSame(
+                versionTransformer.chain(TestResource.class, "list", APIVersion.v1_0),
+                versionTransformer.chain(TestResource.class, "list", APIVersion.v1_0)
+        );
+    }
+
+    private static class TestResource {
+    }
+}
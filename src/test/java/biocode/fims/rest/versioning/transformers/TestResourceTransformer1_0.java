@@ -0,0 +1,17 @@
+package biocode.fims.rest.versioning.transformers;
+
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.LinkedHashMap;
+
+/**
+ * v1.0 -> v1.1 transformer for the VersionTransformerTest.TestResource
+ */
+public class TestResourceTransformer1_0 extends FimsAbstractTransformer {
+
+    public void getRequest(LinkedHashMap<String, Object> argMap, MultivaluedMap<String, String> queryParameters) {
+    }
+
+    public Object getResponse(Object returnVal) {
+        return returnVal;
+    }
+}
@@ -0,0 +1,11 @@
+package biocode.fims.rest.versioning.transformers;
+
+/**
+ * v1.1 -> v2.0 transformer for the VersionTransformerTest.TestResource
+ */
+public class TestResourceTransformer1_1 extends FimsAbstractTransformer {
+
+    public Object getResponse(Object returnVal) {
+        return returnVal;
+    }
+}
@@ -0,0 +1,106 @@
+package biocode.fims.service;
+
+import biocode.fims.models.User;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link AccessTokenCache}
+ */
+public class AccessTokenCacheTest {
+    private static final long TTL = 1000;
+
+    private AtomicLong now;
+    private AccessTokenCache cache;
+    private User user;
+
+    @Before
+    public void setUp() {
+        now = new AtomicLong(0);
+        cache = new AccessTokenCache(2, TTL, now::get);
+        user = new User.UserBuilder("demo", "password")
+                .name("test", "account")
+                .email("test@example.com")
+                .institution("biocode")
+                .build();
+    }
+
+    @Test
+    public void should_return_cached_user_and_record_hits_and_misses() {
+        assertNull(cache.get("token", null));
+
+        cache.put("token", "refresh", null, user, Long.MAX_VALUE);
+
+        assertSame(user, cache.get("token", null));
+        assertNull(cache.get("token", "User.withProjects"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void should_expire_user_after_ttl() {
+        cache.put("token", "refresh", null, user, Long.MAX_VALUE);
+
+        now.set(TTL - 1);
+        assertSame(user, cache.get("token", null));
+
+        now.set(TTL);
+        assertNull(cache.get("token", null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void should_expire_user_when_token_expires() {
+        cache.put("token", "refresh", null, user, 10);
+
+        now.set(10);
+        assertNull(cache.get("token", null));
+    }
+
+    @Test
+    public void should_invalidate_by_access_or_refresh_token() {
+        cache.put("token", "refresh", null, user, Long.MAX_VALUE);
+        cache.put("token", "refresh", "User.withProjects", user, Long.MAX_VALUE);
+
+        cache.invalidateToken("refresh");
+        assertEquals(0, cache.size());
+
+        cache.put("token", "refresh", null, user, Long.MAX_VALUE);
+        cache.invalidateToken("token");
+        assertNull(cache.get("token", null));
+    }
+
+    @Test
+    public void should_invalidate_by_user() {
+        User user1 = mock(User.class);
+        when(user1.getUserId()).thenReturn(1);
+        User user2 = mock(User.class);
+        when(user2.getUserId()).thenReturn(2);
+
+        cache.put("token1", "refresh1", null, user1, Long.MAX_VALUE);
+        cache.put("token2", "refresh2", null, user2, Long.MAX_VALUE);
+
+        cache.invalidateUser(1);
+
+        assertNull(cache.get("token1", null));
+        assertSame(user2, cache.get("token2", null));
+    }
+
+    @Test
+    public void should_evict_least_recently_used() {
+        cache.put("token1", "refresh1", null, user, Long.MAX_VALUE);
+        cache.put("token2", "refresh2", null, user, Long.MAX_VALUE);
+        cache.get("token1", null);
+        cache.put("token3", "refresh3", null, user, Long.MAX_VALUE);
+
+        assertEquals(2, cache.size());
+        assertSame(user, cache.get("token1", null));
+        assertNull(cache.get("token2", null));
+    }
+}
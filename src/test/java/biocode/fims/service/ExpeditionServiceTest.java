@@ -0,0 +1,128 @@
+package biocode.fims.service;
+
+import biocode.fims.application.config.FimsProperties;
+import biocode.fims.bcid.Bcid;
+import biocode.fims.config.models.DefaultEntity;
+import biocode.fims.config.models.Entity;
+import biocode.fims.models.EntityIdentifier;
+import biocode.fims.models.Expedition;
+import biocode.fims.models.User;
+import biocode.fims.repositories.EntityIdentifierRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author rjewing
+ */
+public class ExpeditionServiceTest {
+    private BcidService bcidService;
+    private EntityIdentifierRepository entityIdentifierRepository;
+    private ExpeditionService expeditionService;
+    private List<User> mintedFor;
+    private Map<URI, Bcid> minted;
+
+    @Before
+    public void setUp() {
+        bcidService = mock(BcidService.class);
+        entityIdentifierRepository = mock(EntityIdentifierRepository.class);
+
+        FimsProperties props = mock(FimsProperties.class);
+        when(props.publisher()).thenReturn("publisher");
+        when(props.creator()).thenReturn("creator");
+
+        mintedFor = new ArrayList<>();
+        minted = new HashMap<>();
+        when(bcidService.create(anyListOf(Bcid.class), any(User.class))).thenAnswer(invocation -> {
+            List<Bcid> toMint = (List<Bcid>) invocation.getArguments()[0];
+            User user = (User) invocation.getArguments()[1];
+            mintedFor.add(user);
+
+            for (int i = 0; i < toMint.size(); i++) {
+                URI identifier = URI.create("ark:/99999/" + user.getUsername() + "/" + i);
+                ReflectionTestUtils.setField(toMint.get(i), "identifier", identifier);
+                minted.put(identifier, toMint.get(i));
+            }
+            return toMint;
+        });
+
+        expeditionService = new ExpeditionService(null, entityIdentifierRepository, bcidService, null, props);
+    }
+
+    @Test
+    public void should_mint_bcids_for_each_expedition_and_entity_grouped_by_user() {
+        User user1 = user("user1");
+        User user2 = user("user2");
+
+        Expedition exp1 = expedition("exp1", user1);
+        Expedition exp2 = expedition("exp2", user2);
+        Expedition exp3 = expedition("exp3", user1);
+
+        List<Entity> entities = Arrays.asList(
+                new DefaultEntity("event", "urn:event"),
+                new DefaultEntity("sample", "urn:sample")
+        );
+
+        List<EntityIdentifier> identifiers = expeditionService.createEntityBcids(Arrays.asList(exp1, exp2, exp3), entities);
+
+        // bcids are minted once per user
+        assertEquals(Arrays.asList(user1, user2), mintedFor);
+        verify(entityIdentifierRepository).insert(identifiers);
+
+        Map<String, String> actual = new LinkedHashMap<>();
+        for (EntityIdentifier entityIdentifier : identifiers) {
+            Bcid bcid = minted.get(entityIdentifier.getIdentifier());
+
+            // the bcid was minted for the expedition's user & entity
+            assertEquals(entityIdentifier.getConceptAlias(), bcid.title());
+            assertEquals("urn:" + entityIdentifier.getConceptAlias(), bcid.resourceType());
+
+            String key = entityIdentifier.getExpedition().getExpeditionCode() + ":" + entityIdentifier.getConceptAlias();
+            actual.put(key, entityIdentifier.getIdentifier().toString());
+        }
+
+        Map<String, String> expected = new HashMap<>();
+        expected.put("exp1:event", "ark:/99999/user1/0");
+        expected.put("exp1:sample", "ark:/99999/user1/1");
+        expected.put("exp3:event", "ark:/99999/user1/2");
+        expected.put("exp3:sample", "ark:/99999/user1/3");
+        expected.put("exp2:event", "ark:/99999/user2/0");
+        expected.put("exp2:sample", "ark:/99999/user2/1");
+
+        assertEquals(6, identifiers.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void should_not_mint_bcids_if_no_expeditions() {
+        List<EntityIdentifier> identifiers = expeditionService.createEntityBcids(
+                Collections.emptyList(),
+                Collections.singletonList(new DefaultEntity("event", "urn:event"))
+        );
+
+        assertEquals(0, identifiers.size());
+        assertEquals(0, mintedFor.size());
+    }
+
+    private User user(String username) {
+        return new User.UserBuilder(username, "pass")
+                .email(username + "@example.com")
+                .institution("institution")
+                .name("first", "last")
+                .build();
+    }
+
+    private Expedition expedition(String code, User user) {
+        Expedition expedition = new Expedition.ExpeditionBuilder(code).build();
+        expedition.setUser(user);
+        return expedition;
+    }
+}
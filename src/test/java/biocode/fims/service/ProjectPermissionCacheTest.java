@@ -0,0 +1,76 @@
+package biocode.fims.service;
+
+import biocode.fims.models.ProjectPermissions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ProjectPermissionCache}
+ */
+public class ProjectPermissionCacheTest {
+    private static final long TTL = 1000;
+
+    private AtomicLong now;
+    private AtomicInteger loads;
+    private ProjectPermissionCache cache;
+
+    @Before
+    public void setUp() {
+        now = new AtomicLong(0);
+        loads = new AtomicInteger(0);
+        cache = new ProjectPermissionCache(2, TTL, now::get);
+    }
+
+    @Test
+    public void should_cache_permissions_per_user() {
+        ProjectPermissions p1 = cache.get(1, this::load);
+        ProjectPermissions p2 = cache.get(2, this::load);
+
+        assertSame(p1, cache.get(1, this::load));
+        assertSame(p2, cache.get(2, this::load));
+        assertTrue(p1.isMember(1));
+        assertTrue(p2.isMember(2));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void should_reload_permissions_after_invalidate() {
+        ProjectPermissions p1 = cache.get(1, this::load);
+        cache.invalidate();
+
+        assertNotSame(p1, cache.get(1, this::load));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void should_reload_permissions_after_ttl() {
+        ProjectPermissions p1 = cache.get(1, this::load);
+
+        now.set(TTL - 1);
+        assertSame(p1, cache.get(1, this::load));
+
+        now.set(TTL);
+        assertNotSame(p1, cache.get(1, this::load));
+    }
+
+    @Test
+    public void should_not_cache_permissions_loaded_during_invalidation() {
+        ProjectPermissions p1 = cache.get(1, userId -> {
+            cache.invalidate();
+            return load(userId);
+        });
+
+        assertNotSame(p1, cache.get(1, this::load));
+    }
+
+    private ProjectPermissions load(int userId) {
+        loads.incrementAndGet();
+        return new ProjectPermissions(Collections.singleton(10), Collections.singleton(userId));
+    }
+}
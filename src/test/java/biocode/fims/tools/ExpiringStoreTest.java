@@ -0,0 +1,209 @@
+package biocode.fims.tools;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ExpiringStore}
+ */
+public class ExpiringStoreTest {
+    private static final long TTL = 1000;
+
+    private AtomicLong now;
+    private List<String> evicted;
+    private ExpiringStore<String, String> store;
+
+    @Before
+    public void setUp() {
+        now = new AtomicLong(0);
+        evicted = new ArrayList<>();
+        store = new ExpiringStore<>(TTL, 5, String::length, (k, v) -> evicted.add(k), now::get);
+    }
+
+    @Test
+    public void should_not_return_expired_entries() {
+        store.put("a", "1");
+
+        now.set(TTL - 1);
+        assertEquals("1", store.get("a"));
+
+        now.set(TTL);
+        assertNull(store.get("a"));
+        assertEquals(0, store.size());
+        assertEquals(0, store.weight());
+        assertEquals("[a]", evicted.toString());
+    }
+
+    @Test
+    public void should_only_remove_expired_entries_on_clean_up() {
+        store.put("a", "1");
+        now.set(10);
+        store.put("b", "1");
+
+        now.set(TTL);
+        store.cleanUp();
+
+        assertEquals(1, store.size());
+        assertEquals("1", store.get("b"));
+        assertEquals("[a]", evicted.toString());
+    }
+
+    @Test
+    public void should_evict_oldest_entries_when_max_weight_exceeded() {
+        store.put("a", "1");
+        now.set(1);
+        store.put("b", "12");
+        now.set(2);
+        store.put("c", "123");
+
+        assertNull(store.get("a"));
+        assertEquals("12", store.get("b"));
+        assertEquals("123", store.get("c"));
+        assertEquals(5, store.weight());
+        assertEquals("[a]", evicted.toString());
+    }
+
+    @Test
+    public void should_not_notify_on_remove_or_replace() {
+        store.put("a", "1");
+        store.put("a", "12");
+
+        assertEquals(2, store.weight());
+        assertEquals("12", store.remove("a"));
+        assertNull(store.remove("a"));
+        assertEquals(0, store.weight());
+        assertTrue(evicted.isEmpty());
+    }
+
+    @Test
+    public void should_reset_expiration_when_replaced() {
+        store.put("a", "1");
+        now.set(TTL - 1);
+        store.put("a", "2");
+
+        now.set(TTL);
+        store.cleanUp();
+
+        assertEquals("2", store.get("a"));
+    }
+
+    @Test
+    public void should_evict_when_reweighed() {
+        StringBuilder sb = new StringBuilder("1");
+        ExpiringStore<String, StringBuilder> store = new ExpiringStore<>(TTL, 5, StringBuilder::length, (k, v) -> evicted.add(k), now::get);
+
+        store.put("a", new StringBuilder("1"));
+        now.set(1);
+        store.put("b", sb);
+
+        sb.append("2345");
+        assertEquals(2, store.weight());
+
+        store.reweigh("b");
+        assertEquals(5, store.weight());
+        assertEquals("[a]", evicted.toString());
+    }
+
+    @Test
+    public void should_not_evict_reweighed_entry() {
+        StringBuilder sb = new StringBuilder("1");
+        ExpiringStore<String, StringBuilder> store = new ExpiringStore<>(TTL, 5, StringBuilder::length, (k, v) -> evicted.add(k), now::get);
+
+        store.put("a", sb);
+        now.set(1);
+        store.put("b", new StringBuilder("1"));
+
+        sb.append("2345");
+
+        assertTrue(store.reweigh("a"));
+        assertSame(sb, store.get("a"));
+        assertNull(store.get("b"));
+        assertEquals(5, store.weight());
+        assertEquals("[b]", evicted.toString());
+    }
+
+    @Test
+    public void should_not_evict_entries_which_are_not_evictable() {
+        ExpiringStore<String, String> store = new ExpiringStore<>(TTL, 5, String::length, v -> !v.startsWith("pin"), (k, v) -> evicted.add(k), now::get);
+
+        store.put("a", "pin");
+        now.set(1);
+        store.put("b", "1");
+        now.set(2);
+        store.put("c", "1234");
+
+        assertEquals("pin", store.get("a"));
+        assertNull(store.get("b"));
+        assertEquals("1234", store.get("c"));
+        assertEquals(7, store.weight());
+        assertEquals("[b]", evicted.toString());
+
+        now.set(TTL);
+        store.cleanUp();
+
+        assertNull(store.get("a"));
+        assertEquals(4, store.weight());
+        assertEquals("[b, a]", evicted.toString());
+    }
+
+    @Test
+    public void should_reject_value_exceeding_max_weight() {
+        store.put("a", "1");
+
+        try {
+            store.put("a", "123456");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertEquals("1", store.get("a"));
+        assertEquals(1, store.weight());
+        assertTrue(evicted.isEmpty());
+    }
+
+    @Test
+    public void should_remove_reweighed_entry_exceeding_max_weight() {
+        StringBuilder sb = new StringBuilder("1");
+        ExpiringStore<String, StringBuilder> store = new ExpiringStore<>(TTL, 5, StringBuilder::length, (k, v) -> evicted.add(k), now::get);
+
+        store.put("a", new StringBuilder("1"));
+        store.put("b", sb);
+
+        sb.append("23456");
+
+        assertFalse(store.reweigh("b"));
+        assertNull(store.get("b"));
+        assertNotNull(store.get("a"));
+        assertEquals(1, store.weight());
+        assertEquals("[b]", evicted.toString());
+    }
+
+    @Test
+    public void should_stop_sweeper_thread_on_shutdown() throws InterruptedException {
+        ExpiringStore<String, String> store1 = new ExpiringStore<>(TTL, 5, String::length, (k, v) -> {
+        });
+        ExpiringStore<String, String> store2 = new ExpiringStore<>(TTL, 5, String::length, (k, v) -> {
+        });
+
+        ScheduledExecutorService sweeper1 = (ScheduledExecutorService) ReflectionTestUtils.getField(store1, "sweeper");
+        ScheduledExecutorService sweeper2 = (ScheduledExecutorService) ReflectionTestUtils.getField(store2, "sweeper");
+
+        store1.shutdown();
+
+        assertTrue(sweeper1.awaitTermination(5, TimeUnit.SECONDS));
+        assertFalse(sweeper2.isShutdown());
+
+        store2.shutdown();
+        assertTrue(sweeper2.awaitTermination(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,100 @@
+package biocode.fims.tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FileCache}
+ */
+public class FileCacheTest {
+    private static final long TTL = 1000;
+
+    private AtomicLong now;
+    private Path tmp;
+    private File dir;
+
+    @Before
+    public void setUp() throws IOException {
+        now = new AtomicLong(System.currentTimeMillis());
+        tmp = Files.createTempDirectory("fileCacheTest");
+        dir = tmp.resolve("cache").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.walk(tmp)
+                .sorted(Comparator.reverseOrder())
+                .forEach(p -> p.toFile().delete());
+    }
+
+    @Test
+    public void should_only_return_file_once_to_authorized_user() throws IOException {
+        FileCache cache = new FileCache(null, TTL, 10, now::get);
+        File f = Files.createFile(tmp.resolve("test.xlsx")).toFile();
+
+        String id = cache.cacheFileForUser(f, null, "test");
+        assertEquals(f.getAbsolutePath(), cache.getFile(id, 1).getPath());
+        assertNull(cache.getFile(id, 1));
+    }
+
+    @Test
+    public void should_move_file_to_directory_and_delete_when_evicted() throws IOException {
+        FileCache cache = new FileCache(dir, TTL, 1, now::get);
+        File f1 = Files.createFile(tmp.resolve("test1.xlsx")).toFile();
+        File f2 = Files.createFile(tmp.resolve("test2.xlsx")).toFile();
+
+        String id1 = cache.cacheFileForUser(f1, null);
+        now.incrementAndGet();
+        String id2 = cache.cacheFileForUser(f2, null);
+
+        assertFalse(f1.exists());
+        assertNull(cache.getFile(id1, 0));
+        assertEquals(1, dir.list().length);
+
+        CachedFile cf = cache.getFile(id2, 0);
+        assertEquals(dir.getAbsolutePath(), new File(cf.getPath()).getParent());
+        assertTrue(new File(cf.getPath()).exists());
+    }
+
+    @Test
+    public void should_delete_expired_files_from_directory() throws IOException {
+        FileCache cache = new FileCache(dir, TTL, 10, now::get);
+        File f = Files.createFile(tmp.resolve("test.xlsx")).toFile();
+
+        String id = cache.cacheFileForUser(f, null);
+        CachedFile cf = cache.getFile(id, 0);
+
+        now.addAndGet(TTL - 1);
+        cache.cleanUp();
+        assertTrue(new File(cf.getPath()).exists());
+
+        now.incrementAndGet();
+        cache.cleanUp();
+        assertFalse(new File(cf.getPath()).exists());
+    }
+
+    @Test
+    public void should_delete_files_left_from_previous_run() throws IOException {
+        Files.createDirectories(dir.toPath());
+        Path old = Files.createFile(dir.toPath().resolve("old.xlsx"));
+        Files.setLastModifiedTime(old, FileTime.fromMillis(now.get() - TTL));
+        Path recent = Files.createFile(dir.toPath().resolve("recent.xlsx"));
+        Files.setLastModifiedTime(recent, FileTime.fromMillis(now.get()));
+
+        new FileCache(dir, TTL, 10, now::get);
+
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(recent));
+    }
+}
@@ -0,0 +1,96 @@
+package biocode.fims.tools;
+
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import biocode.fims.rest.responses.ValidationResponse;
+import biocode.fims.run.ProcessorStatus;
+import biocode.fims.validation.messages.EntityMessages;
+import biocode.fims.validation.messages.Message;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ValidationStore}
+ */
+public class ValidationStoreTest {
+    private AtomicLong now;
+    private ValidationStore store;
+
+    @Before
+    public void setUp() {
+        now = new AtomicLong(0);
+        store = new ValidationStore(2, now::get);
+    }
+
+    @Test
+    public void should_return_result_to_authorized_user_until_expired() {
+        UUID id = store.put(UUID.randomUUID(), new ProcessorStatus(), 1);
+
+        assertNull(store.get(id, 2));
+        assertNotNull(store.get(id, 1));
+
+        now.set(ValidationStore.CACHE_EXPIRATION);
+        assertNull(store.get(id, 1));
+    }
+
+    @Test
+    public void should_evict_oldest_results_when_too_many_messages_stored() {
+        UUID id1 = store.put(UUID.randomUUID(), new ProcessorStatus(), 0);
+        store.update(id1, response(id1, 0), null);
+        now.incrementAndGet();
+        UUID id2 = store.put(UUID.randomUUID(), new ProcessorStatus(), 0);
+
+        ValidationResponse response = response(id2, 1);
+        store.update(id2, response, null);
+
+        assertNull(store.get(id1, 0));
+        assertSame(response, store.get(id2, 0).response());
+    }
+
+    @Test
+    public void should_not_evict_results_in_progress() {
+        UUID id1 = store.put(UUID.randomUUID(), new ProcessorStatus(), 0);
+        now.incrementAndGet();
+        UUID id2 = store.put(UUID.randomUUID(), new ProcessorStatus(), 0);
+
+        ValidationResponse response2 = response(id2, 1);
+        store.update(id2, response2, null);
+
+        // id1 is still in progress
+        assertNotNull(store.get(id1, 0));
+        assertSame(response2, store.get(id2, 0).response());
+
+        // the completed result is reweighed & the oldest other completed result is evicted
+        ValidationResponse response1 = response(id1, 1);
+        store.update(id1, response1, null);
+
+        assertSame(response1, store.get(id1, 0).response());
+        assertNull(store.get(id2, 0));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void should_store_exception_when_result_has_too_many_messages() {
+        UUID id = store.put(UUID.randomUUID(), new ProcessorStatus(), 0);
+
+        store.update(id, response(id, 2), null);
+
+        ValidationStore.ValidationResult result = store.get(id, 0);
+        assertNotNull(result);
+        assertNull(result.response());
+        assertTrue(result.exception() instanceof FimsRuntimeException);
+    }
+
+    private ValidationResponse response(UUID id, int numMessages) {
+        EntityMessages messages = new EntityMessages("Samples");
+        for (int i = 0; i < numMessages; i++) {
+            messages.addErrorMessage("group", new Message("error " + i));
+        }
+        return new ValidationResponse(id, numMessages == 0, numMessages > 0, Collections.singletonList(messages), null);
+    }
+}
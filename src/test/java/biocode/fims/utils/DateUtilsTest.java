@@ -0,0 +1,92 @@
+package biocode.fims.utils;
+
+import biocode.fims.fimsExceptions.FimsRuntimeException;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author rjewing
+ */
+public class DateUtilsTest {
+    private static final String[] FORMATS = {
+            "yyyy", "yyyy-MM", "yyyy-MM-dd", "yyyyMMdd", "MM/dd/yyyy", "dd-MMM-yy", "yyyy-MM-dd HH:mm",
+            "HH:mm", "HH:mm:ss", "hh:mm a", DateUtils.ISO_8061_DATETIME, DateUtils.ISO_8061_DATE,
+            DateUtils.ISO_8061_TIME, "yyyy-MM-dd bogus", "YYYY-MM-DD", "yyyy-MM-dd'T", ""
+    };
+
+    private static final String[] VALUES = {
+            "2018", "2018-02", "2018-02-28", "2018-02-29", "2016-02-29", "2018-13-01", "2018-02-30", "20180228",
+            "02/28/2018", "2/8/2018", "28-Feb-18", "28-feb-18", "2018-02-28 14:30", "14:30", "24:00", "14:30:59",
+            "02:30 PM", "2018-02-28T14:30:59.123", "14:30:59.123", " 2018-02-28", "2018-02-28 ", "2018-02-28x", "",
+            " ", "abc", "-2018", "+2018-02-28", "99999", "2018-2-8", "0000-00-00", "unknown"
+    };
+
+    @Test
+    public void should_match_legacy_validation_for_each_format() {
+        for (String format : FORMATS) {
+            for (String value : VALUES) {
+                assertEquals(format + " -> " + value, legacyMatches(value, format),
+                        DateUtils.isValidDateFormat(value, new String[]{format}));
+            }
+        }
+    }
+
+    @Test
+    public void should_match_legacy_validation_for_random_values() {
+        Random random = new Random(1);
+        String chars = "0123456789-/: TAPM";
+
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int len = random.nextInt(20);
+            for (int j = 0; j < len; j++) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            String value = sb.toString();
+
+            for (String format : FORMATS) {
+                assertEquals(format + " -> " + value, legacyMatches(value, format),
+                        DateUtils.isValidDateFormat(value, new String[]{format}));
+            }
+        }
+    }
+
+    @Test
+    public void should_validate_against_any_of_the_given_formats() {
+        String[] formats = {"MM/dd/yyyy", "yyyy-MM-dd", "not a [pattern"};
+
+        assertTrue(DateUtils.isValidDateFormat("2018-02-28", formats));
+        assertTrue(DateUtils.isValidDateFormat("02/28/2018", formats));
+        assertFalse(DateUtils.isValidDateFormat("02-28-2018", formats));
+        assertFalse(DateUtils.isValidDateFormat("2018-02-28", new String[0]));
+    }
+
+    @Test
+    public void should_convert_date_to_format() {
+        String[] formats = {"MM/dd/yyyy", "yyyy"};
+
+        assertEquals("2018-02-28", DateUtils.convertDateToFormat("02/28/2018", DateUtils.ISO_8061_DATE, formats));
+        assertEquals("2018-01-01", DateUtils.convertDateToFormat("2018", DateUtils.ISO_8061_DATE, formats));
+        assertEquals("2018-02-28", DateUtils.convertDateToFormat("2018-02-28", DateUtils.ISO_8061_DATE, formats));
+    }
+
+    @Test(expected = FimsRuntimeException.class)
+    public void should_throw_exception_converting_unknown_date_format() {
+        DateUtils.convertDateToFormat("2018-02-30", DateUtils.ISO_8061_DATE, new String[]{"MM/dd/yyyy"});
+    }
+
+    private boolean legacyMatches(String value, String format) {
+        try {
+            DateTimeFormat.forPattern(format).parseDateTime(value);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package biocode.fims.utils;
+
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.Record;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author rjewing
+ */
+public class RecordHasherTest {
+
+    @Test
+    public void should_return_empty_string_for_empty_record() {
+        Record r = new GenericRecord();
+        r.set("urn:a", "  ");
+
+        assertEquals("", RecordHasher.hash(r));
+        assertEquals("", RecordHasher.hash(r, new String[]{"urn:a"}));
+    }
+
+    @Test
+    public void should_match_previously_generated_hash() {
+        Record r = new GenericRecord();
+        r.set("urn:b", " value b ");
+        r.set("urn:a", "value a");
+        r.set("urn:c", "");
+
+        // md5 of "urn:avalue aurn:bvalue b"
+        assertEquals("3eaa8e28effb56ccd862cdc4a248e670", RecordHasher.hash(r));
+    }
+
+    @Test
+    public void should_match_legacy_hash_for_random_records() {
+        Random random = new Random(1);
+        String[] chars = {"a", "b", "c", "X", "Y", "Z", "0", "1", "9", " ", "\t", "-", "_", ":", "/", "é", "漢", "😀"};
+
+        for (int i = 0; i < 500; i++) {
+            Record r = new GenericRecord();
+            int props = random.nextInt(20);
+            for (int j = 0; j < props; j++) {
+                Object val = random.nextInt(10) == 0 ? random.nextInt() : randomString(random, chars, 12000);
+                r.set(" urn:" + randomString(random, chars, 5), val);
+            }
+
+            String[] keys = r.properties().keySet().toArray(new String[0]);
+            Arrays.sort(keys);
+
+            String expected = legacyHash(r);
+            assertEquals(expected, RecordHasher.hash(r));
+            assertEquals(expected, RecordHasher.hash(r, keys));
+        }
+    }
+
+    @Test
+    public void should_hash_using_sorted_keys_and_fallback_if_missing_properties() {
+        Record r = new GenericRecord();
+        r.set("urn:a", "1");
+        r.set("urn:c", "3");
+
+        String expected = legacyHash(r);
+        assertEquals(expected, RecordHasher.hash(r, new String[]{"urn:a", "urn:b", "urn:c"}));
+        assertEquals(expected, RecordHasher.hash(r, new String[]{"urn:c"}));
+    }
+
+    private String randomString(Random random, String[] chars, int maxLength) {
+        int len = random.nextInt(random.nextBoolean() ? 10 : maxLength);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < len; i++) {
+            sb.append(chars[random.nextInt(chars.length)]);
+        }
+        return sb.toString();
+    }
+
+    private String legacyHash(Record r) {
+        TreeMap<String, Object> sortedMap = new TreeMap<>(r.properties());
+
+        StringBuilder sb = new StringBuilder();
+
+        sortedMap.forEach((k, v) -> {
+            String val = String.valueOf(v).trim();
+            if (!val.equals("")) {
+                sb.append(k.trim()).append(val);
+            }
+        });
+
+        return Hasher.hash(sb.toString());
+    }
+}
@@ -1,5 +1,6 @@
 package biocode.fims.validation;
 
+import biocode.fims.config.ConfigCache;
 import biocode.fims.config.models.*;
 import biocode.fims.config.project.ProjectConfig;
 import biocode.fims.records.GenericRecord;
@@ -7,13 +8,27 @@ import biocode.fims.records.Record;
 import biocode.fims.records.RecordSet;
 import biocode.fims.validation.messages.EntityMessages;
 import biocode.fims.validation.messages.Message;
+import biocode.fims.validation.messages.MessagesGroup;
 import biocode.fims.validation.rules.ControlledVocabularyRule;
 import biocode.fims.validation.rules.NumericRangeRule;
+import biocode.fims.validation.rules.RequiredValueRule;
 import biocode.fims.validation.rules.Rule;
+import biocode.fims.validation.rules.RuleLevel;
+import biocode.fims.validation.rules.UniqueValueRule;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import static org.junit.Assert.*;
 
 /**
@@ -143,6 +158,185 @@ public class RecordValidatorTest {
         assertTrue(validator.validate(recordSet));
     }
 
+    @Test
+    public void should_return_same_messages_when_validating_concurrently() {
+        Entity e = entity1();
+        e.addRule(new RequiredValueRule(new LinkedHashSet<>(Collections.singletonList("col1")), RuleLevel.ERROR));
+        e.addRule(new UniqueValueRule("eventId", false, RuleLevel.ERROR));
+
+        // NumericRangeRule will be partitioned
+        int numRecords = RecordValidator.PARTITION_SIZE * 2 + 10;
+        java.util.List<Record> records = new ArrayList<>();
+        for (int i = 0; i < numRecords; i++) {
+            Record r = new GenericRecord();
+            r.set("eventId", String.valueOf(i % (numRecords - 5)));
+            r.set("col2", String.valueOf(i % 13));
+            if (i % 1000 != 0) r.set("col1", "value");
+            r.setExpeditionCode("exp");
+            records.add(r);
+        }
+
+        assertSameResultWhenValidatingConcurrently(e, records);
+    }
+
+    @Test
+    public void should_exclude_errored_records_from_subsequent_rules_when_validating_concurrently() {
+        Entity e = entity1();
+        e.getRules().clear();
+        // records missing col1 are errored, and should not be validated by the subsequent rules
+        e.addRule(new RequiredValueRule(new LinkedHashSet<>(Collections.singletonList("col1")), RuleLevel.ERROR));
+        // partitioned
+        e.addRule(new NumericRangeRule("col2", ">0|<=10", RuleLevel.ERROR));
+        e.addRule(new NumericRangeRule("col2", "<=8"));
+        e.addRule(new UniqueValueRule("eventId", false, RuleLevel.ERROR));
+        e.addRule(new RequiredValueRule(new LinkedHashSet<>(Collections.singletonList("parentId"))));
+
+        int numRecords = RecordValidator.PARTITION_SIZE + 100;
+        java.util.List<Record> records = new ArrayList<>();
+        for (int i = 0; i < numRecords; i++) {
+            Record r = new GenericRecord();
+            r.set("eventId", String.valueOf(i % (numRecords - 20)));
+            r.set("col2", String.valueOf(i % 13));
+            if (i % 7 != 0) r.set("col1", "value");
+            if (i % 5 != 0) r.set("parentId", "parent");
+            r.setExpeditionCode("exp");
+            records.add(r);
+        }
+
+        assertSameResultWhenValidatingConcurrently(e, records);
+    }
+
+    @Test
+    public void should_not_share_rule_state_between_concurrent_validations_of_cached_config() throws Exception {
+        ConfigCache<ProjectConfig> cache = new ConfigCache<>();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Supplier<ProjectConfig> loader = () -> {
+            ProjectConfig config = config();
+            config.entity("event").addRule(new BarrierRule(barrier));
+            return config;
+        };
+
+        ProjectConfig config = cache.get(1, "v1", loader);
+        assertSame(config, cache.get(1, "v1", loader));
+
+        RecordSet invalidRecordSet = new RecordSet(config.entity("event"), false);
+        Record r1 = new GenericRecord();
+        r1.set("eventId", "1");
+        r1.set("col1", "invalid");
+        invalidRecordSet.add(r1);
+
+        RecordSet validRecordSet = new RecordSet(config.entity("event"), false);
+        Record r2 = new GenericRecord();
+        r2.set("eventId", "2");
+        r2.set("col1", "valid");
+        validRecordSet.add(r2);
+
+        RecordValidator invalidValidator = new RecordValidator(cache.get(1, "v1", loader));
+        RecordValidator validValidator = new RecordValidator(cache.get(1, "v1", loader));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> invalid = executorService.submit(() -> invalidValidator.validate(invalidRecordSet));
+            Future<Boolean> valid = executorService.submit(() -> validValidator.validate(validRecordSet));
+
+            assertFalse(invalid.get(10, TimeUnit.SECONDS));
+            assertTrue(invalidValidator.hasError());
+            assertTrue(valid.get(10, TimeUnit.SECONDS));
+            assertFalse(validValidator.hasError());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void assertSameResultWhenValidatingConcurrently(Entity e, java.util.List<Record> records) {
+        RecordSet recordSet = new RecordSet(e, false);
+        records.forEach(recordSet::add);
+
+        RecordSet concurrentRecordSet = new RecordSet(e, false);
+        records.forEach(r -> concurrentRecordSet.add(r.clone()));
+
+        RecordValidator sequential = new RecordValidator(config());
+        boolean sequentialValid = sequential.validate(recordSet);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            RecordValidator concurrent = new RecordValidator(config());
+            concurrent.setExecutorService(executorService);
+
+            assertEquals(sequentialValid, concurrent.validate(concurrentRecordSet));
+            assertEquals(sequential.hasError(), concurrent.hasError());
+            assertEquals(sequential.messages(), concurrent.messages());
+            assertGroupsEqual(sequential.messages().errorMessages(), concurrent.messages().errorMessages());
+            assertGroupsEqual(sequential.messages().warningMessages(), concurrent.messages().warningMessages());
+
+            for (int i = 0; i < recordSet.records().size(); i++) {
+                assertEquals(recordSet.records().get(i).persist(), concurrentRecordSet.records().get(i).persist());
+            }
+            assertEquals(recordSet.recordsToPersist().size(), concurrentRecordSet.recordsToPersist().size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private void assertGroupsEqual(java.util.List<MessagesGroup> expected, java.util.List<MessagesGroup> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getName(), actual.get(i).getName());
+            assertEquals(expected.get(i).messages(), actual.get(i).messages());
+        }
+    }
+
+    /**
+     * Rule which waits for another validation to run the Rule before completing, so both validations use
+     * the Rule at the same time
+     */
+    private static class BarrierRule extends RuleInWrongPackage {
+        private final CyclicBarrier barrier;
+        private boolean hasError = false;
+
+        private BarrierRule(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public String name() {
+            return "BarrierRule";
+        }
+
+        @Override
+        public RuleLevel level() {
+            return RuleLevel.ERROR;
+        }
+
+        @Override
+        public boolean run(RecordSet recordSet, EntityMessages messages) {
+            for (Record r : recordSet.recordsToPersist()) {
+                if ("invalid".equals(r.get("col1"))) {
+                    r.setError();
+                    hasError = true;
+                }
+            }
+
+            try {
+                barrier.await(10, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            return !hasError;
+        }
+
+        @Override
+        public boolean hasError() {
+            return hasError;
+        }
+
+        @Override
+        public Rule copy() {
+            return new BarrierRule(barrier);
+        }
+    }
+
     private Entity entity1() {
         Entity e = new DefaultEntity("event", "someURI");
 
@@ -0,0 +1,100 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.records.GenericRecord;
+import biocode.fims.records.Record;
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.messages.EntityMessages;
+import biocode.fims.validation.messages.Message;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class ColumnRuleEvaluatorTest extends AbstractRuleTest {
+
+    @Test
+    public void should_return_same_results_as_running_rules_sequentially() {
+        List<ColumnRule> rules = rules();
+
+        RecordSet recordSet = recordSet();
+        EntityMessages sequentialMessages = new EntityMessages("Samples");
+        boolean[] expected = new boolean[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            expected[i] = rules.get(i).run(recordSet, sequentialMessages);
+        }
+
+        RecordSet fusedRecordSet = recordSet();
+        boolean[] results = new ColumnRuleEvaluator(rules()).run(fusedRecordSet, messages);
+
+        assertTrue(Arrays.equals(expected, results));
+        assertEquals(sequentialMessages, messages);
+        assertEquals(recordSet.recordsToPersist().size(), fusedRecordSet.recordsToPersist().size());
+    }
+
+    @Test
+    public void should_not_validate_record_with_error_from_previous_rule() {
+        RecordSet recordSet = recordSet();
+
+        boolean[] results = new ColumnRuleEvaluator(rules()).run(recordSet, messages);
+
+        assertFalse(results[0]);
+        assertTrue(results[1]);
+        assertFalse(results[2]);
+
+        EntityMessages expectedMessages = new EntityMessages("Samples");
+        expectedMessages.addErrorMessage(
+                "Value constraint did not pass",
+                new Message("Value \"A\" in column \"col1\" does not match the pattern \"[a-z]\"")
+        );
+        // record 1 has an error from the RegExpRule, so the value "A" is not validated
+        expectedMessages.addWarningMessage(
+                "Value constraint did not pass",
+                new Message("Value \"b\" in column \"col2\" does not match the pattern \"[0-9]\"")
+        );
+
+        assertEquals(expectedMessages, messages);
+    }
+
+    @Test
+    public void should_validate_all_records_in_snapshot() {
+        RecordSet recordSet = recordSet();
+
+        boolean[] results = new ColumnRuleEvaluator(rules()).run(recordSet.snapshot(recordSet.records()), messages);
+
+        assertFalse(results[0]);
+        assertTrue(results[1]);
+        assertFalse(results[2]);
+
+        // record 1 has an error from the RegExpRule, but is still in the snapshot's recordsToPersist
+        assertEquals(2, messages.warningMessages().get(0).messages().size());
+    }
+
+    private List<ColumnRule> rules() {
+        return Arrays.asList(
+                new RegExpRule("col1", "[a-z]", false, RuleLevel.ERROR),
+                new RegExpRule("col1", "[a-zA-Z]", false, RuleLevel.WARNING),
+                new RegExpRule("col2", "[0-9]", false, RuleLevel.WARNING)
+        );
+    }
+
+    private RecordSet recordSet() {
+        RecordSet recordSet = new RecordSet(entity(), false);
+
+        Record r1 = new GenericRecord();
+        r1.set("urn:col1", "A");
+        r1.set("urn:col2", "a");
+        recordSet.add(r1);
+
+        Record r2 = new GenericRecord();
+        r2.set("urn:col1", "a");
+        r2.set("urn:col2", "b");
+        recordSet.add(r2);
+
+        return recordSet;
+    }
+}
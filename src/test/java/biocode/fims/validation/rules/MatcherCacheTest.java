@@ -0,0 +1,95 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.config.models.Field;
+import biocode.fims.config.models.List;
+import biocode.fims.config.project.ProjectConfig;
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class MatcherCacheTest {
+
+    @Test
+    public void should_cache_pattern_per_config() {
+        ProjectConfig config = new ProjectConfig();
+
+        Pattern p = MatcherCache.pattern(config, "^[a-z]$", false);
+
+        assertSame(p, MatcherCache.pattern(config, "^[a-z]$", false));
+        assertNotSame(p, MatcherCache.pattern(config, "^[a-z]$", true));
+        assertNotSame(p, MatcherCache.pattern(new ProjectConfig(), "^[a-z]$", false));
+        assertTrue(MatcherCache.pattern(config, "^[a-z]$", true).matcher("A").matches());
+    }
+
+    @Test
+    public void should_not_cache_pattern_for_null_config() {
+        Pattern p = MatcherCache.pattern(null, "^[a-z]$", false);
+
+        assertNotSame(p, MatcherCache.pattern(null, "^[a-z]$", false));
+    }
+
+    @Test
+    public void should_cache_vocabulary_per_config_and_list() {
+        ProjectConfig config = new ProjectConfig();
+        List list = list("yesNo", true);
+
+        MatcherCache.Vocabulary v = MatcherCache.vocabulary(config, list);
+
+        assertSame(v, MatcherCache.vocabulary(config, list));
+        assertNotSame(v, MatcherCache.vocabulary(config, list("other", true)));
+        assertNotSame(v, MatcherCache.vocabulary(new ProjectConfig(), list));
+    }
+
+    @Test
+    public void should_match_case_insensitive_vocabulary() {
+        MatcherCache.Vocabulary v = MatcherCache.vocabulary(new ProjectConfig(), list("yesNo", true));
+
+        assertTrue(v.contains("YES"));
+        assertTrue(v.contains("no"));
+        assertFalse(v.contains("maybe"));
+    }
+
+    @Test
+    public void should_match_case_sensitive_vocabulary() {
+        MatcherCache.Vocabulary v = MatcherCache.vocabulary(new ProjectConfig(), list("yesNo", false));
+
+        assertTrue(v.contains("Yes"));
+        assertFalse(v.contains("yes"));
+    }
+
+    @Test
+    public void should_rebuild_matchers_after_invalidate() {
+        ProjectConfig config = new ProjectConfig();
+        List list = list("yesNo", true);
+
+        Pattern p = MatcherCache.pattern(config, "^[a-z]$", false);
+        MatcherCache.Vocabulary v = MatcherCache.vocabulary(config, list);
+
+        Field f = new Field();
+        f.setValue("Maybe");
+        list.addField(f);
+        MatcherCache.invalidate(config);
+
+        assertNotSame(p, MatcherCache.pattern(config, "^[a-z]$", false));
+        assertNotSame(v, MatcherCache.vocabulary(config, list));
+        assertTrue(MatcherCache.vocabulary(config, list).contains("maybe"));
+    }
+
+    private List list(String alias, boolean caseInsensitive) {
+        List list = new List(alias);
+        list.setCaseInsensitive(caseInsensitive);
+
+        for (String value : new String[]{"Yes", "No"}) {
+            Field f = new Field();
+            f.setValue(value);
+            list.addField(f);
+        }
+
+        return list;
+    }
+}
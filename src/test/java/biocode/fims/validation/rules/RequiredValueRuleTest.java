@@ -47,6 +47,19 @@ public class RequiredValueRuleTest extends AbstractRuleTest {
         assertEquals(expectedMessages, messages);
     }
 
+    @Test
+    public void copy_should_not_have_error_from_previous_run() {
+        Rule rule = new RequiredValueRule(new LinkedHashSet<>(Collections.emptyList()));
+
+        assertFalse(rule.run(new RecordSet(entity(), false), messages));
+        assertTrue(rule.hasError());
+
+        Rule copy = rule.copy();
+        assertNotSame(rule, copy);
+        assertEquals(rule, copy);
+        assertFalse(copy.hasError());
+    }
+
     @Test
     public void should_not_be_valid_when_column_missing_value() {
         Rule rule = new RequiredValueRule(new LinkedHashSet<>(Arrays.asList("col1", "col2", "col3")), RuleLevel.ERROR);
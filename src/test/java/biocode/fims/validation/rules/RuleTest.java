@@ -0,0 +1,105 @@
+package biocode.fims.validation.rules;
+
+import biocode.fims.config.models.Entity;
+import biocode.fims.config.project.ProjectConfig;
+import biocode.fims.records.RecordSet;
+import biocode.fims.validation.messages.EntityMessages;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author rjewing
+ */
+public class RuleTest {
+
+    @Test
+    public void default_copy_should_copy_configuration_without_state() {
+        NonAbstractRule rule = new NonAbstractRule("col1", RuleLevel.ERROR);
+        rule.run(null, null);
+        assertTrue(rule.hasError());
+
+        Rule copy = rule.copy();
+
+        assertNotSame(rule, copy);
+        assertTrue(copy instanceof NonAbstractRule);
+        assertEquals("col1", ((NonAbstractRule) copy).column);
+        assertEquals(RuleLevel.ERROR, copy.level());
+        assertFalse(copy.hasError());
+    }
+
+    /**
+     * Rule implementation which uses the default {@link Rule#copy()}
+     */
+    static class NonAbstractRule implements Rule {
+        @JsonProperty
+        private String column;
+        @JsonProperty
+        private RuleLevel level;
+        private boolean hasError = false;
+
+        NonAbstractRule() {} // needed for RuleTypeIdResolver to dynamically instantiate Rule implementation
+
+        NonAbstractRule(String column, RuleLevel level) {
+            this.column = column;
+            this.level = level;
+        }
+
+        @Override
+        public String name() {
+            return "NonAbstractRule";
+        }
+
+        @Override
+        public boolean run(RecordSet recordSet, EntityMessages messages) {
+            hasError = level == RuleLevel.ERROR;
+            return false;
+        }
+
+        @Override
+        public RuleLevel level() {
+            return level;
+        }
+
+        @Override
+        public boolean validConfiguration(List<String> messages, Entity entity) {
+            return true;
+        }
+
+        @Override
+        public boolean hasError() {
+            return hasError;
+        }
+
+        @Override
+        public boolean isNetworkRule() {
+            return false;
+        }
+
+        @Override
+        public void setNetworkRule(boolean isNetworkRule) {
+        }
+
+        @Override
+        public boolean mergeRule(Rule r) {
+            return false;
+        }
+
+        @Override
+        public boolean contains(Rule r) {
+            return false;
+        }
+
+        @Override
+        public Rule toProjectRule(List<String> columns) {
+            return this;
+        }
+
+        @Override
+        public void setProjectConfig(ProjectConfig config) {
+        }
+    }
+}
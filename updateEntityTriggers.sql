@@ -0,0 +1,154 @@
+-- For Migration on 10/18/26
+-- Replaces the row level entity_history & set_project_last_modified triggers on all entity tables w/ statement level
+-- triggers using transition tables. Requires postgres 10 or greater.
+
+BEGIN;
+
+CREATE OR REPLACE FUNCTION set_project_last_modified()
+    RETURNS TRIGGER AS
+$body$
+BEGIN
+    IF TG_WHEN <> 'AFTER'
+    THEN
+        RAISE EXCEPTION 'set_project_last_modified() may only run as an AFTER trigger';
+    END IF;
+
+    IF TG_LEVEL = 'ROW'
+    THEN
+        RAISE EXCEPTION 'set_project_last_modified() does not support being a ROW trigger';
+    END IF;
+
+    -- transition tables are named new_rows & old_rows when the triggers are created
+    IF TG_OP = 'INSERT'
+    THEN
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id FROM expeditions WHERE id IN (SELECT DISTINCT expedition_id FROM new_rows));
+    ELSIF TG_OP = 'UPDATE'
+    THEN
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id
+                     FROM expeditions
+                     WHERE id IN (SELECT expedition_id FROM new_rows UNION SELECT expedition_id FROM old_rows));
+    ELSIF TG_OP = 'DELETE'
+    THEN
+        UPDATE projects
+        SET latest_data_modification = CURRENT_TIMESTAMP
+        WHERE id IN (SELECT project_id FROM expeditions WHERE id IN (SELECT DISTINCT expedition_id FROM old_rows));
+    END IF;
+
+    RETURN NULL;
+END;
+$body$
+    LANGUAGE plpgsql
+    SECURITY DEFINER;
+
+COMMENT ON FUNCTION set_project_last_modified() IS $body$
+Update the project's latest_data_modification timestamp when records are inserted, updated, or deleted.
+
+This is a STATEMENT trigger and requires the transition tables new_rows (INSERT & UPDATE) and old_rows (UPDATE & DELETE).
+Each project is updated once per statement, regardless of the number of records modified.
+$body$;
+
+CREATE OR REPLACE FUNCTION entity_history()
+    RETURNS TRIGGER AS
+$body$
+DECLARE
+    audit_table_name   TEXT;
+    audit_session_user TEXT;
+    table_name         TEXT;
+BEGIN
+    IF TG_WHEN <> 'AFTER'
+    THEN
+        RAISE EXCEPTION 'entity_history() may only run as an AFTER trigger';
+    END IF;
+
+    IF TG_LEVEL = 'ROW'
+    THEN
+        RAISE EXCEPTION 'entity_history() does not support being a ROW trigger';
+    END IF;
+
+    audit_table_name = quote_ident(TG_TABLE_SCHEMA :: TEXT) || '.audit_table';
+    table_name = TG_TABLE_SCHEMA :: TEXT || '.' || TG_TABLE_NAME :: TEXT;
+
+    audit_session_user = get_fims_user();
+    IF NULLIF(audit_session_user, '') IS NULL
+    THEN
+        audit_session_user = 'postgres_role: ' || session_user :: TEXT;
+    END IF;
+
+    -- transition tables are named new_rows & old_rows when the triggers are created
+    IF TG_OP = 'UPDATE'
+    THEN
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data, changed_fields) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''U'', c.row_data, c.changed_fields FROM (' ||
+                '  SELECT o.row_data, jsonb_diff_val(to_jsonb(n.*) - ''tsv'' - ''changed'' - ''modified'', o.row_data) AS changed_fields ' ||
+                '  FROM (SELECT id, to_jsonb(old_rows.*) - ''tsv'' - ''changed'' - ''modified'' AS row_data FROM old_rows) AS o ' ||
+                '  INNER JOIN new_rows AS n ON n.id = o.id' ||
+                ') AS c ' ||
+                -- All changed fields are ignored. Skip this update.
+                'WHERE c.changed_fields <> ''{}'' :: JSONB'
+            USING table_name, audit_session_user;
+    ELSIF TG_OP = 'DELETE'
+    THEN
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''D'', to_jsonb(old_rows.*) - ''tsv'' - ''changed'' - ''modified'' ' ||
+                'FROM old_rows'
+            USING table_name, audit_session_user;
+    ELSIF TG_OP = 'INSERT'
+    THEN
+        EXECUTE 'INSERT INTO ' || audit_table_name || ' (table_name, user_name, ts, action, row_data) ' ||
+                'SELECT $1, $2, CURRENT_TIMESTAMP, ''I'', to_jsonb(new_rows.*) - ''tsv'' - ''changed'' - ''modified'' ' ||
+                'FROM new_rows'
+            USING table_name, audit_session_user;
+    ELSE
+        RAISE EXCEPTION '[entity_history] - Trigger func added as trigger for unhandled case: %, %', TG_OP, TG_LEVEL;
+    END IF;
+
+    RETURN NULL;
+END;
+$body$
+    LANGUAGE plpgsql
+    SECURITY DEFINER;
+
+COMMENT ON FUNCTION entity_history() IS $body$
+Track changes to a table at the row level.
+
+This will create an entry in the SCHEMA.audit_table for each row that is updated, inserted, or deleted.
+This is useful for creating a history of all changes to entities.
+
+This is a STATEMENT trigger and requires the transition tables new_rows (INSERT & UPDATE) and old_rows (UPDATE & DELETE).
+All rows modified by a statement are written to the audit_table w/ a single insert.
+$body$;
+
+DO $$
+DECLARE
+  t TEXT;
+BEGIN
+  FOR t IN SELECT quote_ident(table_schema) || '.' || quote_ident(table_name)
+           FROM information_schema.tables
+           WHERE table_schema LIKE 'network\_%' AND table_type = 'BASE TABLE' AND table_name <> 'audit_table' LOOP
+
+    RAISE NOTICE 'Replacing triggers for: %', t;
+
+    EXECUTE 'DROP TRIGGER IF EXISTS entity_audit ON ' || t;
+    EXECUTE 'DROP TRIGGER IF EXISTS set_project_last_modified ON ' || t;
+
+    EXECUTE 'CREATE TRIGGER entity_audit_insert AFTER INSERT ON ' || t ||
+            ' REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE PROCEDURE entity_history()';
+    EXECUTE 'CREATE TRIGGER entity_audit_update AFTER UPDATE ON ' || t ||
+            ' REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE PROCEDURE entity_history()';
+    EXECUTE 'CREATE TRIGGER entity_audit_delete AFTER DELETE ON ' || t ||
+            ' REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE PROCEDURE entity_history()';
+    EXECUTE 'CREATE TRIGGER set_project_last_modified_insert AFTER INSERT ON ' || t ||
+            ' REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE PROCEDURE set_project_last_modified()';
+    EXECUTE 'CREATE TRIGGER set_project_last_modified_update AFTER UPDATE ON ' || t ||
+            ' REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE PROCEDURE set_project_last_modified()';
+    EXECUTE 'CREATE TRIGGER set_project_last_modified_delete AFTER DELETE ON ' || t ||
+            ' REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE PROCEDURE set_project_last_modified()';
+  END LOOP;
+END;
+$$;
+
+COMMIT;